@@ -8,6 +8,7 @@ import io.airbyte.workload.api.domain.ClaimResponse
 import io.airbyte.workload.api.domain.ExpiredDeadlineWorkloadListRequest
 import io.airbyte.workload.api.domain.LongRunningWorkloadRequest
 import io.airbyte.workload.api.domain.Workload
+import io.airbyte.workload.api.domain.WorkloadAwaitRequest
 import io.airbyte.workload.api.domain.WorkloadCancelRequest
 import io.airbyte.workload.api.domain.WorkloadClaimRequest
 import io.airbyte.workload.api.domain.WorkloadCreateRequest
@@ -20,6 +21,7 @@ import io.airbyte.workload.api.domain.WorkloadListActiveResponse
 import io.airbyte.workload.api.domain.WorkloadListRequest
 import io.airbyte.workload.api.domain.WorkloadListResponse
 import io.airbyte.workload.api.domain.WorkloadQueueCleanLimit
+import io.airbyte.workload.api.domain.WorkloadQueueLongPollRequest
 import io.airbyte.workload.api.domain.WorkloadQueuePollRequest
 import io.airbyte.workload.api.domain.WorkloadQueueQueryRequest
 import io.airbyte.workload.api.domain.WorkloadQueueStatsResponse
@@ -78,6 +80,11 @@ interface WorkloadApi {
     @Path("workloadId") workloadId: String,
   ): Call<Workload>
 
+  @POST("await")
+  fun workloadAwait(
+    @Body workloadAwaitRequest: WorkloadAwaitRequest,
+  ): Call<Workload>
+
   @PUT("heartbeat")
   fun workloadHeartbeat(
     @Body workloadHeartbeatRequest: WorkloadHeartbeatRequest,
@@ -113,6 +120,11 @@ interface WorkloadApi {
     @Body req: WorkloadQueuePollRequest,
   ): Call<WorkloadListResponse>
 
+  @POST("queue/long_poll")
+  fun longPollWorkloadQueue(
+    @Body req: WorkloadQueueLongPollRequest,
+  ): Call<WorkloadListResponse>
+
   @POST("queue/depth")
   fun countWorkloadQueueDepth(
     @Body req: WorkloadQueueQueryRequest,
@@ -15,6 +15,7 @@ import io.airbyte.workload.api.domain.ClaimResponse
 import io.airbyte.workload.api.domain.ExpiredDeadlineWorkloadListRequest
 import io.airbyte.workload.api.domain.LongRunningWorkloadRequest
 import io.airbyte.workload.api.domain.Workload
+import io.airbyte.workload.api.domain.WorkloadAwaitRequest
 import io.airbyte.workload.api.domain.WorkloadCancelRequest
 import io.airbyte.workload.api.domain.WorkloadClaimRequest
 import io.airbyte.workload.api.domain.WorkloadCreateRequest
@@ -27,6 +28,7 @@ import io.airbyte.workload.api.domain.WorkloadListActiveResponse
 import io.airbyte.workload.api.domain.WorkloadListRequest
 import io.airbyte.workload.api.domain.WorkloadListResponse
 import io.airbyte.workload.api.domain.WorkloadQueueCleanLimit
+import io.airbyte.workload.api.domain.WorkloadQueueLongPollRequest
 import io.airbyte.workload.api.domain.WorkloadQueuePollRequest
 import io.airbyte.workload.api.domain.WorkloadQueueQueryRequest
 import io.airbyte.workload.api.domain.WorkloadQueueStatsResponse
@@ -65,6 +67,12 @@ class WorkloadApiClient internal constructor(
 
   fun workloadGet(workloadId: String): Workload = api.workloadGet(workloadId).body()
 
+  /**
+   * Waits for the workload to reach a terminal status, for at most [WorkloadAwaitRequest.timeoutSeconds]. The returned workload may not be
+   * terminal if the wait timed out.
+   */
+  fun workloadAwait(workloadAwaitRequest: WorkloadAwaitRequest): Workload = api.workloadAwait(workloadAwaitRequest).body()
+
   fun workloadHeartbeat(workloadHeartbeatRequest: WorkloadHeartbeatRequest) = api.workloadHeartbeat(workloadHeartbeatRequest).unit()
 
   fun workloadList(workloadListRequest: WorkloadListRequest): WorkloadListResponse = api.workloadList(workloadListRequest).body()
@@ -83,6 +91,12 @@ class WorkloadApiClient internal constructor(
 
   fun pollWorkloadQueue(req: WorkloadQueuePollRequest): WorkloadListResponse = api.pollWorkloadQueue(req).body()
 
+  /**
+   * Polls the queue, waiting for at most [WorkloadQueueLongPollRequest.timeoutSeconds] for a workload to be enqueued if it is empty. The
+   * returned list may be empty.
+   */
+  fun longPollWorkloadQueue(req: WorkloadQueueLongPollRequest): WorkloadListResponse = api.longPollWorkloadQueue(req).body()
+
   fun countWorkloadQueueDepth(req: WorkloadQueueQueryRequest): WorkloadDepthResponse = api.countWorkloadQueueDepth(req).body()
 
   fun getWorkloadQueueStats(): WorkloadQueueStatsResponse = api.getWorkloadQueueStats().body()
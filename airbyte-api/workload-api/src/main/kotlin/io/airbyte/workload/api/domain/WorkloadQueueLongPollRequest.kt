@@ -0,0 +1,14 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workload.api.domain
+
+import io.airbyte.config.WorkloadPriority
+
+data class WorkloadQueueLongPollRequest(
+  var dataplaneGroup: String? = null,
+  var priority: WorkloadPriority? = null,
+  var quantity: Int,
+  var timeoutSeconds: Long = 30,
+)
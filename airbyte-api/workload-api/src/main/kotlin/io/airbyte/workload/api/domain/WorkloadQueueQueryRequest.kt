@@ -5,8 +5,10 @@
 package io.airbyte.workload.api.domain
 
 import io.airbyte.config.WorkloadPriority
+import io.airbyte.config.WorkloadType
 
 data class WorkloadQueueQueryRequest(
   var dataplaneGroup: String? = null,
   var priority: WorkloadPriority? = null,
+  var workloadType: WorkloadType? = null,
 )
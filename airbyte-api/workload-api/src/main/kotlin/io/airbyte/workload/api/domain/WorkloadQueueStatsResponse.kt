@@ -5,11 +5,13 @@
 package io.airbyte.workload.api.domain
 
 import io.airbyte.config.WorkloadPriority
+import io.airbyte.config.WorkloadType
 
 data class WorkloadQueueStats(
   var dataplaneGroup: String?,
   var priority: WorkloadPriority?,
   var enqueuedCount: Long,
+  var workloadType: WorkloadType? = null,
 )
 
 data class WorkloadQueueStatsResponse(
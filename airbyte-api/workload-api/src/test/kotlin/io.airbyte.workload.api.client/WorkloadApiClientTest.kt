@@ -40,11 +40,13 @@ class WorkloadApiClientTest {
 
         every { workloadClaim(any()) } returns Calls.response(mockk<ClaimResponse>())
         every { workloadGet(any()) } returns Calls.response(mockk<Workload>())
+        every { workloadAwait(any()) } returns Calls.response(mockk<Workload>())
         every { workloadList(any()) } returns Calls.response(mockk<WorkloadListResponse>())
         every { workloadListWithExpiredDeadline(any()) } returns Calls.response(mockk<WorkloadListResponse>())
         every { workloadListOldNonSync(any()) } returns Calls.response(mockk<WorkloadListResponse>())
         every { workloadListOldSync(any()) } returns Calls.response(mockk<WorkloadListResponse>())
         every { pollWorkloadQueue(any()) } returns Calls.response(mockk<WorkloadListResponse>())
+        every { longPollWorkloadQueue(any()) } returns Calls.response(mockk<WorkloadListResponse>())
         every { countWorkloadQueueDepth(any()) } returns Calls.response(mockk<WorkloadDepthResponse>())
         every { getWorkloadQueueStats() } returns Calls.response(mockk<WorkloadQueueStatsResponse>())
       }
@@ -70,11 +72,13 @@ class WorkloadApiClientTest {
 
       workloadClaim(mockk())
       workloadGet("dummy")
+      workloadAwait(mockk())
       workloadList(mockk())
       workloadListWithExpiredDeadline(mockk())
       workloadListOldNonSync(mockk())
       workloadListOldSync(mockk())
       pollWorkloadQueue(mockk())
+      longPollWorkloadQueue(mockk())
       countWorkloadQueueDepth(mockk())
       getWorkloadQueueStats()
     }
@@ -92,11 +96,13 @@ class WorkloadApiClientTest {
 
         workloadClaim(any())
         workloadGet(any())
+        workloadAwait(any())
         workloadList(any())
         workloadListWithExpiredDeadline(any())
         workloadListOldNonSync(any())
         workloadListOldSync(any())
         pollWorkloadQueue(any())
+        longPollWorkloadQueue(any())
         countWorkloadQueueDepth(any())
         getWorkloadQueueStats()
       }
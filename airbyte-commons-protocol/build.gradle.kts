@@ -1,6 +1,7 @@
 plugins {
   id("io.airbyte.gradle.jvm")
   id("io.airbyte.gradle.publish")
+  alias(libs.plugins.me.champeau.jmh)
 }
 
 dependencies {
@@ -25,3 +26,7 @@ dependencies {
 
   testRuntimeOnly(libs.junit.jupiter.engine)
 }
+
+jmh {
+  jmhVersion.set(libs.versions.jmh.get())
+}
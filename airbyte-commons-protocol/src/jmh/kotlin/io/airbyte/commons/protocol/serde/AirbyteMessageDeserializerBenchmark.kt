@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.commons.protocol.serde
+
+import io.airbyte.protocol.models.v0.AirbyteRecordMessage
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import org.openjdk.jmh.infra.Blackhole
+import java.util.concurrent.TimeUnit
+
+/**
+ * Compares [AirbyteMessageV0Deserializer] and [AirbyteMessageV0StreamingDeserializer] on record messages.
+ *
+ * The `envelope` benchmarks only read what the orchestrator needs for routing and bookkeeping, the `data` benchmarks
+ * also access the record data, which is the worst case for the streaming deserializer. The `bytes` benchmark reads the
+ * message from a byte buffer, as it would be read from the connector output without decoding it to a string first.
+ *
+ * Run with `./gradlew :oss:airbyte-commons-protocol:jmh`.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+open class AirbyteMessageDeserializerBenchmark {
+  @Param("narrow", "wide", "nested")
+  lateinit var shape: String
+
+  private val deserializer = AirbyteMessageV0Deserializer()
+  private val streamingDeserializer = AirbyteMessageV0StreamingDeserializer()
+  private lateinit var json: String
+  private lateinit var bytes: ByteArray
+
+  @Setup
+  fun setup() {
+    val data =
+      when (shape) {
+        "narrow" -> """{"id":42,"name":"alice","updated_at":"2024-01-01T00:00:00Z"}"""
+        "wide" -> (0 until 200).joinToString(",", "{", "}") { """"column_$it":${if (it % 2 == 0) "\"value $it\"" else "$it.5"}""" }
+        "nested" -> (0 until 32).fold("""{"leaf":[1,2,3]}""") { inner, depth -> """{"level_$depth":$inner,"sibling":"s$depth"}""" }
+        else -> throw IllegalArgumentException("Unknown shape $shape")
+      }
+    json = """{"type":"RECORD","record":{"namespace":"public","stream":"users","data":$data,"emitted_at":1695224525688}}"""
+    bytes = json.toByteArray()
+  }
+
+  @Benchmark
+  fun envelopeRegular(blackhole: Blackhole) {
+    consumeEnvelope(deserializer.deserializeExact(json).get().record, blackhole)
+  }
+
+  @Benchmark
+  fun envelopeStreaming(blackhole: Blackhole) {
+    consumeEnvelope(streamingDeserializer.deserializeExact(json).get().record, blackhole)
+  }
+
+  @Benchmark
+  fun envelopeStreamingBytes(blackhole: Blackhole) {
+    consumeEnvelope(streamingDeserializer.deserializeExact(bytes, 0, bytes.size).get().record, blackhole)
+  }
+
+  @Benchmark
+  fun dataRegular(blackhole: Blackhole) {
+    val record = deserializer.deserializeExact(json).get().record
+    consumeEnvelope(record, blackhole)
+    blackhole.consume(record.data.size())
+  }
+
+  @Benchmark
+  fun dataStreaming(blackhole: Blackhole) {
+    val record = streamingDeserializer.deserializeExact(json).get().record
+    consumeEnvelope(record, blackhole)
+    blackhole.consume(record.data.size())
+  }
+
+  private fun consumeEnvelope(
+    record: AirbyteRecordMessage,
+    blackhole: Blackhole,
+  ) {
+    blackhole.consume(record.stream)
+    blackhole.consume(record.namespace)
+    blackhole.consume(record.emittedAt)
+  }
+}
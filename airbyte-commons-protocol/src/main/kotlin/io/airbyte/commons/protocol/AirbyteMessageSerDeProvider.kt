@@ -44,6 +44,16 @@ class AirbyteMessageSerDeProvider
      */
     fun getSerializer(version: Version): AirbyteMessageSerializer<*>? = serializers[version.getMajorVersion()]
 
+    /**
+     * Returns a new provider with the same serializers and deserializers, except for [deserializer] which replaces the
+     * one registered for its major version, if any.
+     */
+    fun withDeserializer(deserializer: AirbyteMessageDeserializer<*>): AirbyteMessageSerDeProvider {
+      val majorVersion = deserializer.getTargetVersion().getMajorVersion()
+      val otherDeserializers = deserializers.filterKeys { it != majorVersion }.values
+      return AirbyteMessageSerDeProvider(otherDeserializers + deserializer, serializers.values.toList()).apply { initialize() }
+    }
+
     @VisibleForTesting
     fun registerDeserializer(deserializer: AirbyteMessageDeserializer<*>) {
       val key = deserializer.getTargetVersion().getMajorVersion()!!
@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.commons.protocol.serde
+
+import com.fasterxml.jackson.core.JsonParser
+import com.fasterxml.jackson.core.JsonToken
+import com.fasterxml.jackson.core.StreamReadConstraints
+import com.fasterxml.jackson.databind.DeserializationFeature
+import com.fasterxml.jackson.databind.JsonNode
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.node.ObjectNode
+import io.airbyte.commons.jackson.MoreMappers
+import io.airbyte.commons.version.AirbyteProtocolVersion
+import io.airbyte.commons.version.Version
+import io.airbyte.protocol.models.v0.AirbyteMessage
+import io.airbyte.protocol.models.v0.AirbyteRecordMessage
+import java.util.Optional
+
+/**
+ * Mapper configured like the one behind [io.airbyte.commons.json.Jsons.tryDeserializeExact].
+ */
+internal val EXACT_MAPPER: ObjectMapper =
+  MoreMappers.initMapper().apply {
+    enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+    factory.setStreamReadConstraints(StreamReadConstraints.builder().maxStringLength(Int.MAX_VALUE).build())
+  }
+
+private const val TYPE_FIELD = "type"
+private const val RECORD_FIELD = "record"
+private const val STREAM_FIELD = "stream"
+private const val NAMESPACE_FIELD = "namespace"
+private const val EMITTED_AT_FIELD = "emitted_at"
+private const val DATA_FIELD = "data"
+
+/**
+ * Streaming deserializer for Protocol V0.
+ *
+ * Unlike [AirbyteMessageV0Deserializer], RECORD messages are read with Jackson's token parser and the envelope is
+ * built without an intermediate tree. The record data is skipped over and returned as a [LazyDataAirbyteRecordMessage],
+ * so its tree is only built if something asks for it. Other message types are rare and are bound the regular way.
+ *
+ * This is an alternative to [AirbyteMessageV0Deserializer] for the same protocol version, so it isn't a bean: it has
+ * to be registered explicitly on an [io.airbyte.commons.protocol.AirbyteMessageSerDeProvider].
+ */
+class AirbyteMessageV0StreamingDeserializer : AirbyteMessageDeserializer<AirbyteMessage> {
+  /**
+   * Builds the record of a RECORD message from its data, see [readRecordMessage].
+   */
+  interface RecordDataReader {
+    /**
+     * Whether only messages in their canonical form are read: no property outside of the protocol, and no value that
+     * the regular deserializer would have to coerce. Other messages are rejected.
+     */
+    val strict: Boolean
+
+    /**
+     * Reads the data object or array the parser is on, and leaves the parser on its end.
+     *
+     * @param stream the stream of the record, if it was read before the data.
+     * @param namespace the namespace of the record, if it was read before the data.
+     * @return the record holding the data, or null to reject the message.
+     */
+    fun read(
+      parser: JsonParser,
+      stream: String?,
+      namespace: String?,
+    ): LazyDataAirbyteRecordMessage?
+  }
+
+  override fun deserializeExact(json: String): Optional<AirbyteMessage> =
+    try {
+      Optional.ofNullable(readRecordMessage(json, StringDataReader(json)) ?: EXACT_MAPPER.readValue(json, AirbyteMessage::class.java))
+    } catch (e: Exception) {
+      Optional.empty()
+    }
+
+  /**
+   * Deserializes a message from [length] bytes of [buffer] starting at [offset]. The buffer can be reused once this
+   * returns: the record data is copied out of it.
+   */
+  fun deserializeExact(
+    buffer: ByteArray,
+    offset: Int,
+    length: Int,
+  ): Optional<AirbyteMessage> =
+    try {
+      val message =
+        EXACT_MAPPER.createParser(buffer, offset, length).use { parser -> readMessage(parser, BytesDataReader(buffer, offset)) }
+          ?: EXACT_MAPPER.readValue(buffer, offset, length, AirbyteMessage::class.java)
+      Optional.ofNullable(message)
+    } catch (e: Exception) {
+      Optional.empty()
+    }
+
+  override fun getTargetVersion(): Version = AirbyteProtocolVersion.V0
+
+  /**
+   * Reads the data of a message read from [source] as a [LazyDataAirbyteRecordMessage].
+   */
+  private class StringDataReader(
+    private val source: String,
+  ) : RecordDataReader {
+    override val strict = false
+
+    override fun read(
+      parser: JsonParser,
+      stream: String?,
+      namespace: String?,
+    ): LazyDataAirbyteRecordMessage {
+      val start = parser.currentTokenLocation().charOffset.toInt()
+      parser.skipChildren()
+      return lazyRecord(source, start, parser.currentLocation().charOffset.toInt())
+    }
+  }
+
+  /**
+   * Reads the data of a message read from [buffer] as a [LazyDataAirbyteRecordMessage]. The data is decoded out of the
+   * buffer, so that its size is counted in characters like for messages read from strings.
+   */
+  private class BytesDataReader(
+    private val buffer: ByteArray,
+    private val offset: Int,
+  ) : RecordDataReader {
+    override val strict = false
+
+    override fun read(
+      parser: JsonParser,
+      stream: String?,
+      namespace: String?,
+    ): LazyDataAirbyteRecordMessage {
+      // Byte offsets are relative to the start of the parsed range.
+      val start = parser.currentTokenLocation().byteOffset.toInt()
+      parser.skipChildren()
+      val data = String(buffer, offset + start, parser.currentLocation().byteOffset.toInt() - start, Charsets.UTF_8)
+      return lazyRecord(data, 0, data.length)
+    }
+  }
+
+  companion object {
+    /**
+     * Reads a RECORD message, building its record from its data with [dataReader].
+     *
+     * @return the message, or null when it isn't a record and should be bound the regular way instead, or when it was
+     * rejected by [dataReader].
+     */
+    @JvmStatic
+    fun readRecordMessage(
+      json: String,
+      dataReader: RecordDataReader,
+    ): AirbyteMessage? = EXACT_MAPPER.createParser(json).use { parser -> readMessage(parser, dataReader) }
+
+    private fun lazyRecord(
+      source: String,
+      start: Int,
+      end: Int,
+    ): LazyDataAirbyteRecordMessage =
+      LazyDataAirbyteRecordMessage(
+        { LazyDataAirbyteRecordMessage.deserializeData(source, start, end) },
+        (end - start).toLong(),
+        LazyDataAirbyteRecordMessage.isEmptyData(source, start, end),
+      )
+
+    private fun readMessage(
+      parser: JsonParser,
+      dataReader: RecordDataReader,
+    ): AirbyteMessage? {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        return null
+      }
+      val message = AirbyteMessage()
+      var extraFields: ObjectNode? = null
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        val fieldName = parser.currentName()
+        parser.nextToken()
+        when (fieldName) {
+          TYPE_FIELD -> {
+            message.type = readType(parser, dataReader.strict)
+            if (message.type != AirbyteMessage.Type.RECORD) {
+              return null
+            }
+          }
+          RECORD_FIELD ->
+            message.record =
+              if (parser.currentToken() == JsonToken.VALUE_NULL) null else readRecord(parser, dataReader) ?: return null
+          else -> {
+            if (dataReader.strict) {
+              return null
+            }
+            extraFields = (extraFields ?: EXACT_MAPPER.createObjectNode()).set<ObjectNode>(fieldName, EXACT_MAPPER.readTree<JsonNode>(parser))
+          }
+        }
+      }
+      if (message.type != AirbyteMessage.Type.RECORD) {
+        return null
+      }
+      return extraFields?.let { EXACT_MAPPER.readerForUpdating(message).readValue<AirbyteMessage>(it) } ?: message
+    }
+
+    private fun readType(
+      parser: JsonParser,
+      strict: Boolean,
+    ): AirbyteMessage.Type? {
+      if (parser.currentToken() == JsonToken.VALUE_NULL) {
+        return null
+      }
+      val value = parser.valueAsString
+      if (strict) {
+        return AirbyteMessage.Type.entries.firstOrNull { it.value() == value }
+      }
+      // The regular mapper accepts case-insensitive enums.
+      return AirbyteMessage.Type.entries.firstOrNull { it.value().equals(value, ignoreCase = true) }
+        ?: throw IllegalArgumentException("Unknown message type $value")
+    }
+
+    /**
+     * Reads a record, or returns null when [dataReader] rejects it.
+     */
+    private fun readRecord(
+      parser: JsonParser,
+      dataReader: RecordDataReader,
+    ): AirbyteRecordMessage? {
+      if (parser.currentToken() != JsonToken.START_OBJECT) {
+        throw IllegalArgumentException("Unexpected record token ${parser.currentToken()}")
+      }
+      val strict = dataReader.strict
+      var stream: String? = null
+      var namespace: String? = null
+      var emittedAt: Long? = null
+      var record: AirbyteRecordMessage? = null
+      var extraFields: ObjectNode? = null
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        val fieldName = parser.currentName()
+        val token = parser.nextToken()
+        if (strict && !isCanonical(fieldName, token)) {
+          return null
+        }
+        when (fieldName) {
+          STREAM_FIELD -> stream = readString(parser)
+          NAMESPACE_FIELD -> namespace = readString(parser)
+          EMITTED_AT_FIELD ->
+            emittedAt =
+              if (token == JsonToken.VALUE_NUMBER_INT) parser.longValue else EXACT_MAPPER.readValue(parser, Long::class.javaObjectType)
+          DATA_FIELD ->
+            record =
+              if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                dataReader.read(parser, stream, namespace) ?: return null
+              } else {
+                AirbyteRecordMessage().withData(EXACT_MAPPER.readTree<JsonNode>(parser))
+              }
+          else -> extraFields = (extraFields ?: EXACT_MAPPER.createObjectNode()).set<ObjectNode>(fieldName, EXACT_MAPPER.readTree<JsonNode>(parser))
+        }
+      }
+      val result =
+        (record ?: AirbyteRecordMessage()).apply {
+          this.stream = stream
+          this.namespace = namespace
+          this.emittedAt = emittedAt
+        }
+      return extraFields?.let { EXACT_MAPPER.readerForUpdating(result).readValue<AirbyteRecordMessage>(it) } ?: result
+    }
+
+    /**
+     * Whether a record property holds a value of the protocol that the regular deserializer would bind as-is.
+     */
+    private fun isCanonical(
+      fieldName: String,
+      token: JsonToken,
+    ): Boolean =
+      when (fieldName) {
+        STREAM_FIELD -> token == JsonToken.VALUE_STRING
+        NAMESPACE_FIELD -> token == JsonToken.VALUE_STRING || token == JsonToken.VALUE_NULL
+        EMITTED_AT_FIELD -> token == JsonToken.VALUE_NUMBER_INT
+        DATA_FIELD -> token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY
+        else -> false
+      }
+
+    /**
+     * Fast path for the common case, while leaving scalar coercions to the mapper like the regular deserializer does.
+     */
+    private fun readString(parser: JsonParser): String? =
+      if (parser.currentToken() == JsonToken.VALUE_STRING) parser.text else EXACT_MAPPER.readValue(parser, String::class.java)
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.commons.protocol.serde
+
+import com.fasterxml.jackson.annotation.JsonIgnore
+import com.fasterxml.jackson.databind.JsonNode
+import io.airbyte.protocol.models.v0.AirbyteRecordMessage
+
+/**
+ * [AirbyteRecordMessage] whose `data` is deserialized on first access.
+ *
+ * The record envelope is populated eagerly by the deserializer, while the data tree is only built when something
+ * (a mapper, a validator, the field selector, a serializer, ...) calls [getData]. Setting the data explicitly counts as
+ * materializing it.
+ *
+ * @param dataSupplier builds the data tree, called once to materialize it and again by each [peekData].
+ * @param serializedDataLength length of the serialized data as it was read, in characters, which is how
+ * [io.airbyte.commons.json.Jsons.getEstimatedByteSize] measures the size of materialized data.
+ * @param isDataEmpty whether the serialized data is an empty object or array.
+ */
+open class LazyDataAirbyteRecordMessage(
+  private val dataSupplier: () -> JsonNode?,
+  @get:JsonIgnore val serializedDataLength: Long,
+  private val isDataEmpty: Boolean,
+) : AirbyteRecordMessage() {
+  @get:JsonIgnore
+  var isDataMaterialized: Boolean = false
+    private set
+
+  /**
+   * Whether the data is null or empty, answered from the serialized data as long as it wasn't materialized.
+   */
+  @get:JsonIgnore
+  val isDataNullOrEmpty: Boolean
+    get() =
+      if (isDataMaterialized) {
+        super.getData().let { it == null || it.isNull || it.isEmpty }
+      } else {
+        isDataEmpty
+      }
+
+  override fun getData(): JsonNode? {
+    if (!isDataMaterialized) {
+      super.setData(dataSupplier())
+      isDataMaterialized = true
+    }
+    return super.getData()
+  }
+
+  /**
+   * Returns the data without materializing it, for consumers that only read it. As long as the data isn't materialized,
+   * a new tree is built on every call.
+   */
+  fun peekData(): JsonNode? = if (isDataMaterialized) super.getData() else dataSupplier()
+
+  override fun setData(data: JsonNode?) {
+    isDataMaterialized = true
+    super.setData(data)
+  }
+
+  override fun withData(data: JsonNode?): AirbyteRecordMessage {
+    setData(data)
+    return this
+  }
+
+  companion object {
+    /**
+     * Deserializes the `[start, end)` range of [source], preserving numeric precision.
+     */
+    @JvmStatic
+    fun deserializeData(
+      source: String,
+      start: Int,
+      end: Int,
+    ): JsonNode = EXACT_MAPPER.readTree(source.substring(start, end))
+
+    /**
+     * Whether the object or array spanning the `[start, end)` range of [source] is empty, i.e. only contains whitespaces
+     * between its brackets.
+     */
+    @JvmStatic
+    fun isEmptyData(
+      source: String,
+      start: Int,
+      end: Int,
+    ): Boolean {
+      var i = start + 1
+      while (i < end - 1 && source[i].isWhitespace()) {
+        i++
+      }
+      return i >= end - 1
+    }
+  }
+}
@@ -50,6 +50,18 @@ internal class AirbyteMessageSerDeProviderTest {
     Assertions.assertNull(serDeProvider!!.getSerializer(Version("3.2.0")))
   }
 
+  @Test
+  fun testWithDeserializerReplacesSameMajorVersion() {
+    val streamingDeserV0 = buildDeserializer<String>(Version("0.3.0"))
+
+    val provider = serDeProvider!!.withDeserializer(streamingDeserV0)
+
+    Assertions.assertEquals(streamingDeserV0, provider.getDeserializer(Version("0.1.0")))
+    Assertions.assertEquals(deserV1!!, provider.getDeserializer(Version("1.1.0")))
+    Assertions.assertEquals(serV0!!, provider.getSerializer(Version("0.1.0")))
+    Assertions.assertEquals(deserV0!!, serDeProvider!!.getDeserializer(Version("0.1.0")))
+  }
+
   @Test
   fun testRegisterDeserializerShouldFailOnVersionCollision() {
     val deser: AirbyteMessageDeserializer<*> = buildDeserializer<Any>(Version("0.2.0"))
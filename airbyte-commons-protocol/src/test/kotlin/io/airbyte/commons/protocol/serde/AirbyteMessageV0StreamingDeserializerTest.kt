@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.commons.protocol.serde
+
+import io.airbyte.protocol.models.v0.AirbyteMessage
+import org.junit.jupiter.api.Assertions
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.ValueSource
+import java.math.BigDecimal
+
+internal class AirbyteMessageV0StreamingDeserializerTest {
+  private val deserializer = AirbyteMessageV0Deserializer()
+  private val streamingDeserializer = AirbyteMessageV0StreamingDeserializer()
+
+  @ParameterizedTest
+  @ValueSource(
+    strings = [
+      """{"type":"RECORD","record":{"namespace":"public","stream":"users","data":{"id":1,"name":"a"},"emitted_at":1695224525688}}""",
+      """{"record":{"data":{"id":1,"nested":{"values":[1.5,{"a":null}]}},"stream":"users","emitted_at":1},"type":"RECORD"}""",
+      """{"type":"RECORD","record":{"stream":"users","data":{"amount":12345678901234567890.123456789},"emitted_at":1}}""",
+      """{"type":"RECORD","record":{"stream":"users","data":{"id":1},"emitted_at":1,"meta":{"changes":[]},"extra":"x"}}""",
+      """{"type":"record","record":{"stream":"users","data":{"id":1},"emitted_at":"1"}}""",
+      """{"type":"RECORD","record":{"stream":"users","data":"not an object","emitted_at":1}}""",
+      """{"type":"RECORD","record":{"stream":"users","data":null,"emitted_at":1}}""",
+      """{"type":"RECORD","record":{"stream":"users","data":{"text":"café 😀"},"emitted_at":1}}""",
+      """{"type":"STATE","state":{"type":"STREAM","stream":{"stream_descriptor":{"name":"users"},"stream_state":{"cursor":1}}}}""",
+      """{"type":"LOG","log":{"level":"INFO","message":"hello"}}""",
+      """{"type":"TRACE","trace":{"type":"ERROR","emitted_at":1.0,"error":{"message":"boom"}}}""",
+    ],
+  )
+  fun `deserializes like the regular deserializer`(json: String) {
+    val expected = deserializer.deserializeExact(json).get()
+
+    assertSameMessage(expected, streamingDeserializer.deserializeExact(json).get())
+
+    val bytes = " $json ".toByteArray()
+    assertSameMessage(expected, streamingDeserializer.deserializeExact(bytes, 1, bytes.size - 2).get())
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+    strings = [
+      """{"type":"RECORD","record":{"stream":"users","data":{"id":1""",
+      """{"type":"UNKNOWN","record":{"stream":"users","data":{"id":1},"emitted_at":1}}""",
+      """not json""",
+    ],
+  )
+  fun `returns empty when the regular deserializer would`(json: String) {
+    Assertions.assertTrue(deserializer.deserializeExact(json).isEmpty)
+    Assertions.assertTrue(streamingDeserializer.deserializeExact(json).isEmpty)
+  }
+
+  @Test
+  fun `record data is only built on access`() {
+    val data = """{"id":1,"amount":1.10}"""
+    val json = """{"type":"RECORD","record":{"stream":"users","data":$data,"emitted_at":1}}"""
+
+    val record = streamingDeserializer.deserializeExact(json).get().record as LazyDataAirbyteRecordMessage
+
+    Assertions.assertFalse(record.isDataMaterialized)
+    Assertions.assertEquals(data.length.toLong(), record.serializedDataLength)
+    Assertions.assertEquals("users", record.stream)
+    Assertions.assertEquals(BigDecimal("1.10"), record.data["amount"].decimalValue())
+    Assertions.assertTrue(record.isDataMaterialized)
+  }
+
+  @Test
+  fun `byte buffer can be reused after deserialization`() {
+    val data = """{"text":"café 😀"}"""
+    val bytes = """{"type":"RECORD","record":{"stream":"users","data":$data,"emitted_at":1}}""".toByteArray()
+
+    val record = streamingDeserializer.deserializeExact(bytes, 0, bytes.size).get().record as LazyDataAirbyteRecordMessage
+    bytes.fill(' '.code.toByte())
+
+    Assertions.assertEquals(data.length.toLong(), record.serializedDataLength)
+    Assertions.assertEquals("café 😀", record.data["text"].textValue())
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = ["{}", "{ }", "[]", "[\n]", "{\"id\":1}", "[{}]"])
+  fun `data emptiness is known without building the data`(data: String) {
+    val json = """{"type":"RECORD","record":{"stream":"users","data":$data,"emitted_at":1}}"""
+
+    val record = streamingDeserializer.deserializeExact(json).get().record as LazyDataAirbyteRecordMessage
+    val isDataNullOrEmpty = record.isDataNullOrEmpty
+
+    Assertions.assertFalse(record.isDataMaterialized)
+    Assertions.assertEquals(record.data.isEmpty, isDataNullOrEmpty)
+  }
+
+  private fun assertSameMessage(
+    expected: AirbyteMessage,
+    actual: AirbyteMessage,
+  ) {
+    // The generated equals reads fields directly, so the lazy data has to be built first.
+    actual.record?.data
+    Assertions.assertEquals(expected, actual)
+  }
+}
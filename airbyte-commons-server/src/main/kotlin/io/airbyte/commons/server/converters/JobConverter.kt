@@ -109,7 +109,7 @@ class JobConverter(
     logPath: Path?,
     jobId: Long?,
   ): AttemptInfoReadLogs {
-    val logEvents = logClientManager.getLogs(logPath)
+    val logEvents = logClientManager.tailLogs(logPath)
     return if (CollectionUtils.isNotEmpty(logEvents.events)) {
       AttemptInfoReadLogs()
         .events(toModelLogEvents(logEvents.events, logUtils))
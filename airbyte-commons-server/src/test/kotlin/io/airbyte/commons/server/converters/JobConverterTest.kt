@@ -306,7 +306,7 @@ internal class JobConverterTest {
     @Test
     fun testGetJobInfoRead() {
       Mockito
-        .`when`(logClientManager.getLogs(ArgumentMatchers.any<Path?>()))
+        .`when`(logClientManager.tailLogs(ArgumentMatchers.any<Path?>(), ArgumentMatchers.anyInt()))
         .thenReturn(LogEvents(mutableListOf<LogEvent>(), "1"))
       Assertions.assertEquals(jobInfoUnstructuredLogs, jobConverter.getJobInfoRead(job!!))
     }
@@ -333,7 +333,7 @@ internal class JobConverterTest {
     @Test
     fun testGetJobWithAttemptsReadStructuredLogs() {
       val logEventVersion = "1"
-      Mockito.`when`(logClientManager.getLogs(ArgumentMatchers.any<Path?>())).thenReturn(
+      Mockito.`when`(logClientManager.tailLogs(ArgumentMatchers.any<Path?>(), ArgumentMatchers.anyInt())).thenReturn(
         LogEvents(listOf(LogEvent(System.currentTimeMillis(), "message", "INFO", LogSource.PLATFORM, null, null)), logEventVersion),
       )
       val jobInfoRead = jobConverter.getJobInfoRead(job!!)
@@ -475,7 +475,7 @@ internal class JobConverterTest {
     @Test
     fun testSynchronousJobRead() {
       Mockito
-        .`when`(logClientManager.getLogs(ArgumentMatchers.any<Path?>()))
+        .`when`(logClientManager.tailLogs(ArgumentMatchers.any<Path?>(), ArgumentMatchers.anyInt()))
         .thenReturn(LogEvents(mutableListOf<LogEvent>(), "1"))
       Assertions.assertEquals(synchronousJobInfoUnstructuredLogs, jobConverter.getSynchronousJobRead(metadata!!))
     }
@@ -89,6 +89,7 @@ import org.junit.jupiter.api.Nested
 import org.junit.jupiter.api.Test
 import org.mockito.MockedStatic
 import org.mockito.Mockito
+import org.mockito.kotlin.any
 import org.mockito.kotlin.anyOrNull
 import org.mockito.kotlin.eq
 import org.mockito.kotlin.mock
@@ -649,7 +650,7 @@ internal class JobHistoryHandlerTest {
       )
 
     whenever(jobPersistence.getJob(JOB_ID)).thenReturn(job)
-    whenever(logClientManager.getLogs(anyOrNull())).thenReturn(LogEvents(emptyList(), "1"))
+    whenever(logClientManager.tailLogs(anyOrNull(), any())).thenReturn(LogEvents(emptyList(), "1"))
 
     val jobInfoActual = jobHistoryHandler.getJobInfo(JOB_ID)
 
@@ -733,7 +734,7 @@ internal class JobHistoryHandlerTest {
     ).thenReturn(destinationRead)
     whenever(jobPersistence.getJob(JOB_ID)).thenReturn(job)
     whenever(jobPersistence.getAttemptStats(anyOrNull(), anyOrNull())).thenReturn(FIRST_ATTEMPT_STATS)
-    whenever(logClientManager.getLogs(anyOrNull())).thenReturn(LogEvents(emptyList(), "1"))
+    whenever(logClientManager.tailLogs(anyOrNull(), any())).thenReturn(LogEvents(emptyList(), "1"))
 
     val jobDebugInfoActual = jobHistoryHandler.getJobDebugInfo(JOB_ID)
 
@@ -260,7 +260,7 @@ internal class SchedulerHandlerTest {
     logClientManager = mock()
     logUtils = mock()
 
-    whenever(logClientManager.getLogs(any())).thenReturn(LogEvents(emptyList(), "1"))
+    whenever(logClientManager.tailLogs(any(), any())).thenReturn(LogEvents(emptyList(), "1"))
     jobConverter = spy(JobConverter(logClientManager, logUtils))
 
     featureFlagClient = mock<TestClient>()
@@ -1,6 +1,7 @@
 plugins {
   id("io.airbyte.gradle.jvm.lib")
   id("io.airbyte.gradle.publish")
+  alias(libs.plugins.me.champeau.jmh)
 }
 
 dependencies {
@@ -36,3 +37,7 @@ dependencies {
   testImplementation(libs.bundles.junit)
   testImplementation(libs.mockk)
 }
+
+jmh {
+  jmhVersion.set(libs.versions.jmh.get())
+}
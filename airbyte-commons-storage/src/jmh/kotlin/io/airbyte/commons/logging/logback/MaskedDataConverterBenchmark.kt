@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.commons.logging.logback
+
+import ch.qos.logback.classic.Level
+import ch.qos.logback.classic.spi.LoggingEvent
+import com.fasterxml.jackson.core.type.TypeReference
+import io.airbyte.commons.constants.AirbyteCatalogConstants.LOCAL_SECRETS_MASKS_PATH
+import io.airbyte.commons.constants.AirbyteSecretConstants
+import io.airbyte.commons.yaml.Yamls
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import org.openjdk.jmh.infra.Blackhole
+import java.util.concurrent.TimeUnit
+import java.util.regex.Pattern
+
+/**
+ * Compares the regular expression that [MaskedDataConverter] used to mask secret properties with [SecretPropertyMasker],
+ * using the maskable properties of all the connector specs, on corpora of log lines shaped like the ones of the platform:
+ * - `platform`: plain text lines, most of the platform and connector logs.
+ * - `config`: JSON lines with a few secret properties, e.g. logged configurations.
+ * - `catalog`: long JSON lines without secret properties, e.g. logged catalogs and records.
+ *
+ * The `converter` benchmark measures the whole conversion of a logging event.
+ *
+ * Run with `./gradlew :oss:airbyte-commons-storage:jmh`.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+open class MaskedDataConverterBenchmark {
+  @Param("platform", "config", "catalog")
+  lateinit var corpus: String
+
+  private val converter = MaskedDataConverter()
+  private lateinit var properties: Set<String>
+  private lateinit var pattern: Pattern
+  private lateinit var masker: SecretPropertyMasker
+  private lateinit var lines: List<String>
+  private lateinit var events: List<LoggingEvent>
+
+  @Setup
+  fun setup() {
+    val maskFile = javaClass.getResourceAsStream(LOCAL_SECRETS_MASKS_PATH)!!.readBytes().decodeToString()
+    properties = Yamls.deserialize(maskFile, object : TypeReference<Map<String, Set<String>>>() {}).getValue("properties")
+    pattern = "(?i)\"(${properties.joinToString("|")})\"\\s*:\\s*(\"(?:[^\"\\\\]|\\\\.)*\"|\\[[^]\\[]*]|\\d+)".toPattern()
+    masker = SecretPropertyMasker(properties)
+
+    lines =
+      (0 until LINES).map { i ->
+        when (corpus) {
+          "platform" -> platformLine(i)
+          "config" -> configLine(i)
+          "catalog" -> catalogLine(i)
+          else -> throw IllegalArgumentException("Unknown corpus $corpus")
+        }
+      }
+    events =
+      lines.map { line ->
+        LoggingEvent().apply {
+          level = Level.INFO
+          message = line
+        }
+      }
+  }
+
+  @Benchmark
+  fun regex(blackhole: Blackhole) {
+    lines.forEach { blackhole.consume(pattern.matcher(it).replaceAll(REPLACEMENT)) }
+  }
+
+  @Benchmark
+  fun automaton(blackhole: Blackhole) {
+    lines.forEach { blackhole.consume(masker.mask(it)) }
+  }
+
+  @Benchmark
+  fun converter(blackhole: Blackhole) {
+    events.forEach { blackhole.consume(converter.convert(it)) }
+  }
+
+  private fun platformLine(i: Int): String =
+    when (i % 4) {
+      0 -> "Starting replication of stream \"users_$i\" with sync mode \"incremental\" and destination sync mode \"append_dedup\""
+      1 -> "Records read: ${i * 1000} (${i}.5 MB), records committed: ${i * 900}, state messages: $i"
+      2 -> "Container \"source\" for job $i attempt 0 is running in pod \"source-postgres-read-$i-0-abcde\""
+      else -> "Retrying request to https://api.example.com/v1/objects?page=$i after 500 Server Error: Internal Server Error"
+    }
+
+  private fun configLine(i: Int): String =
+    """Connector config: {"host":"db-$i.example.com","port":5432,"database":"prod","username":"airbyte",""" +
+      """"password":"p@ss\"word-$i","ssl_mode":{"mode":"verify-full","client_key":"-----BEGIN KEY-----"},""" +
+      """"tunnel_method":{"tunnel_method":"SSH_KEY_AUTH","ssh_key":"key-$i","tunnel_port":22},"schemas":["public"]}"""
+
+  private fun catalogLine(i: Int): String =
+    (0 until 50).joinToString(",", """Discovered stream {"name":"stream_$i","json_schema":{"properties":{""", "}}}") { column ->
+      """"column_$column":{"type":["null","${if (column % 2 == 0) "string" else "integer"}"],"description":"Column $column"}"""
+    }
+
+  companion object {
+    private const val LINES = 100
+    private const val REPLACEMENT = "\"$1\":\"${AirbyteSecretConstants.SECRETS_MASK}\""
+  }
+}
@@ -4,12 +4,15 @@
 
 package io.airbyte.commons.logging
 
+import com.fasterxml.jackson.core.JsonToken
 import com.fasterxml.jackson.databind.ObjectMapper
 import com.fasterxml.jackson.databind.module.SimpleModule
 import com.fasterxml.jackson.module.kotlin.readValue
 import io.airbyte.commons.storage.DocumentType
+import io.airbyte.commons.storage.LOG_INDEX_FILE_EXTENSION
 import io.airbyte.commons.storage.STRUCTURED_LOG_FILE_EXTENSION
 import io.airbyte.commons.storage.StorageClientFactory
+import io.airbyte.commons.storage.logIndexId
 import io.airbyte.metrics.MetricAttribute
 import io.airbyte.metrics.MetricClient
 import io.airbyte.metrics.OssMetricsRegistry
@@ -102,7 +105,7 @@ class LogClient(
     numLines: Int,
   ): List<String> {
     logger.debug { "Tailing $numLines line(s) from logs from path '$logPath' using ${client.storageType} storage client..." }
-    val files = client.list(id = logPath)
+    val files = client.list(id = logPath).filterNot { it.endsWith(LOG_INDEX_FILE_EXTENSION) }
     logger.debug { "Found ${files.size} files from path '$logPath' using ${client.storageType} storage client." }
 
     val instrumentedFiles =
@@ -125,6 +128,71 @@ class LogClient(
     }
   }
 
+  /**
+   * Returns the last [numLines] structured log events from the log path.
+   *
+   * The files are read from the most recent one, and only until enough events have been found. The files uploaded along with
+   * a [LogFileIndex] are read with a single byte-range read of their last events. The files uploaded before the indexes were
+   * introduced can't be read from their end, so they are still downloaded whole, but only their last events are kept in memory.
+   */
+  fun tailLogs(
+    logPath: String,
+    numLines: Int,
+  ): LogEvents {
+    logger.debug { "Tailing the last $numLines line(s) from logs from path '$logPath' using ${client.storageType} storage client..." }
+    // File names start with their upload timestamp, so the most recent files come last in lexical order
+    val files = client.list(id = logPath).filter { it.endsWith(STRUCTURED_LOG_FILE_EXTENSION) }.sortedDescending()
+    logger.debug { "Found ${files.size} files from path '$logPath' using ${client.storageType} storage client." }
+
+    val lineCounter =
+      metricClient.counter(
+        metric = OssMetricsRegistry.LOG_CLIENT_FILE_LINE_COUNT_RETRIEVED,
+        attributes = arrayOf(MetricAttribute(MetricTags.LOG_CLIENT_TYPE, client.storageType.name.lowercase())),
+      )
+    val byteCounter =
+      metricClient.counter(
+        metric = OssMetricsRegistry.LOG_CLIENT_FILE_LINE_BYTES_RETRIEVED,
+        attributes = arrayOf(MetricAttribute(MetricTags.LOG_CLIENT_TYPE, client.storageType.name.lowercase())),
+      )
+
+    val events = mutableListOf<LogEvent>()
+    for (file in files) {
+      if (events.size >= numLines) {
+        break
+      }
+      val fileEvents = readTail(file = file, numLines = numLines - events.size, byteCounter = byteCounter)
+      lineCounter?.increment(fileEvents.size.toDouble())
+      events.addAll(fileEvents)
+    }
+    return LogEvents(events = events.sortedBy { it.timestamp })
+  }
+
+  private fun readTail(
+    file: String,
+    numLines: Int,
+    byteCounter: Counter?,
+  ): List<LogEvent> {
+    val index = readIndex(file = file) ?: return streamLastEvents(file = file, limit = numLines, byteCounter = byteCounter)
+    if (index.eventCount == 0) {
+      return emptyList()
+    }
+
+    val (offset, length) = index.byteRange(from = maxOf(0, index.eventCount - numLines))
+    val bytes = client.readRange(id = file, offset = offset, length = length) ?: return emptyList()
+    byteCounter?.increment(bytes.size.toDouble())
+    // The blocks of compressed files start at a block boundary, possibly before the first requested event
+    val events = index.contentEncoding.decode(bytes)
+    return objectMapper.readValue<List<LogEvent>>(ARRAY_START + events + ARRAY_END).takeLast(numLines)
+  }
+
+  private fun readIndex(file: String): LogFileIndex? =
+    try {
+      client.read(id = logIndexId(file))?.let { objectMapper.readValue<LogFileIndex>(it) }
+    } catch (e: Exception) {
+      logger.warn(e) { "Unable to read the index of log file '$file', the file will be read whole." }
+      null
+    }
+
   private fun retrieveFiles(
     files: List<String>,
     numLines: Int,
@@ -162,22 +230,80 @@ class LogClient(
     lineCounter: Counter?,
     byteCounter: Counter?,
   ): List<LogEvent> {
-    var count = 0
-    val logLines =
-      files
-        .asSequence()
-        .map { file ->
-          val events = client.read(id = file)
-          byteCounter?.increment(events?.length?.toDouble() ?: 0.0)
-          extractEvents(events = events)
-        }.flatMap { it.events }
-        .takeWhile { _ ->
-          count++
-          lineCounter?.increment()
-          count <= numLines
-        }.sortedBy { it.timestamp }
-        .toList()
-    return logLines
+    val events = mutableListOf<LogEvent>()
+    for (file in files) {
+      if (events.size >= numLines) {
+        break
+      }
+      val fileEvents = streamEvents(file = file, limit = numLines - events.size, byteCounter = byteCounter)
+      lineCounter?.increment(fileEvents.size.toDouble())
+      events.addAll(fileEvents)
+    }
+    return events.sortedBy { it.timestamp }
+  }
+
+  /**
+   * Streams up to [limit] events from the start of a structured log file, without reading the rest of the file.
+   */
+  private fun streamEvents(
+    file: String,
+    limit: Int,
+    byteCounter: Counter?,
+  ): List<LogEvent> {
+    val events = mutableListOf<LogEvent>()
+    forEachEvent(file = file, byteCounter = byteCounter) { event ->
+      events.add(event)
+      events.size < limit
+    }
+    return events
+  }
+
+  /**
+   * Streams a whole structured log file, only keeping its last [limit] events.
+   */
+  private fun streamLastEvents(
+    file: String,
+    limit: Int,
+    byteCounter: Counter?,
+  ): List<LogEvent> {
+    val events = ArrayDeque<LogEvent>(minOf(limit, MAX_INITIAL_TAIL_CAPACITY))
+    forEachEvent(file = file, byteCounter = byteCounter) { event ->
+      if (events.size == limit) {
+        events.removeFirst()
+      }
+      events.addLast(event)
+      true
+    }
+    return events
+  }
+
+  /**
+   * Streams the events of a structured log file to [action], until it returns false.
+   */
+  private fun forEachEvent(
+    file: String,
+    byteCounter: Counter?,
+    action: (LogEvent) -> Boolean,
+  ) {
+    client.readStream(id = file)?.use { stream ->
+      objectMapper.factory.createParser(stream).use { parser ->
+        if (parser.nextToken() == JsonToken.START_OBJECT) {
+          while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            val field = parser.currentName()
+            parser.nextToken()
+            if (field == EVENTS_FIELD && parser.currentToken() == JsonToken.START_ARRAY) {
+              var more = true
+              while (more && parser.nextToken() == JsonToken.START_OBJECT) {
+                more = action(objectMapper.readValue<LogEvent>(parser))
+              }
+              break
+            }
+            parser.skipChildren()
+          }
+        }
+        byteCounter?.increment(parser.currentLocation().byteOffset.toDouble())
+      }
+    }
   }
 
   private fun handleUnstructuredLogs(
@@ -237,4 +363,11 @@ class LogClient(
       ""
     }
   }
+
+  companion object {
+    private const val EVENTS_FIELD = "events"
+    private const val MAX_INITIAL_TAIL_CAPACITY = 1024
+    private val ARRAY_START = "[".toByteArray()
+    private val ARRAY_END = "]".toByteArray()
+  }
 }
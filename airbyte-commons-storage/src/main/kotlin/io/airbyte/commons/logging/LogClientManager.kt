@@ -50,6 +50,22 @@ class LogClientManager(
       else -> logClient.getLogs(logPath = logPath.toString(), numLines = logTailSize)
     }
 
+  /**
+   * Returns the last structured logs associated with the given log path.
+   *
+   * @param logPath log path
+   * @param numLines maximum number of log events to return
+   * @return The last structured log events associated with the given log path (may be empty).
+   */
+  fun tailLogs(
+    logPath: Path?,
+    numLines: Int = logTailSize,
+  ): LogEvents =
+    when {
+      logPath == null || logPath == EMPTY_PATH -> LogEvents(events = emptyList())
+      else -> logClient.tailLogs(logPath = logPath.toString(), numLines = numLines)
+    }
+
   /**
    * Primarily to clean up logs after testing. Only valid for Kube logs.
    */
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.commons.logging
+
+import io.airbyte.commons.storage.ContentEncoding
+
+/**
+ * Index of a structured log file, written next to it so that readers can fetch a subset of its events with byte-range reads
+ * instead of downloading the whole file.
+ *
+ * The events of the file are grouped in blocks of [eventsPerBlock] events, and [offsets] holds the byte offset of the start of
+ * each block within the stored file and [endOffset] the offset of the last byte of the last block.
+ *
+ * Uncompressed files have a block per event, the events being separated by a single comma. Compressed files have each block
+ * compressed on its own, a block being made of its events each followed by a comma, except for the last event of the file,
+ * so that any sequence of blocks up to the last one decompresses to a list of events that can be parsed on its own.
+ */
+data class LogFileIndex(
+  val eventCount: Int,
+  val firstTimestamp: Long?,
+  val lastTimestamp: Long?,
+  val offsets: List<Long>,
+  val endOffset: Long,
+  val contentEncoding: ContentEncoding = ContentEncoding.IDENTITY,
+  val eventsPerBlock: Int = 1,
+  val version: String = LOG_EVENT_SCHEMA_VERSION,
+) {
+  /**
+   * Returns the offset and length of the bytes holding the blocks of the events from index [from] (inclusive) to index [to]
+   * (exclusive).  For compressed files, the range starts with the first event of the block of event [from].
+   */
+  fun byteRange(
+    from: Int,
+    to: Int = eventCount,
+  ): Pair<Long, Long> {
+    val firstBlock = from / eventsPerBlock
+    val nextBlock = (to + eventsPerBlock - 1) / eventsPerBlock
+    val start = offsets[firstBlock]
+    val end =
+      when {
+        nextBlock >= offsets.size -> endOffset
+        // Skip the comma separating uncompressed events
+        contentEncoding == ContentEncoding.IDENTITY -> offsets[nextBlock] - 2
+        else -> offsets[nextBlock] - 1
+      }
+    return start to (end - start + 1)
+  }
+}
+
+/**
+ * A structured log file, encoded for storage, along with its index.
+ */
+class IndexedLogDocument(
+  val document: ByteArray,
+  val index: LogFileIndex,
+)
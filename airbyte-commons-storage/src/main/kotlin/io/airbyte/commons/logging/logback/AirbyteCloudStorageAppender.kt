@@ -9,6 +9,8 @@ import ch.qos.logback.core.AppenderBase
 import io.airbyte.commons.envvar.EnvVar
 import io.airbyte.commons.storage.AzureStorageClient
 import io.airbyte.commons.storage.AzureStorageConfig
+import io.airbyte.commons.storage.ContentEncoding
+import io.airbyte.commons.storage.DEFAULT_MAX_BUFFER_BYTES
 import io.airbyte.commons.storage.DocumentType
 import io.airbyte.commons.storage.GcsStorageClient
 import io.airbyte.commons.storage.GcsStorageConfig
@@ -26,6 +28,11 @@ import java.util.concurrent.TimeUnit
  * Custom Logback [AppenderBase] that uploads log events to remove storage.  Log data
  * is uploaded on a scheduled cadence that produces a new remote storage file each time.
  * This is necessary because most cloud storage systems do not support an append mode.
+ * The uploaded files are compressed with the [ContentEncoding] set by the
+ * CLOUD_STORAGE_APPENDER_CONTENT_ENCODING env-var, gzip by default.
+ *
+ * The events waiting to be uploaded are bounded by the CLOUD_STORAGE_APPENDER_BUFFER_BYTES
+ * env-var, 16 MiB by default. DEBUG and TRACE events are dropped first when uploads can't keep up.
  */
 class AirbyteCloudStorageAppender(
   val baseStorageId: String,
@@ -33,6 +40,8 @@ class AirbyteCloudStorageAppender(
   val storageClient: StorageClient = buildStorageClient(storageConfig = buildStorageConfig(), documentType = documentType),
   val period: Long = 60L,
   val unit: TimeUnit = TimeUnit.SECONDS,
+  val contentEncoding: ContentEncoding = ContentEncoding.find(EnvVar.CLOUD_STORAGE_APPENDER_CONTENT_ENCODING.fetch(default = "gzip")),
+  val maxBufferBytes: Long = EnvVar.CLOUD_STORAGE_APPENDER_BUFFER_BYTES.fetch(default = DEFAULT_MAX_BUFFER_BYTES.toString())!!.toLong(),
 ) : AppenderBase<ILoggingEvent>() {
   private val encoder = AirbyteLogEventEncoder()
 
@@ -42,6 +51,8 @@ class AirbyteCloudStorageAppender(
       storageClient = storageClient,
       period = period,
       unit = unit,
+      contentEncoding = contentEncoding,
+      maxBufferBytes = maxBufferBytes,
       encoder = encoder,
       addStatus = this::addStatus,
     )
@@ -9,10 +9,15 @@ import ch.qos.logback.core.encoder.EncoderBase
 import com.fasterxml.jackson.databind.module.SimpleModule
 import io.airbyte.commons.jackson.MoreMappers
 import io.airbyte.commons.logging.CancellationExceptionSerializer
+import io.airbyte.commons.logging.IndexedLogDocument
+import io.airbyte.commons.logging.LOG_EVENT_SCHEMA_VERSION
 import io.airbyte.commons.logging.LogEvents
+import io.airbyte.commons.logging.LogFileIndex
 import io.airbyte.commons.logging.StackTraceElementSerializer
 import io.airbyte.commons.logging.toLogEvent
+import io.airbyte.commons.storage.ContentEncoding
 import kotlinx.coroutines.CancellationException
+import java.io.ByteArrayOutputStream
 
 val EMPTY_BYTES: ByteArray = ByteArray(0)
 val NEW_LINE = "\n".toByteArray()
@@ -37,6 +42,61 @@ class AirbyteLogEventEncoder : EncoderBase<ILoggingEvent>() {
   fun bulkEncode(loggingEvents: List<ILoggingEvent>): String =
     objectMapper.writeValueAsString(LogEvents(events = loggingEvents.map(ILoggingEvent::toLogEvent)))
 
+  /**
+   * Converts the list of [ILoggingEvent] events into a [io.airbyte.commons.logging.LogEvents] document encoded with the
+   * given [ContentEncoding], along with the [LogFileIndex] of the byte offsets of the events within the encoded document.
+   *
+   * Compressed documents are made of separately compressed blocks of events, so that the blocks holding the last events
+   * can be read and decompressed without the rest of the document.
+   *
+   * @param loggingEvents A list of [ILoggingEvent] events.
+   * @param contentEncoding The encoding of the document.
+   * @return The encoded JSON representation of the [io.airbyte.commons.logging.LogEvents] document and its index.
+   */
+  fun bulkEncodeWithIndex(
+    loggingEvents: List<ILoggingEvent>,
+    contentEncoding: ContentEncoding = ContentEncoding.IDENTITY,
+  ): IndexedLogDocument {
+    val logEvents = loggingEvents.map(ILoggingEvent::toLogEvent)
+    val eventsPerBlock = if (contentEncoding == ContentEncoding.IDENTITY) 1 else EVENTS_PER_COMPRESSED_BLOCK
+    val output = ByteArrayOutputStream()
+    val offsets = mutableListOf<Long>()
+
+    output.write(contentEncoding.encode(DOCUMENT_PREFIX))
+    logEvents.withIndex().chunked(eventsPerBlock).forEach { block ->
+      val blockOutput = ByteArrayOutputStream()
+      block.forEach { (i, logEvent) ->
+        blockOutput.write(objectMapper.writeValueAsBytes(logEvent))
+        if (i < logEvents.lastIndex) {
+          blockOutput.write(EVENT_SEPARATOR)
+        }
+      }
+      offsets.add(output.size().toLong())
+      output.write(contentEncoding.encode(blockOutput.toByteArray()))
+    }
+    val endOffset = output.size().toLong() - 1
+    output.write(contentEncoding.encode(DOCUMENT_SUFFIX))
+
+    return IndexedLogDocument(
+      document = output.toByteArray(),
+      index =
+        LogFileIndex(
+          eventCount = logEvents.size,
+          firstTimestamp = logEvents.minOfOrNull { it.timestamp },
+          lastTimestamp = logEvents.maxOfOrNull { it.timestamp },
+          offsets = offsets,
+          endOffset = endOffset,
+          contentEncoding = contentEncoding,
+          eventsPerBlock = eventsPerBlock,
+        ),
+    )
+  }
+
+  /**
+   * Converts the [LogFileIndex] into its JSON representation.
+   */
+  fun encodeIndex(index: LogFileIndex): String = objectMapper.writeValueAsString(index)
+
   override fun encode(loggingEvent: ILoggingEvent): ByteArray = objectMapper.writeValueAsBytes(loggingEvent.toLogEvent()) + NEW_LINE
 
   override fun start() {
@@ -46,4 +106,11 @@ class AirbyteLogEventEncoder : EncoderBase<ILoggingEvent>() {
     structuredLogEventModule.addSerializer(CancellationException::class.java, CancellationExceptionSerializer())
     objectMapper.registerModule(structuredLogEventModule)
   }
+
+  companion object {
+    private const val EVENTS_PER_COMPRESSED_BLOCK = 256
+    private val DOCUMENT_PREFIX = "{\"events\":[".toByteArray()
+    private val EVENT_SEPARATOR = ",".toByteArray()
+    private val DOCUMENT_SUFFIX = "],\"version\":\"$LOG_EVENT_SCHEMA_VERSION\"}".toByteArray()
+  }
 }
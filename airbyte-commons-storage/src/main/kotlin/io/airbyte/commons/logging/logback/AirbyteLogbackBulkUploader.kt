@@ -4,24 +4,37 @@
 
 package io.airbyte.commons.logging.logback
 
+import ch.qos.logback.classic.Level
 import ch.qos.logback.classic.spi.ILoggingEvent
 import ch.qos.logback.core.status.ErrorStatus
 import ch.qos.logback.core.status.Status
 import io.airbyte.commons.storage.AirbyteCloudStorageBulkUploader
+import io.airbyte.commons.storage.ContentEncoding
+import io.airbyte.commons.storage.DEFAULT_MAX_BUFFER_BYTES
 import io.airbyte.commons.storage.StorageClient
-import io.airbyte.commons.storage.createFileId
+import io.airbyte.commons.storage.logIndexId
 import java.util.concurrent.TimeUnit
 
+/** Rough estimate of the memory held by a logging event, besides its message and stack trace. */
+private const val EVENT_OVERHEAD_BYTES = 256L
+
+/** Rough estimate of the memory held by a stack trace element of a logging event. */
+private const val STACK_TRACE_ELEMENT_BYTES = 128L
+
 /**
  * A subclass of [AirbyteCloudStorageBulkUploader] so that we can override the upload() method
  * and use the bulkEncode method to handle converting the log events to strings (in the default
  * implementation we use [Jsons]).
+ *
+ * DEBUG and TRACE events are the first to be dropped when the buffer overflows.
  */
 class AirbyteLogbackBulkUploader(
   baseStorageId: String,
   storageClient: StorageClient,
   period: Long = 60L,
   unit: TimeUnit = TimeUnit.SECONDS,
+  contentEncoding: ContentEncoding = ContentEncoding.IDENTITY,
+  maxBufferBytes: Long = DEFAULT_MAX_BUFFER_BYTES,
   private val encoder: AirbyteLogEventEncoder,
   private val addStatus: (Status) -> Unit,
 ) : AirbyteCloudStorageBulkUploader<ILoggingEvent>(
@@ -29,6 +42,10 @@ class AirbyteLogbackBulkUploader(
     storageClient,
     period,
     unit,
+    contentEncoding,
+    maxBufferBytes,
+    ::estimateSize,
+    { it.level.levelInt <= Level.DEBUG_INT },
   ) {
   override fun upload() {
     try {
@@ -37,11 +54,13 @@ class AirbyteLogbackBulkUploader(
         buffer.drainTo(events)
 
         if (events.isNotEmpty()) {
-          val document = encoder.bulkEncode(loggingEvents = events)
-          storageClient.write(id = currentStorageId, document = document)
+          val indexedDocument = encoder.bulkEncodeWithIndex(loggingEvents = events, contentEncoding = contentEncoding)
+          storageClient.write(id = currentStorageId, document = indexedDocument.document, contentEncoding = contentEncoding)
+          // The index is written last so that readers never find an index without its log file
+          storageClient.write(id = logIndexId(currentStorageId), document = encoder.encodeIndex(indexedDocument.index))
 
           // Move to next file to avoid overwriting in log storage that doesn't support append mode
-          this.currentStorageId = createFileId(baseId = baseStorageId)
+          this.currentStorageId = nextStorageId()
         }
       }
     } catch (t: Throwable) {
@@ -49,3 +68,16 @@ class AirbyteLogbackBulkUploader(
     }
   }
 }
+
+/**
+ * Estimates the memory held by a logging event from the length of its message and the depth of its stack trace.
+ */
+internal fun estimateSize(event: ILoggingEvent): Long {
+  var size = EVENT_OVERHEAD_BYTES + (event.formattedMessage?.length ?: 0) * Char.SIZE_BYTES
+  var throwable = event.throwableProxy
+  while (throwable != null) {
+    size += (throwable.message?.length ?: 0) * Char.SIZE_BYTES + (throwable.stackTraceElementProxyArray?.size ?: 0) * STACK_TRACE_ELEMENT_BYTES
+    throwable = throwable.cause
+  }
+  return size
+}
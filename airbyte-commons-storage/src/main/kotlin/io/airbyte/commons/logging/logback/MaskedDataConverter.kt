@@ -14,11 +14,10 @@ import io.airbyte.commons.logging.LOG_SOURCE_MDC_KEY
 import io.airbyte.commons.logging.LogSource
 import io.airbyte.commons.yaml.Yamls
 import java.nio.charset.Charset
-import java.util.regex.Pattern
 
 /**
  * Custom [ClassicConverter] used to intercept all log messages and mask any JSON
- * properties in the message that match the list of maskable properties.
+ * properties in the message that match the list of maskable properties, see [SecretPropertyMasker].
  * <p>
  * The maskable properties file is generated by a Gradle task in the
  * {@code :oss:airbyte-config:specs} project. The file is named {@code specs_secrets_mask.yaml} and
@@ -28,7 +27,7 @@ import java.util.regex.Pattern
 class MaskedDataConverter(
   specMaskFile: String = LOCAL_SECRETS_MASKS_PATH,
 ) : ClassicConverter() {
-  private val pattern: Pattern? = buildPattern(specMaskFile = specMaskFile)
+  private val masker: SecretPropertyMasker? = getMaskableProperties(specMaskFile).takeIf { it.isNotEmpty() }?.let { SecretPropertyMasker(it) }
   private val replacePattern = API_KEY_PATTERN.toPattern()
 
   override fun convert(event: ILoggingEvent): String = replace(message = applyMask(event = event))
@@ -41,34 +40,9 @@ class MaskedDataConverter(
    */
   private fun applyMask(event: ILoggingEvent): String {
     val piiScrubbedMessage = removeKnownPii(event = event)
-    return pattern?.matcher(piiScrubbedMessage)?.replaceAll(REPLACEMENT_PATTERN) ?: piiScrubbedMessage
+    return masker?.mask(piiScrubbedMessage) ?: piiScrubbedMessage
   }
 
-  /**
-   * Builds the maskable property matching pattern.
-   *
-   * @param specMaskFile The spec mask file.
-   * @return The regular expression pattern used to find maskable properties.
-   */
-  private fun buildPattern(specMaskFile: String): Pattern? =
-    getMaskableProperties(specMaskFile).takeIf { it.isNotEmpty() }?.let {
-      generatePattern(it).toPattern()
-    }
-
-  /**
-   * Generates the property matching pattern string from the provided set of properties.
-   *
-   * @param properties The set of properties to match.
-   * @return The generated regular expression pattern used to match the maskable properties.
-   */
-  private fun generatePattern(properties: Set<String>): String =
-    buildString {
-      append(CASE_INSENSITIVE_FLAG)
-      append(PROPERTY_MATCHING_PATTERN_PREFIX)
-      append(properties.joinToString("|"))
-      append(PROPERTY_MATCHING_PATTERN_SUFFIX)
-    }
-
   /**
    * Loads the maskable properties from the provided file.
    *
@@ -94,7 +68,8 @@ class MaskedDataConverter(
    * @param message The message to apply replacement to.
    * @return The potentially modified message with any specific patterns replaced.
    */
-  private fun replace(message: String): String = replacePattern.matcher(message).replaceAll(API_KEY_REPLACEMENT)
+  private fun replace(message: String): String =
+    if (message.contains(API_KEY_PREFIX)) replacePattern.matcher(message).replaceAll(API_KEY_REPLACEMENT) else message
 }
 
 /**
@@ -103,19 +78,19 @@ class MaskedDataConverter(
 private const val API_KEY_FIELD = "apikey"
 
 /**
- * Regular expression to match api keys in strings.  Ported from previous Log4j2 configuration.
+ * Literal prefix of the api keys in strings, used to skip the regular expression for most messages.
  */
-private const val API_KEY_PATTERN = "$API_KEY_FIELD=[\\w\\-]*"
+private const val API_KEY_PREFIX = "$API_KEY_FIELD="
 
 /**
- * Replacement pattern for matches using the [API_KEY_PATTERN] regular expression.
+ * Regular expression to match api keys in strings.  Ported from previous Log4j2 configuration.
  */
-private const val API_KEY_REPLACEMENT = "$API_KEY_FIELD=${AirbyteSecretConstants.SECRETS_MASK}"
+private const val API_KEY_PATTERN = "$API_KEY_PREFIX[\\w\\-]*"
 
 /**
- * Regular expression pattern flag that enables case in-sensitive matching.
+ * Replacement pattern for matches using the [API_KEY_PATTERN] regular expression.
  */
-private const val CASE_INSENSITIVE_FLAG: String = "(?i)"
+private const val API_KEY_REPLACEMENT = "$API_KEY_FIELD=${AirbyteSecretConstants.SECRETS_MASK}"
 
 /**
  * Capture group name for the portion of a log message that contains the log information.
@@ -163,22 +138,6 @@ private val DESTINATION_KNOWN_PII_PATTERN =
  */
 private const val PROPERTIES_KEY: String = "properties"
 
-/**
- * Regular expression pattern prefix for applying the mask to property values.
- */
-private const val PROPERTY_MATCHING_PATTERN_PREFIX: String = "\"("
-
-/**
- * Regular expression pattern suffix for applying the mask to property values.
- */
-private const val PROPERTY_MATCHING_PATTERN_SUFFIX: String = ")\"\\s*:\\s*(\"(?:[^\"\\\\]|\\\\.)*\"|\\[[^]\\[]*]|\\d+)"
-
-/**
- * Regular expression pattern used to replace a key/value property with a masked value while
- * maintaining the property key/name.
- */
-private const val REPLACEMENT_PATTERN: String = "\"\$1\":\"${AirbyteSecretConstants.SECRETS_MASK}\""
-
 /**
  * Removes known PII from the log message for messages produced by destinations.
  *
@@ -188,11 +147,15 @@ private const val REPLACEMENT_PATTERN: String = "\"\$1\":\"${AirbyteSecretConsta
 private fun removeKnownPii(event: ILoggingEvent): String {
   /*
    * Only apply the PII replacement to messages from the destination to avoid performance
-   * hit in other scenarios.
+   * hit in other scenarios.  The pattern only matches ERROR messages, so the level is checked
+   * first to skip the pattern for the other messages.
    */
-  return if (event.mdcPropertyMap.getOrDefault(LOG_SOURCE_MDC_KEY, LogSource.PLATFORM.displayName) == LogSource.DESTINATION.displayName) {
-    DESTINATION_KNOWN_PII_PATTERN.matcher(event.formattedMessage).replaceAll(KNOWN_PII_LOG_MESSAGE_REPLACEMENT_PATTERN)
+  val message = event.formattedMessage
+  return if (event.mdcPropertyMap.getOrDefault(LOG_SOURCE_MDC_KEY, LogSource.PLATFORM.displayName) == LogSource.DESTINATION.displayName &&
+    message.startsWith(Level.ERROR.toString())
+  ) {
+    DESTINATION_KNOWN_PII_PATTERN.matcher(message).replaceAll(KNOWN_PII_LOG_MESSAGE_REPLACEMENT_PATTERN)
   } else {
-    event.formattedMessage
+    message
   }
 }
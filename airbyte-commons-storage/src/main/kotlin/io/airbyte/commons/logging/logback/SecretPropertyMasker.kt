@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.commons.logging.logback
+
+import io.airbyte.commons.constants.AirbyteSecretConstants
+
+/**
+ * Masks the values of the JSON properties of a message whose name matches one of the maskable properties.
+ *
+ * This replaces the `(?i)"(property1|property2|...)"\s*:\s*("(?:[^"\\]|\\.)*"|\[[^]\[]*]|\d+)` regular expression,
+ * replaced by `"$1":"<mask>"`, that used to be applied to every log message.  With hundreds of properties, matching that
+ * alternation at every quote of every message was one of the main CPU consumers of the logging.  Instead, the quoted
+ * property names are searched all at once by an Aho-Corasick automaton, in a single pass over the message, and the value
+ * is only parsed where a property name is found.  Property names are matched case-insensitively for ASCII letters only,
+ * as the regular expression did.
+ *
+ * @param properties The names of the maskable properties.
+ */
+class SecretPropertyMasker(
+  properties: Set<String>,
+) {
+  // Symbols of the characters that appear in the property names, characters that don't appear in any name lead back to the root
+  private val asciiSymbols = IntArray(ASCII_SIZE) { NO_SYMBOL }
+  private val otherSymbols = mutableMapOf<Char, Int>()
+
+  // Transitions of the automaton, indexed by state and symbol, the root being state 0
+  private val transitions: Array<IntArray>
+
+  // Length of the quoted property name that ends at each state, or 0 if none does.  Property names can't contain quotes, so
+  // a quoted name that ends at a quote is always the whole name between that quote and the previous one
+  private val matchLengths: IntArray
+
+  init {
+    val patterns = properties.map { "\"${foldCase(it)}\"" }.distinct()
+    patterns.forEach { pattern -> pattern.forEach { symbolOf(it) ?: addSymbol(it) } }
+    val symbolCount = asciiSymbols.count { it != NO_SYMBOL } + otherSymbols.size
+
+    // Builds the trie of the patterns
+    val trie = mutableListOf(IntArray(symbolCount) { NO_STATE })
+    val terminalLengths = mutableListOf(0)
+    patterns.forEach { pattern ->
+      var state = 0
+      pattern.forEach { c ->
+        val symbol = symbolOf(c)!!
+        if (trie[state][symbol] == NO_STATE) {
+          trie[state][symbol] = trie.size
+          trie.add(IntArray(symbolCount) { NO_STATE })
+          terminalLengths.add(0)
+        }
+        state = trie[state][symbol]
+      }
+      terminalLengths[state] = pattern.length
+    }
+
+    // Turns the trie into a deterministic automaton, by following the failure links breadth first
+    val failures = IntArray(trie.size)
+    matchLengths = terminalLengths.toIntArray()
+    val queue = ArrayDeque<Int>()
+    for (symbol in 0 until symbolCount) {
+      val next = trie[0][symbol]
+      if (next == NO_STATE) {
+        trie[0][symbol] = 0
+      } else {
+        queue.addLast(next)
+      }
+    }
+    while (queue.isNotEmpty()) {
+      val state = queue.removeFirst()
+      for (symbol in 0 until symbolCount) {
+        val next = trie[state][symbol]
+        if (next == NO_STATE) {
+          trie[state][symbol] = trie[failures[state]][symbol]
+        } else {
+          failures[next] = trie[failures[state]][symbol]
+          if (matchLengths[next] == 0) {
+            matchLengths[next] = matchLengths[failures[next]]
+          }
+          queue.addLast(next)
+        }
+      }
+    }
+    transitions = trie.toTypedArray()
+  }
+
+  /**
+   * Masks the values of the maskable properties of the message.
+   *
+   * @param message The message to mask.
+   * @return The masked message, or the message itself if it doesn't contain any maskable property.
+   */
+  fun mask(message: String): String {
+    var masked: StringBuilder? = null
+    var copied = 0
+    var state = 0
+    var i = 0
+    while (i < message.length) {
+      state = next(state, message[i])
+      if (matchLengths[state] > 0) {
+        val valueEnd = valueEnd(message, i + 1)
+        if (valueEnd != NO_MATCH) {
+          masked = (masked ?: StringBuilder(message.length)).append(message, copied, i + 1).append(MASKED_VALUE)
+          copied = valueEnd
+          // The search starts over after the masked value, as the regular expression did
+          state = 0
+          i = valueEnd
+          continue
+        }
+      }
+      i++
+    }
+
+    return masked?.append(message, copied, message.length)?.toString() ?: message
+  }
+
+  private fun next(
+    state: Int,
+    c: Char,
+  ): Int {
+    val symbol = symbolOf(foldCase(c)) ?: return 0
+    return transitions[state][symbol]
+  }
+
+  private fun symbolOf(c: Char): Int? =
+    if (c.code < ASCII_SIZE) {
+      asciiSymbols[c.code].takeIf { it != NO_SYMBOL }
+    } else {
+      otherSymbols[c]
+    }
+
+  private fun addSymbol(c: Char) {
+    val symbol = asciiSymbols.count { it != NO_SYMBOL } + otherSymbols.size
+    if (c.code < ASCII_SIZE) {
+      asciiSymbols[c.code] = symbol
+    } else {
+      otherSymbols[c] = symbol
+    }
+  }
+}
+
+private const val ASCII_SIZE = 128
+private const val NO_SYMBOL = -1
+private const val NO_STATE = -1
+private const val NO_MATCH = -1
+
+/**
+ * Replacement of the value of a maskable property, following its name.
+ */
+private const val MASKED_VALUE = ":\"${AirbyteSecretConstants.SECRETS_MASK}\""
+
+private fun foldCase(c: Char): Char = if (c in 'A'..'Z') c + ('a' - 'A') else c
+
+private fun foldCase(s: String): String = buildString(s.length) { s.forEach { append(foldCase(it)) } }
+
+/**
+ * Finds the end of the `\s*:\s*` separator and the value that follow a property name.
+ *
+ * @return The index following the value, or [NO_MATCH] if the property name isn't followed by a maskable value.
+ */
+private fun valueEnd(
+  message: String,
+  from: Int,
+): Int {
+  var i = skipWhitespaces(message, from)
+  if (i >= message.length || message[i] != ':') {
+    return NO_MATCH
+  }
+  i = skipWhitespaces(message, i + 1)
+  if (i >= message.length) {
+    return NO_MATCH
+  }
+
+  return when (message[i]) {
+    '"' -> stringEnd(message, i + 1)
+    '[' -> arrayEnd(message, i + 1)
+    in '0'..'9' -> numberEnd(message, i + 1)
+    else -> NO_MATCH
+  }
+}
+
+/**
+ * Matches `(?:[^"\\]|\\.)*"`.
+ */
+private fun stringEnd(
+  message: String,
+  from: Int,
+): Int {
+  var i = from
+  while (i < message.length) {
+    when (message[i]) {
+      '"' -> return i + 1
+      '\\' -> if (i + 1 < message.length && !isLineTerminator(message[i + 1])) i += 2 else return NO_MATCH
+      else -> i++
+    }
+  }
+  return NO_MATCH
+}
+
+/**
+ * Matches `[^]\[]*]`.
+ */
+private fun arrayEnd(
+  message: String,
+  from: Int,
+): Int {
+  for (i in from until message.length) {
+    when (message[i]) {
+      ']' -> return i + 1
+      '[' -> return NO_MATCH
+    }
+  }
+  return NO_MATCH
+}
+
+/**
+ * Matches `\d*`.
+ */
+private fun numberEnd(
+  message: String,
+  from: Int,
+): Int {
+  var i = from
+  while (i < message.length && message[i] in '0'..'9') {
+    i++
+  }
+  return i
+}
+
+/**
+ * Skips the characters matched by `\s`.
+ */
+private fun skipWhitespaces(
+  message: String,
+  from: Int,
+): Int {
+  var i = from
+  while (i < message.length && message[i] in WHITESPACES) {
+    i++
+  }
+  return i
+}
+
+/**
+ * Characters that `.` doesn't match.
+ */
+private fun isLineTerminator(c: Char): Boolean = c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029'
+
+private const val WHITESPACES = " \t\n\u000B\u000C\r"
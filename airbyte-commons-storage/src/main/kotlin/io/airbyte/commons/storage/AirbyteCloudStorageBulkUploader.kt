@@ -5,9 +5,20 @@
 package io.airbyte.commons.storage
 
 import io.airbyte.commons.json.Jsons
-import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.RejectedExecutionException
 import java.util.concurrent.ScheduledFuture
 import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicLong
+
+/** Default memory budget of the buffer of an uploader. */
+const val DEFAULT_MAX_BUFFER_BYTES = 16L * 1024 * 1024
+
+/** Default estimate of the memory held by a buffered item. */
+const val DEFAULT_EVENT_SIZE_BYTES = 1024L
+
+/** Fraction of the memory budget of the buffer past which an upload is triggered before the end of the period. */
+private const val FLUSH_THRESHOLD_DIVISOR = 4
 
 /**
  * A generic storage uploader class that is intended to upload items to a
@@ -22,19 +33,43 @@ import java.util.concurrent.TimeUnit
  * To use this class, hook into the bean lifecycle methods (@PostConstruct/@PreDestroy,
  * or the Micronaut provided @EventListener) to call [start] and [stop], respectively. To
  * store a message, call [append]. Uploading will be done based on the period and unit
- * provided in the constructor. For an example, see [AuditLoggingInterceptor]
+ * provided in the constructor, or as soon as the buffered items use a quarter of [maxBufferBytes].
+ * For an example, see [AuditLoggingInterceptor]
+ *
+ * The buffer is bounded by [maxBufferBytes], as estimated by [sizeOf]. When uploads can't keep up,
+ * the items matching [isLowPriority] are dropped first, then only a sample of the items is kept,
+ * see [BoundedEventBuffer].
+ *
+ * Uploaded files are compressed with the provided [ContentEncoding], storage clients transparently
+ * decompress them when reading them back.
  */
 open class AirbyteCloudStorageBulkUploader<T>(
   val baseStorageId: String,
   val storageClient: StorageClient,
   val period: Long = 60L,
   val unit: TimeUnit = TimeUnit.SECONDS,
+  val contentEncoding: ContentEncoding = ContentEncoding.IDENTITY,
+  val maxBufferBytes: Long = DEFAULT_MAX_BUFFER_BYTES,
+  sizeOf: (T) -> Long = { DEFAULT_EVENT_SIZE_BYTES },
+  isLowPriority: (T) -> Boolean = { false },
 ) {
-  /** @property buffer A threadsafe queue to store items of T */
-  val buffer = LinkedBlockingQueue<T>()
+  private val uploadScheduled = AtomicBoolean(false)
+
+  /** @property buffer A threadsafe, memory bounded buffer to store items of T */
+  val buffer =
+    BoundedEventBuffer(
+      maxBytes = maxBufferBytes,
+      flushThresholdBytes = maxBufferBytes / FLUSH_THRESHOLD_DIVISOR,
+      sizeOf = sizeOf,
+      isLowPriority = isLowPriority,
+      onFlushThreshold = this::scheduleUpload,
+    )
+
+  /** Sequence of the uploaded files, so that the files uploaded within the same millisecond keep their upload order */
+  private val fileSequence = AtomicLong()
 
   /** @property currentStorageId represents the id of the storage file */
-  var currentStorageId: String = createFileId(baseStorageId)
+  var currentStorageId: String = nextStorageId()
 
   val uploadLock = Any()
   lateinit var uploadTask: ScheduledFuture<*>
@@ -62,6 +97,33 @@ open class AirbyteCloudStorageBulkUploader<T>(
     buffer.add(t)
   }
 
+  /**
+   * Builds the id of the next file to upload.
+   */
+  protected fun nextStorageId(): String = createFileId(baseId = baseStorageId, sequence = fileSequence.getAndIncrement())
+
+  /**
+   * Schedules an upload ahead of the period, unless one is already scheduled.
+   */
+  private fun scheduleUpload() {
+    if (!uploadScheduled.compareAndSet(false, true)) {
+      return
+    }
+
+    try {
+      CloudStorageBulkUploaderExecutor.submitTask {
+        try {
+          upload()
+        } finally {
+          uploadScheduled.set(false)
+        }
+      }
+    } catch (e: RejectedExecutionException) {
+      // The executor is shutting down, the final upload on stop takes care of the buffered items
+      uploadScheduled.set(false)
+    }
+  }
+
   /**
    * Uploads all the items in the current buffer to cloud storage. This is done by first
    * combining all the buffered items and then converting to a JSON string.
@@ -75,8 +137,11 @@ open class AirbyteCloudStorageBulkUploader<T>(
       if (events.isNotEmpty()) {
         try {
           val logs = Jsons.serialize(events)
-          storageClient.write(currentStorageId, logs)
-          this.currentStorageId = createFileId(baseStorageId)
+          when (contentEncoding) {
+            ContentEncoding.IDENTITY -> storageClient.write(currentStorageId, logs)
+            else -> storageClient.write(currentStorageId, contentEncoding.encode(logs.toByteArray()), contentEncoding)
+          }
+          this.currentStorageId = nextStorageId()
         } catch (e: Exception) {
           // Log any failures to serialize or upload to cloud storage for debugging purposes
           e.printStackTrace()
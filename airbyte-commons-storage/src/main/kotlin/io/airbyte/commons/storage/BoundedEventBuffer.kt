@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.commons.storage
+
+/** Default number of overflowing events of which only one is kept once no low priority event is left to drop. */
+const val DEFAULT_OVERFLOW_SAMPLE_RATE = 10
+
+/**
+ * Why an event was dropped from a [BoundedEventBuffer].
+ */
+enum class DropReason {
+  /** A low priority event was dropped to make room for another event. */
+  LOW_PRIORITY,
+
+  /** An incoming event was dropped by the sampling of overflowing events. */
+  SAMPLED,
+
+  /** One of the oldest events was dropped to make room for a sampled event. */
+  EVICTED,
+
+  /** An incoming event was dropped because it doesn't fit in the buffer on its own. */
+  OVERSIZED,
+}
+
+/**
+ * Buffer of the events waiting to be uploaded, bounded by an estimate of the memory that they hold.
+ *
+ * When an event doesn't fit in the [maxBytes] budget, the buffer overflows:
+ * 1. the oldest low priority events, e.g. DEBUG logs, are dropped first to make room for it. A low priority event that still
+ *    doesn't fit is dropped itself.
+ * 2. once no low priority event is left, the overflowing events are sampled: only one in [sampleRate] is kept, in place of the
+ *    oldest events of the buffer, the others are dropped. This keeps the most recent events flowing until the buffer is drained.
+ *
+ * [onFlushThreshold] is called, from the thread adding the event, whenever an event brings the buffer to [flushThresholdBytes]
+ * or more, so that it can be drained before it overflows.
+ *
+ * @param maxBytes The memory budget of the buffer.
+ * @param flushThresholdBytes The memory used by the buffer past which it should be drained.
+ * @param sizeOf Estimates the memory held by an event.
+ * @param isLowPriority Whether an event is dropped first when the buffer overflows.
+ * @param onFlushThreshold Called when the buffer reaches its flush threshold.
+ * @param sampleRate The number of overflowing events of which only one is kept.
+ */
+class BoundedEventBuffer<T>(
+  private val maxBytes: Long,
+  private val flushThresholdBytes: Long,
+  private val sizeOf: (T) -> Long,
+  private val isLowPriority: (T) -> Boolean = { false },
+  private val onFlushThreshold: () -> Unit = {},
+  private val sampleRate: Int = DEFAULT_OVERFLOW_SAMPLE_RATE,
+) {
+  private class Entry<T>(
+    val sequence: Long,
+    val event: T,
+    val size: Long,
+  )
+
+  private val lock = Any()
+
+  // The events are kept in two queues, so that the oldest low priority event can be dropped in constant time
+  private val lowPriorityEntries = ArrayDeque<Entry<T>>()
+  private val entries = ArrayDeque<Entry<T>>()
+  private var sequence = 0L
+  private var queuedBytes = 0L
+  private var overflowingEvents = 0L
+
+  /** The number of events in the buffer. */
+  val size: Int
+    get() = synchronized(lock) { lowPriorityEntries.size + entries.size }
+
+  /** The estimated memory held by the events of the buffer. */
+  val bytes: Long
+    get() = synchronized(lock) { queuedBytes }
+
+  /**
+   * Adds an event to the buffer, dropping events if the buffer overflows.
+   *
+   * @return false if the event itself was dropped.
+   */
+  fun add(event: T): Boolean {
+    val entrySize = sizeOf(event)
+    val lowPriority = isLowPriority(event)
+
+    val flush =
+      synchronized(lock) {
+        if (entrySize > maxBytes) {
+          CloudStorageBulkUploaderStats.recordDropped(DropReason.OVERSIZED)
+          return false
+        }
+
+        if (queuedBytes + entrySize > maxBytes) {
+          evict(lowPriorityEntries, entrySize, DropReason.LOW_PRIORITY)
+        }
+        if (queuedBytes + entrySize > maxBytes) {
+          if (lowPriority) {
+            CloudStorageBulkUploaderStats.recordDropped(DropReason.LOW_PRIORITY)
+            return false
+          }
+          if (overflowingEvents++ % sampleRate != 0L) {
+            CloudStorageBulkUploaderStats.recordDropped(DropReason.SAMPLED)
+            return false
+          }
+          evict(entries, entrySize, DropReason.EVICTED)
+        }
+
+        val entry = Entry(sequence++, event, entrySize)
+        if (lowPriority) lowPriorityEntries.addLast(entry) else entries.addLast(entry)
+        queuedBytes += entrySize
+        CloudStorageBulkUploaderStats.recordQueued(events = 1, bytes = entrySize)
+        queuedBytes >= flushThresholdBytes
+      }
+
+    if (flush) {
+      onFlushThreshold()
+    }
+    return true
+  }
+
+  /**
+   * Removes all the events from the buffer and adds them, in the order they were added to the buffer, to the given collection.
+   *
+   * @return The number of events drained.
+   */
+  fun drainTo(collection: MutableCollection<T>): Int =
+    synchronized(lock) {
+      val drained = lowPriorityEntries.size + entries.size
+      while (lowPriorityEntries.isNotEmpty() || entries.isNotEmpty()) {
+        val next =
+          when {
+            lowPriorityEntries.isEmpty() -> entries
+            entries.isEmpty() -> lowPriorityEntries
+            lowPriorityEntries.first().sequence < entries.first().sequence -> lowPriorityEntries
+            else -> entries
+          }
+        collection.add(next.removeFirst().event)
+      }
+      CloudStorageBulkUploaderStats.recordQueued(events = -drained.toLong(), bytes = -queuedBytes)
+      queuedBytes = 0
+      overflowingEvents = 0
+      drained
+    }
+
+  private fun evict(
+    queue: ArrayDeque<Entry<T>>,
+    entrySize: Long,
+    reason: DropReason,
+  ) {
+    var evicted = 0L
+    var evictedBytes = 0L
+    while (queuedBytes + entrySize > maxBytes && queue.isNotEmpty()) {
+      val entry = queue.removeFirst()
+      queuedBytes -= entry.size
+      evicted++
+      evictedBytes += entry.size
+    }
+    if (evicted > 0) {
+      CloudStorageBulkUploaderStats.recordQueued(events = -evicted, bytes = -evictedBytes)
+      CloudStorageBulkUploaderStats.recordDropped(reason, evicted)
+    }
+  }
+}
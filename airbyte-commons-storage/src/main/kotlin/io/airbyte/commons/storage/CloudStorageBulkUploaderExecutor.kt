@@ -7,6 +7,7 @@ package io.airbyte.commons.storage
 import com.google.common.util.concurrent.ThreadFactoryBuilder
 import io.airbyte.commons.envvar.EnvVar
 import java.util.concurrent.Executors
+import java.util.concurrent.Future
 import java.util.concurrent.ScheduledFuture
 import java.util.concurrent.ScheduledThreadPoolExecutor
 import java.util.concurrent.TimeUnit
@@ -40,6 +41,14 @@ object CloudStorageBulkUploaderExecutor {
     unit: TimeUnit,
   ): ScheduledFuture<*> = executorService.scheduleAtFixedRate(runnable, initDelay, period, unit)
 
+  /**
+   * Submits a one-off runnable task to the underlying executor service.
+   *
+   * @param runnable The task to be executed.
+   * @return A [Future] representing pending completion of the task.
+   */
+  fun submitTask(runnable: Runnable): Future<*> = executorService.submit(runnable)
+
   /**
    * Stops the shared executor service.  This method should be called from a JVM shutdown hook
    * to ensure that the thread pool is stopped prior to exit/stopping the appenders.
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.commons.storage
+
+import io.airbyte.metrics.MetricAttribute
+import io.airbyte.metrics.MetricClient
+import io.airbyte.metrics.OssMetricsRegistry
+import io.airbyte.metrics.lib.MetricTags
+import io.micronaut.context.annotation.Context
+import jakarta.annotation.PostConstruct
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Counts of the events buffered by all the [BoundedEventBuffer]s of the process.
+ *
+ * The buffers of the logback appenders are created before, and independently of, the application context, so they record
+ * their counts here, and [CloudStorageBulkUploaderMetrics] exports them once the application context is started.
+ */
+object CloudStorageBulkUploaderStats {
+  val queuedEvents = AtomicLong()
+  val queuedBytes = AtomicLong()
+  private val droppedEvents = DropReason.entries.associateWith { AtomicLong() }
+  private var dropListener: ((DropReason, Long) -> Unit)? = null
+
+  fun recordQueued(
+    events: Long,
+    bytes: Long,
+  ) {
+    queuedEvents.addAndGet(events)
+    queuedBytes.addAndGet(bytes)
+  }
+
+  @Synchronized
+  fun recordDropped(
+    reason: DropReason,
+    count: Long = 1,
+  ) {
+    droppedEvents.getValue(reason).addAndGet(count)
+    dropListener?.invoke(reason, count)
+  }
+
+  fun droppedEvents(reason: DropReason): Long = droppedEvents.getValue(reason).get()
+
+  /**
+   * Registers the listener of the dropped events, which is first called with the events dropped so far.
+   */
+  @Synchronized
+  fun onDropped(listener: (DropReason, Long) -> Unit) {
+    droppedEvents.forEach { (reason, count) -> count.get().takeIf { it > 0 }?.let { listener(reason, it) } }
+    dropListener = listener
+  }
+}
+
+/**
+ * Exports the counts of [CloudStorageBulkUploaderStats] as metrics.
+ */
+@Context
+class CloudStorageBulkUploaderMetrics(
+  private val metricClient: MetricClient,
+) {
+  @PostConstruct
+  fun register() {
+    metricClient.gauge(OssMetricsRegistry.CLOUD_STORAGE_APPENDER_QUEUED_EVENTS, CloudStorageBulkUploaderStats.queuedEvents, { it.toDouble() })
+    metricClient.gauge(OssMetricsRegistry.CLOUD_STORAGE_APPENDER_QUEUED_BYTES, CloudStorageBulkUploaderStats.queuedBytes, { it.toDouble() })
+
+    val counters =
+      DropReason.entries.associateWith { reason ->
+        metricClient.counter(
+          OssMetricsRegistry.CLOUD_STORAGE_APPENDER_DROPPED_EVENTS,
+          MetricAttribute(MetricTags.LOG_DROP_REASON, reason.name.lowercase()),
+        )
+      }
+    CloudStorageBulkUploaderStats.onDropped { reason, count -> counters[reason]?.increment(count.toDouble()) }
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.commons.storage
+
+import java.io.ByteArrayOutputStream
+import java.io.InputStream
+import java.util.zip.GZIPInputStream
+import java.util.zip.GZIPOutputStream
+
+private const val GZIP_MAGIC_FIRST_BYTE = 0x1f
+private const val GZIP_MAGIC_SECOND_BYTE = 0x8b
+
+/**
+ * Encodings that documents can be compressed with before being written to storage.
+ *
+ * @param header The value of the Content-Encoding header/metadata set on the stored object, if any.
+ */
+enum class ContentEncoding(
+  val header: String?,
+) {
+  IDENTITY(null),
+  GZIP("gzip"),
+  ;
+
+  /**
+   * Encodes the bytes of a document.  Encoded documents can be concatenated, the result decodes to the concatenation of
+   * the documents.
+   */
+  fun encode(bytes: ByteArray): ByteArray =
+    when (this) {
+      IDENTITY -> bytes
+      GZIP -> ByteArrayOutputStream().also { output -> GZIPOutputStream(output).use { it.write(bytes) } }.toByteArray()
+    }
+
+  /**
+   * Decodes the bytes of a document, or of a concatenation of documents, encoded with this encoding.
+   */
+  fun decode(bytes: ByteArray): ByteArray =
+    when (this) {
+      IDENTITY -> bytes
+      GZIP -> GZIPInputStream(bytes.inputStream()).use { it.readAllBytes() }
+    }
+
+  companion object {
+    /**
+     * Finds the encoding matching the given name or header value, ignoring case.  Defaults to [IDENTITY].
+     */
+    fun find(value: String?): ContentEncoding = entries.find { it.name.equals(value, true) || it.header.equals(value, true) } ?: IDENTITY
+  }
+}
+
+/**
+ * Decodes the content of a stored document.  Compressed documents are recognized from their content rather than from the
+ * metadata of the stored object, so that objects written before compression was enabled, storages that do not keep
+ * metadata and storages that transparently decompress objects on download are all handled alike.
+ */
+fun decodeContent(bytes: ByteArray): ByteArray = if (isGzip(bytes)) ContentEncoding.GZIP.decode(bytes) else bytes
+
+/**
+ * Streaming version of [decodeContent].
+ */
+fun decodeContent(stream: InputStream): InputStream {
+  val buffered = stream.buffered()
+  buffered.mark(2)
+  val magic = byteArrayOf(buffered.read().toByte(), buffered.read().toByte())
+  buffered.reset()
+  return if (isGzip(magic)) GZIPInputStream(buffered) else buffered
+}
+
+private fun isGzip(bytes: ByteArray): Boolean =
+  bytes.size >= 2 &&
+    bytes[0] == GZIP_MAGIC_FIRST_BYTE.toByte() &&
+    bytes[1] == GZIP_MAGIC_SECOND_BYTE.toByte()
@@ -4,8 +4,12 @@
 
 package io.airbyte.commons.storage
 
+import com.azure.core.util.BinaryData
 import com.azure.storage.blob.BlobServiceClient
 import com.azure.storage.blob.BlobServiceClientBuilder
+import com.azure.storage.blob.models.BlobHttpHeaders
+import com.azure.storage.blob.models.BlobRange
+import com.azure.storage.blob.options.BlobParallelUploadOptions
 import com.google.auth.oauth2.ServiceAccountCredentials
 import com.google.cloud.storage.BlobId
 import com.google.cloud.storage.BlobInfo
@@ -34,17 +38,22 @@ import software.amazon.awssdk.services.s3.model.ListObjectsV2Request
 import software.amazon.awssdk.services.s3.model.NoSuchKeyException
 import software.amazon.awssdk.services.s3.model.PutObjectRequest
 import java.io.ByteArrayInputStream
+import java.io.InputStream
 import java.net.URI
+import java.nio.channels.Channels
 import java.nio.charset.StandardCharsets
 import java.nio.file.Files
 import java.nio.file.Path
 import kotlin.io.path.createParentDirectories
 import kotlin.io.path.deleteIfExists
 import kotlin.io.path.exists
+import kotlin.io.path.inputStream
 import kotlin.io.path.isDirectory
 import kotlin.io.path.listDirectoryEntries
 import kotlin.io.path.pathString
+import kotlin.io.path.readBytes
 import kotlin.io.path.relativeTo
+import kotlin.io.path.writeBytes
 
 private fun prependIfMissing(
   prefix: String,
@@ -136,13 +145,51 @@ interface StorageClient {
   )
 
   /**
-   * Reads document with a given id.
+   * Writes a document with a given id, already encoded with the given [ContentEncoding]. The encoding is recorded in the
+   * metadata of the stored object where the storage supports it. If a document already exists at this id it will be
+   * overwritten.
+   *
+   * @param id of the document to write
+   * @param document the encoded bytes of the document to write
+   * @param contentEncoding the encoding of the document
+   */
+  fun write(
+    id: String,
+    document: ByteArray,
+    contentEncoding: ContentEncoding,
+  )
+
+  /**
+   * Reads document with a given id. Compressed documents are decompressed.
    *
    * @param id of the document to read.
    * @return the document
    */
   fun read(id: String): String?
 
+  /**
+   * Opens a stream on the document with a given id, so that it can be read without holding it in memory. Compressed
+   * documents are decompressed.
+   *
+   * @param id of the document to read.
+   * @return the stream of the document, to be closed by the caller, or null if the document doesn't exist
+   */
+  fun readStream(id: String): InputStream?
+
+  /**
+   * Reads a range of bytes of the document with a given id, as stored. Compressed documents are not decompressed.
+   *
+   * @param id of the document to read.
+   * @param offset of the first byte to read.
+   * @param length the number of bytes to read, fewer bytes are returned if the document ends before.
+   * @return the bytes read, or null if the document doesn't exist
+   */
+  fun readRange(
+    id: String,
+    offset: Long,
+    length: Long,
+  ): ByteArray?
+
   /**
    * Deletes the document with provided id.
    *
@@ -208,6 +255,21 @@ class AzureStorageClient(
       .upload(document.byteInputStream(StandardCharsets.UTF_8))
   }
 
+  override fun write(
+    id: String,
+    document: ByteArray,
+    contentEncoding: ContentEncoding,
+  ) {
+    azureClient
+      .getBlobContainerClient(bucketName)
+      .getBlobClient(key(id))
+      .uploadWithResponse(
+        BlobParallelUploadOptions(BinaryData.fromBytes(document)).setHeaders(BlobHttpHeaders().setContentEncoding(contentEncoding.header)),
+        null,
+        null,
+      )
+  }
+
   override fun read(id: String): String? =
     azureClient
       .getBlobContainerClient(bucketName)
@@ -215,7 +277,27 @@ class AzureStorageClient(
       // ensure the blob exists before downloading it
       .takeIf { it.exists() }
       ?.downloadContent()
-      ?.toString()
+      ?.let { decodeContent(it.toBytes()).toString(StandardCharsets.UTF_8) }
+
+  override fun readStream(id: String): InputStream? =
+    azureClient
+      .getBlobContainerClient(bucketName)
+      .getBlobClient(key(id))
+      .takeIf { it.exists() }
+      ?.openInputStream()
+      ?.let { decodeContent(it) }
+
+  override fun readRange(
+    id: String,
+    offset: Long,
+    length: Long,
+  ): ByteArray? =
+    azureClient
+      .getBlobContainerClient(bucketName)
+      .getBlobClient(key(id))
+      .takeIf { it.exists() }
+      ?.openInputStream(BlobRange(offset, length), null)
+      ?.use { it.readAllBytes() }
 
   override fun delete(id: String): Boolean =
     azureClient
@@ -274,15 +356,46 @@ class GcsStorageClient(
     gcsClient.create(blobInfo, document.toByteArray(StandardCharsets.UTF_8))
   }
 
+  override fun write(
+    id: String,
+    document: ByteArray,
+    contentEncoding: ContentEncoding,
+  ) {
+    val blobInfo = BlobInfo.newBuilder(blobId(id)).setContentEncoding(contentEncoding.header).build()
+    gcsClient.create(blobInfo, document)
+  }
+
   override fun read(id: String): String? {
     val blobId = blobId(key(id))
 
     return gcsClient
       .get(blobId)
       ?.takeIf { it.exists() }
-      ?.let { gcsClient.readAllBytes(it.blobId).toString(StandardCharsets.UTF_8) }
+      ?.let { decodeContent(gcsClient.readAllBytes(it.blobId)).toString(StandardCharsets.UTF_8) }
   }
 
+  override fun readStream(id: String): InputStream? =
+    gcsClient
+      .get(blobId(id))
+      ?.takeIf { it.exists() }
+      ?.let { decodeContent(Channels.newInputStream(gcsClient.reader(it.blobId))) }
+
+  override fun readRange(
+    id: String,
+    offset: Long,
+    length: Long,
+  ): ByteArray? =
+    gcsClient
+      .get(blobId(id))
+      ?.takeIf { it.exists() }
+      ?.let { blob ->
+        gcsClient.reader(blob.blobId).use { channel ->
+          channel.seek(offset)
+          channel.limit(offset + length)
+          Channels.newInputStream(channel).readAllBytes()
+        }
+      }
+
   override fun delete(id: String): Boolean = gcsClient.delete(BlobId.of(bucketName, key(id)))
 
   @VisibleForTesting
@@ -330,10 +443,39 @@ class LocalStorageClient(
     IOs.writeFile(path, document)
   }
 
+  override fun write(
+    id: String,
+    document: ByteArray,
+    contentEncoding: ContentEncoding,
+  ) {
+    toPath(id)
+      .also { it.createParentDirectories() }
+      .writeBytes(document)
+  }
+
   override fun read(id: String): String? =
     toPath(id)
       .takeIf { it.exists() }
-      ?.let { IOs.readFile(it) }
+      ?.let { decodeContent(it.readBytes()).toString(StandardCharsets.UTF_8) }
+
+  override fun readStream(id: String): InputStream? =
+    toPath(id)
+      .takeIf { it.exists() }
+      ?.inputStream()
+      ?.let { decodeContent(it) }
+
+  override fun readRange(
+    id: String,
+    offset: Long,
+    length: Long,
+  ): ByteArray? =
+    toPath(id)
+      .takeIf { it.exists() }
+      ?.let { path ->
+        Files.newByteChannel(path).use { channel ->
+          Channels.newInputStream(channel.position(offset)).readNBytes(length.toInt())
+        }
+      }
 
   override fun delete(id: String): Boolean =
     toPath(id)
@@ -441,6 +583,22 @@ abstract class AbstractS3StorageClient internal constructor(
     s3Client.putObject(request, RequestBody.fromString(document))
   }
 
+  override fun write(
+    id: String,
+    document: ByteArray,
+    contentEncoding: ContentEncoding,
+  ) {
+    val request =
+      PutObjectRequest
+        .builder()
+        .bucket(bucketName)
+        .key(key(id))
+        .contentEncoding(contentEncoding.header)
+        .build()
+
+    s3Client.putObject(request, RequestBody.fromBytes(document))
+  }
+
   override fun read(id: String): String? =
     try {
       s3Client
@@ -450,7 +608,41 @@ abstract class AbstractS3StorageClient internal constructor(
             .bucket(bucketName)
             .key(key(id))
             .build(),
-        ).asString(StandardCharsets.UTF_8)
+        ).let { decodeContent(it.asByteArray()).toString(StandardCharsets.UTF_8) }
+    } catch (e: NoSuchKeyException) {
+      null
+    }
+
+  override fun readStream(id: String): InputStream? =
+    try {
+      decodeContent(
+        s3Client.getObject(
+          GetObjectRequest
+            .builder()
+            .bucket(bucketName)
+            .key(key(id))
+            .build(),
+        ),
+      )
+    } catch (e: NoSuchKeyException) {
+      null
+    }
+
+  override fun readRange(
+    id: String,
+    offset: Long,
+    length: Long,
+  ): ByteArray? =
+    try {
+      s3Client
+        .getObjectAsBytes(
+          GetObjectRequest
+            .builder()
+            .bucket(bucketName)
+            .key(key(id))
+            .range("bytes=$offset-${offset + length - 1}")
+            .build(),
+        ).asByteArray()
     } catch (e: NoSuchKeyException) {
       null
     }
@@ -10,13 +10,19 @@ import java.time.format.DateTimeFormatter
 import java.util.UUID
 
 const val STRUCTURED_LOG_FILE_EXTENSION = ".json"
-private val DATE_FORMAT: DateTimeFormatter = DateTimeFormatter.ofPattern("yyyyMMddHHmmss")
+const val LOG_INDEX_FILE_EXTENSION = ".index"
+private val DATE_FORMAT: DateTimeFormatter = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS")
+private const val SEQUENCE_FORMAT = "%010d"
 
 /**
  * Builds the ID of the uploaded file.  This is typically the path in blob storage.
  *
+ * The IDs of the files uploaded by the same uploader sort in upload order, as long as each upload passes a
+ * [sequence] greater than the previous one: the timestamp alone can't order several uploads within the same millisecond.
+ *
  * @param baseId The base path/ID of the file location
  * @param timestamp A timestamp as a string for uniqueness
+ * @param sequence A number increasing with each file uploaded by the caller, to order files with the same timestamp
  * @param hostname The hostname of the machine executing this method
  * @param uniqueIdentifier A random UUID as a string for uniqueness
  * @return The field ID.
@@ -24,9 +30,18 @@ private val DATE_FORMAT: DateTimeFormatter = DateTimeFormatter.ofPattern("yyyyMM
 fun createFileId(
   baseId: String,
   timestamp: String = LocalDateTime.now().format(DATE_FORMAT),
+  sequence: Long = 0,
   hostname: String = InetAddress.getLocalHost().hostName,
   uniqueIdentifier: String = UUID.randomUUID().toString(),
 ): String {
   // Remove the leading/trailing "/" from the base storage ID if present to avoid duplicates in the storage ID
-  return "${baseId.trim('/')}/${timestamp}_${hostname}_${uniqueIdentifier.replace("-", "")}$STRUCTURED_LOG_FILE_EXTENSION"
+  return "${baseId.trim('/')}/${timestamp}_${SEQUENCE_FORMAT.format(sequence)}_${hostname}_${uniqueIdentifier.replace("-", "")}$STRUCTURED_LOG_FILE_EXTENSION"
 }
+
+/**
+ * Builds the ID of the index of an uploaded structured log file.
+ *
+ * @param fileId The ID of the structured log file
+ * @return The ID of its index.
+ */
+fun logIndexId(fileId: String): String = "$fileId$LOG_INDEX_FILE_EXTENSION"
@@ -120,6 +120,26 @@ internal class LogClientManagerTest {
     assertEquals(0, logEvents.events.size)
   }
 
+  @Test
+  fun testTailStructuredLogs() {
+    val logTailSize = 100
+    val logEvents = LogEvents(events = listOf(LogEvent(timestamp = 0L, message = "message", level = "INFO")))
+    val logClient =
+      mockk<LogClient> {
+        every { tailLogs(any(), any()) } returns logEvents
+      }
+    val logClientManager =
+      LogClientManager(
+        logClient = logClient,
+        logMdcHelper = mockk(),
+        logTailSize = logTailSize,
+      )
+
+    assertEquals(logEvents, logClientManager.tailLogs(logPath = Path.of("log-path")))
+    assertEquals(0, logClientManager.tailLogs(logPath = null).events.size)
+    verify(exactly = 1) { logClient.tailLogs("log-path", logTailSize) }
+  }
+
   @Test
   fun testDeleteLogs() {
     val logPath = "/some/path"
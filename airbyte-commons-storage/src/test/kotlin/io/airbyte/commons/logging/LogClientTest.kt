@@ -5,14 +5,21 @@
 package io.airbyte.commons.logging
 
 import ch.qos.logback.classic.Level
+import ch.qos.logback.classic.spi.ILoggingEvent
 import com.fasterxml.jackson.databind.ObjectMapper
 import com.fasterxml.jackson.databind.module.SimpleModule
 import io.airbyte.commons.jackson.MoreMappers
+import io.airbyte.commons.logging.logback.AirbyteLogEventEncoder
+import io.airbyte.commons.storage.ContentEncoding
 import io.airbyte.commons.storage.DocumentType
+import io.airbyte.commons.storage.LocalStorageClient
+import io.airbyte.commons.storage.LocalStorageConfig
 import io.airbyte.commons.storage.STRUCTURED_LOG_FILE_EXTENSION
+import io.airbyte.commons.storage.StorageBucketConfig
 import io.airbyte.commons.storage.StorageClient
 import io.airbyte.commons.storage.StorageClientFactory
 import io.airbyte.commons.storage.StorageType
+import io.airbyte.commons.storage.logIndexId
 import io.airbyte.metrics.MetricAttribute
 import io.airbyte.metrics.MetricClient
 import io.airbyte.metrics.MetricsRegistry
@@ -25,8 +32,10 @@ import org.junit.jupiter.api.AfterEach
 import org.junit.jupiter.api.Assertions.assertEquals
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
 import org.junit.jupiter.params.ParameterizedTest
 import org.junit.jupiter.params.provider.EnumSource
+import java.nio.file.Path
 import java.time.Instant
 import java.time.LocalDateTime
 import java.time.ZoneId
@@ -121,7 +130,7 @@ internal class LogClientTest {
     val storageClient =
       mockk<StorageClient> {
         every { list(any()) } returns listOf(logPath)
-        every { read(any()) } returns logFile.toFile().readText()
+        every { readStream(any()) } answers { logFile.toFile().inputStream() }
         every { storageType } returns StorageType.LOCAL
       }
     val storageClientFactory =
@@ -201,7 +210,7 @@ internal class LogClientTest {
     val storageClient =
       mockk<StorageClient> {
         every { list(any()) } returns listOf(logPath)
-        every { read(any()) } returns logFile.toFile().readText()
+        every { readStream(any()) } answers { logFile.toFile().inputStream() }
         every { storageType } returns StorageType.LOCAL
       }
     val storageClientFactory =
@@ -313,10 +322,10 @@ internal class LogClientTest {
     val storageClient =
       mockk<StorageClient> {
         every { list(any()) } returns fileList
-        every { read("file1$STRUCTURED_LOG_FILE_EXTENSION") } returns objectMapper.writeValueAsString(logEvents1)
-        every { read("file2$STRUCTURED_LOG_FILE_EXTENSION") } returns objectMapper.writeValueAsString(logEvents2)
-        every { read("file3$STRUCTURED_LOG_FILE_EXTENSION") } returns objectMapper.writeValueAsString(logEvents3)
-        every { read("file4$STRUCTURED_LOG_FILE_EXTENSION") } returns objectMapper.writeValueAsString(logEvents4)
+        every { readStream("file1$STRUCTURED_LOG_FILE_EXTENSION") } answers { objectMapper.writeValueAsBytes(logEvents1).inputStream() }
+        every { readStream("file2$STRUCTURED_LOG_FILE_EXTENSION") } answers { objectMapper.writeValueAsBytes(logEvents2).inputStream() }
+        every { readStream("file3$STRUCTURED_LOG_FILE_EXTENSION") } answers { objectMapper.writeValueAsBytes(logEvents3).inputStream() }
+        every { readStream("file4$STRUCTURED_LOG_FILE_EXTENSION") } answers { objectMapper.writeValueAsBytes(logEvents4).inputStream() }
         every { this@mockk.storageType } returns storageType
       }
     val storageClientFactory =
@@ -636,7 +645,7 @@ internal class LogClientTest {
     val storageClient =
       mockk<StorageClient> {
         every { list(any()) } returns listOf(logPath)
-        every { read(any()) } returns logFile.toFile().readText()
+        every { readStream(any()) } answers { logFile.toFile().inputStream() }
         every { storageType } returns StorageType.LOCAL
       }
     val storageClientFactory =
@@ -658,6 +667,163 @@ internal class LogClientTest {
     verify(exactly = 1) { storageClient.list(logPath) }
   }
 
+  @Test
+  fun testTailLogsReadsTheTailRangesOfIndexedFiles() {
+    val logPath = "log-path"
+    val olderFile = "20240101000000_host_1$STRUCTURED_LOG_FILE_EXTENSION"
+    val newerFile = "20240101000100_host_2$STRUCTURED_LOG_FILE_EXTENSION"
+    val olderEvents = buildLogEvents(numLines = 4, startingTimestamp = 0L)
+    val newerEvents = buildLogEvents(numLines = 4, startingTimestamp = 60_000L)
+    val (olderDocument, olderIndex) = indexedDocument(olderEvents)
+    val (newerDocument, newerIndex) = indexedDocument(newerEvents)
+
+    val storageClient =
+      mockk<StorageClient> {
+        every { list(any()) } returns listOf(olderFile, logIndexId(olderFile), newerFile, logIndexId(newerFile))
+        every { read(logIndexId(olderFile)) } returns objectMapper.writeValueAsString(olderIndex)
+        every { read(logIndexId(newerFile)) } returns objectMapper.writeValueAsString(newerIndex)
+        every { readRange(olderFile, any(), any()) } answers { slice(olderDocument, secondArg(), thirdArg()) }
+        every { readRange(newerFile, any(), any()) } answers { slice(newerDocument, secondArg(), thirdArg()) }
+        every { storageType } returns StorageType.S3
+      }
+    val logClient = logClient(storageClient)
+
+    val result = logClient.tailLogs(logPath = logPath, numLines = 6)
+
+    assertEquals(olderEvents.events.takeLast(2) + newerEvents.events, result.events)
+    verify(exactly = 1) { storageClient.readRange(olderFile, olderIndex.offsets[2], any()) }
+    verify(exactly = 1) { storageClient.readRange(newerFile, newerIndex.offsets[0], any()) }
+    verify(exactly = 0) { storageClient.read(olderFile) }
+    verify(exactly = 0) { storageClient.readStream(any()) }
+  }
+
+  @Test
+  fun testTailLogsStopsOnceEnoughEventsAreRead() {
+    val logPath = "log-path"
+    val olderFile = "20240101000000_host_1$STRUCTURED_LOG_FILE_EXTENSION"
+    val newerFile = "20240101000100_host_2$STRUCTURED_LOG_FILE_EXTENSION"
+    val newerEvents = buildLogEvents(numLines = 4, startingTimestamp = 60_000L)
+    val (newerDocument, newerIndex) = indexedDocument(newerEvents)
+
+    val storageClient =
+      mockk<StorageClient> {
+        every { list(any()) } returns listOf(olderFile, logIndexId(olderFile), newerFile, logIndexId(newerFile))
+        every { read(logIndexId(newerFile)) } returns objectMapper.writeValueAsString(newerIndex)
+        every { readRange(newerFile, any(), any()) } answers { slice(newerDocument, secondArg(), thirdArg()) }
+        every { storageType } returns StorageType.GCS
+      }
+    val logClient = logClient(storageClient)
+
+    val result = logClient.tailLogs(logPath = logPath, numLines = 3)
+
+    assertEquals(newerEvents.events.takeLast(3), result.events)
+    verify(exactly = 0) { storageClient.read(logIndexId(olderFile)) }
+    verify(exactly = 0) { storageClient.readRange(olderFile, any(), any()) }
+  }
+
+  @Test
+  fun testTailLogsStreamsFilesWithoutIndex() {
+    val logPath = "log-path"
+    val file = "20240101000000_host_1$STRUCTURED_LOG_FILE_EXTENSION"
+    val logEvents = buildLogEvents(numLines = 10, startingTimestamp = 0L)
+
+    val storageClient =
+      mockk<StorageClient> {
+        every { list(any()) } returns listOf(file)
+        every { read(logIndexId(file)) } returns null
+        every { readStream(file) } answers { objectMapper.writeValueAsBytes(logEvents).inputStream() }
+        every { storageType } returns StorageType.AZURE
+      }
+    val logClient = logClient(storageClient)
+
+    val result = logClient.tailLogs(logPath = logPath, numLines = 4)
+
+    assertEquals(logEvents.events.takeLast(4), result.events)
+    verify(exactly = 0) { storageClient.readRange(any(), any(), any()) }
+  }
+
+  @Test
+  fun testCompressedAndUncompressedLogsLocal(
+    @TempDir tempDir: Path,
+  ) {
+    val buckets =
+      StorageBucketConfig(
+        log = "log",
+        state = "state",
+        workloadOutput = "workload",
+        activityPayload = "payload",
+        auditLogging = null,
+        profilerOutput = null,
+        replicationDump = null,
+      )
+    val storageClient = LocalStorageClient(config = LocalStorageConfig(buckets = buckets, root = tempDir.pathString), type = DocumentType.LOGS)
+    val logPath = "job/0"
+
+    // Written before compression was enabled
+    val legacyFile = "$logPath/20240101000000_host_1$STRUCTURED_LOG_FILE_EXTENSION"
+    storageClient.write(legacyFile, objectMapper.writeValueAsString(buildLogEvents(numLines = 300, startingTimestamp = 0L)))
+
+    val encoder = AirbyteLogEventEncoder().apply { start() }
+    val compressedFile = "$logPath/20240101000100_host_2$STRUCTURED_LOG_FILE_EXTENSION"
+    val loggingEvents = (301..1000).map { buildLoggingEvent(it) }
+    val indexedDocument = encoder.bulkEncodeWithIndex(loggingEvents = loggingEvents, contentEncoding = ContentEncoding.GZIP)
+    storageClient.write(compressedFile, indexedDocument.document, ContentEncoding.GZIP)
+    storageClient.write(logIndexId(compressedFile), encoder.encodeIndex(indexedDocument.index))
+
+    val logClient = logClient(storageClient)
+
+    assertEquals((1..1000).map { "log line $it" }, logClient.getLogs(logPath = logPath, numLines = 1000).events.map { it.message })
+    assertEquals(1000, logClient.tailCloudLogs(logPath = logPath, numLines = 1000).size)
+    assertEquals((201..1000).map { "log line $it" }, logClient.tailLogs(logPath = logPath, numLines = 800).events.map { it.message })
+    assertEquals((991..1000).map { "log line $it" }, logClient.tailLogs(logPath = logPath, numLines = 10).events.map { it.message })
+  }
+
+  private fun logClient(storageClient: StorageClient): LogClient =
+    LogClient(
+      storageClientFactory = mockk { every { create(DocumentType.LOGS) } returns storageClient },
+      mapper = objectMapper,
+      logEventLayout = logEventLayout,
+      metricClient = metricClient,
+    )
+
+  private fun slice(
+    document: ByteArray,
+    offset: Long,
+    length: Long,
+  ): ByteArray = document.copyOfRange(offset.toInt(), (offset + length).toInt())
+
+  /**
+   * Serializes the events the way the log uploader does, along with their index.
+   */
+  private fun indexedDocument(logEvents: LogEvents): Pair<ByteArray, LogFileIndex> {
+    val prefix = "{\"events\":[".toByteArray()
+    val encodedEvents = logEvents.events.map { objectMapper.writeValueAsBytes(it) }
+    val offsets = encodedEvents.runningFold(prefix.size.toLong()) { offset, event -> offset + event.size + 1 }.dropLast(1)
+    val events = encodedEvents.reduce { acc, event -> acc + ",".toByteArray() + event }
+    val document = prefix + events + "],\"version\":\"$LOG_EVENT_SCHEMA_VERSION\"}".toByteArray()
+    val index =
+      LogFileIndex(
+        eventCount = logEvents.events.size,
+        firstTimestamp = logEvents.events.first().timestamp,
+        lastTimestamp = logEvents.events.last().timestamp,
+        offsets = offsets,
+        endOffset = offsets.last() + encodedEvents.last().size - 1,
+      )
+    return document to index
+  }
+
+  private fun buildLoggingEvent(line: Int): ILoggingEvent =
+    mockk {
+      every { callerData } returns arrayOf()
+      every { formattedMessage } returns "log line $line"
+      every { level } returns Level.INFO
+      every { loggerName } returns "io.airbyte.TestClass"
+      every { mdcPropertyMap } returns emptyMap()
+      every { threadName } returns "Test Thread"
+      every { throwableProxy } returns null
+      every { timeStamp } returns line * 1000L
+    }
+
   private fun buildLogEvents(
     numLines: Int,
     startingTimestamp: Long,
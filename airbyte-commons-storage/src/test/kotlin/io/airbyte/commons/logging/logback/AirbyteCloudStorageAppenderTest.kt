@@ -14,6 +14,7 @@ import ch.qos.logback.core.status.StatusManager
 import io.airbyte.commons.envvar.EnvVar
 import io.airbyte.commons.resources.Resources
 import io.airbyte.commons.storage.AzureStorageClient
+import io.airbyte.commons.storage.ContentEncoding
 import io.airbyte.commons.storage.DocumentType
 import io.airbyte.commons.storage.GcsStorageClient
 import io.airbyte.commons.storage.LocalStorageClient
@@ -22,12 +23,16 @@ import io.airbyte.commons.storage.S3StorageClient
 import io.airbyte.commons.storage.STRUCTURED_LOG_FILE_EXTENSION
 import io.airbyte.commons.storage.StorageClient
 import io.airbyte.commons.storage.createFileId
+import io.airbyte.commons.storage.logIndexId
 import io.mockk.every
+import io.mockk.justRun
 import io.mockk.mockk
 import io.mockk.verify
 import org.junit.jupiter.api.AfterEach
 import org.junit.jupiter.api.Assertions.assertEquals
 import org.junit.jupiter.api.Test
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.EnumSource
 import java.io.IOException
 import java.nio.file.Files
 import java.util.UUID
@@ -209,7 +214,7 @@ private class AirbyteCloudStorageAppenderTest {
 
     Thread.sleep(TimeUnit.SECONDS.toMillis(period * 2))
 
-    verify(exactly = 1) { storageClient.write(any<String>(), any<String>()) }
+    verify(exactly = 1) { storageClient.write(any<String>(), any<ByteArray>(), ContentEncoding.GZIP) }
   }
 
   @Test
@@ -217,7 +222,7 @@ private class AirbyteCloudStorageAppenderTest {
     val baseStorageId = "/path/to/logs"
     val storageClient =
       mockk<StorageClient> {
-        every { write(any<String>(), any<String>()) } throws IOException("test")
+        every { write(any<String>(), any<ByteArray>(), any()) } throws IOException("test")
       }
     val className = "io.airbyte.TestClass"
     val context = emptyMap<String, String>()
@@ -265,10 +270,47 @@ private class AirbyteCloudStorageAppenderTest {
 
     Thread.sleep(TimeUnit.SECONDS.toMillis(period * 2))
 
-    verify(exactly = 1) { storageClient.write(any<String>(), any<String>()) }
+    verify(exactly = 1) { storageClient.write(any<String>(), any<ByteArray>(), any()) }
     verify(exactly = 1) { statusManager.add(any<ErrorStatus>()) }
   }
 
+  @ParameterizedTest
+  @EnumSource(ContentEncoding::class)
+  fun testStorageUploadWritesIndex(contentEncoding: ContentEncoding) {
+    val storageClient =
+      mockk<StorageClient> {
+        justRun { write(any(), any<String>()) }
+        justRun { write(any(), any<ByteArray>(), any()) }
+      }
+    val event =
+      mockk<ILoggingEvent> {
+        every { callerData } returns arrayOf(StackTraceElement("io.airbyte.TestClass", "testMethod", "TestClass.kt", 12345))
+        every { formattedMessage } returns "test message"
+        every { level } returns Level.INFO
+        every { loggerName } returns PLATFORM_LOGGER_NAME
+        every { mdcPropertyMap } returns emptyMap()
+        every { threadName } returns "Test Thread"
+        every { throwableProxy } returns null
+        every { timeStamp } returns 0L
+      }
+    val encoder = AirbyteLogEventEncoder().apply { start() }
+    val uploader =
+      AirbyteLogbackBulkUploader(
+        baseStorageId = "/path/to/logs",
+        storageClient = storageClient,
+        contentEncoding = contentEncoding,
+        encoder = encoder,
+        addStatus = {},
+      )
+    val storageId = uploader.currentStorageId
+
+    uploader.append(event)
+    uploader.upload()
+
+    verify(exactly = 1) { storageClient.write(storageId, any<ByteArray>(), contentEncoding) }
+    verify(exactly = 1) { storageClient.write(logIndexId(storageId), match { it.contains("\"eventCount\":1") }) }
+  }
+
   @Test
   fun testIdScrubbing() {
     val baseStorageId = "/path/to/logs/"
@@ -276,8 +318,8 @@ private class AirbyteCloudStorageAppenderTest {
     val hostname = "localhost"
     val uniqueId = UUID.randomUUID().toString()
 
-    val id = createFileId(baseId = baseStorageId, timestamp = timestamp, hostname = hostname, uniqueIdentifier = uniqueId)
+    val id = createFileId(baseId = baseStorageId, timestamp = timestamp, sequence = 42, hostname = hostname, uniqueIdentifier = uniqueId)
 
-    assertEquals("${baseStorageId.trim('/')}/${timestamp}_${hostname}_${uniqueId.replace("-","")}$STRUCTURED_LOG_FILE_EXTENSION", id)
+    assertEquals("${baseStorageId.trim('/')}/${timestamp}_0000000042_${hostname}_${uniqueId.replace("-","")}$STRUCTURED_LOG_FILE_EXTENSION", id)
   }
 }
@@ -7,13 +7,19 @@ package io.airbyte.commons.logging.logback
 import ch.qos.logback.classic.Level
 import ch.qos.logback.classic.spi.ILoggingEvent
 import ch.qos.logback.classic.spi.ThrowableProxy
+import com.fasterxml.jackson.module.kotlin.readValue
 import io.airbyte.commons.jackson.MoreMappers
 import io.airbyte.commons.logging.LogEvent
+import io.airbyte.commons.logging.LogEvents
+import io.airbyte.commons.logging.LogFileIndex
 import io.airbyte.commons.logging.LogSource
+import io.airbyte.commons.storage.ContentEncoding
+import io.airbyte.commons.storage.decodeContent
 import io.mockk.every
 import io.mockk.mockk
 import kotlinx.coroutines.CancellationException
 import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertTrue
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 
@@ -74,4 +80,70 @@ internal class AirbyteLogEventEncoderTest {
     assertEquals(exception.message, structuredEvent.throwable?.message)
     assertEquals(timestamp, structuredEvent.timestamp)
   }
+
+  @Test
+  fun testBulkEncodingWithIndex() {
+    val objectMapper = MoreMappers.initMapper()
+    val events = buildLoggingEvents(listOf(3000L, 1000L, 2000L))
+
+    val indexedDocument = encoder.bulkEncodeWithIndex(loggingEvents = events)
+    val document = indexedDocument.document
+    val index = indexedDocument.index
+
+    assertEquals(objectMapper.readValue<LogEvents>(encoder.bulkEncode(loggingEvents = events)), objectMapper.readValue<LogEvents>(document))
+    assertEquals(3, index.eventCount)
+    assertEquals(1000L, index.firstTimestamp)
+    assertEquals(3000L, index.lastTimestamp)
+    (0 until index.eventCount).forEach { i ->
+      val (offset, length) = index.byteRange(from = i, to = i + 1)
+      val event = objectMapper.readValue<LogEvent>(document.copyOfRange(offset.toInt(), (offset + length).toInt()))
+      assertEquals("message é $i", event.message)
+    }
+    val (offset, length) = index.byteRange(from = 1)
+    val tailBytes = document.copyOfRange(offset.toInt(), (offset + length).toInt())
+    val tail = objectMapper.readValue<List<LogEvent>>("[".toByteArray() + tailBytes + "]".toByteArray())
+    assertEquals(listOf("message é 1", "message é 2"), tail.map { it.message })
+    assertEquals(index, objectMapper.readValue<LogFileIndex>(encoder.encodeIndex(index)))
+  }
+
+  @Test
+  fun testCompressedBulkEncodingWithIndex() {
+    val objectMapper = MoreMappers.initMapper()
+    val events = buildLoggingEvents((1..600L).map { it * 1000 })
+
+    val indexedDocument = encoder.bulkEncodeWithIndex(loggingEvents = events, contentEncoding = ContentEncoding.GZIP)
+    val document = indexedDocument.document
+    val index = indexedDocument.index
+
+    assertEquals(
+      objectMapper.readValue<LogEvents>(encoder.bulkEncode(loggingEvents = events)),
+      objectMapper.readValue<LogEvents>(decodeContent(document)),
+    )
+    assertTrue(document.size < encoder.bulkEncode(loggingEvents = events).length)
+    assertEquals(600, index.eventCount)
+    assertEquals(ContentEncoding.GZIP, index.contentEncoding)
+    assertEquals(3, index.offsets.size)
+
+    listOf(10, 300, 600).forEach { numLines ->
+      val (offset, length) = index.byteRange(from = index.eventCount - numLines)
+      val blocks = ContentEncoding.GZIP.decode(document.copyOfRange(offset.toInt(), (offset + length).toInt()))
+      val tail = objectMapper.readValue<List<LogEvent>>("[".toByteArray() + blocks + "]".toByteArray()).takeLast(numLines)
+      assertEquals((600 - numLines until 600).map { "message é $it" }, tail.map { it.message })
+    }
+    assertEquals(index, objectMapper.readValue<LogFileIndex>(encoder.encodeIndex(index)))
+  }
+
+  private fun buildLoggingEvents(timestamps: List<Long>): List<ILoggingEvent> =
+    timestamps.mapIndexed { i, timestamp ->
+      mockk<ILoggingEvent> {
+        every { callerData } returns arrayOf(StackTraceElement("io.airbyte.TestClass", "testMethod", "TestClass.kt", i))
+        every { formattedMessage } returns "message é $i"
+        every { level } returns Level.INFO
+        every { loggerName } returns PLATFORM_LOGGER_NAME
+        every { mdcPropertyMap } returns emptyMap()
+        every { threadName } returns "Test Thread"
+        every { throwableProxy } returns null
+        every { timeStamp } returns timestamp
+      }
+    }
 }
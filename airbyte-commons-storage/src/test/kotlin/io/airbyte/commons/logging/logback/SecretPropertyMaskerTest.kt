@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.commons.logging.logback
+
+import io.airbyte.commons.constants.AirbyteSecretConstants.SECRETS_MASK
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertSame
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.ValueSource
+import kotlin.random.Random
+
+private val PROPERTIES = setOf("api_key", "apiKey", "password", "client-secret", "token", "access_token", "X-Postmark-Server-Token")
+
+/**
+ * The regular expression that [SecretPropertyMasker] replaces, which it must behave exactly like.
+ */
+private val LEGACY_PATTERN =
+  "(?i)\"(${PROPERTIES.joinToString("|")})\"\\s*:\\s*(\"(?:[^\"\\\\]|\\\\.)*\"|\\[[^]\\[]*]|\\d+)".toPattern()
+private const val LEGACY_REPLACEMENT = "\"$1\":\"$SECRETS_MASK\""
+
+class SecretPropertyMaskerTest {
+  private val masker = SecretPropertyMasker(PROPERTIES)
+
+  private fun legacyMask(message: String): String = LEGACY_PATTERN.matcher(message).replaceAll(LEGACY_REPLACEMENT)
+
+  @Test
+  fun `messages without maskable properties are returned as is`() {
+    val message = """{"user":"alice","token_count":3,"passwords_reset":[1,2]}"""
+
+    assertSame(message, masker.mask(message))
+  }
+
+  @Test
+  fun `string, number and array values are masked`() {
+    val message = """{"password":"hunter2","token":  1234, "nested":{"api_key" : ["a","b"]},"user":"alice"}"""
+
+    assertEquals(
+      """{"password":"$SECRETS_MASK","token":"$SECRETS_MASK", "nested":{"api_key":"$SECRETS_MASK"},"user":"alice"}""",
+      masker.mask(message),
+    )
+  }
+
+  @Test
+  fun `property names are matched regardless of their case and keep their case`() {
+    assertEquals("""{"PassWord":"$SECRETS_MASK","APIKEY":"$SECRETS_MASK"}""", masker.mask("""{"PassWord":"a","APIKEY":"b"}"""))
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+    strings = [
+      """{"password":"escaped \"quote\" and \\ backslash","token":"x"}""",
+      """{"password":"dangling escape \""",
+      """{"password":"unterminated""",
+      """{"password":["nested",["array"]],"token":1}""",
+      """{"password":true,"token":null,"api_key":-1,"access_token":12.5}""",
+      """{"password" "missing colon","token"""",
+      """"password":"a""token":"b"""",
+      """{"password":"a","password":"b"}""",
+      """{"access_token":"a","token":"b","my_token":"c","token_type":"d"}""",
+      """{"client-secret":"a","x-postmark-server-token":"b"}""",
+      """config {"password"
+        :
+        "multi line"}""",
+      """{"password":"line\
+break"}""",
+      """{"passwörd":"a","pässword":"b","PASSWORD":"c"}""",
+      """"""",
+      """"token""",
+      "",
+    ],
+  )
+  fun `masking matches the legacy regular expression`(message: String) {
+    assertEquals(legacyMask(message), masker.mask(message))
+  }
+
+  @Test
+  fun `masking matches the legacy regular expression on random messages`() {
+    val random = Random(42)
+    val fragments =
+      listOf("\"", "\\", ":", " ", "\n", "[", "]", "{", "}", ",", "1", "a", "é") +
+        PROPERTIES.flatMap { listOf(it, it.uppercase(), "\"$it\"") }
+
+    repeat(10_000) {
+      val message = buildString { repeat(random.nextInt(20)) { append(fragments.random(random)) } }
+      assertEquals(legacyMask(message), masker.mask(message), "Masking differs for $message")
+    }
+  }
+
+  @Test
+  fun `no property is masked when there are no maskable properties`() {
+    val message = """{"password":"hunter2"}"""
+
+    assertSame(message, SecretPropertyMasker(emptySet()).mask(message))
+  }
+}
@@ -9,6 +9,7 @@ import io.mockk.mockk
 import io.mockk.unmockkAll
 import io.mockk.verify
 import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Assertions.assertEquals
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 import java.util.concurrent.TimeUnit
@@ -49,4 +50,71 @@ class AirbyteCloudStorageBulkUploaderTest {
 
     verify(exactly = 1) { storageClient.write(any(), eq("[\"message-1\"]")) }
   }
+
+  @Test
+  fun `upload compresses the json with the content encoding`() {
+    every { storageClient.write(any(), any<ByteArray>(), any()) } returns Unit
+
+    val uploader =
+      AirbyteCloudStorageBulkUploader<String>(
+        baseStorageId = "/objects",
+        storageClient = storageClient,
+        contentEncoding = ContentEncoding.GZIP,
+      )
+
+    uploader.append("message-1")
+    uploader.upload()
+
+    verify(exactly = 1) {
+      storageClient.write(any(), match<ByteArray> { decodeContent(it).decodeToString() == "[\"message-1\"]" }, ContentEncoding.GZIP)
+    }
+  }
+
+  @Test
+  fun `upload is triggered before the end of the period once the buffer reaches its flush threshold`() {
+    every { storageClient.write(any(), any()) } returns Unit
+
+    val uploader =
+      AirbyteCloudStorageBulkUploader<String>(
+        baseStorageId = "/objects",
+        storageClient = storageClient,
+        period = 1L,
+        unit = TimeUnit.HOURS,
+        maxBufferBytes = 4096L,
+        sizeOf = { 1024L },
+      )
+
+    uploader.start()
+    uploader.append("message-1")
+
+    verify(timeout = TimeUnit.SECONDS.toMillis(5)) { storageClient.write(any(), eq("[\"message-1\"]")) }
+    uploader.stop()
+  }
+
+  @Test
+  fun `files uploaded within the same second sort in upload order`() {
+    val ids = mutableListOf<String>()
+    every { storageClient.write(capture(ids), any()) } returns Unit
+
+    val uploader =
+      AirbyteCloudStorageBulkUploader<String>(
+        baseStorageId = "/objects",
+        storageClient = storageClient,
+      )
+
+    (1..10).forEach {
+      uploader.append("message-$it")
+      uploader.upload()
+    }
+
+    assertEquals(10, ids.toSet().size)
+    assertEquals(ids.reversed(), ids.sortedDescending())
+  }
+
+  @Test
+  fun `file ids with the same timestamp sort by sequence`() {
+    val ids = (0L..10L).map { createFileId(baseId = "/objects", timestamp = "20250101000000000", sequence = it, hostname = "host") }
+
+    assertEquals(ids.reversed(), ids.sortedDescending())
+  }
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.commons.storage
+
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+
+private const val EVENT_SIZE = 10L
+
+class BoundedEventBufferTest {
+  private fun buffer(
+    maxEvents: Long,
+    flushThresholdEvents: Long = maxEvents,
+    onFlushThreshold: () -> Unit = {},
+    sampleRate: Int = DEFAULT_OVERFLOW_SAMPLE_RATE,
+  ): BoundedEventBuffer<String> =
+    BoundedEventBuffer(
+      maxBytes = maxEvents * EVENT_SIZE,
+      flushThresholdBytes = flushThresholdEvents * EVENT_SIZE,
+      sizeOf = { if (it.startsWith("big")) maxEvents * EVENT_SIZE + 1 else EVENT_SIZE },
+      isLowPriority = { it.startsWith("debug") },
+      onFlushThreshold = onFlushThreshold,
+      sampleRate = sampleRate,
+    )
+
+  private fun BoundedEventBuffer<String>.drain(): List<String> = mutableListOf<String>().also { drainTo(it) }
+
+  @Test
+  fun `events are drained in the order they were added`() {
+    val buffer = buffer(maxEvents = 10)
+    listOf("info-1", "debug-1", "info-2", "debug-2").forEach { assertTrue(buffer.add(it)) }
+
+    assertEquals(4, buffer.size)
+    assertEquals(4 * EVENT_SIZE, buffer.bytes)
+    assertEquals(listOf("info-1", "debug-1", "info-2", "debug-2"), buffer.drain())
+    assertEquals(0, buffer.size)
+    assertEquals(0, buffer.bytes)
+  }
+
+  @Test
+  fun `the oldest low priority events are dropped first when the buffer overflows`() {
+    val droppedBefore = CloudStorageBulkUploaderStats.droppedEvents(DropReason.LOW_PRIORITY)
+    val buffer = buffer(maxEvents = 3)
+    listOf("debug-1", "info-1", "debug-2").forEach { buffer.add(it) }
+
+    assertTrue(buffer.add("info-2"))
+    assertTrue(buffer.add("info-3"))
+
+    assertEquals(listOf("info-1", "info-2", "info-3"), buffer.drain())
+    assertEquals(2, CloudStorageBulkUploaderStats.droppedEvents(DropReason.LOW_PRIORITY) - droppedBefore)
+  }
+
+  @Test
+  fun `incoming low priority events are dropped once the buffer is full of other events`() {
+    val buffer = buffer(maxEvents = 2)
+    listOf("info-1", "info-2").forEach { buffer.add(it) }
+
+    assertFalse(buffer.add("debug-1"))
+
+    assertEquals(listOf("info-1", "info-2"), buffer.drain())
+  }
+
+  @Test
+  fun `overflowing events are sampled and replace the oldest events`() {
+    val droppedBefore = CloudStorageBulkUploaderStats.droppedEvents(DropReason.SAMPLED)
+    val evictedBefore = CloudStorageBulkUploaderStats.droppedEvents(DropReason.EVICTED)
+    val buffer = buffer(maxEvents = 2, sampleRate = 3)
+    listOf("info-1", "info-2").forEach { buffer.add(it) }
+
+    val added = (3..8).map { buffer.add("info-$it") }
+
+    assertEquals(listOf(true, false, false, true, false, false), added)
+    assertEquals(listOf("info-3", "info-6"), buffer.drain())
+    assertEquals(4, CloudStorageBulkUploaderStats.droppedEvents(DropReason.SAMPLED) - droppedBefore)
+    assertEquals(2, CloudStorageBulkUploaderStats.droppedEvents(DropReason.EVICTED) - evictedBefore)
+  }
+
+  @Test
+  fun `events bigger than the buffer are dropped`() {
+    val buffer = buffer(maxEvents = 2)
+    buffer.add("info-1")
+
+    assertFalse(buffer.add("big-1"))
+
+    assertEquals(listOf("info-1"), buffer.drain())
+  }
+
+  @Test
+  fun `the flush threshold callback is called once the buffer reaches the threshold`() {
+    var calls = 0
+    val buffer = buffer(maxEvents = 10, flushThresholdEvents = 2, onFlushThreshold = { calls++ })
+
+    buffer.add("info-1")
+    assertEquals(0, calls)
+    buffer.add("info-2")
+    assertEquals(1, calls)
+    buffer.add("info-3")
+    assertEquals(2, calls)
+
+    buffer.drain()
+    buffer.add("info-4")
+    assertEquals(2, calls)
+  }
+}
@@ -137,7 +137,7 @@ internal class AzureStorageClientTest {
             every { exists() } returns true
             every { downloadContent() } returns
               mockk<BinaryData> BinaryData@{
-                every { this@BinaryData.toString() } returns DOC1
+                every { this@BinaryData.toBytes() } returns DOC1.toByteArray()
               }
           }
       }
@@ -429,6 +429,71 @@ internal class LocalStorageClientTest {
     assertTrue(Path.of(root.pathString, "state/boo-$now").exists())
   }
 
+  @Test
+  fun `stream and range reads`(
+    @TempDir tempDir: Path,
+  ) {
+    val config = LocalStorageConfig(buckets = buckets, root = tempDir.toString())
+    val client = LocalStorageClient(config = config, type = DocumentType.LOGS)
+
+    assertNull(client.readStream(KEY))
+    assertNull(client.readRange(KEY, 0, 1))
+
+    client.write(KEY, "0123456789")
+    assertEquals("0123456789", client.readStream(KEY)?.use { String(it.readAllBytes()) })
+    assertEquals("345", client.readRange(KEY, 3, 3)?.let { String(it) })
+    assertEquals("789", client.readRange(KEY, 7, 10)?.let { String(it) })
+  }
+
+  @Test
+  fun `compressed docs are decompressed on read`(
+    @TempDir tempDir: Path,
+  ) {
+    val config = LocalStorageConfig(buckets = buckets, root = tempDir.toString())
+    val client = LocalStorageClient(config = config, type = DocumentType.LOGS)
+    val compressed = ContentEncoding.GZIP.encode(DOC1.toByteArray(StandardCharsets.UTF_8))
+
+    client.write(KEY, compressed, ContentEncoding.GZIP)
+
+    assertEquals(DOC1, client.read(KEY))
+    assertEquals(DOC1, client.readStream(KEY)?.use { it.readAllBytes().toString(StandardCharsets.UTF_8) })
+    // ranges are read as stored
+    assertEquals(compressed.toList(), client.readRange(KEY, 0, compressed.size.toLong())?.toList())
+  }
+
+  @Test
+  fun `concatenated compressed docs are decompressed as a whole`(
+    @TempDir tempDir: Path,
+  ) {
+    val config = LocalStorageConfig(buckets = buckets, root = tempDir.toString())
+    val client = LocalStorageClient(config = config, type = DocumentType.LOGS)
+
+    client.write(KEY, ContentEncoding.GZIP.encode(DOC1.toByteArray()) + ContentEncoding.GZIP.encode(DOC2.toByteArray()), ContentEncoding.GZIP)
+
+    assertEquals(DOC1 + DOC2, client.read(KEY))
+    assertEquals(DOC1 + DOC2, client.readStream(KEY)?.use { String(it.readAllBytes()) })
+  }
+
+  @Test
+  fun `uncompressed docs are read as is`(
+    @TempDir tempDir: Path,
+  ) {
+    val config = LocalStorageConfig(buckets = buckets, root = tempDir.toString())
+    val client = LocalStorageClient(config = config, type = DocumentType.LOGS)
+
+    client.write(KEY, DOC1)
+    assertEquals(DOC1, client.read(KEY))
+    assertEquals(DOC1, client.readStream(KEY)?.use { String(it.readAllBytes()) })
+
+    client.write(KEY, DOC2.toByteArray(), ContentEncoding.IDENTITY)
+    assertEquals(DOC2, client.read(KEY))
+    assertEquals(DOC2, client.readStream(KEY)?.use { String(it.readAllBytes()) })
+
+    client.write(KEY, "")
+    assertEquals("", client.read(KEY))
+    assertEquals("", client.readStream(KEY)?.use { String(it.readAllBytes()) })
+  }
+
   @Test
   internal fun testToEnvVarMap() {
     val root = "/root/path"
@@ -545,7 +610,7 @@ internal class MinioStorageClientTest {
 
     every { s3Client.getObjectAsBytes(request) } returns
       mockk<ResponseBytes<GetObjectResponse>> {
-        every { asString(StandardCharsets.UTF_8) } returns DOC1
+        every { asByteArray() } returns DOC1.toByteArray()
       }
 
     with(client.read(KEY)) {
@@ -698,7 +763,7 @@ internal class S3StorageClientTest {
 
     every { s3Client.getObjectAsBytes(request) } returns
       mockk<ResponseBytes<GetObjectResponse>> {
-        every { asString(StandardCharsets.UTF_8) } returns DOC1
+        every { asByteArray() } returns DOC1.toByteArray()
       }
 
     with(client.read(KEY)) {
@@ -707,6 +772,31 @@ internal class S3StorageClientTest {
     }
   }
 
+  @Test
+  fun `read range of doc`() {
+    val s3Client: S3Client =
+      mockk {
+        every { createBucket(any<CreateBucketRequest>()) } returns mockk<CreateBucketResponse>()
+        every { headBucket(any<HeadBucketRequest>()) } throws NoSuchBucketException.builder().build()
+      }
+    val client = S3StorageClient(config = config, type = DocumentType.STATE, s3Client = s3Client)
+
+    val request =
+      GetObjectRequest
+        .builder()
+        .bucket(buckets.state)
+        .key(client.key(KEY))
+        .range("bytes=1-3")
+        .build()
+
+    every { s3Client.getObjectAsBytes(request) } returns
+      mockk<ResponseBytes<GetObjectResponse>> {
+        every { asByteArray() } returns DOC1.substring(1, 4).toByteArray()
+      }
+
+    assertEquals("ell", client.readRange(KEY, 1, 3)?.let { String(it) })
+  }
+
   @Test
   fun `write doc`() {
     val s3Client: S3Client =
@@ -729,6 +819,47 @@ internal class S3StorageClientTest {
     client.write(KEY, DOC1)
   }
 
+  @Test
+  fun `write compressed doc`() {
+    val s3Client: S3Client =
+      mockk {
+        every { createBucket(any<CreateBucketRequest>()) } returns mockk<CreateBucketResponse>()
+        every { headBucket(any<HeadBucketRequest>()) } throws NoSuchBucketException.builder().build()
+      }
+    val client = S3StorageClient(config = config, type = DocumentType.STATE, s3Client = s3Client)
+
+    val request =
+      PutObjectRequest
+        .builder()
+        .bucket(buckets.state)
+        .key(client.key(KEY))
+        .contentEncoding("gzip")
+        .build()
+
+    every { s3Client.putObject(request, any<RequestBody>()) } returns mockk()
+
+    client.write(KEY, ContentEncoding.GZIP.encode(DOC1.toByteArray()), ContentEncoding.GZIP)
+
+    verify { s3Client.putObject(request, any<RequestBody>()) }
+  }
+
+  @Test
+  fun `read compressed doc`() {
+    val s3Client: S3Client =
+      mockk {
+        every { createBucket(any<CreateBucketRequest>()) } returns mockk<CreateBucketResponse>()
+        every { headBucket(any<HeadBucketRequest>()) } throws NoSuchBucketException.builder().build()
+      }
+    val client = S3StorageClient(config = config, type = DocumentType.STATE, s3Client = s3Client)
+
+    every { s3Client.getObjectAsBytes(any<GetObjectRequest>()) } returns
+      mockk<ResponseBytes<GetObjectResponse>> {
+        every { asByteArray() } returns ContentEncoding.GZIP.encode(DOC1.toByteArray())
+      }
+
+    assertEquals(DOC1, client.read(KEY))
+  }
+
   @Test
   fun `delete doc`() {
     val s3Client: S3Client =
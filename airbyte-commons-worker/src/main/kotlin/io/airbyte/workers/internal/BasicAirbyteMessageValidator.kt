@@ -6,9 +6,11 @@ package io.airbyte.workers.internal
 
 import com.google.common.collect.Iterables
 import io.airbyte.commons.protocol.CatalogDiffHelpers.isDedup
+import io.airbyte.commons.protocol.serde.LazyDataAirbyteRecordMessage
 import io.airbyte.config.ConfiguredAirbyteCatalog
 import io.airbyte.config.SyncMode
 import io.airbyte.protocol.models.v0.AirbyteMessage
+import io.airbyte.protocol.models.v0.AirbyteRecordMessage
 import io.airbyte.workers.helper.AirbyteMessageExtractor.containsNonNullPK
 import io.airbyte.workers.helper.AirbyteMessageExtractor.getCatalogStreamFromMessage
 import io.airbyte.workers.helper.AirbyteMessageExtractor.getPks
@@ -62,7 +64,7 @@ object BasicAirbyteMessageValidator {
         }
         // required fields
         val record = message.record
-        if (record.stream == null || record.data == null || record.data.isNull || record.data.isEmpty) {
+        if (record.stream == null || hasNullOrEmptyData(record)) {
           return Optional.empty()
         }
         if (catalog.isPresent) {
@@ -181,4 +183,15 @@ object BasicAirbyteMessageValidator {
 
     return Optional.of(message)
   }
+
+  /**
+   * Checks the data of lazily deserialized records without materializing it, so that it is only built if something
+   * downstream needs it.
+   */
+  private fun hasNullOrEmptyData(record: AirbyteRecordMessage): Boolean =
+    if (record is LazyDataAirbyteRecordMessage) {
+      record.isDataNullOrEmpty
+    } else {
+      record.data == null || record.data.isNull || record.data.isEmpty
+    }
 }
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.internal
+
+import com.fasterxml.jackson.annotation.JsonIgnore
+import com.fasterxml.jackson.core.JsonParser
+import com.fasterxml.jackson.core.JsonToken
+import io.airbyte.commons.protocol.serde.AirbyteMessageV0StreamingDeserializer
+import io.airbyte.commons.protocol.serde.LazyDataAirbyteRecordMessage
+import io.airbyte.commons.protocol.serde.LazyDataAirbyteRecordMessage.Companion.deserializeData
+import io.airbyte.protocol.models.v0.AirbyteMessage
+import io.airbyte.protocol.models.v0.AirbyteStreamNameNamespacePair
+import java.io.IOException
+
+/**
+ * A [LazyDataAirbyteRecordMessage] that keeps the line it was read from, so it can be written back out unchanged.
+ *
+ * Only the envelope (`stream`, `namespace` and `emitted_at`) is populated when the message is created. The `data`
+ * node is deserialized from the original line the first time it is requested, so consumers that need it keep working
+ * unchanged. As long as neither the data nor the stream identity has been touched, [canPassThrough] returns true and the
+ * original line can be written to the destination as-is.
+ */
+class RawAirbyteRecordMessage internal constructor(
+  @get:JsonIgnore val rawLine: String,
+  dataStart: Int,
+  dataEnd: Int,
+  private val originalStream: String,
+  private val originalNamespace: String?,
+) : LazyDataAirbyteRecordMessage(
+    dataSupplier = { deserializeData(rawLine, dataStart, dataEnd) },
+    serializedDataLength = (dataEnd - dataStart).toLong(),
+    isDataEmpty = false,
+  ) {
+  init {
+    stream = originalStream
+    namespace = originalNamespace
+  }
+
+  /**
+   * Whether the original line still describes this record. Once the data has been materialized it may have been
+   * mutated, so the record has to go through regular serialization.
+   */
+  fun canPassThrough(): Boolean = !isDataMaterialized && stream == originalStream && namespace == originalNamespace
+}
+
+/**
+ * Whether this message is a record that was read in passthrough mode and has not been modified since.
+ */
+fun AirbyteMessage.isPassthroughRecord(): Boolean =
+  type == AirbyteMessage.Type.RECORD && (record as? RawAirbyteRecordMessage)?.canPassThrough() == true
+
+/**
+ * Shallow scanner that builds a [RawAirbyteRecordMessage] from a line without deserializing the record data.
+ *
+ * The line is read by [AirbyteMessageV0StreamingDeserializer.readRecordMessage], in strict mode: only RECORD messages in
+ * their canonical form are accepted, with a non-empty `data` object whose top level fields are all part of the stream's
+ * selected fields. Anything else (other message types, extra properties, unknown streams, fields that field selection
+ * would remove, ...) returns null so the caller can fall back to the regular deserialization path.
+ */
+internal class RawRecordScanner(
+  private val selectedFieldsByStream: Map<AirbyteStreamNameNamespacePair, Set<String>>,
+) {
+  fun scan(line: String): RawAirbyteRecordMessage? =
+    try {
+      // The stream is read again after the data, so the record may have been moved to another stream in the meantime.
+      val message = AirbyteMessageV0StreamingDeserializer.readRecordMessage(line, LineDataReader(line))
+      (message?.record as? RawAirbyteRecordMessage)?.takeIf { it.canPassThrough() }
+    } catch (e: IOException) {
+      // Let the regular deserializer deal with (and report) malformed lines.
+      null
+    } catch (e: IllegalArgumentException) {
+      null
+    }
+
+  private inner class LineDataReader(
+    private val line: String,
+  ) : AirbyteMessageV0StreamingDeserializer.RecordDataReader {
+    override val strict = true
+
+    override fun read(
+      parser: JsonParser,
+      stream: String?,
+      namespace: String?,
+    ): RawAirbyteRecordMessage? {
+      // The selected fields depend on the stream, which therefore has to be known before the data.
+      val selectedFields = selectedFieldsByStream[AirbyteStreamNameNamespacePair(stream ?: return null, namespace)] ?: return null
+      if (parser.currentToken() != JsonToken.START_OBJECT) {
+        return null
+      }
+      val dataStart = parser.currentTokenLocation().charOffset.toInt()
+      var fieldCount = 0
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        if (!selectedFields.contains(parser.currentName())) {
+          return null
+        }
+        fieldCount++
+        parser.nextToken()
+        parser.skipChildren()
+      }
+      if (fieldCount == 0) {
+        return null
+      }
+      return RawAirbyteRecordMessage(
+        rawLine = line,
+        dataStart = dataStart,
+        dataEnd = parser.currentLocation().charOffset.toInt(),
+        originalStream = stream,
+        originalNamespace = namespace,
+      )
+    }
+  }
+}
@@ -10,17 +10,20 @@ import io.airbyte.commons.logging.MdcScope
 import io.airbyte.commons.protocol.AirbyteMessageSerDeProvider
 import io.airbyte.commons.protocol.AirbyteMessageVersionedMigrator
 import io.airbyte.commons.protocol.AirbyteProtocolVersionedMigratorFactory
+import io.airbyte.commons.protocol.CatalogDiffHelpers.isDedup
 import io.airbyte.commons.protocol.serde.AirbyteMessageDeserializer
 import io.airbyte.commons.protocol.serde.AirbyteMessageV0Deserializer
 import io.airbyte.commons.protocol.serde.AirbyteMessageV0Serializer
 import io.airbyte.commons.version.Version
 import io.airbyte.config.ConfiguredAirbyteCatalog
+import io.airbyte.config.SyncMode
 import io.airbyte.metrics.MetricAttribute
 import io.airbyte.metrics.MetricClient
 import io.airbyte.metrics.OssMetricsRegistry
 import io.airbyte.metrics.lib.MetricTags
 import io.airbyte.protocol.models.v0.AirbyteLogMessage
 import io.airbyte.protocol.models.v0.AirbyteMessage
+import io.airbyte.protocol.models.v0.AirbyteStreamNameNamespacePair
 import io.airbyte.workers.helper.GsonPksExtractor
 import io.github.oshai.kotlinlogging.KLogger
 import io.github.oshai.kotlinlogging.KotlinLogging
@@ -53,6 +56,7 @@ const val MESSAGES_LOOK_AHEAD_FOR_DETECTION: Int = 10
 
 private const val TYPE_FIELD_NAME: String = "type"
 private const val MAXIMUM_CHARACTERS_ALLOWED: Int = 20000000
+private val PROTECTED_JSON_SCHEMA_KEYS = "^\\$(id|comment|schema)$".toRegex()
 
 internal val DEFAULT_MDC_SCOPE: MdcScope.Builder = MdcScope.DEFAULT_BUILDER
 val fallbackVersion: Version = Version("0.2.0")
@@ -74,6 +78,11 @@ private const val BUFFER_READ_AHEAD_LIMIT: Int = 2 * 1024 * 1024 // 2 megabytes
  *
  * Handles parsing and validation from a specific version of the Airbyte Protocol as well as
  * upgrading messages to the current version.
+ *
+ * When [recordPassthrough] is enabled and no protocol migration is needed, RECORD lines are only scanned
+ * for their envelope and returned as [RawAirbyteRecordMessage] so that their data doesn't have to be
+ * deserialized and serialized again on the way to the destination. Lines the scanner cannot fully account
+ * for go through the regular path.
  */
 class VersionedAirbyteStreamFactory<T>(
   private val serDeProvider: AirbyteMessageSerDeProvider =
@@ -86,6 +95,7 @@ class VersionedAirbyteStreamFactory<T>(
   private val invalidLineFailureConfiguration: InvalidLineFailureConfiguration,
   private val gsonPksExtractor: GsonPksExtractor,
   private val metricClient: MetricClient,
+  private val recordPassthrough: Boolean = false,
   private val logger: KLogger = KotlinLogging.logger { },
 ) : AirbyteStreamFactory {
   @JvmRecord
@@ -96,6 +106,7 @@ class VersionedAirbyteStreamFactory<T>(
   private lateinit var deserializer: AirbyteMessageDeserializer<AirbyteMessage>
   private var shouldDetectVersion = false
   private lateinit var migrator: AirbyteMessageVersionedMigrator<AirbyteMessage>
+  private var rawRecordScanner: RawRecordScanner? = null
 
   init {
     initializeForProtocolVersion(protocolVersion)
@@ -211,8 +222,33 @@ class VersionedAirbyteStreamFactory<T>(
     this.deserializer = serDeProvider.getDeserializer(protocolVersion) as AirbyteMessageDeserializer<AirbyteMessage>
     this.migrator = migratorFactory.getAirbyteMessageMigrator(protocolVersion)
     this.protocolVersion = protocolVersion
+    val isMostRecentVersion = protocolVersion.getMajorVersion() == migratorFactory.mostRecentVersion.getMajorVersion()
+    this.rawRecordScanner =
+      if (recordPassthrough && configuredAirbyteCatalog.isPresent && isMostRecentVersion) {
+        RawRecordScanner(getPassthroughSelectedFields(configuredAirbyteCatalog.get()))
+      } else {
+        null
+      }
   }
 
+  /**
+   * Selected top level fields of every stream eligible for passthrough. Incremental dedup streams are left out
+   * since validating their primary keys requires the record data.
+   */
+  private fun getPassthroughSelectedFields(catalog: ConfiguredAirbyteCatalog): Map<AirbyteStreamNameNamespacePair, Set<String>> =
+    catalog.streams
+      .filterNot { it.syncMode == SyncMode.INCREMENTAL && isDedup(it.destinationSyncMode) }
+      .mapNotNull { configuredStream ->
+        val propertiesNode = configuredStream.stream.jsonSchema.findPath("properties")
+        if (propertiesNode.isObject) {
+          val fields = mutableSetOf<String>()
+          propertiesNode.fieldNames().forEachRemaining { fieldName -> fields.add(PROTECTED_JSON_SCHEMA_KEYS.replace(fieldName, "$1")) }
+          AirbyteStreamNameNamespacePair(configuredStream.stream.name, configuredStream.stream.namespace) to fields
+        } else {
+          null
+        }
+      }.toMap()
+
   private suspend fun filterLog(message: AirbyteMessage): Boolean {
     val isLog = message.type == AirbyteMessage.Type.LOG
     if (isLog) {
@@ -267,6 +303,10 @@ class VersionedAirbyteStreamFactory<T>(
   ): Stream<AirbyteMessage?> {
     logLargeRecordWarning(line)
 
+    rawRecordScanner?.scan(line)?.let { record ->
+      return Stream.of(AirbyteMessage().withType(AirbyteMessage.Type.RECORD).withRecord(record))
+    }
+
     var m: Optional<AirbyteMessage> = deserializer.deserializeExact(line)
     if (m.isPresent) {
       m = BasicAirbyteMessageValidator.validate(m.get(), configuredAirbyteCatalog, origin)
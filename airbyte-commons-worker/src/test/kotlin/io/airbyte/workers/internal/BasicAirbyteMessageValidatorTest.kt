@@ -6,6 +6,8 @@ package io.airbyte.workers.internal
 
 import io.airbyte.commons.json.Jsons.emptyObject
 import io.airbyte.commons.json.Jsons.tryDeserializeExact
+import io.airbyte.commons.protocol.serde.AirbyteMessageV0StreamingDeserializer
+import io.airbyte.commons.protocol.serde.LazyDataAirbyteRecordMessage
 import io.airbyte.config.AirbyteStream
 import io.airbyte.config.ConfiguredAirbyteCatalog
 import io.airbyte.config.ConfiguredAirbyteStream
@@ -52,6 +54,18 @@ internal class BasicAirbyteMessageValidatorTest {
     Assert.assertTrue(m.isEmpty())
   }
 
+  @Test
+  fun testLazyRecordDataIsNotMaterialized() {
+    val deserializer = AirbyteMessageV0StreamingDeserializer()
+    val rec = deserializer.deserializeExact("{\"type\": \"RECORD\", \"record\": {\"stream\": \"users\", \"data\": {\"id\": 1}}}").get()
+    val empty = deserializer.deserializeExact("{\"type\": \"RECORD\", \"record\": {\"stream\": \"users\", \"data\": { }}}").get()
+
+    Assert.assertTrue(validate(rec, Optional.empty<ConfiguredAirbyteCatalog>(), MessageOrigin.SOURCE).isPresent())
+    Assert.assertTrue(validate(empty, Optional.empty<ConfiguredAirbyteCatalog>(), MessageOrigin.SOURCE).isEmpty())
+    Assert.assertFalse((rec.record as LazyDataAirbyteRecordMessage).isDataMaterialized)
+    Assert.assertFalse((empty.record as LazyDataAirbyteRecordMessage).isDataMaterialized)
+  }
+
   @Test
   fun testValidState() {
     val rec = createStateMessage(1)
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workers.internal
+
+import io.airbyte.commons.json.Jsons
+import io.airbyte.commons.protocol.AirbyteMessageMigrator
+import io.airbyte.commons.protocol.AirbyteMessageSerDeProvider
+import io.airbyte.commons.protocol.AirbyteProtocolVersionedMigratorFactory
+import io.airbyte.commons.protocol.ConfiguredAirbyteCatalogMigrator
+import io.airbyte.commons.protocol.serde.AirbyteMessageV0Deserializer
+import io.airbyte.commons.protocol.serde.AirbyteMessageV0Serializer
+import io.airbyte.commons.version.AirbyteProtocolVersion
+import io.airbyte.config.AirbyteStream
+import io.airbyte.config.ConfiguredAirbyteCatalog
+import io.airbyte.config.ConfiguredAirbyteStream
+import io.airbyte.config.DestinationSyncMode
+import io.airbyte.config.SyncMode
+import io.airbyte.protocol.models.v0.AirbyteMessage
+import io.airbyte.protocol.models.v0.AirbyteStreamNameNamespacePair
+import io.mockk.mockk
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertInstanceOf
+import org.junit.jupiter.api.Assertions.assertNotNull
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.ValueSource
+import java.util.Optional
+
+private const val STREAM = "users"
+private const val NAMESPACE = "public"
+
+internal class RawAirbyteRecordMessageTest {
+  private val scanner = RawRecordScanner(mapOf(AirbyteStreamNameNamespacePair(STREAM, NAMESPACE) to setOf("id", "name")))
+
+  @Test
+  fun `scans the envelope without materializing the data`() {
+    val line = """{"type":"RECORD","record":{"namespace":"public","stream":"users","data":{"id":1,"name":"a"},"emitted_at":1695224525688}}"""
+
+    val record = scanner.scan(line)
+
+    assertNotNull(record)
+    assertEquals(STREAM, record!!.stream)
+    assertEquals(NAMESPACE, record.namespace)
+    assertEquals(1695224525688, record.emittedAt)
+    assertFalse(record.isDataMaterialized)
+    assertTrue(record.canPassThrough())
+    assertEquals("""{"id":1,"name":"a"}""".length.toLong(), record.serializedDataLength)
+  }
+
+  @Test
+  fun `materializes the data on access`() {
+    val line = """{"type":"RECORD","record":{"namespace":"public","stream":"users","data":{"id":1,"name":{"first":"a"}},"emitted_at":1}}"""
+
+    val record = scanner.scan(line)!!
+
+    assertEquals(Jsons.deserialize("""{"id":1,"name":{"first":"a"}}"""), record.data)
+    assertTrue(record.isDataMaterialized)
+    assertFalse(record.canPassThrough())
+  }
+
+  @Test
+  fun `renaming the stream disables passthrough`() {
+    val line = """{"type":"RECORD","record":{"namespace":"public","stream":"users","data":{"id":1},"emitted_at":1}}"""
+
+    val record = scanner.scan(line)!!
+    record.stream = "prefix_users"
+
+    assertFalse(record.canPassThrough())
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+    strings = [
+      // Not a record.
+      """{"type":"STATE","state":{"type":"STREAM"}}""",
+      // Unknown stream.
+      """{"type":"RECORD","record":{"namespace":"public","stream":"orders","data":{"id":1},"emitted_at":1}}""",
+      // Field that field selection would remove.
+      """{"type":"RECORD","record":{"namespace":"public","stream":"users","data":{"id":1,"secret":"x"},"emitted_at":1}}""",
+      // Empty data.
+      """{"type":"RECORD","record":{"namespace":"public","stream":"users","data":{},"emitted_at":1}}""",
+      // Data that isn't an object.
+      """{"type":"RECORD","record":{"namespace":"public","stream":"users","data":[1],"emitted_at":1}}""",
+      // Data before the stream.
+      """{"type":"RECORD","record":{"data":{"id":1},"namespace":"public","stream":"users","emitted_at":1}}""",
+      // Value that the regular deserializer would coerce.
+      """{"type":"RECORD","record":{"namespace":"public","stream":"users","data":{"id":1},"emitted_at":"1"}}""",
+      // Stream changed after the data.
+      """{"type":"RECORD","record":{"namespace":"public","stream":"users","data":{"id":1},"stream":"orders","emitted_at":1}}""",
+      // Additional record property.
+      """{"type":"RECORD","record":{"namespace":"public","stream":"users","data":{"id":1},"emitted_at":1,"meta":{}}}""",
+      // Malformed line.
+      """{"type":"RECORD","record":{"namespace":"public","stream":"users","data":{"id":1""",
+    ],
+  )
+  fun `falls back when the line cannot be fully accounted for`(line: String) {
+    assertNull(scanner.scan(line))
+  }
+
+  @Test
+  fun `stream factory returns passthrough records when enabled`() {
+    val line = """{"type":"RECORD","record":{"namespace":"public","stream":"users","data":{"id":1},"emitted_at":1}}"""
+
+    val messages = streamFactory(recordPassthrough = true).toAirbyteMessage(line, MessageOrigin.SOURCE).toList()
+
+    assertEquals(1, messages.size)
+    assertEquals(AirbyteMessage.Type.RECORD, messages[0]!!.type)
+    assertInstanceOf(RawAirbyteRecordMessage::class.java, messages[0]!!.record)
+    assertTrue(messages[0]!!.isPassthroughRecord())
+  }
+
+  @Test
+  fun `stream factory deserializes records when disabled`() {
+    val line = """{"type":"RECORD","record":{"namespace":"public","stream":"users","data":{"id":1},"emitted_at":1}}"""
+
+    val messages = streamFactory(recordPassthrough = false).toAirbyteMessage(line, MessageOrigin.SOURCE).toList()
+
+    assertEquals(1, messages.size)
+    assertFalse(messages[0]!!.isPassthroughRecord())
+    assertEquals(Jsons.deserialize("""{"id":1}"""), messages[0]!!.record.data)
+  }
+
+  private fun streamFactory(recordPassthrough: Boolean): VersionedAirbyteStreamFactory<Any> {
+    val serDeProvider = AirbyteMessageSerDeProvider(listOf(AirbyteMessageV0Deserializer()), listOf(AirbyteMessageV0Serializer()))
+    serDeProvider.initialize()
+    val airbyteMessageMigrator = AirbyteMessageMigrator(mutableListOf())
+    airbyteMessageMigrator.initialize()
+    val configuredAirbyteCatalogMigrator = ConfiguredAirbyteCatalogMigrator(mutableListOf())
+    configuredAirbyteCatalogMigrator.initialize()
+    val catalog =
+      ConfiguredAirbyteCatalog().withStreams(
+        listOf(
+          ConfiguredAirbyteStream(
+            stream =
+              AirbyteStream(
+                name = STREAM,
+                jsonSchema = Jsons.deserialize("""{"type":"object","properties":{"id":{"type":"integer"}}}"""),
+                supportedSyncModes = listOf(SyncMode.FULL_REFRESH),
+                namespace = NAMESPACE,
+              ),
+            syncMode = SyncMode.FULL_REFRESH,
+            destinationSyncMode = DestinationSyncMode.APPEND,
+          ),
+        ),
+      )
+    return VersionedAirbyteStreamFactory(
+      serDeProvider = serDeProvider,
+      migratorFactory = AirbyteProtocolVersionedMigratorFactory(airbyteMessageMigrator, configuredAirbyteCatalogMigrator),
+      protocolVersion = AirbyteProtocolVersion.DEFAULT_AIRBYTE_PROTOCOL_VERSION,
+      configuredAirbyteCatalog = Optional.of(catalog),
+      invalidLineFailureConfiguration = VersionedAirbyteStreamFactory.InvalidLineFailureConfiguration(false),
+      gsonPksExtractor = mockk(relaxed = true),
+      metricClient = mockk(relaxed = true),
+      recordPassthrough = recordPassthrough,
+    )
+  }
+}
@@ -45,7 +45,12 @@ open class WorkloadQueueService(
 
     // TODO dataplaneGroup should not be nullable
     if (dataplaneGroup != null) {
-      workloadQueueRepository.enqueueWorkload(dataplaneGroup = dataplaneGroup, priority = priority.toInt(), workloadId = workloadId)
+      workloadQueueRepository.enqueueWorkload(
+        dataplaneGroup = dataplaneGroup,
+        priority = priority.toInt(),
+        workloadId = workloadId,
+        workloadType = workloadType.toString(),
+      )
 
       metricClient.count(
         metric = OssMetricsRegistry.WORKLOAD_MESSAGE_PUBLISHED,
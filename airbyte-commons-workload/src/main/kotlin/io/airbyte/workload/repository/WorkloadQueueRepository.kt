@@ -20,23 +20,35 @@ interface WorkloadQueueRepository : PageableRepository<WorkloadQueueItem, UUID>
   /**
    * This query explained:
    *
-   * The first CTE `polled_q_ids` gets the enqueued workload ids from the workload_queue table.
+   * The queue is split in lanes, one per workload type, so that a burst of one type of workloads, e.g. thousands
+   * of checks, doesn't starve the others. The lanes are dequeued in a weighted-fair manner: the n-th item of a lane
+   * of weight w comes after the items of the other lanes up to the n / w virtual time.
    *
-   * It leverages two PostgresQL features to this effect:
-   *    1) MATERIALIZED — this ensures the CTE is computed first and can be referenced by the
-   *       subsequent sub-queries.
-   *    2) FOR UPDATE SKIP LOCKED — this locks the selected rows immediately, preventing other
-   *       connections from seeing them. This guarantees exclusivity of the items and avoids
-   *       locking in application code.
+   * The first CTE `lanes` lists the lanes and their weights.
+   *
+   * The second CTE `lane_heads` gets the oldest enqueued items of each lane from the workload_queue table, without
+   * locking them. It is MATERIALIZED, which ensures the CTE is computed first and can be referenced by the subsequent
+   * sub-queries.
+   *
+   * The rows are optionally restricted to a range of partitions (see [PARTITION_BUCKETS]), so that concurrent
+   * pollers polling different partitions don't contend on the same rows.
    *
    * Additionally, it provides a couple of other features. Namely:
    *    1) Re-delivery — the `now() > poll_deadline` limits exclusivity to the deadline window. Once
    *       the window has elapsed, the subsequent poll will see this workload item. We set the
-   *       `poll_deadline` in the next CTE so stay tuned for the other half.
-   *    2) FIFO guarantees — sorting by ASC ensures first in first out.
+   *       `poll_deadline` in the `workloads` CTE so stay tuned for the other half.
+   *    2) FIFO guarantees within a lane — sorting by ASC ensures first in first out.
    *    3) Filtering acked messages.
    *
-   * The second CTE, `workloads`, does the update to the workload_queue rows that sets the
+   * The third CTE `candidate_q_ids` ranks the lane heads by virtual time and keeps the first ones.
+   *
+   * The fourth CTE `polled_q_ids` locks the candidates with FOR UPDATE SKIP LOCKED, so only the rows that are
+   * returned are locked, never the lane heads that weren't picked. Candidates locked by a concurrent poll are skipped
+   * rather than waited for, and the acked and deadline conditions are checked again on the locked rows, in case a
+   * concurrent poll picked them in the meantime. A poll that loses a race can return fewer items than requested, the
+   * next poll picks up the rest.
+   *
+   * The fifth CTE, `workloads`, does the update to the workload_queue rows that sets the
    * `poll_deadline`. This is what guarantees exclusivity. Subsequent polls within the `poll_deadline`
    * window will not see these items.
    *
@@ -51,19 +63,53 @@ interface WorkloadQueueRepository : PageableRepository<WorkloadQueueItem, UUID>
   @Join(value = "workloadLabels")
   @Query(
     """
-      WITH polled_q_ids AS MATERIALIZED (
-         SELECT id FROM workload_queue
+      WITH lanes (workload_type, weight) AS (
+         VALUES
+            ('sync', :syncWeight),
+            ('check', :checkWeight),
+            ('discover', :discoverWeight),
+            ('spec', :specWeight)
+      ),
+      lane_heads AS MATERIALIZED (
+         SELECT heads.id, heads.created_at, lanes.workload_type, lanes.weight FROM lanes
+            CROSS JOIN LATERAL (
+               SELECT q.id, q.created_at FROM workload_queue q
+                  WHERE
+                    (:dataplaneGroup IS NULL OR q.dataplane_group = :dataplaneGroup)
+                  AND
+                    (:priority IS NULL OR q.priority = :priority)
+                  AND
+                    q.workload_type = lanes.workload_type
+                  AND
+                    q.partition_key BETWEEN :partitionStart AND :partitionEnd
+                  AND
+                    q.acked_at IS NULL
+                  AND
+                    now() > q.poll_deadline
+               ORDER BY q.created_at ASC
+               LIMIT :quantity
+            ) heads
+      ),
+      candidate_q_ids AS MATERIALIZED (
+         SELECT id FROM (
+            SELECT
+               id,
+               created_at,
+               row_number() OVER (PARTITION BY workload_type ORDER BY created_at ASC)::float8 / weight AS virtual_time
+            FROM lane_heads
+         ) ranked
+         ORDER BY virtual_time ASC, created_at ASC
+         LIMIT :quantity
+      ),
+      polled_q_ids AS MATERIALIZED (
+         SELECT q.id FROM workload_queue q
             WHERE
-              (:dataplaneGroup IS NULL OR dataplane_group = :dataplaneGroup)
-            AND 
-              (:priority IS NULL OR priority = :priority)
+              q.id IN (SELECT id FROM candidate_q_ids)
             AND
-              acked_at IS NULL
+              q.acked_at IS NULL
             AND
-              now() > poll_deadline
-         ORDER BY created_at ASC
-         LIMIT :quantity
-         FOR UPDATE SKIP LOCKED
+              now() > q.poll_deadline
+         FOR UPDATE OF q SKIP LOCKED
       ),
       workloads AS (
         UPDATE workload_queue AS q
@@ -91,6 +137,12 @@ interface WorkloadQueueRepository : PageableRepository<WorkloadQueueItem, UUID>
     priority: Int?,
     quantity: Int = 1,
     redeliveryWindowSecs: Int = 300,
+    syncWeight: Int = 1,
+    checkWeight: Int = 1,
+    discoverWeight: Int = 1,
+    specWeight: Int = 1,
+    partitionStart: Int = 0,
+    partitionEnd: Int = PARTITION_BUCKETS - 1,
   ): List<Workload>
 
   @Query(
@@ -99,12 +151,16 @@ interface WorkloadQueueRepository : PageableRepository<WorkloadQueueItem, UUID>
        id,
        dataplane_group,
        priority,
-       workload_id
+       workload_id,
+       workload_type,
+       partition_key
     ) VALUES (
        gen_random_uuid(),
        :dataplaneGroup,
        :priority,
-       :workloadId
+       :workloadId,
+       :workloadType,
+       mod(mod(hashtext(:workloadId), $PARTITION_BUCKETS) + $PARTITION_BUCKETS, $PARTITION_BUCKETS)
     )
   """,
   )
@@ -112,6 +168,7 @@ interface WorkloadQueueRepository : PageableRepository<WorkloadQueueItem, UUID>
     dataplaneGroup: String,
     priority: Int,
     workloadId: String,
+    workloadType: String,
   ): WorkloadQueueItem
 
   @Query(
@@ -127,19 +184,21 @@ interface WorkloadQueueRepository : PageableRepository<WorkloadQueueItem, UUID>
         WHERE acked_at IS NULL
         AND (:dataplaneGroup IS NULL OR dataplane_group = :dataplaneGroup)
         AND (:priority IS NULL OR priority = :priority)
+        AND (:workloadType IS NULL OR workload_type = :workloadType)
         AND now() > poll_deadline
     """,
   )
   fun countEnqueuedWorkloads(
     dataplaneGroup: String?,
     priority: Int?,
+    workloadType: String? = null,
   ): Long
 
   @Query(
     """
-    SELECT count(*) as enqueued_count, dataplane_group, priority FROM workload_queue
+    SELECT count(*) as enqueued_count, dataplane_group, priority, workload_type FROM workload_queue
         WHERE acked_at IS NULL
-        GROUP BY dataplane_group, priority
+        GROUP BY dataplane_group, priority, workload_type
     """,
   )
   fun getEnqueuedWorkloadStats(): List<WorkloadQueueStats>
@@ -159,4 +218,13 @@ interface WorkloadQueueRepository : PageableRepository<WorkloadQueueItem, UUID>
 
   @InternalForTesting
   fun findByDataplaneGroup(dataplaneGroup: String): List<WorkloadQueueItem>
+
+  companion object {
+    /**
+     * The number of hash buckets the queue items are spread across. The bucket of an item is computed from the
+     * postgres hashtext of its workload id when it is enqueued, the same way the migration backfilled the existing
+     * items. Pollers restrict their polls to a range of buckets to poll a partition of the queue.
+     */
+    const val PARTITION_BUCKETS = 64
+  }
 }
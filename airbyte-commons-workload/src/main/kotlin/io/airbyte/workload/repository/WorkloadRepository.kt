@@ -185,6 +185,28 @@ interface WorkloadRepository : PageableRepository<Workload, String> {
     deadline: OffsetDateTime,
   ): Workload?
 
+  /**
+   * Batched version of [heartbeat], each workload is heartbeated with the deadline at the same index.
+   * Returns the workloads that were heartbeated, the other ones are no longer expected to heartbeat.
+   */
+  @Query(
+    """
+      UPDATE workload
+      SET
+       status = 'running',
+       deadline = heartbeat.deadline,
+       last_heartbeat_at = now(),
+       updated_at = now()
+      FROM unnest(array[:ids]::varchar[], array[:deadlines]::timestamptz[]) AS heartbeat(id, deadline)
+      WHERE workload.id = heartbeat.id AND workload.status in ('claimed', 'launched', 'running')
+      RETURNING workload.id, workload.status, workload.deadline, workload.auto_id
+    """,
+  )
+  fun heartbeats(
+    @Expandable ids: List<String>,
+    @Expandable deadlines: List<OffsetDateTime>,
+  ): List<WorkloadSummaryDTO>
+
   /**
    * Launch transitions a workload into a launched state if the workload was claimed or launched.
    * Succeed returns the workload if the status is launched.
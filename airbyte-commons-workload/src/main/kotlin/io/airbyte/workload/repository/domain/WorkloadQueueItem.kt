@@ -21,6 +21,8 @@ data class WorkloadQueueItem(
   var dataplaneGroup: String?,
   var priority: Int,
   var workloadId: String,
+  var workloadType: String = "sync",
+  var partitionKey: Int = 0,
   var pollDeadline: OffsetDateTime?,
   @Nullable
   var ackedAt: OffsetDateTime? = null,
@@ -14,4 +14,6 @@ data class WorkloadQueueStats(
   @Nullable
   var priority: Int? = null,
   var enqueuedCount: Long,
+  @Nullable
+  var workloadType: String? = null,
 )
@@ -47,7 +47,7 @@ class WorkloadQueueServiceTest {
     priority: WorkloadPriority,
     expectedQueue: String,
   ) {
-    every { workloadQueueRepository.enqueueWorkload(expectedQueue, priority.toInt(), workloadId) } returns
+    every { workloadQueueRepository.enqueueWorkload(expectedQueue, priority.toInt(), workloadId, workloadType.toString()) } returns
       WorkloadQueueItem(
         dataplaneGroup = expectedQueue,
         priority = priority.toInt(),
@@ -58,7 +58,7 @@ class WorkloadQueueServiceTest {
 
     workloadQueueService.create(workloadId, workloadInput, labels, logPath, mutexKey, workloadType, autoId, priority, expectedQueue)
 
-    verify { workloadQueueRepository.enqueueWorkload(expectedQueue, priority.toInt(), workloadId) }
+    verify { workloadQueueRepository.enqueueWorkload(expectedQueue, priority.toInt(), workloadId, workloadType.toString()) }
   }
 
   companion object {
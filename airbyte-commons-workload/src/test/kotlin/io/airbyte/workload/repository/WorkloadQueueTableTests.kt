@@ -9,6 +9,7 @@ import io.airbyte.db.instance.DatabaseConstants
 import io.airbyte.db.instance.test.TestDatabaseProviders
 import io.airbyte.workload.repository.domain.Workload
 import io.airbyte.workload.repository.domain.WorkloadLabel
+import io.airbyte.workload.repository.domain.WorkloadQueueStats
 import io.airbyte.workload.repository.domain.WorkloadStatus
 import io.airbyte.workload.repository.domain.WorkloadType
 import io.micronaut.context.ApplicationContext
@@ -25,10 +26,14 @@ import org.junit.jupiter.api.TestInstance
 import org.junit.jupiter.params.ParameterizedTest
 import org.junit.jupiter.params.provider.Arguments
 import org.junit.jupiter.params.provider.MethodSource
+import org.junit.jupiter.params.provider.ValueSource
 import org.testcontainers.containers.PostgreSQLContainer
 import java.time.OffsetDateTime
 import java.time.temporal.ChronoUnit
 import java.util.UUID
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
 import javax.sql.DataSource
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -55,11 +60,11 @@ class WorkloadQueueTableTests {
       )
     seeds.forEach {
       workloadRepo.save(it)
-      workloadQueueRepo.enqueueWorkload(it.dataplaneGroup!!, it.priority!!, it.id)
+      workloadQueueRepo.enqueueWorkload(it.dataplaneGroup!!, it.priority!!, it.id, it.type.toString())
     }
     workloads.forEach {
       workloadRepo.save(it)
-      workloadQueueRepo.enqueueWorkload(group, priority, it.id)
+      workloadQueueRepo.enqueueWorkload(group, priority, it.id, it.type.toString())
     }
 
     val result = workloadQueueRepo.pollWorkloadQueue(group, priority, quantity = 10)
@@ -76,7 +81,7 @@ class WorkloadQueueTableTests {
   ) {
     workloads.forEach {
       workloadRepo.save(it)
-      workloadQueueRepo.enqueueWorkload(group, priority, it.id)
+      workloadQueueRepo.enqueueWorkload(group, priority, it.id, it.type.toString())
     }
 
     val result1 = workloadQueueRepo.pollWorkloadQueue(group, priority, quantity = 10)
@@ -93,7 +98,7 @@ class WorkloadQueueTableTests {
 
     freshlyEnqueued.forEach {
       workloadRepo.save(it)
-      workloadQueueRepo.enqueueWorkload(group, priority, it.id)
+      workloadQueueRepo.enqueueWorkload(group, priority, it.id, it.type.toString())
     }
 
     val result3 = workloadQueueRepo.pollWorkloadQueue(group, priority, quantity = 10)
@@ -109,7 +114,7 @@ class WorkloadQueueTableTests {
   ) {
     workloads.forEach {
       workloadRepo.save(it)
-      workloadQueueRepo.enqueueWorkload(group, priority, it.id)
+      workloadQueueRepo.enqueueWorkload(group, priority, it.id, it.type.toString())
     }
     val result1 = workloadQueueRepo.pollWorkloadQueue(group, priority, quantity = 10, redeliveryWindowSecs = 0)
     assertWorkloadsEqual(workloads, result1, "workloads are delivered as expected")
@@ -130,7 +135,7 @@ class WorkloadQueueTableTests {
   ) {
     workloads.forEach {
       workloadRepo.save(it)
-      workloadQueueRepo.enqueueWorkload(group, priority, it.id)
+      workloadQueueRepo.enqueueWorkload(group, priority, it.id, it.type.toString())
     }
     // split the workloads in 2
     var index = 0
@@ -144,6 +149,136 @@ class WorkloadQueueTableTests {
     assertWorkloadsEqual(unAcked, result, "only un-acked workloads are delivered")
   }
 
+  @Test
+  fun `a burst of one workload type doesn't starve the other lanes`() {
+    val group = "group-1"
+    val checks = (1..10).map { Fixtures.workload(dataplaneGroup = group, type = WorkloadType.CHECK) }
+    val syncs = (1..2).map { Fixtures.workload(dataplaneGroup = group, type = WorkloadType.SYNC) }
+    (checks + syncs).forEach {
+      workloadRepo.save(it)
+      workloadQueueRepo.enqueueWorkload(group, 0, it.id, it.type.toString())
+    }
+
+    val result = workloadQueueRepo.pollWorkloadQueue(group, 0, quantity = 3, syncWeight = 2, checkWeight = 1)
+
+    // The syncs come at 1/2 and 2/2 of the virtual time, the first check at 1/1, the second one at 2/1.
+    assertWorkloadsEqual(syncs + checks.first(), result)
+  }
+
+  @Test
+  fun `each lane is dequeued in FIFO order`() {
+    val group = "group-1"
+    val checks = (1..5).map { Fixtures.workload(dataplaneGroup = group, type = WorkloadType.CHECK) }
+    checks.forEach {
+      workloadRepo.save(it)
+      workloadQueueRepo.enqueueWorkload(group, 0, it.id, it.type.toString())
+    }
+
+    val result1 = workloadQueueRepo.pollWorkloadQueue(group, 0, quantity = 2)
+    val result2 = workloadQueueRepo.pollWorkloadQueue(group, 0, quantity = 2)
+
+    assertWorkloadsEqual(checks.subList(0, 2), result1)
+    assertWorkloadsEqual(checks.subList(2, 4), result2)
+  }
+
+  @Test
+  fun `polling a partition only returns its workloads`() {
+    val group = "group-1"
+    val workloads = (1..20).map { Fixtures.workload(dataplaneGroup = group) }
+    workloads.forEach {
+      workloadRepo.save(it)
+      workloadQueueRepo.enqueueWorkload(group, 0, it.id, it.type.toString())
+    }
+    val half = WorkloadQueueRepository.PARTITION_BUCKETS / 2
+    val partitionKeys = workloadQueueRepo.findByDataplaneGroup(group).associate { it.workloadId to it.partitionKey }
+    Assertions.assertTrue(partitionKeys.values.all { it in 0 until WorkloadQueueRepository.PARTITION_BUCKETS })
+    val (firstHalf, secondHalf) = workloads.partition { partitionKeys.getValue(it.id) < half }
+
+    val result1 = workloadQueueRepo.pollWorkloadQueue(group, 0, quantity = 20, partitionStart = 0, partitionEnd = half - 1)
+    val result2 =
+      workloadQueueRepo.pollWorkloadQueue(
+        group,
+        0,
+        quantity = 20,
+        partitionStart = half,
+        partitionEnd = WorkloadQueueRepository.PARTITION_BUCKETS - 1,
+      )
+
+    assertWorkloadsEqual(firstHalf, result1)
+    assertWorkloadsEqual(secondHalf, result2)
+  }
+
+  @Test
+  fun `enqueued workloads are counted per lane`() {
+    val group = "group-1"
+    val workloads =
+      listOf(
+        Fixtures.workload(dataplaneGroup = group, type = WorkloadType.SYNC),
+        Fixtures.workload(dataplaneGroup = group, type = WorkloadType.CHECK),
+        Fixtures.workload(dataplaneGroup = group, type = WorkloadType.CHECK),
+      )
+    workloads.forEach {
+      workloadRepo.save(it)
+      workloadQueueRepo.enqueueWorkload(group, 0, it.id, it.type.toString())
+    }
+
+    Assertions.assertEquals(3L, workloadQueueRepo.countEnqueuedWorkloads(group, 0))
+    Assertions.assertEquals(1L, workloadQueueRepo.countEnqueuedWorkloads(group, 0, WorkloadType.SYNC.toString()))
+    Assertions.assertEquals(2L, workloadQueueRepo.countEnqueuedWorkloads(group, 0, WorkloadType.CHECK.toString()))
+    Assertions.assertEquals(
+      setOf(
+        WorkloadQueueStats(group, 0, 1, WorkloadType.SYNC.toString()),
+        WorkloadQueueStats(group, 0, 2, WorkloadType.CHECK.toString()),
+      ),
+      workloadQueueRepo.getEnqueuedWorkloadStats().toSet(),
+    )
+  }
+
+  /**
+   * Concurrent pollers, either all polling the whole queue or each polling its own partition, must deliver every
+   * workload exactly once.
+   */
+  @ParameterizedTest
+  @ValueSource(ints = [1, 8])
+  fun `concurrent pollers drain the queue exactly once`(partitions: Int) {
+    val group = "group-1"
+    val workloads = (1..CONCURRENT_WORKLOADS).map { Fixtures.workload(dataplaneGroup = group) }
+    workloads.forEach {
+      workloadRepo.save(it)
+      workloadQueueRepo.enqueueWorkload(group, 0, it.id, it.type.toString())
+    }
+
+    val delivered = ConcurrentLinkedQueue<String>()
+    val executor = Executors.newFixedThreadPool(CONCURRENT_POLLERS)
+    try {
+      (0 until CONCURRENT_POLLERS)
+        .map { poller ->
+          executor.submit {
+            val partition = poller % partitions
+            val bucketsPerPartition = WorkloadQueueRepository.PARTITION_BUCKETS / partitions
+            while (delivered.size < workloads.size) {
+              val ownPartition =
+                workloadQueueRepo.pollWorkloadQueue(
+                  group,
+                  0,
+                  quantity = CONCURRENT_POLL_SIZE,
+                  partitionStart = partition * bucketsPerPartition,
+                  partitionEnd = (partition + 1) * bucketsPerPartition - 1,
+                )
+              // Once its own partition is drained, a poller helps with the others.
+              val polled = ownPartition.ifEmpty { workloadQueueRepo.pollWorkloadQueue(group, 0, quantity = CONCURRENT_POLL_SIZE) }
+              delivered.addAll(polled.map { it.id })
+            }
+          }
+        }.forEach { it.get(1, TimeUnit.MINUTES) }
+    } finally {
+      executor.shutdownNow()
+    }
+
+    Assertions.assertEquals(workloads.size, delivered.size)
+    Assertions.assertEquals(workloads.map { it.id }.toSet(), delivered.toSet())
+  }
+
   private fun pendingWorkloadMatrix(): List<Arguments> =
     listOf(
       Arguments.of(
@@ -223,7 +358,7 @@ class WorkloadQueueTableTests {
 
     initialEntries.forEach {
       workloadRepo.save(it)
-      workloadQueueRepo.enqueueWorkload(dataplaneGroup, priority, it.id)
+      workloadQueueRepo.enqueueWorkload(dataplaneGroup, priority, it.id, it.type.toString())
       workloadQueueRepo.ackWorkloadQueueItem(it.id)
     }
 
@@ -264,7 +399,7 @@ class WorkloadQueueTableTests {
       )
     initialEntries.forEach {
       workloadRepo.save(it)
-      workloadQueueRepo.enqueueWorkload(it.dataplaneGroup!!, it.priority!!, it.id)
+      workloadQueueRepo.enqueueWorkload(it.dataplaneGroup!!, it.priority!!, it.id, it.type.toString())
     }
 
     workloadQueueRepo.cleanUpAckedEntries(1000)
@@ -323,6 +458,10 @@ class WorkloadQueueTableTests {
     )
 
   companion object {
+    private const val CONCURRENT_WORKLOADS = 2000
+    private const val CONCURRENT_POLLERS = 8
+    private const val CONCURRENT_POLL_SIZE = 10
+
     private lateinit var context: ApplicationContext
     lateinit var workloadRepo: WorkloadRepository
     lateinit var workloadLabelRepo: WorkloadLabelRepository
@@ -376,6 +376,35 @@ class WorkloadRepositoryTest {
     assertEquals(safeguardWorkload.status, safeguardCheck.get().status)
   }
 
+  @Test
+  fun `heartbeats only update the workloads that are claimed, launched or running`() {
+    val workloads =
+      WorkloadStatus.entries.associateWith { status ->
+        Fixtures.workload(id = Fixtures.newWorkloadId(), dataplaneId = null, status = status, deadline = OffsetDateTime.now())
+      }
+    workloads.values.forEach { workloadRepo.save(it) }
+    val safeguardWorkload = Fixtures.workload(id = Fixtures.newWorkloadId(), dataplaneId = null, status = WorkloadStatus.RUNNING)
+    workloadRepo.save(safeguardWorkload)
+
+    val ids = workloads.values.map { it.id }
+    val deadlines = ids.indices.map { OffsetDateTime.now().plusMinutes(10L + it) }
+    val response = workloadRepo.heartbeats(ids, deadlines)
+
+    val heartbeatedStatuses = listOf(WorkloadStatus.CLAIMED, WorkloadStatus.LAUNCHED, WorkloadStatus.RUNNING)
+    assertEquals(heartbeatedStatuses.map { workloads[it]!!.id }.toSet(), response.map { it.id }.toSet())
+    workloads.forEach { (status, workload) ->
+      val actualWorkload = workloadRepo.findById(workload.id).get()
+      if (status in heartbeatedStatuses) {
+        assertEquals(WorkloadStatus.RUNNING, actualWorkload.status)
+        assertEquals(deadlines[ids.indexOf(workload.id)].truncateToTestPrecision(), actualWorkload.deadline?.truncateToTestPrecision())
+        assertNotNull(actualWorkload.lastHeartbeatAt)
+      } else {
+        assertEquals(status, actualWorkload.status)
+      }
+    }
+    assertEquals(safeguardWorkload.deadline, workloadRepo.findById(safeguardWorkload.id).get().deadline?.truncateToTestPrecision())
+  }
+
   @ParameterizedTest
   @EnumSource(WorkloadStatus::class, names = ["CLAIMED", "LAUNCHED"])
   fun `launch a workload updates the status if the workload was previously claimed or launched`(status: WorkloadStatus) {
@@ -27,6 +27,8 @@ enum class EnvVar {
 
   CDK_ENTRYPOINT,
   CDK_PYTHON,
+  CLOUD_STORAGE_APPENDER_BUFFER_BYTES,
+  CLOUD_STORAGE_APPENDER_CONTENT_ENCODING,
   CLOUD_STORAGE_APPENDER_THREADS,
   CONFIG_ROOT,
   CONNECTION_ID,
@@ -22,6 +22,7 @@ import com.google.common.base.Preconditions
 import io.airbyte.commons.jackson.MoreMappers.initMapper
 import java.io.File
 import java.io.IOException
+import java.io.Writer
 import java.util.Collections
 import java.util.Optional
 import java.util.Spliterator
@@ -86,6 +87,26 @@ object Jsons {
     }
   }
 
+  /**
+   * Serialize an object as JSON to a writer, without building the JSON string in memory. The writer receives exactly the
+   * characters of [serialize], and is closed once the object is written.
+   *
+   * @param obj to serialize
+   * @param writer to write the JSON to
+   * @param <T> type of object
+   */
+  @JvmStatic
+  fun <T> serialize(
+    obj: T?,
+    writer: Writer,
+  ) {
+    try {
+      OBJECT_MAPPER.writeValue(writer, obj)
+    } catch (e: IOException) {
+      throw RuntimeException(e)
+    }
+  }
+
   /**
    * Deserialize a JSON string to an object with a type.
    *
@@ -44,6 +44,7 @@ import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.function.Executable
 import java.io.IOException
 import java.io.Serializable
+import java.io.StringWriter
 import java.nio.charset.StandardCharsets
 import java.util.Map
 import java.util.Objects
@@ -105,6 +106,18 @@ internal class JsonsTest {
     )
   }
 
+  @Test
+  fun testSerializeToWriter() {
+    val writer = StringWriter()
+    Jsons.serialize<ToClass?>(ToClass(ABC, 999, 888L), writer)
+    Assertions.assertEquals(SERIALIZED_JSON, writer.toString())
+
+    val node = jsonNode(ImmutableMap.of(TEST, "caf\u00e9 \ud83d\ude00", TEST2, listOf(1, 2.5, null)))
+    val nodeWriter = StringWriter()
+    Jsons.serialize(node, nodeWriter)
+    Assertions.assertEquals(Jsons.serialize(node), nodeWriter.toString())
+  }
+
   @Test
   fun testDeserialize() {
     Assertions.assertEquals(
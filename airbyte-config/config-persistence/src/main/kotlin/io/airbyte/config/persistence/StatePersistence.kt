@@ -69,7 +69,7 @@ class StatePersistence(
       return Optional.empty()
     }
 
-    return when (getStateType(connectionId, records)) {
+    return when (getStateType(connectionId, records.map { it.type })) {
       StateType.GLOBAL ->
         Optional.of(
           buildGlobalState(records),
@@ -81,7 +81,9 @@ class StatePersistence(
   }
 
   /**
-   * Create or update the states described in the StateWrapper. Null states will be deleted.
+   * Create or update the states described in the StateWrapper. Null states will be deleted. Only the streams in the
+   * StateWrapper are written, the states of the other streams of the connection are left untouched, so callers can send
+   * the states of the streams that changed only.
    *
    * The only state migrations supported are going from a Legacy state to either a Global or Stream
    * state. Other state type migrations should go through an explicit reset. An exception will be
@@ -96,29 +98,43 @@ class StatePersistence(
     connectionId: UUID,
     state: StateWrapper,
   ) {
-    val previousState = getCurrentState(connectionId)
-    val currentStateType = state.stateType
-    val isMigration = isMigration(currentStateType, previousState)
-
-    // The only case where we allow a state migration is moving from LEGACY.
-    // We expect any other migration to go through an explicit reset.
-    check(!(!isMigration && previousState.isPresent && previousState.get().stateType != currentStateType)) {
-      (
-        "Unexpected type migration from '" + previousState.get().stateType + "' to '" + currentStateType +
-          "'. Migration of StateType need to go through an explicit reset."
-      )
-    }
-
     database.transaction<Any?> { ctx: DSLContext ->
-      if (isMigration) {
-        clearLegacyState(ctx, connectionId)
+      // The keys are read and locked in the transaction of the write, so that concurrent writes of the states of the
+      // connection can't update or delete these rows between the read and the write.
+      // Only the keys of the existing states are read, the states themselves are not needed to write the new ones.
+      val previousStateKeys = getStateKeys(ctx, connectionId)
+      val previousStateType =
+        if (previousStateKeys.isEmpty()) {
+          null
+        } else {
+          getStateType(connectionId, previousStateKeys.map { it.type }).convertTo<io.airbyte.config.StateType>()
+        }
+      val currentStateType = state.stateType
+      val isMigration = previousStateType != null && isMigration(currentStateType, previousStateType)
+
+      // The only case where we allow a state migration is moving from LEGACY.
+      // We expect any other migration to go through an explicit reset.
+      check(!(!isMigration && previousStateType != null && previousStateType != currentStateType)) {
+        (
+          "Unexpected type migration from '" + previousStateType + "' to '" + currentStateType +
+            "'. Migration of StateType need to go through an explicit reset."
+        )
       }
+
+      val existingStreams =
+        if (isMigration) {
+          clearLegacyState(ctx, connectionId)
+          emptySet()
+        } else {
+          previousStateKeys.map { StreamKey(it.streamName, it.namespace) }.toSet()
+        }
       when (state.stateType) {
         io.airbyte.config.StateType.GLOBAL ->
           saveGlobalState(
             ctx,
             connectionId,
             state.global.global,
+            existingStreams,
           )
 
         io.airbyte.config.StateType.STREAM ->
@@ -126,6 +142,7 @@ class StatePersistence(
             ctx,
             connectionId,
             state.stateMessages,
+            existingStreams,
           )
 
         io.airbyte.config.StateType.LEGACY ->
@@ -133,6 +150,7 @@ class StatePersistence(
             ctx,
             connectionId,
             state.legacyState,
+            existingStreams,
           )
 
         else -> {}
@@ -236,13 +254,30 @@ class StatePersistence(
     val state: JsonNode,
   )
 
+  @JvmRecord
+  private data class StateKey(
+    val type: StateType,
+    val streamName: String?,
+    val namespace: String?,
+  )
+
+  /**
+   * Identifies a state row of a connection, the shared state of a global state and legacy states have neither a stream
+   * name nor a namespace.
+   */
+  @JvmRecord
+  data class StreamKey(
+    val streamName: String?,
+    val namespace: String?,
+  )
+
   companion object {
     private fun clearLegacyState(
       ctx: DSLContext,
       connectionId: UUID,
     ) {
       val stateUpdateBatch = StateUpdateBatch()
-      writeStateToDb(ctx, connectionId, null, null, io.airbyte.config.StateType.LEGACY, null, stateUpdateBatch)
+      writeStateToDb(ctx, connectionId, null, null, io.airbyte.config.StateType.LEGACY, null, stateUpdateBatch, emptySet())
       stateUpdateBatch.save(ctx)
     }
 
@@ -250,9 +285,19 @@ class StatePersistence(
       ctx: DSLContext,
       connectionId: UUID,
       globalState: AirbyteGlobalState,
+      existingStreams: Set<StreamKey>,
     ) {
       val stateUpdateBatch = StateUpdateBatch()
-      writeStateToDb(ctx, connectionId, null, null, io.airbyte.config.StateType.GLOBAL, globalState.sharedState, stateUpdateBatch)
+      writeStateToDb(
+        ctx,
+        connectionId,
+        null,
+        null,
+        io.airbyte.config.StateType.GLOBAL,
+        globalState.sharedState,
+        stateUpdateBatch,
+        existingStreams,
+      )
       for (streamState in globalState.streamStates) {
         writeStateToDb(
           ctx,
@@ -262,6 +307,7 @@ class StatePersistence(
           io.airbyte.config.StateType.GLOBAL,
           streamState.streamState,
           stateUpdateBatch,
+          existingStreams,
         )
       }
       stateUpdateBatch.save(ctx)
@@ -271,6 +317,7 @@ class StatePersistence(
       ctx: DSLContext,
       connectionId: UUID,
       stateMessages: List<AirbyteStateMessage>,
+      existingStreams: Set<StreamKey>,
     ) {
       val stateUpdateBatch = StateUpdateBatch()
       for (stateMessage in stateMessages) {
@@ -283,6 +330,7 @@ class StatePersistence(
           io.airbyte.config.StateType.STREAM,
           streamState.streamState,
           stateUpdateBatch,
+          existingStreams,
         )
       }
       stateUpdateBatch.save(ctx)
@@ -292,16 +340,19 @@ class StatePersistence(
       ctx: DSLContext,
       connectionId: UUID,
       state: JsonNode?,
+      existingStreams: Set<StreamKey>,
     ) {
       val stateUpdateBatch = StateUpdateBatch()
-      writeStateToDb(ctx, connectionId, null, null, io.airbyte.config.StateType.LEGACY, state, stateUpdateBatch)
+      writeStateToDb(ctx, connectionId, null, null, io.airbyte.config.StateType.LEGACY, state, stateUpdateBatch, existingStreams)
       stateUpdateBatch.save(ctx)
     }
 
     /**
      * Performs the actual SQL operation depending on the state.
      *
-     * If the state is null, it will delete the row, otherwise do an insert or update on conflict
+     * If the state is null, it will delete the row, otherwise do an insert or an update depending on whether the stream
+     * is part of [existingStreams], the state rows of the connection read before the write. The queries are added to
+     * [stateUpdateBatch] and run together when it is saved.
      */
     fun writeStateToDb(
       ctx: DSLContext,
@@ -311,15 +362,10 @@ class StatePersistence(
       stateType: io.airbyte.config.StateType,
       state: JsonNode?,
       stateUpdateBatch: StateUpdateBatch,
+      existingStreams: Set<StreamKey>,
     ) {
       if (state != null) {
-        val hasState =
-          ctx.fetchExists(
-            Tables.STATE,
-            Tables.STATE.CONNECTION_ID.eq(connectionId),
-            PersistenceHelpers.isNullOrEquals(Tables.STATE.STREAM_NAME, streamName),
-            PersistenceHelpers.isNullOrEquals(Tables.STATE.NAMESPACE, namespace),
-          )
+        val hasState = existingStreams.contains(StreamKey(streamName, namespace))
 
         // NOTE: the legacy code was storing a State object instead of just the State data field. We kept
         // the same behavior for consistency.
@@ -383,16 +429,15 @@ class StatePersistence(
      *
      * @param connectionId The connectionId of the records, used to add more debugging context if an
      * error is detected
-     * @param records The list of StateRecords to process, must not be empty
+     * @param recordTypes The types of the StateRecords to process, must not be empty
      * @return the StateType of the records
      * @throws IllegalStateException If StateRecords have inconsistent types
      */
     private fun getStateType(
       connectionId: UUID,
-      records: List<StateRecord>,
+      recordTypes: List<StateType>,
     ): StateType {
-      val types =
-        records.stream().map { r: StateRecord -> r.type }.collect(Collectors.toSet())
+      val types = recordTypes.toSet()
       if (types.size == 1) {
         return types.stream().findFirst().get()
       }
@@ -424,6 +469,25 @@ class StatePersistence(
         .stream()
         .toList()
 
+    /**
+     * Get the type, stream name and namespace of the state records from the DB, without the states themselves. The rows
+     * stay locked until the end of the transaction.
+     *
+     * @param ctx A valid DSL context to use for the query
+     * @param connectionId the ID of the connection
+     * @return The StateKeys for the connectionId
+     */
+    private fun getStateKeys(
+      ctx: DSLContext,
+      connectionId: UUID,
+    ): List<StateKey> =
+      ctx
+        .select(Tables.STATE.TYPE, Tables.STATE.STREAM_NAME, Tables.STATE.NAMESPACE)
+        .from(Tables.STATE)
+        .where(Tables.STATE.CONNECTION_ID.eq(connectionId))
+        .forUpdate()
+        .fetch { record -> StateKey(record.value1(), record.value2(), record.value3()) }
+
     /**
      * Delete all connection state records from the DB.
      *
@@ -344,6 +344,66 @@ internal class StatePersistenceTest : BaseConfigDatabaseTest() {
     assertEquals(state4, state5.get())
   }
 
+  @Test
+  @Throws(IOException::class)
+  fun testGlobalChangedStreamsOnlyUpdate() {
+    val state0 =
+      StateWrapper()
+        .withStateType(StateType.GLOBAL)
+        .withGlobal(
+          AirbyteStateMessage()
+            .withType(AirbyteStateType.GLOBAL)
+            .withGlobal(
+              AirbyteGlobalState()
+                .withSharedState(deserialize(GLOBAL_STATE))
+                .withStreamStates(
+                  Arrays.asList(
+                    AirbyteStreamState()
+                      .withStreamDescriptor(StreamDescriptor().withName("s1").withNamespace("n2"))
+                      .withStreamState(deserialize(STATE_ONE)),
+                    AirbyteStreamState()
+                      .withStreamDescriptor(StreamDescriptor().withName("s1"))
+                      .withStreamState(deserialize(STATE_TWO)),
+                  ),
+                ),
+            ),
+        )
+    statePersistence!!.updateOrCreateState(connectionId!!, state0)
+
+    // Only the shared state and the stream that changed are sent
+    val changedStreamsOnly =
+      StateWrapper()
+        .withStateType(StateType.GLOBAL)
+        .withGlobal(
+          AirbyteStateMessage()
+            .withType(AirbyteStateType.GLOBAL)
+            .withGlobal(
+              AirbyteGlobalState()
+                .withSharedState(deserialize("\"updated shared state\""))
+                .withStreamStates(
+                  Arrays.asList(
+                    AirbyteStreamState()
+                      .withStreamDescriptor(StreamDescriptor().withName("s1"))
+                      .withStreamState(deserialize("\"updated state2\"")),
+                  ),
+                ),
+            ),
+        )
+    statePersistence!!.updateOrCreateState(connectionId!!, changedStreamsOnly)
+
+    val expected = clone(state0)
+    expected
+      .getGlobal()
+      .getGlobal()
+      .withSharedState(deserialize("\"updated shared state\""))
+      .getStreamStates()
+      .get(1)
+      .withStreamState(deserialize("\"updated state2\""))
+    val state1 = statePersistence!!.getCurrentState(connectionId!!)
+    Assertions.assertTrue(state1.isPresent())
+    assertEquals(expected, state1.get())
+  }
+
   @Test
   @Throws(IOException::class)
   fun testGlobalPartialReset() {
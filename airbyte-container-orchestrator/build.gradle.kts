@@ -22,6 +22,7 @@ plugins {
   id("io.airbyte.gradle.jvm.app")
   id("io.airbyte.gradle.docker")
   id("io.airbyte.gradle.publish")
+  alias(libs.plugins.me.champeau.jmh)
 }
 
 val airbyteProtocol: Configuration by configurations.creating
@@ -86,12 +87,19 @@ dependencies {
   testImplementation(libs.kotlin.coroutines.test)
   testImplementation(libs.assertj.core)
   testImplementation(libs.retrofit.mock)
+  testImplementation(libs.mockwebserver)
+
+  jmh(libs.mockk)
 
   airbyteProtocol(libs.airbyte.protocol) {
     isTransitive = false
   }
 }
 
+jmh {
+  jmhVersion.set(libs.versions.jmh.get())
+}
+
 airbyte {
   application {
     mainClass = "io.airbyte.container.orchestrator.ApplicationKt"
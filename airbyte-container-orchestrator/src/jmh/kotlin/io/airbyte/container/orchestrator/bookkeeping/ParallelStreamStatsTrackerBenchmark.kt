@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.container.orchestrator.bookkeeping
+
+import io.airbyte.commons.json.Jsons
+import io.airbyte.container.orchestrator.worker.model.attachIdToStateMessageFromSource
+import io.airbyte.protocol.models.v0.AirbyteGlobalState
+import io.airbyte.protocol.models.v0.AirbyteRecordMessage
+import io.airbyte.protocol.models.v0.AirbyteStateMessage
+import io.airbyte.protocol.models.v0.AirbyteStreamState
+import io.airbyte.protocol.models.v0.StreamDescriptor
+import io.airbyte.workers.models.ArchitectureConstants
+import io.mockk.mockk
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import java.util.UUID
+import java.util.concurrent.TimeUnit
+
+/**
+ * Replays checkpoints of a synthetic sync with many streams through the [ParallelStreamStatsTracker]. Each operation
+ * is one checkpoint: a few records for every stream, then the states from the source, then the same states back from
+ * the destination.
+ *
+ * Run with `./gradlew :oss:airbyte-container-orchestrator:jmh`.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+open class ParallelStreamStatsTrackerBenchmark {
+  @Param("10", "2000")
+  var streamCount: Int = 0
+
+  @Param("STREAM", "GLOBAL")
+  lateinit var stateType: String
+
+  private lateinit var statsTracker: ParallelStreamStatsTracker
+  private lateinit var records: List<AirbyteRecordMessage>
+
+  @Setup
+  fun setup() {
+    val stateCheckSumCountEventHandler =
+      StateCheckSumCountEventHandler(
+        pubSubWriter = null,
+        featureFlagClient = mockk(relaxed = true),
+        deploymentFetcher = mockk(relaxed = true),
+        trackingIdentityFetcher = mockk(relaxed = true),
+        stateCheckSumReporter = mockk(relaxed = true),
+        connectionId = UUID.randomUUID(),
+        workspaceId = UUID.randomUUID(),
+        jobId = 1L,
+        attemptNumber = 0,
+        epochMilliSupplier = { System.currentTimeMillis() },
+        idSupplier = { UUID.randomUUID() },
+        platformMode = ArchitectureConstants.ORCHESTRATOR,
+        metricClient = mockk(relaxed = true),
+        replicationInput = mockk(relaxed = true),
+      )
+    statsTracker = ParallelStreamStatsTracker(mockk(relaxed = true), stateCheckSumCountEventHandler, ArchitectureConstants.ORCHESTRATOR)
+    records =
+      (0 until streamCount).flatMap { stream ->
+        List(RECORDS_PER_STREAM) { index ->
+          AirbyteRecordMessage()
+            .withStream(streamName(stream))
+            .withNamespace(NAMESPACE)
+            .withData(Jsons.jsonNode(mapOf("id" to index, "name" to "record $index")))
+        }
+      }
+  }
+
+  @Benchmark
+  fun checkpoint() {
+    records.forEach { statsTracker.updateStats(it) }
+    val states = if (stateType == "GLOBAL") listOf(globalState()) else (0 until streamCount).map { streamState(it) }
+    states.forEach { statsTracker.updateSourceStatesStats(it) }
+    states.forEach { statsTracker.updateDestinationStateStats(it) }
+  }
+
+  private fun streamState(stream: Int): AirbyteStateMessage =
+    attachIdToStateMessageFromSource(
+      AirbyteStateMessage()
+        .withType(AirbyteStateMessage.AirbyteStateType.STREAM)
+        .withStream(
+          AirbyteStreamState()
+            .withStreamDescriptor(StreamDescriptor().withName(streamName(stream)).withNamespace(NAMESPACE))
+            .withStreamState(Jsons.jsonNode(mapOf("cursor" to stream))),
+        ),
+    )
+
+  private fun globalState(): AirbyteStateMessage =
+    attachIdToStateMessageFromSource(
+      AirbyteStateMessage()
+        .withType(AirbyteStateMessage.AirbyteStateType.GLOBAL)
+        .withGlobal(
+          AirbyteGlobalState()
+            .withSharedState(Jsons.jsonNode(mapOf("lsn" to 1)))
+            .withStreamStates(
+              (0 until streamCount).map { stream ->
+                AirbyteStreamState()
+                  .withStreamDescriptor(StreamDescriptor().withName(streamName(stream)).withNamespace(NAMESPACE))
+                  .withStreamState(Jsons.jsonNode(mapOf("cursor" to stream)))
+              },
+            ),
+        ),
+    )
+
+  private fun streamName(stream: Int) = "stream_$stream"
+
+  companion object {
+    private const val NAMESPACE = "public"
+    private const val RECORDS_PER_STREAM = 5
+  }
+}
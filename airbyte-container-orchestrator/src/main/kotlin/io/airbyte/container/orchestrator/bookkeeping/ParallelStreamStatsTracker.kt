@@ -40,6 +40,10 @@ class ParallelStreamStatsTracker(
 ) : SyncStatsTracker {
   private val streamTrackers: MutableMap<AirbyteStreamNameNamespacePair, StreamStatsTracker> = ConcurrentHashMap()
   private val syncStatsCounters = SyncStatsCounters()
+
+  // Sum over all the streams of the records emitted before their last state from the source, kept up to date as the
+  // states come in so that validating a global state doesn't go through every stream.
+  private val emittedRecordsBeforeLastSourceStates = AtomicLong()
   private var expectedEstimateType: Type? = null
   private var replicationInputFeatureFlagReader: ReplicationInputFeatureFlagReader? = null
   private val isBookkeeperMode: Boolean = platformMode == ArchitectureConstants.BOOKKEEPER
@@ -96,7 +100,7 @@ class ParallelStreamStatsTracker(
         stateMessage.global.streamStates.forEach {
           logStreamNameIfEnabled(it)
           val statsTracker = getOrCreateStreamStatsTracker(getNameNamespacePair(it.streamDescriptor))
-          statsTracker.trackStateFromSource(stateMessage)
+          trackStateFromSource(statsTracker, stateMessage)
           updateChecksumValidationStatus(
             statsTracker.areStreamStatsReliable(),
             AirbyteMessageOrigin.SOURCE,
@@ -108,7 +112,7 @@ class ParallelStreamStatsTracker(
       }
       else -> {
         val statsTracker = getOrCreateStreamStatsTracker(getNameNamespacePair(stateMessage))
-        statsTracker.trackStateFromSource(stateMessage)
+        trackStateFromSource(statsTracker, stateMessage)
         updateChecksumValidationStatus(
           statsTracker.areStreamStatsReliable(),
           AirbyteMessageOrigin.SOURCE,
@@ -120,12 +124,23 @@ class ParallelStreamStatsTracker(
           origin = AirbyteMessageOrigin.SOURCE,
           failOnInvalidChecksum = failOnInvalidChecksum,
           checksumValidationEnabled = checksumValidationEnabled,
-          streamPlatformRecordCounts = getStats().mapValues { it.value.recordsEmitted },
+          streamPlatformRecordCounts = { getStats().mapValues { it.value.recordsEmitted } },
         )
       }
     }
   }
 
+  private fun trackStateFromSource(
+    statsTracker: StreamStatsTracker,
+    stateMessage: AirbyteStateMessage,
+  ) {
+    val emittedRecordsBeforePreviousState = statsTracker.getTrackedEmittedRecordsSinceLastStateMessage()
+    statsTracker.trackStateFromSource(stateMessage)
+    emittedRecordsBeforeLastSourceStates.addAndGet(
+      statsTracker.getTrackedEmittedRecordsSinceLastStateMessage() - emittedRecordsBeforePreviousState,
+    )
+  }
+
   private fun logStreamNameIfEnabled(it: AirbyteStreamState) {
     try {
       if (stateCheckSumEventHandler.logIncomingStreamNames) {
@@ -157,7 +172,7 @@ class ParallelStreamStatsTracker(
           origin = AirbyteMessageOrigin.DESTINATION,
           failOnInvalidChecksum = failOnInvalidChecksum,
           checksumValidationEnabled = checksumValidationEnabled,
-          streamPlatformRecordCounts = getStats().mapValues { it.value.recordsCommitted },
+          streamPlatformRecordCounts = { getStats().mapValues { it.value.recordsCommitted } },
           filteredOutRecords = filteredOutRecords.toDouble(),
         )
         statsTracker.trackStateFromDestination(stateMessage)
@@ -192,36 +207,31 @@ class ParallelStreamStatsTracker(
     origin: AirbyteMessageOrigin,
     failOnInvalidChecksum: Boolean,
   ) {
-    val expectedRecordCount = streamTrackers.values.sumOf { getEmittedCount(origin, stateMessage, it).toDouble() }
-    val filteredOutRecords =
-      if (origin == AirbyteMessageOrigin.DESTINATION) {
-        streamTrackers.values.sumOf { it.getTrackedFilteredOutRecordsSinceLastStateMessage(stateMessage) }
-      } else {
-        0
+    val (expectedRecordCount, filteredOutRecords) =
+      when (origin) {
+        AirbyteMessageOrigin.SOURCE -> Pair(emittedRecordsBeforeLastSourceStates.get(), 0L)
+        AirbyteMessageOrigin.DESTINATION -> {
+          // Only the streams of the state have stats staged for it.
+          val statsTrackers = stateMessage.global.streamStates.mapNotNull { streamTrackers[getNameNamespacePair(it.streamDescriptor)] }
+          Pair(
+            statsTrackers.sumOf { it.getTrackedEmittedRecordsSinceLastStateMessage(stateMessage) },
+            statsTrackers.sumOf { it.getTrackedFilteredOutRecordsSinceLastStateMessage(stateMessage) },
+          )
+        }
+        AirbyteMessageOrigin.INTERNAL -> Pair(0L, 0L)
       }
     stateCheckSumEventHandler.validateStateChecksum(
       stateMessage = stateMessage,
-      platformRecordCount = expectedRecordCount,
+      platformRecordCount = expectedRecordCount.toDouble(),
       origin = origin,
       failOnInvalidChecksum = failOnInvalidChecksum,
       checksumValidationEnabled = checksumValidationEnabled,
       includeStreamInLogs = false,
-      streamPlatformRecordCounts = getStats().mapValues { it.value.recordsEmitted },
+      streamPlatformRecordCounts = { getStats().mapValues { it.value.recordsEmitted } },
       filteredOutRecords = filteredOutRecords.toDouble(),
     )
   }
 
-  private fun getEmittedCount(
-    origin: AirbyteMessageOrigin,
-    stateMessage: AirbyteStateMessage,
-    tracker: StreamStatsTracker,
-  ): Long =
-    when (origin) {
-      AirbyteMessageOrigin.SOURCE -> tracker.getTrackedEmittedRecordsSinceLastStateMessage()
-      AirbyteMessageOrigin.DESTINATION -> tracker.getTrackedEmittedRecordsSinceLastStateMessage(stateMessage)
-      AirbyteMessageOrigin.INTERNAL -> 0
-    }
-
   /**
    * Return [SyncStats] for the sync. SyncStats is the sum of the stats of all the streams.
    *
@@ -206,7 +206,7 @@ class StateCheckSumCountEventHandler(
     failOnInvalidChecksum: Boolean,
     checksumValidationEnabled: Boolean,
     includeStreamInLogs: Boolean = true,
-    streamPlatformRecordCounts: Map<AirbyteStreamNameNamespacePair, Long> = emptyMap(),
+    streamPlatformRecordCounts: () -> Map<AirbyteStreamNameNamespacePair, Long> = { emptyMap() },
     filteredOutRecords: Double = 0.0,
   ) {
     if (isBookkeeperMode || !isStateTypeSupported(stateMessage)) {
@@ -387,7 +387,7 @@ class StateCheckSumCountEventHandler(
     stateMessage: AirbyteStateMessage,
     failOnInvalidChecksum: Boolean,
     validData: Boolean,
-    streamPlatformRecordCounts: Map<AirbyteStreamNameNamespacePair, Long>,
+    streamPlatformRecordCounts: () -> Map<AirbyteStreamNameNamespacePair, Long>,
   ) {
     noCheckSumError = false
     logAndFailIfRequired(
@@ -480,7 +480,7 @@ class StateCheckSumCountEventHandler(
       includeStreamInLogs: Boolean,
       stateMessage: AirbyteStateMessage,
       validData: Boolean,
-      streamPlatformRecordCounts: Map<AirbyteStreamNameNamespacePair, Long>,
+      streamPlatformRecordCounts: () -> Map<AirbyteStreamNameNamespacePair, Long>,
     ): String =
       "${origin.name.lowercase().replaceFirstChar { it.uppercase() }} state message checksum is invalid: state " +
         "record count $stateRecordCount does not equal platform tracked record count $platformRecordCount" +
@@ -496,7 +496,7 @@ class StateCheckSumCountEventHandler(
         } +
         if (includeStreamInLogs) {
           val namesAndCounts =
-            streamPlatformRecordCounts
+            streamPlatformRecordCounts()
               .map { (name, count) ->
                 " $name : $count"
               }.joinToString("\n")
@@ -4,11 +4,15 @@
 
 package io.airbyte.container.orchestrator.bookkeeping
 
+import com.google.common.hash.Funnels
+import com.google.common.hash.HashCode
 import com.google.common.hash.HashFunction
 import com.google.common.util.concurrent.AtomicDouble
 import io.airbyte.commons.json.Jsons
+import io.airbyte.commons.protocol.serde.LazyDataAirbyteRecordMessage
 import io.airbyte.config.FileTransferInformations
 import io.airbyte.container.orchestrator.worker.model.getIdFromStateMessage
+import io.airbyte.container.orchestrator.worker.util.BytesSizeHelper
 import io.airbyte.metrics.MetricClient
 import io.airbyte.metrics.OssMetricsRegistry
 import io.airbyte.protocol.models.v0.AirbyteEstimateTraceMessage
@@ -16,6 +20,7 @@ import io.airbyte.protocol.models.v0.AirbyteRecordMessage
 import io.airbyte.protocol.models.v0.AirbyteStateMessage
 import io.airbyte.protocol.models.v0.AirbyteStreamNameNamespacePair
 import io.github.oshai.kotlinlogging.KotlinLogging
+import java.io.OutputStreamWriter
 import java.time.LocalDateTime
 import java.time.temporal.ChronoUnit
 import java.util.concurrent.ConcurrentHashMap
@@ -119,13 +124,16 @@ class StreamStatsTracker(
   val streamStats = StreamStatsCounters()
   private val stateIds = ConcurrentHashMap.newKeySet<Int>()
   private val stagedStatsList = ConcurrentLinkedQueue<StagedStats>()
+
+  // Index of stagedStatsList by state id, so that the stats of a state are found without going through the list.
+  private val stagedStatsByStateId = ConcurrentHashMap<Int, StagedStats>()
   private var emittedStats = EmittedStatsCounters()
   private var previousEmittedStats = EmittedStatsCounters()
   private var previousStateMessageReceivedAt: LocalDateTime? = null
 
   fun updateFilteredOutRecordsStats(recordMessage: AirbyteRecordMessage) {
     val emittedStatsToUpdate = emittedStats
-    val filteredOutByteSize = Jsons.getEstimatedByteSize(recordMessage.data).toLong()
+    val filteredOutByteSize = getRecordSize(recordMessage)
     with(emittedStatsToUpdate) {
       filteredOutRecords.incrementAndGet()
       filteredOutBytesCount.addAndGet(filteredOutByteSize)
@@ -206,7 +214,14 @@ class StreamStatsTracker(
       null
     }
 
-  private fun getRecordSize(recordMessage: AirbyteRecordMessage): Long = Jsons.getEstimatedByteSize(recordMessage.data).toLong()
+  private fun getRecordSize(recordMessage: AirbyteRecordMessage): Long =
+    if (recordMessage is LazyDataAirbyteRecordMessage && !recordMessage.isDataMaterialized) {
+      // Measure the data as it was read from the source instead of deserializing and serializing it again.
+      recordMessage.serializedDataLength
+    } else {
+      // Walk the data to measure it without serializing it.
+      BytesSizeHelper.getSerializedSize(recordMessage.data)
+    }
 
   /**
    * Bookkeeping for when a state is read from the source.
@@ -236,6 +251,7 @@ class StreamStatsTracker(
 
       // We can clear the stagedStatsList since we won't be processing it anymore.
       stagedStatsList.clear()
+      stagedStatsByStateId.clear()
       logger.info {
         "State collision detected for stream name(${nameNamespacePair.name}), stream namespace(${nameNamespacePair.namespace})"
       }
@@ -247,7 +263,10 @@ class StreamStatsTracker(
     previousEmittedStats = emittedStats
     emittedStats = EmittedStatsCounters()
 
-    stagedStatsList.add(StagedStats(stateId, stateMessage, previousEmittedStats, currentTime))
+    StagedStats(stateId, stateMessage, previousEmittedStats, currentTime).also {
+      stagedStatsByStateId[stateId] = it
+      stagedStatsList.add(it)
+    }
 
     // Updating state checkpointing metrics
     // previousStateMessageReceivedAt is null when it's the first state message of a stream.
@@ -313,6 +332,7 @@ class StreamStatsTracker(
     // un-stage stats until the stateMessage
     while (!stagedStatsList.isEmpty()) {
       stagedStats = stagedStatsList.poll()
+      stagedStatsByStateId.remove(stagedStats.stateId)
       logger.debug {
         "removing ${stagedStats.stateId} from the stored stateIds for the stream " +
           "${nameNamespacePair.namespace}:${nameNamespacePair.name}, " +
@@ -430,7 +450,7 @@ class StreamStatsTracker(
 
   fun getTrackedEmittedRecordsSinceLastStateMessage(stateMessage: AirbyteStateMessage): Long {
     val stateId = stateMessage.getStateIdForStatsTracking()
-    val stagedStats: StagedStats? = stagedStatsList.find { it.stateId == stateId }
+    val stagedStats: StagedStats? = stagedStatsByStateId[stateId]
     if (stagedStats == null) {
       logger.warn { "Could not find the state message with id $stateId in the stagedStatsList" }
     }
@@ -439,7 +459,7 @@ class StreamStatsTracker(
 
   fun getTrackedFilteredOutRecordsSinceLastStateMessage(stateMessage: AirbyteStateMessage): Long {
     val stateId = stateMessage.getStateIdForStatsTracking()
-    val stagedStats: StagedStats? = stagedStatsList.find { it.stateId == stateId }
+    val stagedStats: StagedStats? = stagedStatsByStateId[stateId]
     if (stagedStats == null) {
       logger.warn { "Could not find the state message with id $stateId in the stagedStatsList" }
     }
@@ -451,12 +471,25 @@ class StreamStatsTracker(
 
 fun AirbyteStateMessage.getStateHashCode(hashFunction: HashFunction): Int =
   when (type) {
-    AirbyteStateMessage.AirbyteStateType.GLOBAL -> hashFunction.hashBytes(Jsons.serialize(global).toByteArray()).hashCode()
-    AirbyteStateMessage.AirbyteStateType.STREAM -> hashFunction.hashBytes(Jsons.serialize(stream.streamState).toByteArray()).hashCode()
+    AirbyteStateMessage.AirbyteStateType.GLOBAL -> hashJson(hashFunction, global).hashCode()
+    AirbyteStateMessage.AirbyteStateType.STREAM -> hashJson(hashFunction, stream.streamState).hashCode()
     // state type is legacy
-    else -> hashFunction.hashBytes(Jsons.serialize(data).toByteArray()).hashCode()
+    else -> hashJson(hashFunction, data).hashCode()
   }
 
+/**
+ * Hashes the UTF-8 bytes of the serialized JSON of [value] while it is serialized, so that large states are never
+ * materialized as a string. The hash is the same as hashing `Jsons.serialize(value).toByteArray()`.
+ */
+internal fun hashJson(
+  hashFunction: HashFunction,
+  value: Any?,
+): HashCode {
+  val hasher = hashFunction.newHasher()
+  Jsons.serialize(value, OutputStreamWriter(Funnels.asOutputStream(hasher), Charsets.UTF_8))
+  return hasher.hash()
+}
+
 fun AirbyteStateMessage.getStateIdForStatsTracking(): Int = getIdFromStateMessage(this)
 
 private fun updateMean(
@@ -4,12 +4,17 @@
 
 package io.airbyte.container.orchestrator.bookkeeping.state
 
+import com.google.common.hash.HashCode
+import com.google.common.hash.Hashing
 import datadog.trace.api.Trace
 import io.airbyte.commons.json.Jsons
 import io.airbyte.config.State
+import io.airbyte.container.orchestrator.bookkeeping.hashJson
 import io.airbyte.metrics.lib.ApmTraceConstants.WORKER_OPERATION_NAME
+import io.airbyte.protocol.models.v0.AirbyteGlobalState
 import io.airbyte.protocol.models.v0.AirbyteStateMessage
 import io.airbyte.protocol.models.v0.AirbyteStateMessage.AirbyteStateType
+import io.airbyte.protocol.models.v0.AirbyteStreamState
 import io.airbyte.protocol.models.v0.StreamDescriptor
 import jakarta.inject.Named
 import jakarta.inject.Singleton
@@ -19,13 +24,60 @@ interface StateAggregator {
 
   fun ingest(stateAggregator: StateAggregator)
 
+  /**
+   * Returns the aggregated state to persist. Stream states that are unchanged since they were last persisted are left
+   * out, so the returned state only contains the streams that advanced since the previous [clear].
+   */
   fun getAggregated(): State
 
   fun isEmpty(): Boolean
 
+  /**
+   * Clears the aggregated states once the result of the last [getAggregated] has been persisted, and remembers its
+   * stream states as persisted.
+   */
   fun clear()
 }
 
+/**
+ * The stream states that were persisted, used to only persist the stream states that changed since the previous flush.
+ * Stream states returned by [filterChanged] are only remembered as persisted when [commit] is called.
+ *
+ * Only a 128 bit hash of each persisted stream state is remembered, computed while serializing it, so that the persisted
+ * states of large streams aren't kept alive between flushes.
+ */
+internal class PersistedStreamStates {
+  private val persisted = mutableMapOf<StreamDescriptor, HashCode>()
+  private var pending: List<Pair<StreamDescriptor, HashCode>> = emptyList()
+
+  fun <T> filterChanged(
+    values: Collection<T>,
+    getStreamState: (T) -> AirbyteStreamState,
+  ): List<T> {
+    val changed = mutableListOf<T>()
+    val changedHashes = mutableListOf<Pair<StreamDescriptor, HashCode>>()
+    values.forEach {
+      val streamState = getStreamState(it)
+      val hash = hashJson(STREAM_STATE_HASH_FUNCTION, streamState.streamState)
+      if (persisted[streamState.streamDescriptor] != hash) {
+        changed.add(it)
+        changedHashes.add(streamState.streamDescriptor to hash)
+      }
+    }
+    pending = changedHashes
+    return changed
+  }
+
+  fun commit() {
+    pending.forEach { (streamDescriptor, hash) -> persisted[streamDescriptor] = hash }
+    pending = emptyList()
+  }
+
+  companion object {
+    private val STREAM_STATE_HASH_FUNCTION = Hashing.murmur3_128()
+  }
+}
+
 /**
  * Default state aggregator that detects which type of state is being used and aggregates appropriately.
  */
@@ -103,6 +155,7 @@ class DefaultStateAggregator(
 @Named("singleStateAggregator")
 class SingleStateAggregator : StateAggregator {
   private var state: AirbyteStateMessage? = null
+  private val persistedStreamStates = PersistedStreamStates()
 
   @Trace(operationName = WORKER_OPERATION_NAME)
   override fun ingest(stateMessage: AirbyteStateMessage) {
@@ -131,14 +184,45 @@ class SingleStateAggregator : StateAggregator {
          * (https://github.com/airbytehq/oncall/issues/731)
          */
         localState.data = null
-        State().withState(Jsons.jsonNode(listOf(localState)))
+        State().withState(Jsons.jsonNode(listOf(withChangedStreamStatesOnly(localState))))
       }
     }
   }
 
+  /**
+   * Global states carry the state of every stream, only the stream states that changed since the last persisted global
+   * state are kept. The shared state is always kept.
+   */
+  private fun withChangedStreamStatesOnly(stateMessage: AirbyteStateMessage): AirbyteStateMessage {
+    val global = stateMessage.global
+    if (stateMessage.type != AirbyteStateType.GLOBAL || global?.streamStates == null) {
+      return stateMessage
+    }
+
+    val changedStreamStates = persistedStreamStates.filterChanged(global.streamStates) { it }
+    if (changedStreamStates.size == global.streamStates.size) {
+      return stateMessage
+    }
+
+    val changedGlobal =
+      AirbyteGlobalState()
+        .withSharedState(global.sharedState)
+        .withStreamStates(changedStreamStates)
+    global.additionalProperties.forEach { (name, value) -> changedGlobal.setAdditionalProperty(name, value) }
+    val changedStateMessage =
+      AirbyteStateMessage()
+        .withType(stateMessage.type)
+        .withGlobal(changedGlobal)
+        .withSourceStats(stateMessage.sourceStats)
+        .withDestinationStats(stateMessage.destinationStats)
+    stateMessage.additionalProperties.forEach { (name, value) -> changedStateMessage.setAdditionalProperty(name, value) }
+    return changedStateMessage
+  }
+
   override fun isEmpty(): Boolean = state == null
 
   override fun clear() {
+    persistedStreamStates.commit()
     state = null
   }
 }
@@ -147,6 +231,7 @@ class SingleStateAggregator : StateAggregator {
 @Named("streamStateAggregator")
 class StreamStateAggregator : StateAggregator {
   private val aggregatedState = mutableMapOf<StreamDescriptor, AirbyteStateMessage>()
+  private val persistedStreamStates = PersistedStreamStates()
 
   @Trace(operationName = WORKER_OPERATION_NAME)
   override fun ingest(stateMessage: AirbyteStateMessage) {
@@ -167,11 +252,12 @@ class StreamStateAggregator : StateAggregator {
     }
   }
 
-  override fun getAggregated(): State = State().withState(Jsons.jsonNode(aggregatedState.values))
+  override fun getAggregated(): State = State().withState(Jsons.jsonNode(persistedStreamStates.filterChanged(aggregatedState.values) { it.stream }))
 
   override fun isEmpty(): Boolean = aggregatedState.isEmpty()
 
   override fun clear() {
+    persistedStreamStates.commit()
     aggregatedState.clear()
   }
 }
@@ -6,6 +6,7 @@ package io.airbyte.container.orchestrator.bookkeeping.streamstatus
 
 import com.google.common.annotations.VisibleForTesting
 import io.airbyte.api.client.AirbyteApiClient
+import io.airbyte.api.client.model.generated.StreamStatusBatchRequestBody
 import io.airbyte.api.client.model.generated.StreamStatusCreateRequestBody
 import io.airbyte.api.client.model.generated.StreamStatusIncompleteRunCause
 import io.airbyte.api.client.model.generated.StreamStatusJobType
@@ -14,24 +15,51 @@ import io.airbyte.api.client.model.generated.StreamStatusRead
 import io.airbyte.api.client.model.generated.StreamStatusUpdateRequestBody
 import io.airbyte.container.orchestrator.worker.context.ReplicationContext
 import io.github.oshai.kotlinlogging.KotlinLogging
+import io.micronaut.context.annotation.Value
+import jakarta.inject.Named
 import jakarta.inject.Singleton
 import java.time.Clock
 import java.util.UUID
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
 import io.airbyte.api.client.model.generated.StreamStatusRunState as ApiEnum
 
 private val logger = KotlinLogging.logger {}
+private const val FLUSH_TERMINATION_TIMEOUT_IN_SECONDS: Long = 60
 
 /**
- * Consumes StreamStatusUpdateEvents and emits a create or update request for the stream status depending on
+ * Consumes StreamStatusUpdateEvents and emits create or update requests for the stream statuses depending on
  * the contents of its cache.
  *
+ * Transitions are buffered and coalesced per stream: only the latest run state of each stream is sent. The buffer is
+ * flushed with a single batch request on a short interval by a background task, and once more when the client is
+ * closed at the end of the sync. Flushes run one at a time, and a stream is only updated once its creation succeeded,
+ * so the transitions of a stream are persisted in order.
+ *
  * API layer.
  */
 @Singleton
 class StreamStatusCachingApiClient(
   private val airbyteApiClient: AirbyteApiClient,
   private val clock: Clock,
-) {
+  @Named("streamStatusFlushExecutorService") private val flushExecutorService: ScheduledExecutorService,
+  @Value("\${airbyte.worker.replication.stream-status-flush-period-millis}") private val flushPeriodInMillis: Long,
+) : AutoCloseable {
+  private data class PendingStatus(
+    val cache: MutableMap<StreamStatusKey, StreamStatusRead>,
+    val runState: ApiEnum,
+    val metadata: StreamStatusRateLimitedMetadata?,
+    val transitionedAt: Long,
+    val ctx: ReplicationContext,
+  )
+
+  private val pendingStatuses = LinkedHashMap<StreamStatusKey, PendingStatus>()
+  private val flushLock = Any()
+
+  init {
+    flushExecutorService.scheduleAtFixedRate({ flushPeriodically() }, flushPeriodInMillis, flushPeriodInMillis, TimeUnit.MILLISECONDS)
+  }
+
   fun put(
     cache: MutableMap<StreamStatusKey, StreamStatusRead>,
     key: StreamStatusKey,
@@ -41,23 +69,87 @@ class StreamStatusCachingApiClient(
   ) {
     logger.info { "Stream Status Update Received: ${key.toDisplayName()} - $runState" }
 
-    val value = cache[key]
+    synchronized(pendingStatuses) {
+      val latestRunState = pendingStatuses[key]?.runState ?: synchronized(cache) { cache[key]?.runState }
+      if (latestRunState == runState) {
+        logger.info { "Stream ${key.toDisplayName()} is already set to $runState. Ignoring..." }
+        return
+      }
+      pendingStatuses[key] = PendingStatus(cache, runState, metadata, clock.millis(), ctx)
+    }
+  }
 
-    if (value == null) {
-      logger.info { "Creating status: ${key.toDisplayName()} - $runState" }
-      val req = buildCreateReq(key.streamNamespace, key.streamName, ctx, runState, metadata)
+  /**
+   * Sends the buffered transitions in a single batch request. If the request fails, the transitions are buffered again
+   * unless a newer transition was received for the same stream in the meantime.
+   */
+  fun flush() {
+    synchronized(flushLock) {
+      val toFlush =
+        synchronized(pendingStatuses) {
+          LinkedHashMap(pendingStatuses).also { pendingStatuses.clear() }
+        }
+      if (toFlush.isEmpty()) {
+        return
+      }
 
-      val resp = airbyteApiClient.streamStatusesApi.createStreamStatus(req)
-      cache[key] = resp
-    } else if (value.runState != runState) {
-      logger.info { "Updating status: ${key.toDisplayName()} - $runState" }
-      val req = buildUpdateReq(value.id, key.streamNamespace, key.streamName, ctx, runState, metadata)
+      val toCreate = mutableListOf<StreamStatusCreateRequestBody>()
+      val toUpdate = mutableListOf<StreamStatusUpdateRequestBody>()
+      toFlush.forEach { (key, pending) ->
+        val id = synchronized(pending.cache) { pending.cache[key]?.id }
+        if (id == null) {
+          logger.info { "Creating status: ${key.toDisplayName()} - ${pending.runState}" }
+          toCreate.add(buildCreateReq(key.streamNamespace, key.streamName, pending.ctx, pending.runState, pending.metadata, pending.transitionedAt))
+        } else {
+          logger.info { "Updating status: ${key.toDisplayName()} - ${pending.runState}" }
+          toUpdate.add(
+            buildUpdateReq(id, key.streamNamespace, key.streamName, pending.ctx, pending.runState, pending.metadata, pending.transitionedAt),
+          )
+        }
+      }
+
+      val resp =
+        try {
+          airbyteApiClient.streamStatusesApi.createOrUpdateStreamStatuses(
+            StreamStatusBatchRequestBody(streamStatusesToCreate = toCreate, streamStatusesToUpdate = toUpdate),
+          )
+        } catch (e: Exception) {
+          synchronized(pendingStatuses) {
+            toFlush.forEach { (key, pending) -> pendingStatuses.putIfAbsent(key, pending) }
+          }
+          throw e
+        }
+
+      resp.streamStatuses?.forEach { read ->
+        val key = StreamStatusKey(streamNamespace = read.streamNamespace, streamName = read.streamName)
+        toFlush[key]?.let { pending -> synchronized(pending.cache) { pending.cache[key] = read } }
+      }
+    }
+  }
+
+  private fun flushPeriodically() {
+    try {
+      flush()
+    } catch (e: Exception) {
+      logger.warn(e) { "Failed to persist stream statuses, they will be retried as part of the next flush" }
+    }
+  }
 
-      val resp = airbyteApiClient.streamStatusesApi.updateStreamStatus(req)
-      cache[key] = resp
-    } else {
-      logger.info { "Stream ${key.toDisplayName()} is already set to $runState. Ignoring..." }
+  /**
+   * Stops the background flush and sends the transitions that are still buffered.
+   */
+  override fun close() {
+    flushExecutorService.shutdown()
+    try {
+      if (!flushExecutorService.awaitTermination(FLUSH_TERMINATION_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS)) {
+        logger.warn { "Pending stream status flush took too long to complete, most recent stream statuses may have been lost" }
+        return
+      }
+    } catch (e: InterruptedException) {
+      logger.warn(e) { "Interrupted while waiting for the pending stream status flush, most recent stream statuses may have been lost" }
+      return
     }
+    flush()
   }
 
   @VisibleForTesting
@@ -67,6 +159,7 @@ class StreamStatusCachingApiClient(
     ctx: ReplicationContext,
     runState: ApiEnum,
     metadata: StreamStatusRateLimitedMetadata? = null,
+    transitionedAt: Long = clock.millis(),
   ): StreamStatusCreateRequestBody =
     StreamStatusCreateRequestBody(
       attemptNumber = ctx.attempt,
@@ -80,7 +173,7 @@ class StreamStatusCachingApiClient(
         },
       runState = runState,
       streamName = streamName,
-      transitionedAt = clock.millis(),
+      transitionedAt = transitionedAt,
       workspaceId = ctx.workspaceId,
       incompleteRunCause =
         if (runState == ApiEnum.INCOMPLETE) {
@@ -100,6 +193,7 @@ class StreamStatusCachingApiClient(
     ctx: ReplicationContext,
     runState: ApiEnum,
     metadata: StreamStatusRateLimitedMetadata? = null,
+    transitionedAt: Long = clock.millis(),
   ): StreamStatusUpdateRequestBody =
     StreamStatusUpdateRequestBody(
       id = id,
@@ -114,7 +208,7 @@ class StreamStatusCachingApiClient(
         },
       runState = runState,
       streamName = streamName,
-      transitionedAt = clock.millis(),
+      transitionedAt = transitionedAt,
       workspaceId = ctx.workspaceId,
       incompleteRunCause =
         if (runState == ApiEnum.INCOMPLETE) {
@@ -45,6 +45,7 @@ class StreamStatusTracker(
   // Cache for api responses — we put this here so it gets GC'd when the sync
   // finishes for Docker. The client is a singleton and in Docker runs in the worker
   // so will never be torn down, so we create it in the Tracker which is unique per sync. ,
+  // The client fills it from its flush thread, accesses are synchronized on the cache.
   private val apiResponseCache: MutableMap<StreamStatusKey, StreamStatusRead> = mutableMapOf()
 
   fun track(msg: AirbyteMessage) {
@@ -185,5 +186,5 @@ class StreamStatusTracker(
     eventPublisher.publishEvent(StreamStatusUpdateEvent(apiResponseCache, key, runState, metadata, context.replicationContext))
   }
 
-  internal fun getResponseCache() = apiResponseCache.toMutableMap()
+  internal fun getResponseCache() = synchronized(apiResponseCache) { apiResponseCache.toMutableMap() }
 }
@@ -20,6 +20,8 @@ import io.micronaut.context.annotation.Factory
 import io.micronaut.context.annotation.Requires
 import jakarta.inject.Named
 import jakarta.inject.Singleton
+import kotlinx.coroutines.asCoroutineDispatcher
+import java.util.concurrent.ExecutorService
 
 /**
  * Defines and creates any singletons that are only required when running in [BOOKKEEPER] mode.
@@ -34,6 +36,8 @@ class BookkeeperBeanFactory {
   @Named("syncReplicationJobs")
   fun syncReplicationJobs(
     destination: AirbyteDestination,
+    @Named("mapperExecutor") mapperExecutor: ExecutorService,
+    @Named("mapperParallelism") mapperParallelism: Int,
     replicationWorkerHelper: ReplicationWorkerHelper,
     replicationWorkerState: ReplicationWorkerState,
     source: AirbyteSource,
@@ -48,6 +52,8 @@ class BookkeeperBeanFactory {
       streamStatusCompletionTracker = streamStatusCompletionTracker,
     ),
     MessageProcessor(
+      mapperDispatcher = mapperExecutor.asCoroutineDispatcher(),
+      mapperParallelism = mapperParallelism,
       replicationWorkerHelper = replicationWorkerHelper,
       replicationWorkerState = replicationWorkerState,
       sourceQueue = sourceMessageQueue,
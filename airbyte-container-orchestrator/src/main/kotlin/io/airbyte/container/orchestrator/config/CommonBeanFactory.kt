@@ -16,20 +16,32 @@ import io.airbyte.commons.storage.StorageClientFactory
 import io.airbyte.commons.temporal.TemporalUtils
 import io.airbyte.container.orchestrator.worker.BufferConfiguration
 import io.airbyte.container.orchestrator.worker.DestinationStarter
+import io.airbyte.container.orchestrator.worker.MESSAGE_PROCESSOR_STAGE
 import io.airbyte.container.orchestrator.worker.ReplicationContextProvider
 import io.airbyte.container.orchestrator.worker.ReplicationWorkerContext
+import io.airbyte.container.orchestrator.worker.SOURCE_READER_STAGE
 import io.airbyte.container.orchestrator.worker.SourceStarter
 import io.airbyte.container.orchestrator.worker.context.ReplicationInputFeatureFlagReader
 import io.airbyte.container.orchestrator.worker.io.AirbyteDestination
 import io.airbyte.container.orchestrator.worker.io.AirbyteSource
+import io.airbyte.container.orchestrator.worker.util.BytesSizeHelper
 import io.airbyte.container.orchestrator.worker.util.ClosableChannelQueue
+import io.airbyte.container.orchestrator.worker.util.MemoryBudget
 import io.airbyte.container.orchestrator.worker.withBufferSize
 import io.airbyte.container.orchestrator.worker.withDefaultConfiguration
+import io.airbyte.featureflag.MapperParallelism
 import io.airbyte.featureflag.ReplicationBufferOverride
+import io.airbyte.featureflag.ReplicationChunkSizeOverride
+import io.airbyte.featureflag.ReplicationMemoryBudgetHeapPercent
+import io.airbyte.metrics.MetricClient
+import io.airbyte.metrics.OssMetricsRegistry
 import io.airbyte.persistence.job.models.JobRunConfig
 import io.airbyte.persistence.job.models.ReplicationInput
 import io.airbyte.protocol.models.v0.AirbyteMessage
+import io.airbyte.workers.models.ArchitectureConstants.ORCHESTRATOR
+import io.airbyte.workers.models.ArchitectureConstants.PLATFORM_MODE
 import io.airbyte.workers.pod.FileConstants
+import io.micronaut.context.annotation.Bean
 import io.micronaut.context.annotation.Factory
 import io.micronaut.context.annotation.Value
 import jakarta.annotation.Nullable
@@ -42,6 +54,7 @@ import java.util.UUID
 import java.util.concurrent.ExecutorService
 import java.util.concurrent.Executors
 import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.atomic.AtomicInteger
 import java.util.function.Supplier
 import kotlin.time.Duration.Companion.seconds
 import kotlin.time.toJavaDuration
@@ -148,6 +161,26 @@ class CommonBeanFactory {
     @Value("\${airbyte.replication.dispatcher.n-threads:4}") nThreads: Int,
   ): ExecutorService = Executors.newFixedThreadPool(nThreads)
 
+  @Singleton
+  @Named("mapperParallelism")
+  fun mapperParallelism(replicationInputFeatureFlagReader: ReplicationInputFeatureFlagReader): Int =
+    maxOf(1, replicationInputFeatureFlagReader.read(MapperParallelism))
+
+  /**
+   * The mapper threads are daemons and the pool is shut down with the context, so they never keep the orchestrator alive.
+   */
+  @Singleton
+  @Bean(preDestroy = "shutdown")
+  @Named("mapperExecutor")
+  fun mapperExecutor(
+    @Named("mapperParallelism") mapperParallelism: Int,
+  ): ExecutorService {
+    val threadCount = AtomicInteger()
+    return Executors.newFixedThreadPool(mapperParallelism) { runnable ->
+      Thread(runnable, "mapper-${threadCount.incrementAndGet()}").apply { isDaemon = true }
+    }
+  }
+
   @Singleton
   @Named("heartbeatExecutor")
   fun heartbeatExecutor(): ExecutorService = Executors.newSingleThreadExecutor()
@@ -156,10 +189,23 @@ class CommonBeanFactory {
   @Named("syncPersistenceExecutorService")
   fun syncPersistenceExecutorService(): ScheduledExecutorService = Executors.newSingleThreadScheduledExecutor()
 
+  @Singleton
+  @Named("streamStatusFlushExecutorService")
+  fun streamStatusFlushExecutorService(): ScheduledExecutorService = Executors.newSingleThreadScheduledExecutor()
+
   @Singleton
   fun bufferConfiguration(replicationInputFeatureFlagReader: ReplicationInputFeatureFlagReader): BufferConfiguration {
     val bufferSize = replicationInputFeatureFlagReader.read(ReplicationBufferOverride)
-    return if (bufferSize > 0) withBufferSize(bufferSize) else withDefaultConfiguration()
+    val chunkSize = replicationInputFeatureFlagReader.read(ReplicationChunkSizeOverride)
+    val heapPercent = replicationInputFeatureFlagReader.read(ReplicationMemoryBudgetHeapPercent)
+    var bufferConfiguration = if (bufferSize > 0) withBufferSize(bufferSize) else withDefaultConfiguration()
+    if (chunkSize > 0) {
+      bufferConfiguration = bufferConfiguration.copy(maxChunkSize = chunkSize)
+    }
+    if (heapPercent > 0) {
+      bufferConfiguration = bufferConfiguration.copy(maxInFlightHeapFraction = heapPercent / 100.0)
+    }
+    return bufferConfiguration
   }
 
   @Singleton
@@ -201,9 +247,38 @@ class CommonBeanFactory {
     ),
   )
 
+  /**
+   * In orchestrator mode, the message processor forwards the source messages to the destination queue, which accounts for
+   * them from there on, so the source queue releases them as soon as they are taken.
+   */
   @Singleton
   @Named("sourceMessageQueue")
-  fun sourceMessageQueue(context: ReplicationWorkerContext) = ClosableChannelQueue<AirbyteMessage>(context.bufferConfiguration.sourceMaxBufferSize)
+  fun sourceMessageQueue(
+    context: ReplicationWorkerContext,
+    memoryBudget: MemoryBudget,
+    metricClient: MetricClient,
+    @Value("\${$PLATFORM_MODE:$ORCHESTRATOR}") platformMode: String,
+  ) = ClosableChannelQueue<AirbyteMessage>(
+    capacity = context.bufferConfiguration.sourceMaxBufferSize,
+    maxChunkSize = context.bufferConfiguration.maxChunkSize,
+    maxChunkBytes = context.bufferConfiguration.maxChunkBytes,
+    sizeOf = BytesSizeHelper::getEstimatedMessageSize,
+    memoryBudget = memoryBudget,
+    blockOnMemoryBudget = true,
+    releaseOnHandoff = platformMode == ORCHESTRATOR,
+  ).also { it.registerBlockedTimeCounters(metricClient, SOURCE_READER_STAGE, MESSAGE_PROCESSOR_STAGE) }
+
+  /**
+   * Memory budget shared by the buffers between the replication tasks.
+   */
+  @Singleton
+  fun memoryBudget(
+    context: ReplicationWorkerContext,
+    metricClient: MetricClient,
+  ): MemoryBudget =
+    MemoryBudget.ofHeapFraction(context.bufferConfiguration.maxInFlightHeapFraction).also {
+      metricClient.gauge(OssMetricsRegistry.REPLICATION_IN_FLIGHT_BYTES, it, { budget -> budget.inFlightBytes.toDouble() })
+    }
 
   @Singleton
   @Named("replicationMdcScopeBuilder")
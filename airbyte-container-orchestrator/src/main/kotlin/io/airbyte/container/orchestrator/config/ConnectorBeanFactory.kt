@@ -10,8 +10,10 @@ import io.airbyte.commons.logging.LogSource
 import io.airbyte.commons.logging.MdcScope
 import io.airbyte.commons.protocol.AirbyteMessageSerDeProvider
 import io.airbyte.commons.protocol.AirbyteProtocolVersionedMigratorFactory
+import io.airbyte.commons.protocol.serde.AirbyteMessageV0StreamingDeserializer
 import io.airbyte.commons.version.AirbyteProtocolVersion
 import io.airbyte.config.JobSyncConfig
+import io.airbyte.config.JobSyncConfig.NamespaceDefinitionType
 import io.airbyte.container.orchestrator.tracker.MessageMetricsTracker
 import io.airbyte.container.orchestrator.worker.context.ReplicationInputFeatureFlagReader
 import io.airbyte.container.orchestrator.worker.io.AirbyteDestination
@@ -25,12 +27,15 @@ import io.airbyte.container.orchestrator.worker.io.HeartbeatMonitor
 import io.airbyte.container.orchestrator.worker.io.LocalContainerAirbyteDestination
 import io.airbyte.container.orchestrator.worker.io.LocalContainerAirbyteSource
 import io.airbyte.featureflag.PrintLongRecordPks
+import io.airbyte.featureflag.RecordPassthrough
+import io.airbyte.featureflag.StreamingMessageDeserializer
 import io.airbyte.metrics.MetricClient
 import io.airbyte.persistence.job.models.ReplicationInput
 import io.airbyte.workers.helper.GsonPksExtractor
 import io.airbyte.workers.internal.AirbyteStreamFactory
 import io.airbyte.workers.internal.VersionedAirbyteStreamFactory
 import io.micronaut.context.annotation.Factory
+import io.micronaut.context.annotation.Secondary
 import jakarta.inject.Named
 import jakarta.inject.Singleton
 import java.nio.file.Path
@@ -139,6 +144,24 @@ class ConnectorBeanFactory {
         ),
       )
 
+  /**
+   * The serde provider used to read the source output. Built once, so the streaming deserializer and the provider
+   * around it are shared rather than rebuilt by every bean that reads from the source. Secondary so unqualified injection
+   * points keep getting the default provider.
+   */
+  @Singleton
+  @Secondary
+  @Named("sourceSerDeProvider")
+  fun sourceSerDeProvider(
+    serDeProvider: AirbyteMessageSerDeProvider,
+    replicationInputFeatureFlagReader: ReplicationInputFeatureFlagReader,
+  ): AirbyteMessageSerDeProvider =
+    if (replicationInputFeatureFlagReader.read(StreamingMessageDeserializer)) {
+      serDeProvider.withDeserializer(AirbyteMessageV0StreamingDeserializer())
+    } else {
+      serDeProvider
+    }
+
   @Singleton
   @Named("sourceStreamFactory")
   fun sourceStreamFactory(
@@ -148,7 +171,8 @@ class ConnectorBeanFactory {
     metricClient: MetricClient,
     migratorFactory: AirbyteProtocolVersionedMigratorFactory,
     replicationInput: ReplicationInput,
-    serDeProvider: AirbyteMessageSerDeProvider,
+    @Named("sourceSerDeProvider") serDeProvider: AirbyteMessageSerDeProvider,
+    replicationInputFeatureFlagReader: ReplicationInputFeatureFlagReader,
   ): AirbyteStreamFactory =
     VersionedAirbyteStreamFactory<Any>(
       serDeProvider = serDeProvider,
@@ -160,5 +184,28 @@ class ConnectorBeanFactory {
       invalidLineFailureConfiguration = invalidLineFailureConfiguration,
       gsonPksExtractor = gsonPksExtractor,
       metricClient = metricClient,
+      recordPassthrough = isRecordPassthroughEnabled(migratorFactory, replicationInput, replicationInputFeatureFlagReader),
     )
+
+  /**
+   * Records can only be forwarded untouched when nothing in the orchestrator would rewrite them: no mappers, no
+   * namespace or stream prefix rewriting, no file transfer and no protocol migration on either side.
+   */
+  private fun isRecordPassthroughEnabled(
+    migratorFactory: AirbyteProtocolVersionedMigratorFactory,
+    replicationInput: ReplicationInput,
+    replicationInputFeatureFlagReader: ReplicationInputFeatureFlagReader,
+  ): Boolean {
+    val mostRecentMajorVersion = migratorFactory.mostRecentVersion.getMajorVersion()
+    val sourceProtocolVersion = replicationInput.sourceLauncherConfig.protocolVersion ?: AirbyteProtocolVersion.DEFAULT_AIRBYTE_PROTOCOL_VERSION
+    val destinationProtocolVersion =
+      replicationInput.destinationLauncherConfig.protocolVersion ?: AirbyteProtocolVersion.DEFAULT_AIRBYTE_PROTOCOL_VERSION
+    return replicationInputFeatureFlagReader.read(RecordPassthrough) &&
+      replicationInput.catalog.streams.all { it.mappers.isEmpty() } &&
+      (replicationInput.namespaceDefinition == null || replicationInput.namespaceDefinition == NamespaceDefinitionType.SOURCE) &&
+      replicationInput.prefix.isNullOrBlank() &&
+      !replicationInput.useFileTransfer &&
+      sourceProtocolVersion.getMajorVersion() == mostRecentMajorVersion &&
+      destinationProtocolVersion.getMajorVersion() == mostRecentMajorVersion
+  }
 }
@@ -6,8 +6,10 @@ package io.airbyte.container.orchestrator.config
 
 import com.fasterxml.jackson.databind.JsonNode
 import io.airbyte.container.orchestrator.tracker.StreamStatusCompletionTracker
+import io.airbyte.container.orchestrator.worker.DESTINATION_WRITER_STAGE
 import io.airbyte.container.orchestrator.worker.DestinationReader
 import io.airbyte.container.orchestrator.worker.DestinationWriter
+import io.airbyte.container.orchestrator.worker.MESSAGE_PROCESSOR_STAGE
 import io.airbyte.container.orchestrator.worker.MessageProcessor
 import io.airbyte.container.orchestrator.worker.RecordSchemaValidator
 import io.airbyte.container.orchestrator.worker.ReplicationWorkerContext
@@ -18,8 +20,11 @@ import io.airbyte.container.orchestrator.worker.context.ReplicationInputFeatureF
 import io.airbyte.container.orchestrator.worker.filter.FieldSelector
 import io.airbyte.container.orchestrator.worker.io.AirbyteDestination
 import io.airbyte.container.orchestrator.worker.io.AirbyteSource
+import io.airbyte.container.orchestrator.worker.util.BytesSizeHelper
 import io.airbyte.container.orchestrator.worker.util.ClosableChannelQueue
+import io.airbyte.container.orchestrator.worker.util.MemoryBudget
 import io.airbyte.container.orchestrator.worker.util.ReplicationMetricReporter
+import io.airbyte.metrics.MetricClient
 import io.airbyte.persistence.job.models.ReplicationInput
 import io.airbyte.protocol.models.v0.AirbyteMessage
 import io.airbyte.protocol.models.v0.AirbyteStreamNameNamespacePair
@@ -32,6 +37,7 @@ import io.micronaut.context.annotation.Factory
 import io.micronaut.context.annotation.Requires
 import jakarta.inject.Named
 import jakarta.inject.Singleton
+import kotlinx.coroutines.asCoroutineDispatcher
 import java.util.concurrent.ExecutorService
 import java.util.concurrent.Executors
 
@@ -88,14 +94,25 @@ class OrchestratorBeanFactory {
 
   @Singleton
   @Named("destinationMessageQueue")
-  fun destinationMessageQueue(context: ReplicationWorkerContext) =
-    ClosableChannelQueue<AirbyteMessage>(context.bufferConfiguration.destinationMaxBufferSize)
+  fun destinationMessageQueue(
+    context: ReplicationWorkerContext,
+    memoryBudget: MemoryBudget,
+    metricClient: MetricClient,
+  ) = ClosableChannelQueue<AirbyteMessage>(
+    capacity = context.bufferConfiguration.destinationMaxBufferSize,
+    maxChunkSize = context.bufferConfiguration.maxChunkSize,
+    maxChunkBytes = context.bufferConfiguration.maxChunkBytes,
+    sizeOf = BytesSizeHelper::getEstimatedMessageSize,
+    memoryBudget = memoryBudget,
+  ).also { it.registerBlockedTimeCounters(metricClient, MESSAGE_PROCESSOR_STAGE, DESTINATION_WRITER_STAGE) }
 
   @Singleton
   @Named("syncReplicationJobs")
   fun syncReplicationJobs(
     destination: AirbyteDestination,
     @Named("destinationMessageQueue") destinationMessageQueue: ClosableChannelQueue<AirbyteMessage>,
+    @Named("mapperExecutor") mapperExecutor: ExecutorService,
+    @Named("mapperParallelism") mapperParallelism: Int,
     replicationWorkerHelper: ReplicationWorkerHelper,
     replicationWorkerState: ReplicationWorkerState,
     source: AirbyteSource,
@@ -110,6 +127,8 @@ class OrchestratorBeanFactory {
       streamStatusCompletionTracker = streamStatusCompletionTracker,
     ),
     MessageProcessor(
+      mapperDispatcher = mapperExecutor.asCoroutineDispatcher(),
+      mapperParallelism = mapperParallelism,
       destinationQueue = destinationMessageQueue,
       replicationWorkerHelper = replicationWorkerHelper,
       replicationWorkerState = replicationWorkerState,
@@ -233,7 +233,13 @@ class SyncPersistenceImpl(
     }
 
     val state = stateToFlush?.getAggregated() ?: return
-    val maybeStateWrapper = StateMessageHelper.getTypedState(state.state).getOrNull() ?: return
+    val maybeStateWrapper = StateMessageHelper.getTypedState(state.state).getOrNull()
+    if (maybeStateWrapper == null) {
+      // None of the buffered stream states changed since they were last persisted, there is nothing to send.
+      stateToFlush?.clear()
+      stateToFlush = null
+      return
+    }
 
     metricClient.count(metric = OssMetricsRegistry.STATE_COMMIT_ATTEMPT)
 
@@ -8,6 +8,9 @@ import io.airbyte.commons.concurrency.ClosableLinkedBlockingQueue
 
 const val DEFAULT_SOURCE_MAX_BUFFER_SIZE = 1000
 const val DEFAULT_DESTINATION_MAX_BUFFER_SIZE = 1000
+const val DEFAULT_MAX_CHUNK_SIZE = 100
+const val DEFAULT_MAX_CHUNK_BYTES = 4L * 1024 * 1024
+const val DEFAULT_MAX_IN_FLIGHT_HEAP_FRACTION = 0.3
 const val DEFAULT_POLL_TIME_OUT_DURATION_SECONDS = ClosableLinkedBlockingQueue.DEFAULT_POLL_TIME_OUT_DURATION_SECONDS
 
 fun withBufferSize(bufferSize: Int) = BufferConfiguration(sourceMaxBufferSize = bufferSize, destinationMaxBufferSize = bufferSize)
@@ -16,8 +19,17 @@ fun withPollTimeout(pollTimeoutDuration: Int) = BufferConfiguration(pollTimeoutD
 
 fun withDefaultConfiguration() = BufferConfiguration()
 
+/**
+ * @param maxChunkSize maximum number of messages handed over at once between the replication tasks.
+ * @param maxChunkBytes maximum estimated size of the messages handed over at once between the replication tasks.
+ * @param maxInFlightHeapFraction fraction of the heap that the messages buffered between the replication tasks may use
+ * before the source reader waits for them to be written out.
+ */
 data class BufferConfiguration(
   val sourceMaxBufferSize: Int = DEFAULT_SOURCE_MAX_BUFFER_SIZE,
   val destinationMaxBufferSize: Int = DEFAULT_DESTINATION_MAX_BUFFER_SIZE,
   val pollTimeoutDuration: Int = DEFAULT_POLL_TIME_OUT_DURATION_SECONDS,
+  val maxChunkSize: Int = DEFAULT_MAX_CHUNK_SIZE,
+  val maxChunkBytes: Long = DEFAULT_MAX_CHUNK_BYTES,
+  val maxInFlightHeapFraction: Double = DEFAULT_MAX_IN_FLIGHT_HEAP_FRACTION,
 )
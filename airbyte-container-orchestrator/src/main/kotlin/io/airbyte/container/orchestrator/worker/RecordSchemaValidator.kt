@@ -6,23 +6,59 @@ package io.airbyte.container.orchestrator.worker
 
 import com.fasterxml.jackson.databind.JsonNode
 import com.fasterxml.jackson.databind.node.ObjectNode
+import io.airbyte.commons.protocol.serde.LazyDataAirbyteRecordMessage
 import io.airbyte.protocol.models.v0.AirbyteRecordMessage
 import io.airbyte.protocol.models.v0.AirbyteStreamNameNamespacePair
 import io.airbyte.validation.json.JsonSchemaValidator
 import java.io.Closeable
 import java.io.IOException
+import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.ConcurrentMap
 import java.util.concurrent.ExecutorService
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
 
 /**
  * Validates that [AirbyteRecordMessage] data conforms to the JSON schema defined by the source's
  * configured catalog.
+ *
+ * The full validation runs on [schemaValidationExecutorService]. To keep its cost bounded, the first
+ * [fullyValidatedRecordsPerStream] records of each stream and then one record out of [fullValidationSampleRate] are
+ * fully validated. The other records only go through a [RecordTypeChecker] built from the stream's schema, and are
+ * fully validated if it finds a type mismatch. At most [maxPendingValidations] records wait for the full validation,
+ * records beyond that are dropped. The outcome is counted per stream, see [getValidationCounts].
  */
 class RecordSchemaValidator(
   private val jsonSchemaValidator: JsonSchemaValidator,
   private val schemaValidationExecutorService: ExecutorService,
   private val streamNamesToSchemas: MutableMap<AirbyteStreamNameNamespacePair, JsonNode?>,
+  private val maxPendingValidations: Int = DEFAULT_MAX_PENDING_VALIDATIONS,
+  private val fullyValidatedRecordsPerStream: Int = DEFAULT_FULLY_VALIDATED_RECORDS_PER_STREAM,
+  private val fullValidationSampleRate: Int = DEFAULT_FULL_VALIDATION_SAMPLE_RATE,
 ) : Closeable {
+  /**
+   * Number of records of a stream that were fully validated, that were only type checked, and that were dropped
+   * because too many records were waiting for the full validation.
+   */
+  data class ValidationCounts(
+    val validated: Long,
+    val sampledOut: Long,
+    val dropped: Long,
+  )
+
+  private class StreamValidation(
+    val typeChecker: RecordTypeChecker?,
+  ) {
+    val records = AtomicLong()
+    val validated = AtomicLong()
+    val sampledOut = AtomicLong()
+    val dropped = AtomicLong()
+  }
+
+  private val streamValidations: ConcurrentMap<AirbyteStreamNameNamespacePair, StreamValidation> = ConcurrentHashMap()
+  private val pendingValidations = AtomicInteger()
+
   fun initializeSchemaValidator() {
     // initialize schema validator to avoid creating validators each time.
     streamNamesToSchemas.keys.forEach { stream ->
@@ -37,6 +73,7 @@ class RecordSchemaValidator(
       // Copy the schema before modification to ensure that it doesn't mutate the actual catalog schema
       // used elsewhere in the platform.
       jsonSchemaValidator.initializeSchemaValidator(stream.toString(), updateIdNodePropertyName(schema.deepCopy())!!)
+      streamValidations[stream] = StreamValidation(RecordTypeChecker.fromSchema(schema))
     }
   }
 
@@ -49,11 +86,8 @@ class RecordSchemaValidator(
     airbyteStream: AirbyteStreamNameNamespacePair,
     validationErrors: ConcurrentMap<AirbyteStreamNameNamespacePair, Pair<MutableSet<String>, Int>?>,
   ) {
-    schemaValidationExecutorService.execute {
-      val errorMessages = jsonSchemaValidator.validateInitializedSchema(airbyteStream.toString(), message.getData())
-      if (errorMessages.isNotEmpty()) {
-        updateValidationErrors(errorMessages.toMutableSet(), airbyteStream, validationErrors)
-      }
+    submitValidation(message, airbyteStream) { errorMessages ->
+      updateValidationErrors(errorMessages.toMutableSet(), airbyteStream, validationErrors)
     }
   }
 
@@ -66,11 +100,57 @@ class RecordSchemaValidator(
     airbyteStream: AirbyteStreamNameNamespacePair,
     validationErrors: ConcurrentMap<AirbyteStreamNameNamespacePair, MutableSet<String>>,
   ) {
-    schemaValidationExecutorService.execute {
-      val errorMessages = jsonSchemaValidator.validateInitializedSchema(airbyteStream.toString(), message.data)
-      if (errorMessages.isNotEmpty()) {
-        validationErrors.computeIfAbsent(airbyteStream) { k: AirbyteStreamNameNamespacePair -> HashSet() }.addAll(errorMessages)
+    submitValidation(message, airbyteStream) { errorMessages ->
+      validationErrors.computeIfAbsent(airbyteStream) { k: AirbyteStreamNameNamespacePair -> HashSet() }.addAll(errorMessages)
+    }
+  }
+
+  fun getValidationCounts(): Map<AirbyteStreamNameNamespacePair, ValidationCounts> =
+    streamValidations.mapValues { (_, streamValidation) ->
+      ValidationCounts(
+        validated = streamValidation.validated.get(),
+        sampledOut = streamValidation.sampledOut.get(),
+        dropped = streamValidation.dropped.get(),
+      )
+    }
+
+  private fun submitValidation(
+    message: AirbyteRecordMessage,
+    airbyteStream: AirbyteStreamNameNamespacePair,
+    onErrors: (Set<String>) -> Unit,
+  ) {
+    // Streams that were not initialized have no type checker, so all their records are fully validated.
+    val streamValidation = streamValidations.computeIfAbsent(airbyteStream) { StreamValidation(null) }
+    val index = streamValidation.records.getAndIncrement()
+    val sampled = index < fullyValidatedRecordsPerStream || index % fullValidationSampleRate == 0L
+    // Records whose data wasn't built yet, e.g. passthrough records, are validated on a copy of their data, so they can
+    // still be written as they were read.
+    val data = if (message is LazyDataAirbyteRecordMessage) message.peekData() else message.data
+    if (!sampled && streamValidation.typeChecker?.matches(data) == true) {
+      streamValidation.sampledOut.incrementAndGet()
+      return
+    }
+
+    if (pendingValidations.incrementAndGet() > maxPendingValidations) {
+      pendingValidations.decrementAndGet()
+      streamValidation.dropped.incrementAndGet()
+      return
+    }
+    try {
+      schemaValidationExecutorService.execute {
+        try {
+          val errorMessages = jsonSchemaValidator.validateInitializedSchema(airbyteStream.toString(), data)
+          streamValidation.validated.incrementAndGet()
+          if (errorMessages.isNotEmpty()) {
+            onErrors(errorMessages)
+          }
+        } finally {
+          pendingValidations.decrementAndGet()
+        }
       }
+    } catch (e: RejectedExecutionException) {
+      pendingValidations.decrementAndGet()
+      streamValidation.dropped.incrementAndGet()
     }
   }
 
@@ -123,4 +203,10 @@ class RecordSchemaValidator(
 
     return node
   }
+
+  companion object {
+    const val DEFAULT_MAX_PENDING_VALIDATIONS = 1_000
+    const val DEFAULT_FULLY_VALIDATED_RECORDS_PER_STREAM = 1_000
+    const val DEFAULT_FULL_VALIDATION_SAMPLE_RATE = 100
+  }
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.container.orchestrator.worker
+
+import com.fasterxml.jackson.databind.JsonNode
+
+/**
+ * Cheap, type-only check of record data against a stream's JSON schema.
+ *
+ * Only the `type`, `properties` and (single schema) `items` keywords are looked at, every other keyword is left to the
+ * full validation done by the [io.airbyte.validation.json.JsonSchemaValidator]. A record that [matches] can still fail
+ * the full validation, e.g. on a `required` or `format` keyword. A record that doesn't match most likely fails it, and
+ * should be fully validated to find out why.
+ */
+class RecordTypeChecker private constructor(
+  private val root: SchemaNode,
+) {
+  private class SchemaNode(
+    val types: Int,
+    val properties: Map<String, SchemaNode>,
+    val items: SchemaNode?,
+  )
+
+  fun matches(data: JsonNode?): Boolean = matches(root, data)
+
+  private fun matches(
+    schema: SchemaNode,
+    value: JsonNode?,
+  ): Boolean {
+    if (schema.types and typeOf(value) == 0) {
+      return false
+    }
+    if (value == null) {
+      return true
+    }
+    if (value.isObject && schema.properties.isNotEmpty()) {
+      val fields = value.fields()
+      while (fields.hasNext()) {
+        val (name, fieldValue) = fields.next()
+        val fieldSchema = schema.properties[name] ?: continue
+        if (!matches(fieldSchema, fieldValue)) {
+          return false
+        }
+      }
+    } else if (value.isArray && schema.items != null) {
+      for (element in value) {
+        if (!matches(schema.items, element)) {
+          return false
+        }
+      }
+    }
+    return true
+  }
+
+  companion object {
+    private const val NULL = 1
+    private const val BOOLEAN = 1 shl 1
+    private const val INTEGER = 1 shl 2
+    private const val NUMBER = 1 shl 3
+    private const val STRING = 1 shl 4
+    private const val OBJECT = 1 shl 5
+    private const val ARRAY = 1 shl 6
+
+    // Binary and POJO nodes, which never come out of a parsed record.
+    private const val OTHER = 1 shl 7
+    private const val ANY = NULL or BOOLEAN or INTEGER or NUMBER or STRING or OBJECT or ARRAY or OTHER
+
+    private val ANY_SCHEMA = SchemaNode(ANY, emptyMap(), null)
+
+    fun fromSchema(schema: JsonNode): RecordTypeChecker = RecordTypeChecker(parse(schema))
+
+    private fun parse(schema: JsonNode?): SchemaNode {
+      if (schema == null || !schema.isObject) {
+        return ANY_SCHEMA
+      }
+      val properties = schema.get("properties")
+      val items = schema.get("items")
+      return SchemaNode(
+        types = parseTypes(schema.get("type")),
+        properties =
+          if (properties != null && properties.isObject) {
+            properties.fields().asSequence().associate { (name, propertySchema) -> name to parse(propertySchema) }
+          } else {
+            emptyMap()
+          },
+        items = if (items != null && items.isObject) parse(items) else null,
+      )
+    }
+
+    private fun parseTypes(type: JsonNode?): Int =
+      when {
+        type == null -> ANY
+        type.isTextual -> parseType(type.textValue())
+        type.isArray -> type.fold(0) { types, element -> types or parseType(element.asText()) }
+        else -> ANY
+      }
+
+    private fun parseType(type: String): Int =
+      when (type) {
+        "null" -> NULL
+        "boolean" -> BOOLEAN
+        "integer" -> INTEGER
+        // An integral value is a valid number.
+        "number" -> NUMBER or INTEGER
+        "string" -> STRING
+        "object" -> OBJECT
+        "array" -> ARRAY
+        else -> ANY
+      }
+
+    private fun typeOf(value: JsonNode?): Int =
+      when {
+        value == null || value.isNull -> NULL
+        value.isTextual -> STRING
+        value.isIntegralNumber -> INTEGER
+        value.isNumber -> NUMBER
+        value.isBoolean -> BOOLEAN
+        value.isObject -> OBJECT
+        value.isArray -> ARRAY
+        else -> OTHER
+      }
+  }
+}
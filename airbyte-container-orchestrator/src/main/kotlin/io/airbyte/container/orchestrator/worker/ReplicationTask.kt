@@ -16,11 +16,16 @@ import io.airbyte.workers.internal.exception.DestinationException
 import io.airbyte.workers.internal.exception.SourceException
 import io.github.oshai.kotlinlogging.KotlinLogging
 import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.yield
 import java.nio.file.Path
 
 private val logger = KotlinLogging.logger {}
 
+const val SOURCE_READER_STAGE = "source_reader"
+const val MESSAGE_PROCESSOR_STAGE = "message_processor"
+const val DESTINATION_WRITER_STAGE = "destination_writer"
+
 interface ReplicationTask {
   suspend fun run()
 }
@@ -107,7 +112,7 @@ class DestinationWriter(
       handleException(e)
     } finally {
       notifyEndOfInput()
-      destinationQueue.close()
+      destinationQueue.cancel()
       logger.info { "DestinationWriter finished." }
     }
   }
@@ -130,11 +135,17 @@ class DestinationWriter(
   }
 }
 
+/**
+ * Processes the messages from the source. When [mapperParallelism] is above 1, the mappers are applied to the records of
+ * each chunk on [mapperDispatcher], see [ReplicationWorkerHelper.processMessagesFromSource].
+ */
 class MessageProcessor(
   private val replicationWorkerState: ReplicationWorkerState,
   private val replicationWorkerHelper: ReplicationWorkerHelper,
   private val sourceQueue: ClosableChannelQueue<AirbyteMessage>,
   private val destinationQueue: ClosableChannelQueue<AirbyteMessage>? = null,
+  private val mapperDispatcher: CoroutineDispatcher? = null,
+  private val mapperParallelism: Int = 1,
 ) : ReplicationTask {
   override suspend fun run() {
     logger.info { "MessageProcessor started." }
@@ -153,22 +164,35 @@ class MessageProcessor(
           break
         }
 
-        val message = sourceQueue.receive() ?: continue
-        val processedMessageOpt = replicationWorkerHelper.processMessageFromSource(message)
+        val messages = sourceQueue.receiveChunk() ?: continue
+        if (mapperDispatcher != null && mapperParallelism > 1) {
+          for (processedMessage in replicationWorkerHelper.processMessagesFromSource(messages, mapperDispatcher, mapperParallelism)) {
+            forward(processedMessage)
+          }
+        } else {
+          for (message in messages) {
+            val processedMessageOpt = replicationWorkerHelper.processMessageFromSource(message)
 
-        if (processedMessageOpt.isPresent) {
-          val processedMessage = processedMessageOpt.get()
-          if (processedMessage.type == Type.RECORD || processedMessage.type == Type.STATE) {
-            destinationQueue?.send(processedMessage)
+            if (processedMessageOpt.isPresent) {
+              forward(processedMessageOpt.get())
+            }
           }
         }
+        // Don't hold on to the end of the chunk until the next one arrives.
+        destinationQueue?.flush()
       }
     } finally {
-      sourceQueue.close()
+      sourceQueue.cancel()
       destinationQueue?.close()
       logger.info { "MessageProcessor finished." }
     }
   }
+
+  private suspend fun forward(processedMessage: AirbyteMessage) {
+    if (processedMessage.type == Type.RECORD || processedMessage.type == Type.STATE) {
+      destinationQueue?.send(processedMessage)
+    }
+  }
 }
 
 class SourceReader(
@@ -191,10 +215,19 @@ class SourceReader(
             streamStatusCompletionTracker.track(message.trace.streamStatus)
           }
           messagesFromSourceQueue.send(message)
+          // Control messages shouldn't wait for the chunk to fill up, especially states since reading the next message
+          // may block for a while.
+          if (message.type != Type.RECORD) {
+            messagesFromSourceQueue.flush()
+          }
         } else {
+          messagesFromSourceQueue.flush()
           yield()
         }
       }
+      if (!messagesFromSourceQueue.isClosedForSending()) {
+        messagesFromSourceQueue.flush()
+      }
       if (replicationWorkerState.shouldAbort) {
         source.cancel()
       }
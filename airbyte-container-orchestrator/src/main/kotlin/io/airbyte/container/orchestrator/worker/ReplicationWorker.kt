@@ -9,6 +9,7 @@ import io.airbyte.commons.io.LineGobbler
 import io.airbyte.commons.logging.MdcScope
 import io.airbyte.config.PerformanceMetrics
 import io.airbyte.config.ReplicationOutput
+import io.airbyte.container.orchestrator.bookkeeping.streamstatus.StreamStatusCachingApiClient
 import io.airbyte.container.orchestrator.persistence.SyncPersistence
 import io.airbyte.container.orchestrator.worker.io.AirbyteDestination
 import io.airbyte.container.orchestrator.worker.io.AirbyteSource
@@ -46,6 +47,7 @@ class ReplicationWorker(
   @Named("replicationWorkerExecutor") private val replicationWorkerExecutor: ExecutorService,
   @Named("heartbeatExecutor") private val heartbeatExecutor: ExecutorService,
   @Named("replicationMdcScopeBuilder") private val replicationLogMdcBuilder: MdcScope.Builder,
+  private val streamStatusCachingApiClient: StreamStatusCachingApiClient? = null,
 ) {
   private val dedicatedDispatcher = replicationWorkerExecutor.asCoroutineDispatcher()
   private val heartbeatDispatcher = heartbeatExecutor.asCoroutineDispatcher()
@@ -140,6 +142,7 @@ class ReplicationWorker(
       safeClose(destination)
       safeClose(source)
       safeClose(recordSchemaValidator)
+      safeClose(streamStatusCachingApiClient)
       safeClose(syncPersistence)
     }
   }
@@ -9,7 +9,6 @@ import com.fasterxml.jackson.databind.ObjectMapper
 import com.google.common.annotations.VisibleForTesting
 import io.airbyte.commons.io.LineGobbler
 import io.airbyte.config.FailureReason
-import io.airbyte.config.MapperConfig
 import io.airbyte.config.PerformanceMetrics
 import io.airbyte.config.ReplicationAttemptSummary
 import io.airbyte.config.ReplicationOutput
@@ -38,6 +37,7 @@ import io.airbyte.container.orchestrator.worker.model.attachIdToStateMessageFrom
 import io.airbyte.container.orchestrator.worker.util.BytesSizeHelper.byteCountToDisplaySize
 import io.airbyte.mappers.application.RecordMapper
 import io.airbyte.mappers.transformations.DestinationCatalogGenerator
+import io.airbyte.metrics.BoundCounter
 import io.airbyte.metrics.MetricAttribute
 import io.airbyte.metrics.MetricClient
 import io.airbyte.metrics.OssMetricsRegistry
@@ -55,6 +55,9 @@ import io.airbyte.workers.internal.AirbyteMapper
 import io.github.oshai.kotlinlogging.KotlinLogging
 import jakarta.inject.Named
 import jakarta.inject.Singleton
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.launch
 import java.nio.file.Path
 import java.util.Optional
 
@@ -77,11 +80,15 @@ class ReplicationWorkerHelper(
   destinationCatalogGenerator: DestinationCatalogGenerator,
   private val metricClient: MetricClient,
 ) {
-  private val streamMappers: Map<StreamDescriptor, List<MapperConfig>>
+  private val streamMappers: Map<StreamDescriptor, RecordMapper.CompiledMappers>
   private val destinationConfig: WorkerDestinationConfig
   private val mappersConfigured: Boolean
   private val metricAttrs: MutableList<MetricAttribute> = mutableListOf()
 
+  // Counters of the state messages, resolved once as they are incremented for every state message of the sync
+  private val stateProcessedFromSourceCounter: BoundCounter
+  private val stateProcessedFromDestinationCounter: BoundCounter
+
   private fun toConnectionAttrs(ctx: ReplicationContext?): List<MetricAttribute> {
     if (ctx == null) {
       return listOf()
@@ -100,6 +107,10 @@ class ReplicationWorkerHelper(
       clear()
       addAll(toConnectionAttrs(context.replicationContext))
     }
+    stateProcessedFromSourceCounter =
+      metricClient.boundCounter(metric = OssMetricsRegistry.STATE_PROCESSED_FROM_SOURCE, attributes = metricAttrs.toTypedArray())
+    stateProcessedFromDestinationCounter =
+      metricClient.boundCounter(metric = OssMetricsRegistry.STATE_PROCESSED_FROM_DESTINATION, attributes = metricAttrs.toTypedArray())
 
     analyticsTracker.ctx = context.replicationContext
 
@@ -121,7 +132,11 @@ class ReplicationWorkerHelper(
     }
 
     val catalogWithoutInvalidMappers = destinationCatalogGenerator.generateDestinationCatalog(context.configuredCatalog)
-    streamMappers = catalogWithoutInvalidMappers.catalog.streams.associate { stream -> stream.streamDescriptor to stream.mappers }
+    // The mappers are compiled once for the whole sync, so that only the transformations themselves run per record.
+    streamMappers =
+      catalogWithoutInvalidMappers.catalog.streams
+        .filter { stream -> stream.mappers.isNotEmpty() }
+        .associate { stream -> stream.streamDescriptor to recordMapper.compile(stream.mappers) }
     destinationConfig =
       WorkerUtils.syncToWorkerDestinationConfig(context.replicationInput).apply {
         catalog = mapper?.mapCatalog(catalog) ?: catalog
@@ -186,7 +201,7 @@ class ReplicationWorkerHelper(
   fun endOfSource() {
     val bytes = byteCountToDisplaySize(syncStatsTracker.getStats().values.sumOf { it.bytesEmitted })
     logger.info { "Total records read: ($bytes)" }
-    fieldSelector?.reportMetrics(context.replicationContext.sourceId)
+    fieldSelector?.reportMetrics()
     timeTracker.trackSourceReadEndTime()
   }
 
@@ -256,18 +271,11 @@ class ReplicationWorkerHelper(
 
   @VisibleForTesting
   fun internalProcessMessageFromSource(sourceRawMessage: AirbyteMessage): AirbyteMessage? {
-    updateRecordsCount()
-    fieldSelector?.filterSelectedFields(sourceRawMessage)
-    fieldSelector?.validateSchema(sourceRawMessage)
-    messageTracker.acceptFromSource(sourceRawMessage)
-    streamStatusTracker.track(sourceRawMessage)
+    acceptMessageFromSource(sourceRawMessage)
     return when (sourceRawMessage.type) {
       RECORD -> processRecordMessage(sourceRawMessage)
       STATE -> {
-        metricClient.count(
-          metric = OssMetricsRegistry.STATE_PROCESSED_FROM_SOURCE,
-          attributes = metricAttrs.toTypedArray(),
-        )
+        stateProcessedFromSourceCounter.increment()
         sourceRawMessage
       }
       else -> {
@@ -281,20 +289,31 @@ class ReplicationWorkerHelper(
     }
   }
 
+  private fun acceptMessageFromSource(sourceRawMessage: AirbyteMessage) {
+    updateRecordsCount()
+    fieldSelector?.filterSelectedFields(sourceRawMessage)
+    fieldSelector?.validateSchema(sourceRawMessage)
+    messageTracker.acceptFromSource(sourceRawMessage)
+    streamStatusTracker.track(sourceRawMessage)
+  }
+
   private fun processRecordMessage(sourceRawMessage: AirbyteMessage): AirbyteMessage? {
     if (mappersConfigured) {
       val adapter = AirbyteJsonRecordAdapter(sourceRawMessage)
       applyTransformationMappers(adapter)
-      return if (!adapter.shouldInclude()) {
-        syncStatsTracker.updateFilteredOutRecordsStats(sourceRawMessage.record)
-        null
-      } else {
-        sourceRawMessage
-      }
+      return filterMappedRecord(adapter)
     }
     return sourceRawMessage
   }
 
+  private fun filterMappedRecord(adapter: AirbyteJsonRecordAdapter): AirbyteMessage? =
+    if (!adapter.shouldInclude()) {
+      syncStatsTracker.updateFilteredOutRecordsStats(adapter.asProtocol.record)
+      null
+    } else {
+      adapter.asProtocol
+    }
+
   private fun handleControlMessage(
     rawMessage: AirbyteMessage,
     origin: AirbyteMessageOrigin,
@@ -313,7 +332,7 @@ class ReplicationWorkerHelper(
       analyticsTracker.addMessage(destinationRawMessage, AirbyteMessageOrigin.DESTINATION)
     }
     if (destinationRawMessage.type == STATE) {
-      metricClient.count(metric = OssMetricsRegistry.STATE_PROCESSED_FROM_DESTINATION, attributes = metricAttrs.toTypedArray())
+      stateProcessedFromDestinationCounter.increment()
     }
     handleControlMessage(destinationRawMessage, AirbyteMessageOrigin.DESTINATION)
   }
@@ -323,8 +342,80 @@ class ReplicationWorkerHelper(
       ?.let { mapper?.mapMessage(it) ?: it }
       ?.let { Optional.of(it) } ?: Optional.empty()
 
+  /**
+   * Processes a chunk of messages from the source like [processMessageFromSource], applying the mappers to the records
+   * on up to [mapperParallelism] coroutines of [mapperDispatcher].
+   *
+   * Messages other than records are processed one at a time, in order, and the records between two of them are mapped
+   * concurrently. Records are sharded by stream and primary key, so the records of a given row are still mapped in
+   * order by a single coroutine. All the bookkeeping happens on the calling coroutine and the processed messages are
+   * returned in the order they were received in, so records are always accounted for and emitted before the STATE
+   * messages that follow them.
+   */
+  suspend fun processMessagesFromSource(
+    sourceRawMessages: List<AirbyteMessage>,
+    mapperDispatcher: CoroutineDispatcher,
+    mapperParallelism: Int,
+  ): List<AirbyteMessage> {
+    val processedMessages = ArrayList<AirbyteMessage>(sourceRawMessages.size)
+    var start = 0
+    while (start < sourceRawMessages.size) {
+      var end = start
+      while (end < sourceRawMessages.size && sourceRawMessages[end].type == RECORD) {
+        end++
+      }
+      if (end == start) {
+        processMessageFromSource(sourceRawMessages[start]).ifPresent { processedMessages.add(it) }
+        start++
+      } else {
+        processRecordsFromSource(sourceRawMessages.subList(start, end), mapperDispatcher, mapperParallelism).forEach {
+          processedMessages.add(mapper?.mapMessage(it) ?: it)
+        }
+        start = end
+      }
+    }
+    return processedMessages
+  }
+
+  private suspend fun processRecordsFromSource(
+    records: List<AirbyteMessage>,
+    mapperDispatcher: CoroutineDispatcher,
+    mapperParallelism: Int,
+  ): List<AirbyteMessage> {
+    records.forEach { acceptMessageFromSource(it) }
+    if (!mappersConfigured) {
+      return records
+    }
+
+    // The mapped records go back to their own slot, so the shards are contiguous ranges of the chunk. This leaves the
+    // record data alone until a mapper thread needs it.
+    val shards = List(mapperParallelism) { mutableListOf<Int>() }
+    records.forEachIndexed { index, message ->
+      val streamDescriptor = StreamDescriptor().withNamespace(message.record.namespace).withName(message.record.stream)
+      if (streamMappers.containsKey(streamDescriptor)) {
+        shards[(index.toLong() * mapperParallelism / records.size).toInt()].add(index)
+      }
+    }
+
+    // Each shard only writes its own slots, which are read once all the shards are done.
+    val adapters = arrayOfNulls<AirbyteJsonRecordAdapter>(records.size)
+    coroutineScope {
+      shards.filter { it.isNotEmpty() }.forEach { shard ->
+        launch(mapperDispatcher) {
+          shard.forEach { index ->
+            adapters[index] = AirbyteJsonRecordAdapter(records[index]).also { applyTransformationMappers(it) }
+          }
+        }
+      }
+    }
+    return records.indices.mapNotNull { index ->
+      val adapter = adapters[index]
+      if (adapter == null) records[index] else filterMappedRecord(adapter)
+    }
+  }
+
   internal fun applyTransformationMappers(message: AirbyteJsonRecordAdapter) {
-    streamMappers[message.streamDescriptor]?.takeIf { it.isNotEmpty() }?.let { mappers ->
+    streamMappers[message.streamDescriptor]?.let { mappers ->
       recordMapper.applyMappers(message, mappers)
     }
   }
@@ -13,10 +13,9 @@ import io.airbyte.container.orchestrator.worker.util.ReplicationMetricReporter
 import io.airbyte.featureflag.RemoveValidationLimit
 import io.airbyte.persistence.job.models.ReplicationInput
 import io.airbyte.protocol.models.v0.AirbyteMessage
-import io.airbyte.protocol.models.v0.AirbyteRecordMessage
 import io.airbyte.protocol.models.v0.AirbyteStreamNameNamespacePair
+import io.airbyte.workers.internal.isPassthroughRecord
 import io.github.oshai.kotlinlogging.KotlinLogging
-import java.util.UUID
 import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.ConcurrentMap
 
@@ -24,34 +23,74 @@ private val logger = KotlinLogging.logger {}
 
 private val PROTECTED_JSON_SCHEMA_KEYS = "^\\$(id|comment|schema)$".toRegex()
 
-private fun getUnexpectedFieldNames(
-  record: AirbyteRecordMessage,
-  fieldsInCatalog: Set<String>,
-): Set<String> {
-  val unexpectedFieldNames = mutableSetOf<String>()
-  val data = record.data
-  // If it's not an object it's malformed, but we tolerate it here - it will be logged as an error by
-  // the validation.
-  if (data.isObject) {
-    val fieldNamesInRecord = data.fieldNames()
-    while (fieldNamesInRecord.hasNext()) {
-      val fieldName = fieldNamesInRecord.next()
-      if (!fieldsInCatalog.contains(fieldName)) {
-        unexpectedFieldNames.add(fieldName)
+/**
+ * Projection of the records of a stream onto its selected fields, built once when the fields are populated.
+ *
+ * A record is projected in a single pass over its fields, which drops the fields that are not selected. The field names
+ * of the last record that only had selected fields are remembered: records with the same fields in the same order, which
+ * is most of them, are only compared to it. Field names coming out of Jackson are interned, so the comparison is usually
+ * by reference.
+ *
+ * @param selectedFields fields kept in the records, i.e. the top-level fields of the configured schema of the stream.
+ */
+private class ProjectionPlan(
+  val selectedFields: Set<String>,
+) {
+  private var exactShape: Array<String>? = null
+
+  fun project(data: ObjectNode) {
+    if (hasExactShape(data)) {
+      return
+    }
+    val fieldNames = arrayOfNulls<String>(data.size())
+    var exact = true
+    var index = 0
+    val fields = data.fields()
+    while (fields.hasNext()) {
+      val fieldName = fields.next().key
+      if (selectedFields.contains(fieldName)) {
+        fieldNames[index++] = fieldName
+      } else {
+        fields.remove()
+        exact = false
       }
     }
+    if (exact) {
+      @Suppress("UNCHECKED_CAST")
+      exactShape = fieldNames as Array<String>
+    }
+  }
+
+  private fun hasExactShape(data: ObjectNode): Boolean {
+    val shape = exactShape ?: return false
+    if (shape.size != data.size()) {
+      return false
+    }
+    var index = 0
+    val fieldNames = data.fieldNames()
+    while (fieldNames.hasNext()) {
+      val fieldName = fieldNames.next()
+      val shapeFieldName = shape[index++]
+      if (fieldName !== shapeFieldName && fieldName != shapeFieldName) {
+        return false
+      }
+    }
+    return true
   }
-  return unexpectedFieldNames
 }
 
 /**
  * Handles FieldSelection.
+ *
+ * @param maxRecordsWithErrors number of records with validation errors after which the records of a stream are no longer
+ * validated, unless the validation limit is removed.
  */
 class FieldSelector(
   private val recordSchemaValidator: RecordSchemaValidator,
   private val metricReporter: ReplicationMetricReporter,
   replicationInput: ReplicationInput,
   replicationInputFeatureFlagReader: ReplicationInputFeatureFlagReader,
+  private val maxRecordsWithErrors: Int = DEFAULT_MAX_RECORDS_WITH_ERRORS,
 ) {
   private val removeValidationLimit: Boolean =
     replicationInput.workspaceId != null &&
@@ -63,16 +102,13 @@ class FieldSelector(
    */
   private val validationErrors: ConcurrentMap<AirbyteStreamNameNamespacePair, Pair<MutableSet<String>, Int>?> = ConcurrentHashMap()
   private val uncountedValidationErrors: ConcurrentMap<AirbyteStreamNameNamespacePair, MutableSet<String>> = ConcurrentHashMap()
-  private val streamToSelectedFields = mutableMapOf<AirbyteStreamNameNamespacePair, List<String>>()
-  private val streamToAllFields = mutableMapOf<AirbyteStreamNameNamespacePair, Set<String>>()
-  private val unexpectedFields = mutableMapOf<AirbyteStreamNameNamespacePair, MutableSet<String>>()
+  private val streamToProjectionPlan = mutableMapOf<AirbyteStreamNameNamespacePair, ProjectionPlan>()
 
   /**
    * Initialize the FieldSelector instance with the fields from the catalog.
    */
   fun populateFields(catalog: ConfiguredAirbyteCatalog) {
-    populatedStreamToSelectedFields(catalog)
-    populateStreamToAllFields(catalog)
+    populateStreamToProjectionPlan(catalog)
   }
 
   /**
@@ -101,12 +137,21 @@ class FieldSelector(
       // This isn't a record message, so we don't need to do any filtering.
       return
     }
+    if (airbyteMessage.isPassthroughRecord()) {
+      // Passthrough records were only read if all their fields are selected, projecting them would keep every field.
+      return
+    }
 
     val messageStream = AirbyteStreamNameNamespacePair.fromRecordMessage(record)
-    val selectedFields = streamToSelectedFields.getOrDefault(messageStream, emptyList())
+    val projectionPlan = streamToProjectionPlan[messageStream]
     val data = record.data
     if (data.isObject) {
-      (data as ObjectNode).retain(selectedFields)
+      if (projectionPlan != null) {
+        projectionPlan.project(data as ObjectNode)
+      } else {
+        // No field of a stream that isn't in the catalog is selected.
+        (data as ObjectNode).removeAll()
+      }
     } else {
       throw RuntimeException("Unexpected data in record: $data")
     }
@@ -114,10 +159,8 @@ class FieldSelector(
 
   /**
    * report metrics.
-   *
-   * @param sourceId sourceId used for logging purpose.
    */
-  fun reportMetrics(sourceId: UUID) {
+  fun reportMetrics() {
     if (removeValidationLimit) {
       logger.info { "Schema validation was performed without limit." }
       uncountedValidationErrors.forEach { stream, errors ->
@@ -125,59 +168,42 @@ class FieldSelector(
         metricReporter.trackSchemaValidationErrors(stream, errors.toMutableSet())
       }
     } else {
-      logger.info { "Schema validation was performed to a max of 10 records with errors per stream." }
+      logger.info { "Schema validation was performed to a max of $maxRecordsWithErrors records with errors per stream." }
       validationErrors.forEach { stream, errorPair ->
         logger.warn { "Schema validation errors found for stream $stream. Error messages: ${errorPair?.first}" }
         metricReporter.trackSchemaValidationErrors(stream, errorPair?.first?.toMutableSet())
       }
     }
-    unexpectedFields.forEach { stream, unexpectedFieldNames ->
-      if (!unexpectedFieldNames.isEmpty()) {
-        logger.warn { "Source $sourceId has unexpected fields [${unexpectedFieldNames.joinToString(separator = ", ")}] in stream $stream" }
-        metricReporter.trackUnexpectedFields(stream, unexpectedFieldNames)
-      }
+    recordSchemaValidator.getValidationCounts().forEach { stream, validationCounts ->
+      logger.info { "Schema validation of stream $stream: $validationCounts" }
+      metricReporter.trackSchemaValidationCounts(stream, validationCounts)
     }
   }
 
   /**
-   * Generates a map from stream -> the explicit list of fields included for that stream, according to
-   * the configured catalog. Since the configured catalog only includes the selected fields, this lets
-   * us filter records to only the fields explicitly requested.
+   * Generates a map from stream -> the projection of its records onto the fields of the stream, according to the
+   * configured catalog. Since the configured catalog only includes the selected fields, this lets us filter records to
+   * only the fields explicitly requested.
    *
    * @param catalog catalog
    */
   @Throws(RuntimeException::class)
-  private fun populatedStreamToSelectedFields(catalog: ConfiguredAirbyteCatalog) {
+  private fun populateStreamToProjectionPlan(catalog: ConfiguredAirbyteCatalog) {
     catalog.streams.forEach { s ->
-      val selectedFields = mutableListOf<String>()
-      val propertiesNode = s.stream.jsonSchema.findPath("properties")
-      if (propertiesNode.isObject) {
-        propertiesNode.fieldNames().forEachRemaining { fieldName -> selectedFields.add(replaceEscapeCharacter(fieldName)) }
-      } else {
-        throw RuntimeException("No properties node in stream schema")
-      }
-      streamToSelectedFields.put(extractStream(s), selectedFields)
+      streamToProjectionPlan.put(extractStream(s), ProjectionPlan(selectedFields = getTopLevelFields(s)))
     }
   }
 
-  /**
-   * Populates a map for stream -> all the top-level fields in the catalog. Used to identify any
-   * unexpected top-level fields in the records.
-   *
-   * @param catalog catalog
-   */
   @Throws(RuntimeException::class)
-  private fun populateStreamToAllFields(catalog: ConfiguredAirbyteCatalog) {
-    catalog.streams.forEach { s ->
-      val fields = mutableSetOf<String>()
-      val propertiesNode = s.stream.jsonSchema.findPath("properties")
-      if (propertiesNode.isObject) {
-        propertiesNode.fieldNames().forEachRemaining { fieldName -> fields.add(replaceEscapeCharacter(fieldName)) }
-      } else {
-        throw RuntimeException("No properties node in stream schema")
-      }
-      streamToAllFields.put(extractStream(s), fields)
+  private fun getTopLevelFields(stream: ConfiguredAirbyteStream): Set<String> {
+    val fields = HashSet<String>()
+    val propertiesNode = stream.stream.jsonSchema.findPath("properties")
+    if (propertiesNode.isObject) {
+      propertiesNode.fieldNames().forEachRemaining { fieldName -> fields.add(replaceEscapeCharacter(fieldName)) }
+    } else {
+      throw RuntimeException("No properties node in stream schema")
     }
+    return fields
   }
 
   private fun extractStream(stream: ConfiguredAirbyteStream) = AirbyteStreamNameNamespacePair(stream.stream.name, stream.stream.namespace)
@@ -191,10 +217,6 @@ class FieldSelector(
     val messageStream = AirbyteStreamNameNamespacePair.fromRecordMessage(record)
 
     recordSchemaValidator.validateSchemaWithoutCounting(record, messageStream, uncountedValidationErrors)
-    val unexpectedFieldNames = getUnexpectedFieldNames(record, streamToAllFields.getOrDefault(messageStream, emptySet()))
-    if (unexpectedFieldNames.isNotEmpty()) {
-      unexpectedFields.computeIfAbsent(messageStream, { _ -> ConcurrentHashMap.newKeySet() }).addAll(unexpectedFieldNames)
-    }
   }
 
   private fun validateSchemaWithCount(message: AirbyteMessage) {
@@ -204,14 +226,10 @@ class FieldSelector(
 
     val record = message.record
     val messageStream = AirbyteStreamNameNamespacePair.fromRecordMessage(record)
-    // avoid noise by validating only if the stream has less than 10 records with validation errors
-    val streamHasLessThenTenErrs = validationErrors[messageStream] == null || validationErrors[messageStream]?.second!! < 10
-    if (streamHasLessThenTenErrs) {
+    // avoid noise by validating only if the stream has less than maxRecordsWithErrors records with validation errors
+    val streamIsUnderErrorLimit = validationErrors[messageStream] == null || validationErrors[messageStream]?.second!! < maxRecordsWithErrors
+    if (streamIsUnderErrorLimit) {
       recordSchemaValidator.validateSchema(record, messageStream, validationErrors)
-      val unexpectedFieldNames = getUnexpectedFieldNames(record, streamToAllFields.getOrDefault(messageStream, emptySet()))
-      if (!unexpectedFieldNames.isEmpty()) {
-        unexpectedFields.computeIfAbsent(messageStream, { _ -> mutableSetOf() }).addAll(unexpectedFieldNames)
-      }
     }
   }
 
@@ -223,4 +241,8 @@ class FieldSelector(
    * @return The unescaped field name.
    */
   private fun replaceEscapeCharacter(fieldName: String) = PROTECTED_JSON_SCHEMA_KEYS.replace(fieldName, "$1")
+
+  companion object {
+    const val DEFAULT_MAX_RECORDS_WITH_ERRORS = 10
+  }
 }
@@ -8,6 +8,8 @@ import io.airbyte.commons.protocol.AirbyteMessageVersionedMigrator
 import io.airbyte.commons.protocol.serde.AirbyteMessageSerializer
 import io.airbyte.config.ConfiguredAirbyteCatalog
 import io.airbyte.protocol.models.v0.AirbyteMessage
+import io.airbyte.workers.internal.RawAirbyteRecordMessage
+import io.airbyte.workers.internal.isPassthroughRecord
 import java.io.BufferedWriter
 import java.io.IOException
 import java.util.Optional
@@ -15,6 +17,12 @@ import java.util.Optional
 /**
  * Write protocol objects in a specified version.
  *
+ * When [passthroughRawRecords] is set, records that still carry their original source line are written as-is
+ * instead of being serialized again. This is only valid if the destination doesn't require a protocol migration.
+ *
+ * The writer isn't part of the replication memory budget: it only holds the fixed size buffer of [writer] and the message
+ * being written, which is still accounted for by the destination queue until it has been written.
+ *
  * @param <T> type of protocol object.
 </T> */
 class AirbyteMessageBufferedWriter<T : Any>(
@@ -22,9 +30,15 @@ class AirbyteMessageBufferedWriter<T : Any>(
   private val serializer: AirbyteMessageSerializer<T>,
   private val migrator: AirbyteMessageVersionedMigrator<T>,
   private val configuredAirbyteCatalog: Optional<ConfiguredAirbyteCatalog>,
+  private val passthroughRawRecords: Boolean = false,
 ) {
   @Throws(IOException::class)
   fun write(message: AirbyteMessage) {
+    if (passthroughRawRecords && message.isPassthroughRecord()) {
+      writer.write((message.record as RawAirbyteRecordMessage).rawLine)
+      writer.newLine()
+      return
+    }
     val downgradedMessage = migrator.downgrade(message, configuredAirbyteCatalog)
     writer.write(serializer.serialize(downgradedMessage))
     writer.newLine()
@@ -12,6 +12,7 @@ import com.fasterxml.jackson.databind.node.ObjectNode
 import com.fasterxml.jackson.databind.node.TextNode
 import io.airbyte.config.StreamDescriptor
 import io.airbyte.mappers.adapters.AirbyteRecord
+import io.airbyte.mappers.adapters.ComparisonValue
 import io.airbyte.mappers.adapters.Value
 import io.airbyte.protocol.models.v0.AirbyteMessage
 import io.airbyte.protocol.models.v0.AirbyteRecordMessageMeta
@@ -88,6 +89,20 @@ data class AirbyteJsonRecordAdapter(
 
   override fun shouldInclude(): Boolean = shouldInclude
 
+  override fun fieldEquals(
+    fieldName: String,
+    value: ComparisonValue,
+  ): Boolean {
+    val node = data[fieldName] ?: return false
+    // Same result as comparing the text of the node, without building it for the common types.
+    return when {
+      node.isTextual -> node.textValue() == value.text
+      node.isIntegralNumber && node.canConvertToLong() -> node.longValue() == value.long
+      node.isBoolean -> node.booleanValue() == value.boolean
+      else -> node.asText() == value.text
+    }
+  }
+
   private fun <T : Any> createNode(value: T): JsonNode =
     when (value) {
       is Boolean -> BooleanNode.valueOf(value)
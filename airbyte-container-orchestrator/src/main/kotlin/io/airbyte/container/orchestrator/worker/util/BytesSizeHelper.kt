@@ -4,6 +4,12 @@
 
 package io.airbyte.container.orchestrator.worker.util
 
+import com.fasterxml.jackson.databind.JsonNode
+import io.airbyte.commons.json.Jsons
+import io.airbyte.commons.protocol.serde.LazyDataAirbyteRecordMessage
+import io.airbyte.protocol.models.v0.AirbyteMessage
+import java.io.Writer
+
 object BytesSizeHelper {
   private const val KB = 1_024L
   private const val MB = KB * KB
@@ -20,4 +26,114 @@ object BytesSizeHelper {
       size > KB -> "${size / KB} KB"
       else -> "$size bytes"
     }
+
+  /**
+   * Estimates how much memory a message holds, for buffering purposes. Records are measured by their data, which is
+   * taken from the deserializer when it wasn't built yet and otherwise walked with [getSerializedSize]. Other message
+   * types, such as states, are measured by streaming their serialization through a counter.
+   */
+  fun getEstimatedMessageSize(message: AirbyteMessage): Long {
+    val record = message.record
+    return when {
+      message.type != AirbyteMessage.Type.RECORD || record == null -> getSerializedSize(message)
+      record is LazyDataAirbyteRecordMessage && !record.isDataMaterialized -> record.serializedDataLength
+      else -> getSerializedSize(record.data)
+    }
+  }
+
+  /**
+   * Returns the length of the compact JSON serialization of a node, like [Jsons.getEstimatedByteSize], without
+   * building the serialized string.
+   */
+  fun getSerializedSize(node: JsonNode?): Long =
+    when {
+      node == null || node.isNull || node.isMissingNode -> NULL_SIZE
+      node.isTextual -> getQuotedSize(node.textValue())
+      node.isObject -> {
+        var size = 2L + maxOf(node.size() - 1, 0)
+        for ((name, value) in node.properties()) {
+          size += getQuotedSize(name) + 1 + getSerializedSize(value)
+        }
+        size
+      }
+      node.isArray -> {
+        var size = 2L + maxOf(node.size() - 1, 0)
+        for (element in node) {
+          size += getSerializedSize(element)
+        }
+        size
+      }
+      node.isBoolean -> if (node.booleanValue()) TRUE_SIZE else FALSE_SIZE
+      node.isInt || node.isLong || node.isShort -> getDigitCount(node.longValue())
+      else -> node.asText().length.toLong()
+    }
+
+  /**
+   * Returns the length of [Jsons.serialize] for an object, without building the serialized string.
+   */
+  fun getSerializedSize(obj: Any): Long = CountingWriter().also { Jsons.serialize(obj, it) }.count
+
+  private fun getQuotedSize(value: String): Long {
+    var size = 2L + value.length
+    for (c in value) {
+      size +=
+        when {
+          c == '"' || c == '\\' -> 1
+          c >= ' ' -> 0
+          c == '\n' || c == '\r' || c == '\t' || c == '\b' || c == '\u000C' -> 1
+          // Other control characters are written as \u00XX.
+          else -> 5
+        }
+    }
+    return size
+  }
+
+  private fun getDigitCount(value: Long): Long {
+    if (value == Long.MIN_VALUE) {
+      return Long.MIN_VALUE.toString().length.toLong()
+    }
+    var remaining = if (value < 0) -value else value
+    var count = if (value < 0) 2L else 1L
+    while (remaining >= 10) {
+      remaining /= 10
+      count++
+    }
+    return count
+  }
+
+  /**
+   * Discards what is written to it, only counting the characters.
+   */
+  private class CountingWriter : Writer() {
+    var count = 0L
+      private set
+
+    override fun write(
+      cbuf: CharArray,
+      off: Int,
+      len: Int,
+    ) {
+      count += len
+    }
+
+    override fun write(
+      str: String,
+      off: Int,
+      len: Int,
+    ) {
+      count += len
+    }
+
+    override fun write(c: Int) {
+      count++
+    }
+
+    override fun flush() {}
+
+    override fun close() {}
+  }
+
+  private const val NULL_SIZE = 4L
+  private const val TRUE_SIZE = 4L
+  private const val FALSE_SIZE = 5L
 }
@@ -4,22 +4,235 @@
 
 package io.airbyte.container.orchestrator.worker.util
 
+import io.airbyte.metrics.BoundCounter
+import io.airbyte.metrics.MetricAttribute
+import io.airbyte.metrics.MetricClient
+import io.airbyte.metrics.OssMetricsRegistry
+import io.airbyte.metrics.lib.MetricTags
 import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.channels.ClosedSendChannelException
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
 
+/**
+ * Single producer, single consumer queue between two replication tasks.
+ *
+ * Elements are handed over in chunks: [send] appends to a pending chunk that is only pushed to the underlying channel
+ * once it holds [maxChunkSize] elements or [maxChunkBytes] bytes, as measured by [sizeOf], or when the producer calls
+ * [flush]. This keeps the channel synchronization off the per-element path. The producer is expected to [flush] when it
+ * has nothing else to send for now, and [close] hands over whatever is still pending.
+ *
+ * The consumer can either take the elements one at a time with [receive] or a chunk at a time with [receiveChunk].
+ *
+ * When a [memoryBudget] is set, the elements are accounted for from the moment they are sent until the consumer asks
+ * for the next chunk, i.e. until it is done with them. If [blockOnMemoryBudget] is set, [send] waits for room in the
+ * budget, otherwise the elements are only accounted for. If [releaseOnHandoff] is set, a chunk is released as soon as
+ * the consumer takes it instead, for a consumer that forwards the elements to another queue accounting them against the
+ * same budget, so that they are not counted in both queues at once.
+ *
+ * @param capacity number of elements that can be buffered before the producer suspends, rounded up to whole chunks.
+ */
 class ClosableChannelQueue<T>(
   capacity: Int,
+  private val maxChunkSize: Int = 1,
+  private val maxChunkBytes: Long = Long.MAX_VALUE,
+  private val sizeOf: ((T) -> Long)? = null,
+  private val memoryBudget: MemoryBudget? = null,
+  private val blockOnMemoryBudget: Boolean = false,
+  private val releaseOnHandoff: Boolean = false,
 ) {
-  private val channel = Channel<T>(capacity)
+  private class Chunk<T>(
+    val elements: List<T>,
+    val bytes: Long,
+  )
+
+  private val channel = Channel<Chunk<T>>(maxOf(1, (capacity + maxChunkSize - 1) / maxChunkSize))
+  private val measureSize = sizeOf != null && (maxChunkBytes != Long.MAX_VALUE || memoryBudget != null)
+
+  // Only accessed by the producer.
+  private var pending = newChunk()
+  private var pendingBytes = 0L
+
+  // Only accessed by the consumer.
+  private var current: List<T> = emptyList()
+  private var currentBytes = 0L
+  private var currentIndex = 0
+
+  private val producerBlockedNanos = AtomicLong()
+  private val consumerBlockedNanos = AtomicLong()
+  private var producerBlockedCounter: BoundCounter? = null
+  private var consumerBlockedCounter: BoundCounter? = null
+
+  /**
+   * Time the producer spent waiting for the consumer or for room in the memory budget.
+   */
+  val producerBlockedTimeMs: Long
+    get() = TimeUnit.NANOSECONDS.toMillis(producerBlockedNanos.get())
+
+  /**
+   * Time the consumer spent waiting for the producer.
+   */
+  val consumerBlockedTimeMs: Long
+    get() = TimeUnit.NANOSECONDS.toMillis(consumerBlockedNanos.get())
+
+  suspend fun receive(): T? {
+    if (currentIndex >= current.size) {
+      val chunk = nextChunk() ?: return null
+      current = chunk.elements
+      currentBytes = chunk.bytes
+      currentIndex = 0
+    }
+    return current[currentIndex++]
+  }
+
+  /**
+   * Returns the next chunk of elements, or null once the queue is closed and drained.
+   */
+  suspend fun receiveChunk(): List<T>? {
+    if (currentIndex < current.size) {
+      val remaining = current.subList(currentIndex, current.size)
+      currentIndex = current.size
+      return remaining
+    }
+    val chunk = nextChunk() ?: return null
+    current = chunk.elements
+    currentBytes = chunk.bytes
+    currentIndex = current.size
+    return chunk.elements
+  }
+
+  suspend fun send(e: T) {
+    val size = if (measureSize) sizeOf!!.invoke(e) else 0L
+    if (memoryBudget != null) {
+      if (!blockOnMemoryBudget) {
+        memoryBudget.forceAcquire(size)
+      } else if (!memoryBudget.tryAcquire(size)) {
+        // The pending elements count against the budget too, so they have to be handed over before waiting.
+        flush()
+        val start = System.nanoTime()
+        memoryBudget.acquire(size)
+        recordBlockedTime(producerBlockedNanos, producerBlockedCounter, System.nanoTime() - start)
+      }
+    }
+    pending.add(e)
+    pendingBytes += size
+    if (pending.size >= maxChunkSize || pendingBytes >= maxChunkBytes) {
+      flush()
+    }
+  }
 
-  suspend fun receive(): T? = channel.receiveCatching().getOrNull()
+  /**
+   * Hands the pending elements over to the consumer.
+   */
+  suspend fun flush() {
+    if (pending.isEmpty()) {
+      return
+    }
+    val chunk = Chunk<T>(pending, pendingBytes)
+    pending = newChunk()
+    pendingBytes = 0
+    if (!channel.trySend(chunk).isSuccess) {
+      val start = System.nanoTime()
+      channel.send(chunk)
+      recordBlockedTime(producerBlockedNanos, producerBlockedCounter, System.nanoTime() - start)
+    }
+  }
 
-  suspend fun send(e: T) = channel.send(e)
+  /**
+   * Hands the pending elements over to the consumer and closes the queue. This is for the producer, which owns the pending
+   * elements, the consumer uses [cancel] instead. The pending elements are only dropped if the consumer is already gone.
+   */
+  suspend fun close() {
+    try {
+      flush()
+    } catch (e: ClosedSendChannelException) {
+      // The consumer closed the queue, there is nobody left to hand the pending elements to.
+    } finally {
+      channel.close()
+    }
+  }
 
-  fun close() {
+  /**
+   * Closes the queue from the consumer side, which tells the producer to stop. Elements that weren't handed over yet are
+   * dropped.
+   */
+  fun cancel() {
     channel.close()
   }
 
   fun isClosedForSending(): Boolean = channel.isClosedForSend
 
-  fun isClosedForReceiving(): Boolean = channel.isClosedForReceive
+  fun isClosedForReceiving(): Boolean = currentIndex >= current.size && channel.isClosedForReceive
+
+  /**
+   * Reports the time each side of the queue spends blocked as counters, tagged with the stage on that side, so that the
+   * time blocked per interval is their rate.
+   */
+  fun registerBlockedTimeCounters(
+    metricClient: MetricClient,
+    producerStage: String,
+    consumerStage: String,
+    vararg attributes: MetricAttribute,
+  ) {
+    producerBlockedCounter =
+      metricClient.boundCounter(
+        OssMetricsRegistry.REPLICATION_STAGE_BLOCKED_TIME_MS,
+        MetricAttribute(MetricTags.REPLICATION_STAGE, producerStage),
+        MetricAttribute(MetricTags.BLOCKED_ON, BLOCKED_ON_OUTPUT),
+        *attributes,
+      )
+    consumerBlockedCounter =
+      metricClient.boundCounter(
+        OssMetricsRegistry.REPLICATION_STAGE_BLOCKED_TIME_MS,
+        MetricAttribute(MetricTags.REPLICATION_STAGE, consumerStage),
+        MetricAttribute(MetricTags.BLOCKED_ON, BLOCKED_ON_INPUT),
+        *attributes,
+      )
+  }
+
+  /**
+   * Fetches the next chunk, releasing the previous one from the memory budget since the consumer is done with it. With
+   * [releaseOnHandoff], the next chunk is released right away instead.
+   */
+  private suspend fun nextChunk(): Chunk<T>? {
+    memoryBudget?.release(currentBytes)
+    current = emptyList()
+    currentBytes = 0
+    currentIndex = 0
+    val chunk =
+      channel.tryReceive().getOrNull() ?: run {
+        val start = System.nanoTime()
+        channel.receiveCatching().getOrNull().also {
+          recordBlockedTime(consumerBlockedNanos, consumerBlockedCounter, System.nanoTime() - start)
+        }
+      }
+    if (chunk == null || !releaseOnHandoff) {
+      return chunk
+    }
+    memoryBudget?.release(chunk.bytes)
+    return Chunk(chunk.elements, 0)
+  }
+
+  /**
+   * Adds to the time blocked, and reports the whole milliseconds it adds up to. Each side only records its own time.
+   */
+  private fun recordBlockedTime(
+    blockedNanos: AtomicLong,
+    counter: BoundCounter?,
+    nanos: Long,
+  ) {
+    val total = blockedNanos.addAndGet(nanos)
+    val millis = TimeUnit.NANOSECONDS.toMillis(total) - TimeUnit.NANOSECONDS.toMillis(total - nanos)
+    if (millis > 0) {
+      counter?.increment(millis)
+    }
+  }
+
+  private fun newChunk(): MutableList<T> = ArrayList(minOf(maxChunkSize, MAX_INITIAL_CHUNK_CAPACITY))
+
+  companion object {
+    private const val MAX_INITIAL_CHUNK_CAPACITY = 1024
+    private const val BLOCKED_ON_INPUT = "input"
+    private const val BLOCKED_ON_OUTPUT = "output"
+  }
 }
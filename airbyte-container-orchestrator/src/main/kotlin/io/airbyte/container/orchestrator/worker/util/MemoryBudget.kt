@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.container.orchestrator.worker.util
+
+import kotlinx.coroutines.channels.Channel
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Tracks the estimated size of the messages in flight between the replication tasks, and lets the producer wait for
+ * room when more than [maxBytes] are in flight.
+ *
+ * A single message is always let through when nothing else is in flight, so a message larger than the budget slows
+ * the sync down rather than blocking it.
+ */
+class MemoryBudget(
+  val maxBytes: Long,
+) {
+  private val inFlight = AtomicLong()
+  private val released = Channel<Unit>(Channel.CONFLATED)
+
+  val inFlightBytes: Long
+    get() = inFlight.get()
+
+  /**
+   * Reserves [bytes] if they fit in the budget.
+   */
+  fun tryAcquire(bytes: Long): Boolean {
+    while (true) {
+      val current = inFlight.get()
+      if (current > 0 && current + bytes > maxBytes) {
+        return false
+      }
+      if (inFlight.compareAndSet(current, current + bytes)) {
+        return true
+      }
+    }
+  }
+
+  /**
+   * Reserves [bytes], waiting for other messages to be released if they don't fit in the budget.
+   */
+  suspend fun acquire(bytes: Long) {
+    while (!tryAcquire(bytes)) {
+      released.receive()
+    }
+    // Pass the signal on in case another producer is waiting and there is room left.
+    if (inFlight.get() < maxBytes) {
+      released.trySend(Unit)
+    }
+  }
+
+  /**
+   * Reserves [bytes] regardless of the budget. Used downstream of the producer that is throttled, so that the messages
+   * being processed are accounted for without risking a deadlock.
+   */
+  fun forceAcquire(bytes: Long) {
+    inFlight.addAndGet(bytes)
+  }
+
+  fun release(bytes: Long) {
+    if (bytes == 0L) {
+      return
+    }
+    inFlight.addAndGet(-bytes)
+    released.trySend(Unit)
+  }
+
+  companion object {
+    /**
+     * Budget of a fraction of the max heap. A fraction that isn't in `(0, 1]` disables the limit, while still tracking
+     * the bytes in flight.
+     */
+    fun ofHeapFraction(fraction: Double): MemoryBudget =
+      MemoryBudget(if (fraction > 0 && fraction <= 1) (Runtime.getRuntime().maxMemory() * fraction).toLong() else Long.MAX_VALUE)
+  }
+}
@@ -4,6 +4,7 @@
 
 package io.airbyte.container.orchestrator.worker.util
 
+import io.airbyte.container.orchestrator.worker.RecordSchemaValidator
 import io.airbyte.metrics.MetricAttribute
 import io.airbyte.metrics.MetricClient
 import io.airbyte.metrics.OssMetricsRegistry
@@ -81,4 +82,35 @@ class ReplicationMetricReporter(
       attributes = attributesArr,
     )
   }
+
+  /**
+   * Given a [AirbyteStreamNameNamespacePair] and its [RecordSchemaValidator.ValidationCounts], produce a DataDog count
+   * metric for the records that were fully validated, only type checked and dropped.
+   */
+  fun trackSchemaValidationCounts(
+    stream: AirbyteStreamNameNamespacePair,
+    validationCounts: RecordSchemaValidator.ValidationCounts,
+  ) {
+    val attributes =
+      arrayOf(
+        MetricAttribute("docker_repo", dockerRepo),
+        MetricAttribute("docker_version", dockerVersion),
+        MetricAttribute("stream", stream.toString()),
+      )
+    metricClient.count(
+      metric = OssMetricsRegistry.NUM_SCHEMA_VALIDATION_RECORDS_VALIDATED,
+      value = validationCounts.validated,
+      attributes = attributes,
+    )
+    metricClient.count(
+      metric = OssMetricsRegistry.NUM_SCHEMA_VALIDATION_RECORDS_SAMPLED_OUT,
+      value = validationCounts.sampledOut,
+      attributes = attributes,
+    )
+    metricClient.count(
+      metric = OssMetricsRegistry.NUM_SCHEMA_VALIDATION_RECORDS_DROPPED,
+      value = validationCounts.dropped,
+      attributes = attributes,
+    )
+  }
 }
@@ -6,12 +6,15 @@ package io.airbyte.container.orchestrator.bookkeeping
 
 import com.google.common.hash.Hashing
 import io.airbyte.commons.json.Jsons
+import io.airbyte.commons.protocol.serde.LazyDataAirbyteRecordMessage
 import io.airbyte.config.FileTransferInformations
+import io.airbyte.container.orchestrator.worker.model.attachIdToStateMessageFromSource
 import io.airbyte.protocol.models.v0.AirbyteGlobalState
 import io.airbyte.protocol.models.v0.AirbyteRecordMessage
 import io.airbyte.protocol.models.v0.AirbyteRecordMessageFileReference
 import io.airbyte.protocol.models.v0.AirbyteStateMessage
 import io.airbyte.protocol.models.v0.AirbyteStateStats
+import io.airbyte.protocol.models.v0.AirbyteStreamNameNamespacePair
 import io.airbyte.protocol.models.v0.AirbyteStreamState
 import io.airbyte.protocol.models.v0.StreamDescriptor
 import io.mockk.mockk
@@ -77,6 +80,34 @@ class StatsTrackerTest {
     )
   }
 
+  @Test
+  internal fun `state hash is the hash of the serialized state`() {
+    val hashFunction = Hashing.murmur3_32_fixed()
+    val streamState = Jsons.jsonNode(mapOf("cursor" to "caf\u00e9 \ud83d\ude00", "values" to listOf(1, 2.5, null)))
+    val global =
+      AirbyteGlobalState()
+        .withSharedState(Jsons.jsonNode(mapOf("lsn" to 123L)))
+        .withStreamStates(
+          listOf(AirbyteStreamState().withStreamDescriptor(StreamDescriptor().withName("name")).withStreamState(streamState)),
+        )
+
+    assertEquals(
+      hashFunction.hashBytes(Jsons.serialize(global).toByteArray()).hashCode(),
+      AirbyteStateMessage().withType(AirbyteStateMessage.AirbyteStateType.GLOBAL).withGlobal(global).getStateHashCode(hashFunction),
+    )
+    assertEquals(
+      hashFunction.hashBytes(Jsons.serialize(streamState).toByteArray()).hashCode(),
+      AirbyteStateMessage()
+        .withType(AirbyteStateMessage.AirbyteStateType.STREAM)
+        .withStream(AirbyteStreamState().withStreamState(streamState))
+        .getStateHashCode(hashFunction),
+    )
+    assertEquals(
+      hashFunction.hashBytes(Jsons.serialize(streamState).toByteArray()).hashCode(),
+      AirbyteStateMessage().withData(streamState).getStateHashCode(hashFunction),
+    )
+  }
+
   @Test
   internal fun `test file reference transfer stats`() {
     val streamStatsTracker =
@@ -154,4 +185,85 @@ class StatsTrackerTest {
 
     assertNotEquals(size, streamStatsTracker.streamStats.emittedBytesCount.get())
   }
+
+  @Test
+  internal fun `test record bytes are the size of the serialized data`() {
+    val streamStatsTracker =
+      StreamStatsTracker(
+        mockk(),
+        mockk(),
+        false,
+      )
+
+    val data = Jsons.jsonNode(mapOf("id" to 1, "name" to "a \"quoted\" name", "tags" to listOf("x", null)))
+    val record =
+      AirbyteRecordMessage()
+        .withStream("name")
+        .withNamespace("namespace")
+        .withData(data)
+
+    streamStatsTracker.trackRecord(record)
+    streamStatsTracker.updateFilteredOutRecordsStats(record)
+
+    val size = Jsons.getEstimatedByteSize(data).toLong()
+    assertEquals(size, streamStatsTracker.streamStats.emittedBytesCount.get())
+    assertEquals(size, streamStatsTracker.streamStats.filteredOutBytesCount.get())
+  }
+
+  @Test
+  internal fun `test lazy record bytes are taken from the deserializer`() {
+    val streamStatsTracker =
+      StreamStatsTracker(
+        mockk(),
+        mockk(),
+        false,
+      )
+
+    val record = LazyDataAirbyteRecordMessage({ throw IllegalStateException("The data should not be deserialized") }, 42L, false)
+
+    streamStatsTracker.trackRecord(record)
+
+    assertEquals(42L, streamStatsTracker.streamStats.emittedBytesCount.get())
+  }
+
+  @Test
+  internal fun `test staged stats are found by state until the state is committed`() {
+    val streamStatsTracker =
+      StreamStatsTracker(
+        AirbyteStreamNameNamespacePair("name", "namespace"),
+        mockk(relaxed = true),
+        false,
+      )
+    val states =
+      (1..3).map {
+        attachIdToStateMessageFromSource(
+          AirbyteStateMessage()
+            .withType(AirbyteStateMessage.AirbyteStateType.STREAM)
+            .withStream(
+              AirbyteStreamState()
+                .withStreamDescriptor(StreamDescriptor().withName("name").withNamespace("namespace"))
+                .withStreamState(Jsons.jsonNode(mapOf("cursor" to it))),
+            ),
+        )
+      }
+
+    states.forEachIndexed { index, state ->
+      repeat(index + 1) {
+        streamStatsTracker.trackRecord(
+          AirbyteRecordMessage()
+            .withStream("name")
+            .withNamespace("namespace")
+            .withData(Jsons.jsonNode(mapOf("id" to it))),
+        )
+      }
+      streamStatsTracker.trackStateFromSource(state)
+    }
+
+    assertEquals(listOf(1L, 2L, 3L), states.map { streamStatsTracker.getTrackedEmittedRecordsSinceLastStateMessage(it) })
+
+    streamStatsTracker.trackStateFromDestination(states[1])
+
+    assertEquals(listOf(0L, 0L, 3L), states.map { streamStatsTracker.getTrackedEmittedRecordsSinceLastStateMessage(it) })
+    assertEquals(3L, streamStatsTracker.streamStats.committedRecordsCount.get())
+  }
 }
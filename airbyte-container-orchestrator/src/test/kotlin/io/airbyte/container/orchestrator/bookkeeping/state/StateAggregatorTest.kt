@@ -156,6 +156,51 @@ internal class StateAggregatorTest {
     )
   }
 
+  @Test
+  fun testStreamStateOnlyChangedStreamsAfterClear() {
+    stateAggregator.ingest(getStreamMessage("a", 1))
+    stateAggregator.ingest(getStreamMessage("b", 1))
+    assertEquals(2, getStateMessages(stateAggregator.getAggregated()).size)
+    stateAggregator.clear()
+
+    // "a" is unchanged since it was persisted, "b" advanced
+    stateAggregator.ingest(getStreamMessage("a", 1))
+    stateAggregator.ingest(getStreamMessage("b", 2))
+    assertEquals(listOf(getStreamMessage("b", 2).withData(null)), getStateMessages(stateAggregator.getAggregated()))
+  }
+
+  @Test
+  fun testStreamStateNotPersistedWithoutClear() {
+    stateAggregator.ingest(getStreamMessage("a", 1))
+    stateAggregator.getAggregated()
+
+    // The previous flush failed, the state of "a" must be sent again
+    stateAggregator.ingest(getStreamMessage("a", 1))
+    assertEquals(listOf(getStreamMessage("a", 1).withData(null)), getStateMessages(stateAggregator.getAggregated()))
+  }
+
+  @Test
+  fun testGlobalStateOnlyChangedStreamsAfterClear() {
+    stateAggregator.ingest(getGlobalMessage(mapOf("a" to 1, "b" to 1)))
+    assertEquals(2, getStateMessages(stateAggregator.getAggregated()).single().global.streamStates.size)
+    stateAggregator.clear()
+
+    stateAggregator.ingest(getGlobalMessage(mapOf("a" to 1, "b" to 2)))
+    val global = getStateMessages(stateAggregator.getAggregated()).single().global
+    assertEquals(Jsons.jsonNode("shared"), global.sharedState)
+    assertEquals(listOf("b"), global.streamStates.map { it.streamDescriptor.name })
+    assertEquals(Jsons.jsonNode(2), global.streamStates.single().streamState)
+    stateAggregator.clear()
+
+    stateAggregator.ingest(getGlobalMessage(mapOf("a" to 1, "b" to 2)))
+    assertTrue(
+      getStateMessages(stateAggregator.getAggregated())
+        .single()
+        .global.streamStates
+        .isEmpty(),
+    )
+  }
+
   @Test
   fun testIngestFromAnotherStateAggregatorSingleState() {
     val stateG1 = getGlobalMessage(1)
@@ -316,6 +361,21 @@ internal class StateAggregatorTest {
           ),
       ).withData(Jsons.jsonNode("HelloWorld"))
 
+  private fun getGlobalMessage(stateValues: Map<String, Int>): AirbyteStateMessage =
+    AirbyteStateMessage()
+      .withType(AirbyteStateMessage.AirbyteStateType.GLOBAL)
+      .withGlobal(
+        AirbyteGlobalState()
+          .withSharedState(Jsons.jsonNode("shared"))
+          .withStreamStates(
+            stateValues.map { (streamName, stateValue) ->
+              AirbyteStreamState()
+                .withStreamDescriptor(StreamDescriptor().withName(streamName))
+                .withStreamState(Jsons.jsonNode(stateValue))
+            },
+          ),
+      )
+
   private fun getStreamMessage(
     streamName: String?,
     stateValue: Int,
@@ -4,78 +4,227 @@
 
 package io.airbyte.container.orchestrator.bookkeeping.streamstatus
 
+import dev.failsafe.RetryPolicy
 import io.airbyte.api.client.AirbyteApiClient
 import io.airbyte.api.client.generated.StreamStatusesApi
+import io.airbyte.api.client.model.generated.StreamStatusBatchRequestBody
 import io.airbyte.api.client.model.generated.StreamStatusIncompleteRunCause
 import io.airbyte.api.client.model.generated.StreamStatusJobType
 import io.airbyte.api.client.model.generated.StreamStatusRateLimitedMetadata
 import io.airbyte.api.client.model.generated.StreamStatusRead
+import io.airbyte.api.client.model.generated.StreamStatusReadList
 import io.airbyte.api.client.model.generated.StreamStatusRunState
+import io.airbyte.commons.json.Jsons
 import io.airbyte.container.orchestrator.worker.context.ReplicationContext
-import io.airbyte.metrics.MetricClient
 import io.mockk.every
 import io.mockk.mockk
+import io.mockk.slot
 import io.mockk.verify
+import io.mockk.verifyOrder
+import okhttp3.OkHttpClient
+import okhttp3.mockwebserver.Dispatcher
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okhttp3.mockwebserver.RecordedRequest
 import org.junit.jupiter.api.Assertions
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.io.IOException
 import java.time.Clock
 import java.util.UUID
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
 
 class StreamStatusCachingApiClientTest {
   private lateinit var client: StreamStatusCachingApiClient
 
   private lateinit var rawClient: StreamStatusesApi
   private lateinit var rawClientWrapper: AirbyteApiClient
-  private lateinit var metricClient: MetricClient
   private lateinit var clock: Clock
+  private lateinit var flushExecutorService: ScheduledExecutorService
 
   @BeforeEach
   fun setup() {
     rawClient = mockk()
     rawClientWrapper = mockk { every { streamStatusesApi } returns rawClient }
-    metricClient = mockk()
     clock = mockk()
     every { clock.millis() } returns Fixtures.nowMillis
+    flushExecutorService = mockk(relaxed = true)
 
-    client = StreamStatusCachingApiClient(rawClientWrapper, clock)
+    client = StreamStatusCachingApiClient(rawClientWrapper, clock, flushExecutorService, FLUSH_PERIOD_MILLIS)
+  }
+
+  @Test
+  fun schedulesPeriodicFlush() {
+    verify(exactly = 1) {
+      flushExecutorService.scheduleAtFixedRate(any(), FLUSH_PERIOD_MILLIS, FLUSH_PERIOD_MILLIS, TimeUnit.MILLISECONDS)
+    }
   }
 
   @Test
   fun createsStatusIfNotPresentInCache() {
-    every { rawClient.createStreamStatus(any()) } returns Fixtures.streamStatusRead(StreamStatusRunState.RUNNING)
+    val request = slot<StreamStatusBatchRequestBody>()
+    every { rawClient.createOrUpdateStreamStatuses(capture(request)) } answers { Fixtures.echo(request.captured) }
 
-    client.put(Fixtures.cache(), Fixtures.key1, StreamStatusRunState.RUNNING, null, Fixtures.syncCtx)
+    val cache = Fixtures.cache()
+    client.put(cache, Fixtures.key1, StreamStatusRunState.RUNNING, null, Fixtures.syncCtx)
+    client.flush()
 
-    verify(exactly = 1) { rawClient.createStreamStatus(any()) }
+    verify(exactly = 1) { rawClient.createOrUpdateStreamStatuses(any()) }
+    Assertions.assertEquals(1, request.captured.streamStatusesToCreate.size)
+    Assertions.assertEquals(0, request.captured.streamStatusesToUpdate.size)
+    Assertions.assertEquals(StreamStatusRunState.RUNNING, cache[Fixtures.key1]?.runState)
   }
 
   @Test
   fun updatesStatusIfPresentInCache() {
-    every { rawClient.createStreamStatus(any()) } returns Fixtures.streamStatusRead(StreamStatusRunState.RUNNING)
-    every { rawClient.updateStreamStatus(any()) } returns Fixtures.streamStatusRead(StreamStatusRunState.RUNNING)
+    val requests = mutableListOf<StreamStatusBatchRequestBody>()
+    every { rawClient.createOrUpdateStreamStatuses(capture(requests)) } answers { Fixtures.echo(requests.last()) }
 
     val cache = Fixtures.cache()
+    client.put(cache, Fixtures.key1, StreamStatusRunState.RUNNING, null, Fixtures.syncCtx)
+    client.flush()
+    val id = cache[Fixtures.key1]?.id
+    client.put(cache, Fixtures.key1, StreamStatusRunState.COMPLETE, null, Fixtures.syncCtx)
+    client.flush()
+
+    Assertions.assertEquals(2, requests.size)
+    Assertions.assertEquals(0, requests[1].streamStatusesToCreate.size)
+    Assertions.assertEquals(id, requests[1].streamStatusesToUpdate.single().id)
+    Assertions.assertEquals(StreamStatusRunState.COMPLETE, cache[Fixtures.key1]?.runState)
+  }
+
+  @Test
+  fun coalescesTransitionsOfAStreamBetweenFlushes() {
+    val request = slot<StreamStatusBatchRequestBody>()
+    every { rawClient.createOrUpdateStreamStatuses(capture(request)) } answers { Fixtures.echo(request.captured) }
 
+    val cache = Fixtures.cache()
+    client.put(cache, Fixtures.key1, StreamStatusRunState.PENDING, null, Fixtures.syncCtx)
     client.put(cache, Fixtures.key1, StreamStatusRunState.RUNNING, null, Fixtures.syncCtx)
+    client.put(cache, Fixtures.key2, StreamStatusRunState.RUNNING, null, Fixtures.syncCtx)
     client.put(cache, Fixtures.key1, StreamStatusRunState.COMPLETE, null, Fixtures.syncCtx)
+    client.flush()
 
-    verify(exactly = 1) { rawClient.updateStreamStatus(any()) }
+    verify(exactly = 1) { rawClient.createOrUpdateStreamStatuses(any()) }
+    Assertions.assertEquals(
+      listOf(Fixtures.key1.streamName to StreamStatusRunState.COMPLETE, Fixtures.key2.streamName to StreamStatusRunState.RUNNING),
+      request.captured.streamStatusesToCreate.map { it.streamName to it.runState },
+    )
   }
 
   @Test
   fun ignoresDuplicates() {
-    every { rawClient.createStreamStatus(any()) } returns Fixtures.streamStatusRead(StreamStatusRunState.RUNNING)
+    val request = slot<StreamStatusBatchRequestBody>()
+    every { rawClient.createOrUpdateStreamStatuses(capture(request)) } answers { Fixtures.echo(request.captured) }
+
+    val cache = Fixtures.cache()
+    client.put(cache, Fixtures.key1, StreamStatusRunState.RUNNING, null, Fixtures.syncCtx)
+    client.flush()
+    client.put(cache, Fixtures.key1, StreamStatusRunState.RUNNING, null, Fixtures.syncCtx)
+    client.flush()
 
-    client.put(Fixtures.cache(), Fixtures.key1, StreamStatusRunState.RUNNING, null, Fixtures.syncCtx)
-    client.put(Fixtures.cache(), Fixtures.key1, StreamStatusRunState.RUNNING, null, Fixtures.syncCtx)
+    verify(exactly = 1) { rawClient.createOrUpdateStreamStatuses(any()) }
+  }
+
+  @Test
+  fun doesNotCallTheApiWhenNothingIsPending() {
+    client.flush()
 
-    verify(exactly = 0) { rawClient.updateStreamStatus(any()) }
+    verify(exactly = 0) { rawClient.createOrUpdateStreamStatuses(any()) }
+  }
+
+  @Test
+  fun requeuesTransitionsWhenTheFlushFails() {
+    val request = slot<StreamStatusBatchRequestBody>()
+    every { rawClient.createOrUpdateStreamStatuses(capture(request)) } throws IOException("boom") andThenAnswer { Fixtures.echo(request.captured) }
+
+    val cache = Fixtures.cache()
+    client.put(cache, Fixtures.key1, StreamStatusRunState.RUNNING, null, Fixtures.syncCtx)
+    assertThrows<IOException> { client.flush() }
+    client.put(cache, Fixtures.key2, StreamStatusRunState.RUNNING, null, Fixtures.syncCtx)
+    client.flush()
+
+    verify(exactly = 2) { rawClient.createOrUpdateStreamStatuses(any()) }
+    Assertions.assertEquals(
+      setOf(Fixtures.key1.streamName, Fixtures.key2.streamName),
+      request.captured.streamStatusesToCreate.map { it.streamName }.toSet(),
+    )
+    Assertions.assertEquals(setOf(Fixtures.key1, Fixtures.key2), cache.keys)
+  }
+
+  @Test
+  fun closeStopsThePeriodicFlushAndFlushesPendingTransitions() {
+    every { flushExecutorService.awaitTermination(any(), any()) } returns true
+    val request = slot<StreamStatusBatchRequestBody>()
+    every { rawClient.createOrUpdateStreamStatuses(capture(request)) } answers { Fixtures.echo(request.captured) }
+
+    client.put(Fixtures.cache(), Fixtures.key1, StreamStatusRunState.COMPLETE, null, Fixtures.syncCtx)
+    client.close()
+
+    verifyOrder {
+      flushExecutorService.shutdown()
+      rawClient.createOrUpdateStreamStatuses(any())
+    }
+  }
+
+  @Test
+  fun callCountScalesWithFlushesNotStreams() {
+    val server = MockWebServer()
+    server.dispatcher =
+      object : Dispatcher() {
+        override fun dispatch(request: RecordedRequest): MockResponse {
+          val body = Jsons.deserialize(request.body.readUtf8())
+          val reads =
+            listOf("streamStatusesToCreate", "streamStatusesToUpdate").flatMap { body.get(it).toList() }.map { status ->
+              mapOf(
+                "id" to (status.get("id")?.asText() ?: UUID.randomUUID().toString()),
+                "attemptNumber" to status.get("attemptNumber").asInt(),
+                "connectionId" to status.get("connectionId").asText(),
+                "jobId" to status.get("jobId").asLong(),
+                "jobType" to status.get("jobType").asText(),
+                "runState" to status.get("runState").asText(),
+                "streamName" to status.get("streamName").asText(),
+                "streamNamespace" to status.get("streamNamespace").asText(),
+                "transitionedAt" to status.get("transitionedAt").asLong(),
+                "workspaceId" to status.get("workspaceId").asText(),
+              )
+            }
+          return MockResponse()
+            .setHeader("Content-Type", "application/json")
+            .setBody(Jsons.serialize(mapOf("streamStatuses" to reads)))
+        }
+      }
+    server.start()
+
+    try {
+      val apiClient =
+        AirbyteApiClient(
+          basePath = server.url("/api").toString(),
+          policy = RetryPolicy.ofDefaults(),
+          httpClient = OkHttpClient(),
+        )
+      val batchingClient = StreamStatusCachingApiClient(apiClient, clock, flushExecutorService, FLUSH_PERIOD_MILLIS)
+      val cache = Fixtures.cache()
+      val keys = (0 until STREAM_COUNT).map { StreamStatusKey(streamName = "stream_$it", streamNamespace = "public") }
+
+      listOf(StreamStatusRunState.PENDING, StreamStatusRunState.RUNNING, StreamStatusRunState.COMPLETE).forEach { runState ->
+        keys.forEach { batchingClient.put(cache, it, runState, null, Fixtures.syncCtx) }
+        batchingClient.flush()
+      }
+
+      Assertions.assertEquals(3, server.requestCount)
+      Assertions.assertEquals(STREAM_COUNT, cache.size)
+      Assertions.assertTrue(cache.values.all { it.runState == StreamStatusRunState.COMPLETE })
+    } finally {
+      server.shutdown()
+    }
   }
 
   @Test
   fun buildCreateAndUpdateReqHandleJobType() {
-    val client1 = StreamStatusCachingApiClient(rawClientWrapper, clock)
+    val client1 = StreamStatusCachingApiClient(rawClientWrapper, clock, flushExecutorService, FLUSH_PERIOD_MILLIS)
 
     val createResult1 = client1.buildCreateReq("namespace", "name", Fixtures.resetCtx, StreamStatusRunState.RUNNING)
     val createResult2 = client1.buildCreateReq("namespace", "name", Fixtures.syncCtx, StreamStatusRunState.RUNNING)
@@ -112,8 +261,14 @@ class StreamStatusCachingApiClientTest {
     Assertions.assertEquals(metadata2, updateResult1.metadata)
   }
 
+  companion object {
+    private const val FLUSH_PERIOD_MILLIS = 1000L
+    private const val STREAM_COUNT = 1500
+  }
+
   object Fixtures {
     val key1 = StreamStatusKey(streamName = "test-stream-1", streamNamespace = null)
+    val key2 = StreamStatusKey(streamName = "test-stream-2", streamNamespace = null)
     val nowMillis = System.currentTimeMillis()
 
     fun streamStatusRead(runState: StreamStatusRunState): StreamStatusRead =
@@ -134,6 +289,18 @@ class StreamStatusCachingApiClientTest {
 
     fun cache() = mutableMapOf<StreamStatusKey, StreamStatusRead>()
 
+    // Answers a batch request the way the server does, with one read per created or updated status.
+    fun echo(request: StreamStatusBatchRequestBody): StreamStatusReadList =
+      StreamStatusReadList(
+        streamStatuses =
+          request.streamStatusesToCreate.map {
+            streamStatusRead(it.runState).copy(id = UUID.randomUUID(), streamName = it.streamName, streamNamespace = it.streamNamespace)
+          } +
+            request.streamStatusesToUpdate.map {
+              streamStatusRead(it.runState).copy(id = it.id, streamName = it.streamName, streamNamespace = it.streamNamespace)
+            },
+      )
+
     val syncCtx = ctx(false)
     val resetCtx = ctx(true)
 
@@ -212,6 +212,27 @@ internal class SyncPersistenceImplTest {
     verify(exactly = 0) { stateApiClient.createOrUpdateState(any()) }
   }
 
+  @Test
+  @Throws(IOException::class)
+  fun testOnlyChangedStreamStatesAreFlushed() {
+    syncPersistence.accept(connectionId, getStreamState("A", 1))
+    syncPersistence.accept(connectionId, getStreamState("B", 1))
+    actualFlushMethod.captured.run()
+    verifyStateUpdateApiCall(listOf(getStreamState("A", 1), getStreamState("B", 1)))
+    clearInvocations(listOf(stateApiClient))
+
+    // Re-emitting states that were already persisted should not trigger an API call
+    syncPersistence.accept(connectionId, getStreamState("A", 1))
+    actualFlushMethod.captured.run()
+    verify(exactly = 0) { stateApiClient.createOrUpdateState(any()) }
+
+    // Only the stream that advanced is sent
+    syncPersistence.accept(connectionId, getStreamState("A", 1))
+    syncPersistence.accept(connectionId, getStreamState("B", 2))
+    actualFlushMethod.captured.run()
+    verifyStateUpdateApiCall(listOf(getStreamState("B", 2)))
+  }
+
   @Test
   @Throws(IOException::class)
   fun testStatsFlushBasicEmissions() {
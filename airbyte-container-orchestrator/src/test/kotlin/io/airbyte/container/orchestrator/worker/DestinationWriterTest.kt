@@ -80,7 +80,7 @@ internal class DestinationWriterTest {
 
       // Finally, verify that the queue is closed and notifyEndOfInput is called
       verify(exactly = 1) { mockDestination.notifyEndOfInput() }
-      verify(exactly = 1) { mockDestinationQueue.close() }
+      verify(exactly = 1) { mockDestinationQueue.cancel() }
     }
 
   @Test
@@ -110,7 +110,7 @@ internal class DestinationWriterTest {
         mockDestination.accept(msg2)
         mockReplicationWorkerHelper.getStreamStatusToSend(0)
         mockDestination.notifyEndOfInput()
-        mockDestinationQueue.close()
+        mockDestinationQueue.cancel()
       }
     }
 
@@ -140,7 +140,7 @@ internal class DestinationWriterTest {
 
       // Final block should still run
       coVerify(exactly = 1) { mockDestination.notifyEndOfInput() }
-      coVerify(exactly = 1) { mockDestinationQueue.close() }
+      coVerify(exactly = 1) { mockDestinationQueue.cancel() }
     }
 
   @Test
@@ -166,7 +166,7 @@ internal class DestinationWriterTest {
 
       // Final block still runs
       coVerify(exactly = 1) { mockDestination.notifyEndOfInput() }
-      coVerify(exactly = 1) { mockDestinationQueue.close() }
+      coVerify(exactly = 1) { mockDestinationQueue.cancel() }
     }
 
   @Test
@@ -195,7 +195,7 @@ internal class DestinationWriterTest {
 
       // Final block logic must still be invoked
       coVerify(exactly = 1) { mockDestination.notifyEndOfInput() }
-      coVerify(exactly = 1) { mockDestinationQueue.close() }
+      coVerify(exactly = 1) { mockDestinationQueue.cancel() }
     }
 
   @Test
@@ -224,7 +224,7 @@ internal class DestinationWriterTest {
 
       // And the final block is called
       coVerify(exactly = 1) { mockDestination.notifyEndOfInput() }
-      coVerify(exactly = 1) { mockDestinationQueue.close() }
+      coVerify(exactly = 1) { mockDestinationQueue.cancel() }
     }
 
   @Test
@@ -255,6 +255,6 @@ internal class DestinationWriterTest {
 
       // Final block is still invoked
       coVerify(exactly = 1) { mockDestination.notifyEndOfInput() }
-      coVerify(exactly = 1) { mockDestinationQueue.close() }
+      coVerify(exactly = 1) { mockDestinationQueue.cancel() }
     }
 }
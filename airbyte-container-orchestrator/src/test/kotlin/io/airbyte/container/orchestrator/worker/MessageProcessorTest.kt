@@ -10,9 +10,11 @@ import io.airbyte.protocol.models.v0.AirbyteMessage.Type
 import io.mockk.clearAllMocks
 import io.mockk.coEvery
 import io.mockk.coVerify
+import io.mockk.coVerifyOrder
 import io.mockk.every
 import io.mockk.mockk
 import io.mockk.verify
+import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.test.runTest
 import org.junit.jupiter.api.AfterEach
 import org.junit.jupiter.api.BeforeEach
@@ -55,9 +57,9 @@ class MessageProcessorTest {
       every { mockReplicationWorkerHelper.processMessageFromSource(recordMessage) } returns Optional.of(recordMessage)
       every { mockReplicationWorkerHelper.processMessageFromSource(stateMessage) } returns Optional.of(stateMessage)
 
-      // The source queue yields these messages, then a null to end the loop
-      coEvery { mockSourceQueue.receive() } returns recordMessage andThen stateMessage andThen null
-      coEvery { mockSourceQueue.isClosedForReceiving() } returns false andThen false andThen true
+      // The source queue yields these messages as a single chunk, then a null to end the loop
+      coEvery { mockSourceQueue.receiveChunk() } returns listOf(recordMessage, stateMessage) andThen null
+      coEvery { mockSourceQueue.isClosedForReceiving() } returns false andThen true
 
       val processor =
         MessageProcessor(
@@ -76,10 +78,46 @@ class MessageProcessorTest {
       // Because they're RECORD/STATE messages, we send them to the destination queue
       coVerify(exactly = 1) { mockDestinationQueue.send(recordMessage) }
       coVerify(exactly = 1) { mockDestinationQueue.send(stateMessage) }
+      // The chunk is handed over as soon as it is processed
+      coVerify(exactly = 1) { mockDestinationQueue.flush() }
 
       // Finally block should close both queues
-      verify(exactly = 1) { mockSourceQueue.close() }
-      verify(exactly = 1) { mockDestinationQueue.close() }
+      verify(exactly = 1) { mockSourceQueue.cancel() }
+      coVerify(exactly = 1) { mockDestinationQueue.close() }
+    }
+
+  @Test
+  fun `test chunks are processed at once when mappers run in parallel`() =
+    runTest {
+      val recordMessage = AirbyteMessage().apply { type = Type.RECORD }
+      val stateMessage = AirbyteMessage().apply { type = Type.STATE }
+      val dispatcher = Dispatchers.Unconfined
+
+      coEvery {
+        mockReplicationWorkerHelper.processMessagesFromSource(listOf(recordMessage, stateMessage), dispatcher, 4)
+      } returns listOf(recordMessage, stateMessage)
+      coEvery { mockSourceQueue.receiveChunk() } returns listOf(recordMessage, stateMessage) andThen null
+      coEvery { mockSourceQueue.isClosedForReceiving() } returns false andThen true
+
+      val processor =
+        MessageProcessor(
+          replicationWorkerState = mockReplicationWorkerState,
+          replicationWorkerHelper = mockReplicationWorkerHelper,
+          sourceQueue = mockSourceQueue,
+          destinationQueue = mockDestinationQueue,
+          mapperDispatcher = dispatcher,
+          mapperParallelism = 4,
+        )
+
+      processor.run()
+
+      coVerify(exactly = 1) { mockReplicationWorkerHelper.processMessagesFromSource(listOf(recordMessage, stateMessage), dispatcher, 4) }
+      verify(exactly = 0) { mockReplicationWorkerHelper.processMessageFromSource(any()) }
+      coVerifyOrder {
+        mockDestinationQueue.send(recordMessage)
+        mockDestinationQueue.send(stateMessage)
+        mockDestinationQueue.flush()
+      }
     }
 
   @Test
@@ -92,7 +130,7 @@ class MessageProcessorTest {
       every { mockReplicationWorkerHelper.processMessageFromSource(traceMessage) } returns Optional.of(traceMessage)
 
       // Source queue yields traceMessage, then null
-      coEvery { mockSourceQueue.receive() } returns traceMessage andThen null
+      coEvery { mockSourceQueue.receiveChunk() } returns listOf(traceMessage) andThen null
       coEvery { mockSourceQueue.isClosedForReceiving() } returns false andThen true
 
       val processor =
@@ -111,8 +149,8 @@ class MessageProcessorTest {
       coVerify(exactly = 0) { mockDestinationQueue.send(any()) }
 
       // Both queues closed
-      verify(exactly = 1) { mockSourceQueue.close() }
-      verify(exactly = 1) { mockDestinationQueue.close() }
+      verify(exactly = 1) { mockSourceQueue.cancel() }
+      coVerify(exactly = 1) { mockDestinationQueue.close() }
     }
 
   @Test
@@ -122,7 +160,7 @@ class MessageProcessorTest {
       // The helper returns empty optional
       every { mockReplicationWorkerHelper.processMessageFromSource(recordMessage) } returns Optional.empty()
 
-      coEvery { mockSourceQueue.receive() } returns recordMessage andThen null
+      coEvery { mockSourceQueue.receiveChunk() } returns listOf(recordMessage) andThen null
       coEvery { mockSourceQueue.isClosedForReceiving() } returns false andThen true
 
       val processor =
@@ -141,14 +179,14 @@ class MessageProcessorTest {
       coVerify(exactly = 0) { mockDestinationQueue.send(any()) }
 
       // Both queues closed
-      verify(exactly = 1) { mockSourceQueue.close() }
-      verify(exactly = 1) { mockDestinationQueue.close() }
+      verify(exactly = 1) { mockSourceQueue.cancel() }
+      coVerify(exactly = 1) { mockDestinationQueue.close() }
     }
 
   @Test
   fun `test null message from source is skipped`() =
     runTest {
-      coEvery { mockSourceQueue.receive() } returns null
+      coEvery { mockSourceQueue.receiveChunk() } returns null
       coEvery { mockSourceQueue.isClosedForReceiving() } returns false andThen true
 
       val processor =
@@ -166,8 +204,8 @@ class MessageProcessorTest {
       coVerify(exactly = 0) { mockDestinationQueue.send(any()) }
 
       // Both queues closed
-      verify(exactly = 1) { mockSourceQueue.close() }
-      verify(exactly = 1) { mockDestinationQueue.close() }
+      verify(exactly = 1) { mockSourceQueue.cancel() }
+      coVerify(exactly = 1) { mockDestinationQueue.close() }
     }
 
   @Test
@@ -180,8 +218,8 @@ class MessageProcessorTest {
       val firstMessage = AirbyteMessage().apply { type = Type.RECORD }
       val secondMessage = AirbyteMessage().apply { type = Type.RECORD }
 
-      coEvery { mockSourceQueue.receive() } returns firstMessage andThen secondMessage
-//    coEvery { mockSourceQueue.isClosedForReceiving() } returns false andThen false andThen true
+      coEvery { mockSourceQueue.receiveChunk() } returns listOf(firstMessage) andThen listOf(secondMessage)
+//    coEvery { mockSourceQueue.isClosedForReceiving() } returns false andThen true
 
       // The helper returns them as is
       every { mockReplicationWorkerHelper.processMessageFromSource(firstMessage) } returns Optional.of(firstMessage)
@@ -202,8 +240,8 @@ class MessageProcessorTest {
       coVerify(exactly = 1) { mockDestinationQueue.send(any()) }
 
       // Finally, queues are closed
-      verify(exactly = 1) { mockSourceQueue.close() }
-      verify(exactly = 1) { mockDestinationQueue.close() }
+      verify(exactly = 1) { mockSourceQueue.cancel() }
+      coVerify(exactly = 1) { mockDestinationQueue.close() }
     }
 
   @Test
@@ -213,7 +251,7 @@ class MessageProcessorTest {
       every { mockSourceQueue.isClosedForReceiving() } returns true
 
       // Even if there's a message, we won't proceed with the loop
-      coEvery { mockSourceQueue.receive() } returns AirbyteMessage().apply { type = Type.RECORD }
+      coEvery { mockSourceQueue.receiveChunk() } returns listOf(AirbyteMessage().apply { type = Type.RECORD })
 
       val processor =
         MessageProcessor(
@@ -230,8 +268,8 @@ class MessageProcessorTest {
       coVerify(exactly = 0) { mockDestinationQueue.send(any()) }
 
       // Close queues
-      verify(exactly = 1) { mockSourceQueue.close() }
-      verify(exactly = 1) { mockDestinationQueue.close() }
+      verify(exactly = 1) { mockSourceQueue.cancel() }
+      coVerify(exactly = 1) { mockDestinationQueue.close() }
     }
 
   @Test
@@ -241,7 +279,7 @@ class MessageProcessorTest {
       every { mockDestinationQueue.isClosedForSending() } returns true
 
       val recordMessage = AirbyteMessage().apply { type = Type.RECORD }
-      coEvery { mockSourceQueue.receive() } returns recordMessage andThen null
+      coEvery { mockSourceQueue.receiveChunk() } returns listOf(recordMessage) andThen null
 
       val processor =
         MessageProcessor(
@@ -259,7 +297,7 @@ class MessageProcessorTest {
       coVerify(exactly = 0) { mockDestinationQueue.send(any()) }
 
       // Queues closed
-      verify(exactly = 1) { mockSourceQueue.close() }
-      verify(exactly = 1) { mockDestinationQueue.close() }
+      verify(exactly = 1) { mockSourceQueue.cancel() }
+      coVerify(exactly = 1) { mockDestinationQueue.close() }
     }
 }
@@ -4,6 +4,7 @@
 
 package io.airbyte.container.orchestrator.worker
 
+import io.airbyte.commons.protocol.serde.LazyDataAirbyteRecordMessage
 import io.airbyte.commons.resources.Resources
 import io.airbyte.config.StandardSync
 import io.airbyte.persistence.job.models.ReplicationInput
@@ -15,12 +16,16 @@ import io.airbyte.validation.json.JsonSchemaValidator
 import io.airbyte.workers.WorkerUtils
 import io.airbyte.workers.testutils.AirbyteMessageUtils
 import io.airbyte.workers.testutils.TestConfigHelpers.createReplicationConfig
+import io.mockk.mockk
+import io.mockk.verify
 import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 import java.io.IOException
 import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.ConcurrentMap
+import java.util.concurrent.ExecutorService
 import java.util.concurrent.Executors
 import java.util.concurrent.TimeUnit
 import java.util.function.Consumer
@@ -161,4 +166,91 @@ internal class RecordSchemaValidatorTest {
     executorService.awaitTermination(3, TimeUnit.SECONDS)
     assertEquals(0, uncountedValidationErrors.size)
   }
+
+  @Test
+  fun testRecordsMatchingTheTypesAreSampled() {
+    val executorService = Executors.newSingleThreadExecutor()
+    val recordSchemaValidator =
+      RecordSchemaValidator(
+        jsonSchemaValidator = JsonSchemaValidator(),
+        schemaValidationExecutorService = executorService,
+        streamNamesToSchemas = WorkerUtils.mapStreamNamesToSchemas(replicationInput.catalog),
+        fullyValidatedRecordsPerStream = 1,
+        fullValidationSampleRate = 4,
+      )
+    recordSchemaValidator.initializeSchemaValidator()
+    val messagesToValidate = List(6) { VALID_RECORD } + INVALID_RECORD_1
+
+    messagesToValidate.forEach { message ->
+      recordSchemaValidator.validateSchema(
+        message = message.record,
+        airbyteStream = AIRBYTE_STREAM_NAME_NAMESPACE_PAIR,
+        validationErrors = validationErrors,
+      )
+    }
+
+    executorService.shutdown()
+    executorService.awaitTermination(3, TimeUnit.SECONDS)
+    assertEquals(1, validationErrors[AIRBYTE_STREAM_NAME_NAMESPACE_PAIR]?.second)
+    // The first record, the fifth one and the one with the wrong type are fully validated.
+    assertEquals(
+      RecordSchemaValidator.ValidationCounts(validated = 3, sampledOut = 4, dropped = 0),
+      recordSchemaValidator.getValidationCounts()[AIRBYTE_STREAM_NAME_NAMESPACE_PAIR],
+    )
+  }
+
+  @Test
+  fun testLazyRecordsAreValidatedWithoutMaterializingTheirData() {
+    val executorService = Executors.newSingleThreadExecutor()
+    val recordSchemaValidator =
+      RecordSchemaValidator(
+        jsonSchemaValidator = JsonSchemaValidator(),
+        schemaValidationExecutorService = executorService,
+        streamNamesToSchemas = WorkerUtils.mapStreamNamesToSchemas(replicationInput.catalog),
+      )
+    recordSchemaValidator.initializeSchemaValidator()
+    val record =
+      LazyDataAirbyteRecordMessage({ Jsons.deserialize("""{"$FIELD_NAME":3}""") }, 0, false).apply {
+        stream = STREAM_NAME
+      }
+
+    recordSchemaValidator.validateSchema(
+      message = record,
+      airbyteStream = AIRBYTE_STREAM_NAME_NAMESPACE_PAIR,
+      validationErrors = validationErrors,
+    )
+
+    executorService.shutdown()
+    executorService.awaitTermination(3, TimeUnit.SECONDS)
+    assertEquals(1, validationErrors[AIRBYTE_STREAM_NAME_NAMESPACE_PAIR]?.second)
+    assertFalse(record.isDataMaterialized)
+  }
+
+  @Test
+  fun testRecordsAreDroppedWhenTooManyValidationsArePending() {
+    // Never runs the validations, so that they stay pending.
+    val executorService = mockk<ExecutorService>(relaxed = true)
+    val recordSchemaValidator =
+      RecordSchemaValidator(
+        jsonSchemaValidator = JsonSchemaValidator(),
+        schemaValidationExecutorService = executorService,
+        streamNamesToSchemas = WorkerUtils.mapStreamNamesToSchemas(replicationInput.catalog),
+        maxPendingValidations = 2,
+      )
+    recordSchemaValidator.initializeSchemaValidator()
+
+    repeat(5) {
+      recordSchemaValidator.validateSchemaWithoutCounting(
+        message = INVALID_RECORD_1.record,
+        airbyteStream = AIRBYTE_STREAM_NAME_NAMESPACE_PAIR,
+        validationErrors = uncountedValidationErrors,
+      )
+    }
+
+    verify(exactly = 2) { executorService.execute(any()) }
+    assertEquals(
+      RecordSchemaValidator.ValidationCounts(validated = 0, sampledOut = 0, dropped = 3),
+      recordSchemaValidator.getValidationCounts()[AIRBYTE_STREAM_NAME_NAMESPACE_PAIR],
+    )
+  }
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.container.orchestrator.worker
+
+import io.airbyte.commons.json.Jsons
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+
+private val SCHEMA =
+  """
+  {
+    "type": "object",
+    "properties": {
+      "name": {"type": ["null", "string"]},
+      "count": {"type": "integer"},
+      "ratio": {"type": "number"},
+      "updated_at": {"type": "string", "format": "date-time"},
+      "tags": {"type": "array", "items": {"type": "string"}},
+      "owner": {
+        "type": ["null", "object"],
+        "properties": {
+          "active": {"type": "boolean"}
+        }
+      },
+      "anything": {"anyOf": [{"type": "string"}, {"type": "integer"}]}
+    }
+  }
+  """.trimIndent()
+
+internal class RecordTypeCheckerTest {
+  private val typeChecker = RecordTypeChecker.fromSchema(Jsons.deserialize(SCHEMA))
+
+  @Test
+  fun `records with the expected types match`() {
+    assertTrue(
+      typeChecker.matches(
+        Jsons.deserialize(
+          """
+          {
+            "name": null,
+            "count": 3,
+            "ratio": 2,
+            "updated_at": "not a date",
+            "tags": ["a", "b"],
+            "owner": {"active": true},
+            "anything": [],
+            "unexpected": {}
+          }
+          """.trimIndent(),
+        ),
+      ),
+    )
+    assertTrue(typeChecker.matches(Jsons.deserialize("{}")))
+  }
+
+  @Test
+  fun `records with a different type do not match`() {
+    assertFalse(typeChecker.matches(Jsons.deserialize("""{"count": "3"}""")))
+    assertFalse(typeChecker.matches(Jsons.deserialize("""{"count": 3.5}""")))
+    assertFalse(typeChecker.matches(Jsons.deserialize("""{"ratio": "1"}""")))
+    assertFalse(typeChecker.matches(Jsons.deserialize("""{"tags": ["a", 1]}""")))
+    assertFalse(typeChecker.matches(Jsons.deserialize("""{"owner": {"active": "yes"}}""")))
+    assertFalse(typeChecker.matches(Jsons.deserialize("[]")))
+  }
+
+  @Test
+  fun `schemas without types match anything`() {
+    val anything = RecordTypeChecker.fromSchema(Jsons.deserialize("{}"))
+
+    assertTrue(anything.matches(Jsons.deserialize("""{"a": 1}""")))
+    assertTrue(anything.matches(Jsons.deserialize("\"a\"")))
+    assertTrue(anything.matches(null))
+  }
+}
@@ -27,8 +27,10 @@ import io.airbyte.protocol.models.v0.AirbyteAnalyticsTraceMessage
 import io.airbyte.protocol.models.v0.AirbyteMessage
 import io.airbyte.protocol.models.v0.AirbyteMessage.Type.LOG
 import io.airbyte.protocol.models.v0.AirbyteMessage.Type.RECORD
+import io.airbyte.protocol.models.v0.AirbyteMessage.Type.STATE
 import io.airbyte.protocol.models.v0.AirbyteMessage.Type.TRACE
 import io.airbyte.protocol.models.v0.AirbyteRecordMessage
+import io.airbyte.protocol.models.v0.AirbyteStateMessage
 import io.airbyte.protocol.models.v0.AirbyteStreamNameNamespacePair
 import io.airbyte.protocol.models.v0.AirbyteTraceMessage
 import io.airbyte.protocol.models.v0.AirbyteTraceMessage.Type.ANALYTICS
@@ -44,12 +46,16 @@ import io.mockk.just
 import io.mockk.mockk
 import io.mockk.spyk
 import io.mockk.verify
+import io.mockk.verifyOrder
+import kotlinx.coroutines.asCoroutineDispatcher
+import kotlinx.coroutines.test.runTest
 import org.junit.jupiter.api.Assertions.assertEquals
 import org.junit.jupiter.api.Assertions.assertTrue
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.extension.ExtendWith
 import java.util.UUID
+import java.util.concurrent.Executors
 
 @ExtendWith(MockKExtension::class)
 class ReplicationWorkerHelperTest {
@@ -220,7 +226,7 @@ class ReplicationWorkerHelperTest {
           .withRecord(AirbyteRecordMessage().withStream("s").withData(ObjectMapper().createObjectNode())),
       )
     helper.applyTransformationMappers(adapter)
-    verify(exactly = 0) { recordMapper.applyMappers(any(), any<List<MapperConfig>>()) }
+    verify(exactly = 0) { recordMapper.applyMappers(any(), any<RecordMapper.CompiledMappers>()) }
   }
 
   @Test
@@ -242,6 +248,8 @@ class ReplicationWorkerHelperTest {
     every { configuredStream.streamDescriptor } returns streamDescriptor
     every { configuredStream.mappers } returns listOf(mapperConfig)
     every { context.configuredCatalog.streams } returns listOf(configuredStream)
+    val compiledMappers = mockk<RecordMapper.CompiledMappers>()
+    every { recordMapper.compile(listOf(mapperConfig)) } returns compiledMappers
     every { destinationCatalogGenerator.generateDestinationCatalog(any()) } answers {
       DestinationCatalogGenerator.CatalogGenerationResult(context.configuredCatalog, emptyMap())
     }
@@ -274,6 +282,80 @@ class ReplicationWorkerHelperTest {
       )
     helper.applyTransformationMappers(adapter)
 
-    verify(exactly = 1) { recordMapper.applyMappers(adapter, listOf(mapperConfig)) }
+    verify(exactly = 1) { recordMapper.applyMappers(adapter, compiledMappers) }
   }
+
+  @Test
+  fun `processMessagesFromSource maps records in parallel and keeps the order around states`() =
+    runTest {
+      val mapperConfig =
+        object : MapperConfig {
+          override fun name() = "test"
+
+          override fun documentationUrl(): String? = null
+
+          override fun id(): UUID? = null
+
+          override fun config(): Any = emptyMap<String, String>()
+        }
+      val configuredStream = mockk<ConfiguredAirbyteStream>(relaxed = true)
+      every { configuredStream.streamDescriptor } returns StreamDescriptor().withName("s")
+      every { configuredStream.mappers } returns listOf(mapperConfig)
+      every { configuredStream.primaryKey } returns listOf(listOf("id"))
+      every { context.configuredCatalog.streams } returns listOf(configuredStream)
+      val compiledMappers = mockk<RecordMapper.CompiledMappers>()
+      every { recordMapper.compile(listOf(mapperConfig)) } returns compiledMappers
+      every { destinationCatalogGenerator.generateDestinationCatalog(any()) } answers {
+        DestinationCatalogGenerator.CatalogGenerationResult(context.configuredCatalog, emptyMap())
+      }
+      every { mapper.mapMessage(any()) } answers { firstArg() }
+      // Filters out the odd ids.
+      every { recordMapper.applyMappers(any(), compiledMappers) } answers {
+        val record = firstArg<AirbyteJsonRecordAdapter>()
+        if (record.get("id").asNumber().toInt() % 2 == 1) {
+          record.setInclude(false)
+        }
+      }
+      helper =
+        ReplicationWorkerHelper(
+          fieldSelector,
+          mapper,
+          messageTracker,
+          eventPublisher,
+          timeTracker,
+          analyticsTracker,
+          streamStatusCompletionTracker,
+          syncStatsTracker,
+          streamStatusTracker,
+          recordMapper,
+          replicationWorkerState,
+          context,
+          destinationCatalogGenerator,
+          metricClient,
+        )
+
+      fun record(id: Int) =
+        AirbyteMessage()
+          .withType(RECORD)
+          .withRecord(AirbyteRecordMessage().withStream("s").withData(ObjectMapper().createObjectNode().put("id", id)))
+      val firstRecords = (0 until 10).map { record(it) }
+      val state = AirbyteMessage().withType(STATE).withState(AirbyteStateMessage())
+      val lastRecords = (10 until 20).map { record(it) }
+
+      val processed =
+        Executors.newFixedThreadPool(4).asCoroutineDispatcher().use { dispatcher ->
+          helper.processMessagesFromSource(firstRecords + state + lastRecords, dispatcher, 4)
+        }
+
+      assertEquals(
+        firstRecords.filterIndexed { index, _ -> index % 2 == 0 } + state + lastRecords.filterIndexed { index, _ -> index % 2 == 0 },
+        processed,
+      )
+      verify(exactly = 10) { syncStatsTracker.updateFilteredOutRecordsStats(any()) }
+      verifyOrder {
+        syncStatsTracker.updateFilteredOutRecordsStats(firstRecords[9].record)
+        messageTracker.acceptFromSource(state)
+        messageTracker.acceptFromSource(lastRecords[0])
+      }
+    }
 }
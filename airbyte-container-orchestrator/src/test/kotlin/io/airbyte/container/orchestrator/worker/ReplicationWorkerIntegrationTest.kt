@@ -44,7 +44,7 @@ import io.airbyte.container.orchestrator.worker.fixtures.EmptyAirbyteDestination
 import io.airbyte.container.orchestrator.worker.io.AirbyteDestination
 import io.airbyte.container.orchestrator.worker.io.AirbyteSource
 import io.airbyte.container.orchestrator.worker.io.EmptyAirbyteSource
-import io.airbyte.container.orchestrator.worker.util.ClosableChannelQueue
+import io.airbyte.container.orchestrator.worker.util.MemoryBudget
 import io.airbyte.container.orchestrator.worker.util.ReplicationMetricReporter
 import io.airbyte.mappers.application.RecordMapper
 import io.airbyte.mappers.transformations.DestinationCatalogGenerator
@@ -355,6 +355,7 @@ object ReplicationWorkerIntegrationTestUtil {
         replicationWorkerState,
         streamStatusCompletionTracker,
       )
+    val memoryBudget = MemoryBudget.ofHeapFraction(bufferConfiguration.maxInFlightHeapFraction)
     val startReplicationJobs =
       CommonBeanFactory().startReplicationJobs(
         destination,
@@ -366,11 +367,13 @@ object ReplicationWorkerIntegrationTestUtil {
     val syncReplicationJobs =
       OrchestratorBeanFactory().syncReplicationJobs(
         destination,
-        ClosableChannelQueue(bufferConfiguration.destinationMaxBufferSize),
+        OrchestratorBeanFactory().destinationMessageQueue(replicationWorkerContext, memoryBudget, metricClient),
+        Executors.newSingleThreadExecutor(),
+        1,
         replicationWorkerHelper,
         replicationWorkerState,
         source,
-        ClosableChannelQueue(bufferConfiguration.sourceMaxBufferSize),
+        CommonBeanFactory().sourceMessageQueue(replicationWorkerContext, memoryBudget, metricClient, ArchitectureConstants.ORCHESTRATOR),
         streamStatusCompletionTracker,
       )
     val replicationWorker =
@@ -98,7 +98,7 @@ internal class SourceReaderTest {
       verify(exactly = 1) { mockReplicationWorkerHelper.endOfSource() }
 
       // Finally block
-      verify(exactly = 1) { mockMessagesFromSourceQueue.close() }
+      coVerify(exactly = 1) { mockMessagesFromSourceQueue.close() }
     }
 
   @Test
@@ -125,7 +125,7 @@ internal class SourceReaderTest {
       // endOfSource is called if exitValue == 0
       verify(exactly = 1) { mockReplicationWorkerHelper.endOfSource() }
       // close the queue
-      verify(exactly = 1) { mockMessagesFromSourceQueue.close() }
+      coVerify(exactly = 1) { mockMessagesFromSourceQueue.close() }
     }
 
   @Test
@@ -155,7 +155,7 @@ internal class SourceReaderTest {
       verify(exactly = 0) { mockReplicationWorkerHelper.endOfSource() }
 
       // We do expect the queue to close in finally
-      verify(exactly = 1) { mockMessagesFromSourceQueue.close() }
+      coVerify(exactly = 1) { mockMessagesFromSourceQueue.close() }
     }
 
   @Test
@@ -186,7 +186,7 @@ internal class SourceReaderTest {
       // Because the exitValue by default is 0, we do call endOfSource
       verify(exactly = 1) { mockReplicationWorkerHelper.endOfSource() }
       // The queue is closed
-      verify(exactly = 1) { mockMessagesFromSourceQueue.close() }
+      coVerify(exactly = 1) { mockMessagesFromSourceQueue.close() }
     }
 
   @Test
@@ -214,7 +214,7 @@ internal class SourceReaderTest {
       // We do eventually reach the end, exitValue == 0 => endOfSource
       verify(exactly = 1) { mockReplicationWorkerHelper.endOfSource() }
       // queue is closed in finally block
-      verify(exactly = 1) { mockMessagesFromSourceQueue.close() }
+      coVerify(exactly = 1) { mockMessagesFromSourceQueue.close() }
     }
 
   @Test
@@ -239,6 +239,6 @@ internal class SourceReaderTest {
       assertTrue(ex.message!!.contains("Simulated SourceException"))
 
       // The queue should still be closed
-      verify(exactly = 1) { mockMessagesFromSourceQueue.close() }
+      coVerify(exactly = 1) { mockMessagesFromSourceQueue.close() }
     }
 }
@@ -12,14 +12,18 @@ import io.airbyte.config.DestinationSyncMode
 import io.airbyte.config.SyncMode
 import io.airbyte.container.orchestrator.worker.RecordSchemaValidator
 import io.airbyte.container.orchestrator.worker.context.ReplicationInputFeatureFlagReader
+import io.airbyte.container.orchestrator.worker.util.ReplicationMetricReporter
 import io.airbyte.featureflag.RemoveValidationLimit
 import io.airbyte.persistence.job.models.ReplicationInput
 import io.airbyte.protocol.models.v0.AirbyteMessage
 import io.airbyte.protocol.models.v0.AirbyteRecordMessage
 import io.airbyte.validation.json.JsonSchemaValidator
 import io.airbyte.workers.WorkerUtils
+import io.mockk.Runs
 import io.mockk.every
+import io.mockk.just
 import io.mockk.mockk
+import io.mockk.verify
 import org.junit.jupiter.api.Assertions
 import org.junit.jupiter.api.Test
 import java.util.UUID
@@ -212,9 +216,79 @@ internal class FieldSelectorTest {
     Assertions.assertEquals(expectedMessage, message)
   }
 
+  @Test
+  internal fun `test that records with a known shape and with extra fields are both filtered`() {
+    val configuredCatalog =
+      ConfiguredAirbyteCatalog()
+        .withStreams(
+          listOf(
+            ConfiguredAirbyteStream(
+              stream = AirbyteStream(STREAM_NAME, Jsons.deserialize(SCHEMA), listOf(SyncMode.INCREMENTAL)),
+              syncMode = SyncMode.INCREMENTAL,
+              destinationSyncMode = DestinationSyncMode.APPEND,
+            ),
+          ),
+        )
+    val replicationInput =
+      mockk<ReplicationInput> {
+        every { workspaceId } returns UUID.randomUUID()
+      }
+    val metricReporter =
+      mockk<ReplicationMetricReporter> {
+        every { trackUnexpectedFields(any(), any()) } just Runs
+      }
+
+    val fieldSelector =
+      createFieldSelector(configuredCatalog = configuredCatalog, replicationInput = replicationInput, metricReporter = metricReporter)
+
+    listOf(RECORD_WITHOUT_EXTRA, RECORD_WITHOUT_EXTRA, RECORD_WITH_EXTRA, RECORD_WITHOUT_EXTRA, RECORD_WITH_EXTRA).forEach {
+      val message = createRecord(it)
+      fieldSelector.filterSelectedFields(message)
+      Assertions.assertEquals(createRecord(RECORD_WITHOUT_EXTRA), message)
+    }
+
+    fieldSelector.reportMetrics()
+    // The dropped fields can be deselected columns, so they aren't reported as unexpected.
+    verify(exactly = 0) { metricReporter.trackUnexpectedFields(any(), any()) }
+  }
+
+  @Test
+  internal fun `test that records of streams that are not in the catalog are emptied`() {
+    val configuredCatalog =
+      ConfiguredAirbyteCatalog()
+        .withStreams(
+          listOf(
+            ConfiguredAirbyteStream(
+              stream = AirbyteStream(STREAM_NAME, Jsons.deserialize(SCHEMA), listOf(SyncMode.INCREMENTAL)),
+              syncMode = SyncMode.INCREMENTAL,
+              destinationSyncMode = DestinationSyncMode.APPEND,
+            ),
+          ),
+        )
+    val replicationInput =
+      mockk<ReplicationInput> {
+        every { workspaceId } returns UUID.randomUUID()
+      }
+    val metricReporter =
+      mockk<ReplicationMetricReporter> {
+        every { trackUnexpectedFields(any(), any()) } just Runs
+      }
+
+    val fieldSelector =
+      createFieldSelector(configuredCatalog = configuredCatalog, replicationInput = replicationInput, metricReporter = metricReporter)
+
+    val message = createRecord(RECORD_WITHOUT_EXTRA).also { it.record.stream = "unknown" }
+    fieldSelector.filterSelectedFields(message)
+
+    Assertions.assertEquals(Jsons.emptyObject(), message.record.data)
+    fieldSelector.reportMetrics()
+    verify(exactly = 0) { metricReporter.trackUnexpectedFields(any(), any()) }
+  }
+
   private fun createFieldSelector(
     configuredCatalog: ConfiguredAirbyteCatalog,
     replicationInput: ReplicationInput,
+    metricReporter: ReplicationMetricReporter = mockk(),
   ): FieldSelector {
     val replicationInputFeatureFlagReader =
       mockk<ReplicationInputFeatureFlagReader> {
@@ -229,7 +303,7 @@ internal class FieldSelectorTest {
     val fieldSelector =
       FieldSelector(
         recordSchemaValidator = schemaValidator,
-        metricReporter = mockk(),
+        metricReporter = metricReporter,
         replicationInput = replicationInput,
         replicationInputFeatureFlagReader = replicationInputFeatureFlagReader,
       )
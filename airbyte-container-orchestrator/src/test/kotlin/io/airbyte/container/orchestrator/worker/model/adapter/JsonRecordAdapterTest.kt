@@ -7,6 +7,7 @@ package io.airbyte.container.orchestrator.worker.model.adapter
 import io.airbyte.commons.json.Jsons
 import io.airbyte.config.StreamDescriptor
 import io.airbyte.mappers.adapters.AirbyteRecord
+import io.airbyte.mappers.adapters.ComparisonValue
 import io.airbyte.protocol.models.v0.AirbyteMessage
 import io.airbyte.protocol.models.v0.AirbyteRecordMessageMetaChange
 import org.junit.jupiter.api.Assertions
@@ -58,6 +59,20 @@ internal class JsonRecordAdapterTest {
     Assertions.assertEquals("4.2", adapter.get(NUMBER_FIELD).asString())
   }
 
+  @Test
+  fun `fieldEquals matches the text of the field`() {
+    val adapter = getAdapterFromRecord(jsonRecordString)
+
+    listOf(STRING_FIELD, BOOLEAN_FIELD, INT_FIELD, NUMBER_FIELD).forEach { field ->
+      val text = adapter.get(field).asString()
+      Assertions.assertTrue(adapter.fieldEquals(field, ComparisonValue(text)), field)
+      Assertions.assertFalse(adapter.fieldEquals(field, ComparisonValue("$text-other")), field)
+    }
+    Assertions.assertFalse(adapter.fieldEquals(INT_FIELD, ComparisonValue("042")))
+    Assertions.assertFalse(adapter.fieldEquals(BOOLEAN_FIELD, ComparisonValue("TRUE")))
+    Assertions.assertFalse(adapter.fieldEquals("missing", ComparisonValue("bar")))
+  }
+
   @Test
   fun `renaming a field creates the new field and removes the old one`() {
     val adapter = getAdapterFromRecord(jsonRecordString)
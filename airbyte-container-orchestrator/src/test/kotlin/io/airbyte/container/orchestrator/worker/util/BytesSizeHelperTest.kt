@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.container.orchestrator.worker.util
+
+import com.fasterxml.jackson.databind.JsonNode
+import io.airbyte.commons.json.Jsons
+import io.airbyte.protocol.models.v0.AirbyteMessage
+import io.airbyte.protocol.models.v0.AirbyteStateMessage
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.ValueSource
+
+class BytesSizeHelperTest {
+  @ParameterizedTest
+  @ValueSource(
+    strings = [
+      """{"id":1,"name":"a","nested":{"values":[1,-20,3.5,null,true,false],"empty":{},"list":[]}}""",
+      """{"quote":"a\"b","backslash":"c\\d","control":"e\nf\u0001g","unicode":"café 😀"}""",
+      """{"big":12345678901234567890123,"decimal":1.0E-10,"min":-9223372036854775808}""",
+      """[]""",
+      """"text"""",
+    ],
+  )
+  fun `serialized size matches the serialization`(json: String) {
+    val node: JsonNode = Jsons.deserialize(json)
+
+    assertEquals(Jsons.getEstimatedByteSize(node).toLong(), BytesSizeHelper.getSerializedSize(node))
+  }
+
+  @Test
+  fun `state messages are measured by their serialization`() {
+    val message =
+      AirbyteMessage()
+        .withType(AirbyteMessage.Type.STATE)
+        .withState(AirbyteStateMessage().withData(Jsons.deserialize("""{"cursor":"café 😀","offsets":[1,2,3]}""")))
+
+    assertEquals(Jsons.serialize(message).length.toLong(), BytesSizeHelper.getEstimatedMessageSize(message))
+  }
+}
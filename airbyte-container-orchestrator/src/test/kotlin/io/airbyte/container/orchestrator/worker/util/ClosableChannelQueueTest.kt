@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.container.orchestrator.worker.util
+
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+
+class ClosableChannelQueueTest {
+  @Test
+  fun `elements are handed over once the chunk is full`() =
+    runTest {
+      val queue = ClosableChannelQueue<Int>(capacity = 10, maxChunkSize = 3)
+
+      (1..7).forEach { queue.send(it) }
+      queue.flush()
+      queue.close()
+
+      assertEquals(listOf(1, 2, 3), queue.receiveChunk())
+      assertEquals(listOf(4, 5, 6), queue.receiveChunk())
+      assertEquals(listOf(7), queue.receiveChunk())
+      assertNull(queue.receiveChunk())
+      assertTrue(queue.isClosedForReceiving())
+    }
+
+  @Test
+  fun `elements are handed over once the chunk reaches the byte bound`() =
+    runTest {
+      val queue = ClosableChannelQueue<String>(capacity = 100, maxChunkSize = 10, maxChunkBytes = 5, sizeOf = { it.length.toLong() })
+
+      listOf("ab", "cd", "efg", "h").forEach { queue.send(it) }
+      queue.flush()
+      queue.close()
+
+      assertEquals(listOf("ab", "cd", "efg"), queue.receiveChunk())
+      assertEquals(listOf("h"), queue.receiveChunk())
+      assertNull(queue.receiveChunk())
+    }
+
+  @Test
+  fun `closing hands the pending elements over`() =
+    runTest {
+      val queue = ClosableChannelQueue<Int>(capacity = 10, maxChunkSize = 5)
+
+      queue.send(1)
+      queue.send(2)
+      queue.close()
+
+      assertEquals(listOf(1, 2), queue.receiveChunk())
+      assertNull(queue.receive())
+      assertTrue(queue.isClosedForReceiving())
+    }
+
+  @Test
+  fun `closing after the consumer cancelled drops the pending elements`() =
+    runTest {
+      val queue = ClosableChannelQueue<Int>(capacity = 10, maxChunkSize = 5)
+
+      queue.send(1)
+      queue.cancel()
+      queue.close()
+
+      assertTrue(queue.isClosedForSending())
+      assertNull(queue.receive())
+    }
+
+  @Test
+  fun `single elements and chunks can be mixed on the receiving side`() =
+    runTest {
+      val queue = ClosableChannelQueue<Int>(capacity = 10, maxChunkSize = 4)
+
+      (1..4).forEach { queue.send(it) }
+      queue.close()
+
+      assertEquals(1, queue.receive())
+      assertFalse(queue.isClosedForReceiving())
+      assertEquals(listOf(2, 3, 4), queue.receiveChunk())
+      assertTrue(queue.isClosedForReceiving())
+    }
+
+  @Test
+  fun `producer suspends once the capacity is reached`() =
+    runTest {
+      val queue = ClosableChannelQueue<Int>(capacity = 4, maxChunkSize = 2)
+      val received = mutableListOf<Int>()
+
+      val producer =
+        launch {
+          (1..10).forEach { queue.send(it) }
+          queue.flush()
+          queue.close()
+        }
+      while (true) {
+        received.addAll(queue.receiveChunk() ?: break)
+      }
+      producer.join()
+
+      assertEquals((1..10).toList(), received)
+    }
+
+  @Test
+  fun `producer waits for the consumer to be done with a chunk when the memory budget is exhausted`() =
+    runTest {
+      val budget = MemoryBudget(maxBytes = 10)
+      val queue =
+        ClosableChannelQueue<String>(
+          capacity = 100,
+          maxChunkSize = 10,
+          sizeOf = { it.length.toLong() },
+          memoryBudget = budget,
+          blockOnMemoryBudget = true,
+        )
+      var sent = 0
+
+      launch {
+        listOf("aaaa", "bbbb", "cccc").forEach {
+          queue.send(it)
+          sent++
+        }
+        queue.flush()
+        queue.close()
+      }
+      runCurrent()
+      // The third element doesn't fit, so the first two are handed over before waiting.
+      assertEquals(2, sent)
+      assertEquals(8, budget.inFlightBytes)
+
+      assertEquals(listOf("aaaa", "bbbb"), queue.receiveChunk())
+      assertEquals(listOf("cccc"), queue.receiveChunk())
+      assertEquals(3, sent)
+      assertNull(queue.receiveChunk())
+      assertEquals(0, budget.inFlightBytes)
+      assertTrue(queue.producerBlockedTimeMs >= 0)
+    }
+
+  @Test
+  fun `elements forwarded to another queue are only accounted once`() =
+    runTest {
+      val budget = MemoryBudget(maxBytes = 100)
+      val upstream =
+        ClosableChannelQueue<String>(
+          capacity = 100,
+          maxChunkSize = 10,
+          sizeOf = { it.length.toLong() },
+          memoryBudget = budget,
+          blockOnMemoryBudget = true,
+          releaseOnHandoff = true,
+        )
+      val downstream =
+        ClosableChannelQueue<String>(
+          capacity = 100,
+          maxChunkSize = 10,
+          sizeOf = { it.length.toLong() },
+          memoryBudget = budget,
+        )
+
+      upstream.send("aaaa")
+      upstream.send("bbbb")
+      upstream.close()
+      assertEquals(8, budget.inFlightBytes)
+
+      upstream.receiveChunk()!!.forEach { downstream.send(it) }
+      assertEquals(8, budget.inFlightBytes)
+      downstream.close()
+
+      assertEquals(listOf("aaaa", "bbbb"), downstream.receiveChunk())
+      assertNull(upstream.receiveChunk())
+      assertNull(downstream.receiveChunk())
+      assertEquals(0, budget.inFlightBytes)
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.container.orchestrator.worker.util
+
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+
+class MemoryBudgetTest {
+  @Test
+  fun `acquisitions beyond the budget are refused`() {
+    val budget = MemoryBudget(maxBytes = 10)
+
+    assertTrue(budget.tryAcquire(6))
+    assertFalse(budget.tryAcquire(6))
+    assertTrue(budget.tryAcquire(4))
+    assertEquals(10, budget.inFlightBytes)
+  }
+
+  @Test
+  fun `a message larger than the budget goes through when nothing else is in flight`() {
+    val budget = MemoryBudget(maxBytes = 10)
+
+    assertTrue(budget.tryAcquire(100))
+    assertFalse(budget.tryAcquire(1))
+    budget.release(100)
+    assertTrue(budget.tryAcquire(1))
+  }
+
+  @Test
+  fun `acquire waits for a release`() =
+    runTest {
+      val budget = MemoryBudget(maxBytes = 10)
+      budget.forceAcquire(8)
+      var acquired = false
+
+      launch {
+        budget.acquire(5)
+        acquired = true
+      }
+      runCurrent()
+      assertFalse(acquired)
+
+      budget.release(8)
+      runCurrent()
+      assertTrue(acquired)
+      assertEquals(5, budget.inFlightBytes)
+    }
+}
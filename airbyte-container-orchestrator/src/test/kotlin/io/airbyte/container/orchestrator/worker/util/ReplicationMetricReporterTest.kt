@@ -4,6 +4,7 @@
 
 package io.airbyte.container.orchestrator.worker.util
 
+import io.airbyte.container.orchestrator.worker.RecordSchemaValidator
 import io.airbyte.metrics.MetricClient
 import io.airbyte.metrics.OssMetricsRegistry
 import io.airbyte.persistence.job.models.IntegrationLauncherConfig
@@ -159,4 +160,35 @@ internal class ReplicationMetricReporterTest {
 
     verify(exactly = 1) { metricClient.count(metric = OssMetricsRegistry.NUM_UNEXPECTED_FIELDS_IN_STREAMS, value = 0L, attributes = anyVararg()) }
   }
+
+  @Test
+  fun testTrackSchemaValidationCounts() {
+    val stream = AirbyteStreamNameNamespacePair(NAME, NAMESPACE)
+    val srcLauncherConfig =
+      mockk<IntegrationLauncherConfig> {
+        every { dockerImage } returns DOCKER_IMAGE
+      }
+    val metricClient =
+      mockk<MetricClient> {
+        every { count(metric = any(), value = any(), attributes = anyVararg()) } returns mockk()
+      }
+    val replicationInput =
+      mockk<ReplicationInput> {
+        every { sourceLauncherConfig } returns srcLauncherConfig
+      }
+
+    val reporter = ReplicationMetricReporter(metricClient = metricClient, replicationInput = replicationInput)
+    reporter.initialize()
+
+    reporter.trackSchemaValidationCounts(
+      stream = stream,
+      validationCounts = RecordSchemaValidator.ValidationCounts(validated = 10L, sampledOut = 90L, dropped = 1L),
+    )
+
+    verify(exactly = 1) {
+      metricClient.count(metric = OssMetricsRegistry.NUM_SCHEMA_VALIDATION_RECORDS_VALIDATED, value = 10L, attributes = anyVararg())
+      metricClient.count(metric = OssMetricsRegistry.NUM_SCHEMA_VALIDATION_RECORDS_SAMPLED_OUT, value = 90L, attributes = anyVararg())
+      metricClient.count(metric = OssMetricsRegistry.NUM_SCHEMA_VALIDATION_RECORDS_DROPPED, value = 1L, attributes = anyVararg())
+    }
+  }
 }
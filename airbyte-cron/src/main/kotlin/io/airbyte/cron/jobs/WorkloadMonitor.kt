@@ -194,6 +194,7 @@ open class WorkloadMonitor(
         it.enqueuedCount.toDouble(),
         MetricAttribute(MetricTags.DATA_PLANE_GROUP_TAG, it.dataplaneGroup ?: "unknown"),
         MetricAttribute(MetricTags.PRIORITY_TAG, it.priority?.name ?: "none"),
+        MetricAttribute(MetricTags.WORKLOAD_TYPE_TAG, it.workloadType?.toString() ?: "none"),
       )
     }
   }
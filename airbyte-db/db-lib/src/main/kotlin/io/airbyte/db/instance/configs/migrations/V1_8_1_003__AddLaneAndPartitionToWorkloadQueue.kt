@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.db.instance.configs.migrations
+
+import io.github.oshai.kotlinlogging.KotlinLogging
+import org.flywaydb.core.api.migration.BaseJavaMigration
+import org.flywaydb.core.api.migration.Context
+import org.jooq.DSLContext
+import org.jooq.impl.DSL
+import org.jooq.impl.SQLDataType
+
+private val log = KotlinLogging.logger {}
+
+/**
+ * Adds the workload type and a hash partition key to the workload queue, so that the queue can be polled fairly across
+ * workload types (lanes) and so that concurrent pollers can be spread across partitions.
+ */
+@Suppress("ktlint:standard:class-naming")
+class V1_8_1_003__AddLaneAndPartitionToWorkloadQueue : BaseJavaMigration() {
+  override fun migrate(context: Context) {
+    log.info { "Running migration: ${javaClass.simpleName}" }
+
+    val ctx: DSLContext = DSL.using(context.connection)
+
+    addColumns(ctx)
+    backfillColumns(ctx)
+    createLaneIndex(ctx)
+
+    log.info { "Completed migration: ${javaClass.simpleName}" }
+  }
+
+  companion object {
+    private const val WORKLOAD_QUEUE_TABLE = "workload_queue"
+
+    // Must match WorkloadQueueRepository.PARTITION_BUCKETS.
+    private const val PARTITION_BUCKETS = 64
+
+    // Must match the partition key computed by WorkloadQueueRepository.enqueueWorkload. hashtext can be negative,
+    // so the remainder is shifted back into [0, PARTITION_BUCKETS) rather than taking abs(), which overflows on INT_MIN.
+    private const val PARTITION_KEY = "mod(mod(hashtext(q.workload_id), $PARTITION_BUCKETS) + $PARTITION_BUCKETS, $PARTITION_BUCKETS)"
+
+    fun addColumns(ctx: DSLContext) {
+      ctx
+        .alterTable(WORKLOAD_QUEUE_TABLE)
+        .addColumnIfNotExists(DSL.field("workload_type", SQLDataType.VARCHAR(32).notNull().defaultValue("sync")))
+        .execute()
+
+      ctx
+        .alterTable(WORKLOAD_QUEUE_TABLE)
+        .addColumnIfNotExists(DSL.field("partition_key", SQLDataType.INTEGER.notNull().defaultValue(0)))
+        .execute()
+    }
+
+    fun backfillColumns(ctx: DSLContext) {
+      // Only the pending items are polled, the acked ones keep the defaults until they are cleaned up.
+      ctx.execute(
+        """
+        UPDATE workload_queue q
+          SET
+            workload_type = w.type::text,
+            partition_key = $PARTITION_KEY
+        FROM workload w
+          WHERE w.id = q.workload_id
+          AND q.acked_at IS NULL
+        """.trimIndent(),
+      )
+    }
+
+    fun createLaneIndex(ctx: DSLContext) {
+      ctx.execute(
+        "CREATE INDEX IF NOT EXISTS dataplane_group_priority_lane_partition_idx " +
+          "ON workload_queue(dataplane_group, priority, workload_type, partition_key, created_at) " +
+          "WHERE acked_at IS NULL",
+      )
+    }
+  }
+}
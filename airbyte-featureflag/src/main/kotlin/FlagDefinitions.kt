@@ -135,6 +135,17 @@ object LogStreamNamesInSateMessage : Temporary<Boolean>(key = "platform.logs-str
 
 object PrintLongRecordPks : Temporary<Boolean>(key = "platform.print-long-record-pks", default = false)
 
+/**
+ * Forward source records to the destination without deserializing their data when the connection has no mappers,
+ * no namespace or prefix rewriting and no protocol migration. Schema validation is skipped for those records.
+ */
+object RecordPassthrough : Temporary<Boolean>(key = "platform.record-passthrough", default = false)
+
+/**
+ * Read source messages with the streaming deserializer, which defers building the record data until it is used.
+ */
+object StreamingMessageDeserializer : Temporary<Boolean>(key = "platform.streaming-message-deserializer", default = false)
+
 object InjectAwsSecretsToConnectorPods : Temporary<Boolean>(key = "platform.inject-aws-secrets-to-connector-pods", default = false)
 
 object FailSyncOnInvalidChecksum : Temporary<Boolean>(key = "platform.fail-sync-on-invalid-checksum", default = false)
@@ -155,6 +166,22 @@ object LogStateMsgs : Temporary<Boolean>(key = "platform.log-state-msgs", defaul
 
 object ReplicationBufferOverride : Temporary<Int>(key = "platform.replication-buffer-override", default = 0)
 
+/**
+ * Number of messages handed over at once between the replication tasks. 1 hands messages over one by one.
+ */
+object ReplicationChunkSizeOverride : Temporary<Int>(key = "platform.replication-chunk-size-override", default = 0)
+
+/**
+ * Percentage of the orchestrator heap that messages buffered between the replication tasks may use before the source
+ * reader waits.
+ */
+object ReplicationMemoryBudgetHeapPercent : Temporary<Int>(key = "platform.replication-memory-budget-heap-percent", default = 0)
+
+/**
+ * Number of threads applying the mappers during a sync. Records are only mapped in parallel when this is above 1.
+ */
+object MapperParallelism : Temporary<Int>(key = "platform.mapper-parallelism", default = 1)
+
 object NodeSelectorOverride : Temporary<String>(key = "platform.node-selector-override", default = "")
 
 object ReportConnectorDiskUsage : Temporary<Boolean>(key = "platform.report-connector-disk-usage", default = false)
@@ -187,6 +214,8 @@ object LLMSyncJobFailureExplanation : Temporary<Boolean>(key = "platform.llm-syn
 
 object WorkloadPollerUsesJitter : Temporary<Boolean>(key = "platform.workload-poller-uses-jitter", default = false)
 
+object WorkloadPollerUsesLongPoll : Temporary<Boolean>(key = "platform.workload-poller-uses-long-poll", default = false)
+
 object PersistSecretConfigsAndReferences : Temporary<Boolean>(key = "platform.persist-secret-configs-and-references", default = false)
 
 object ReadSecretReferenceIdsInConfigs : Temporary<Boolean>(key = "platform.read-secret-reference-ids-in-configs", default = false)
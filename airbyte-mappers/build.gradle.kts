@@ -1,6 +1,7 @@
 plugins {
   id("io.airbyte.gradle.jvm.lib")
   id("io.airbyte.gradle.publish")
+  alias(libs.plugins.me.champeau.jmh)
 }
 
 dependencies {
@@ -24,3 +25,7 @@ dependencies {
   testImplementation(libs.mockk)
   testImplementation(libs.bundles.micronaut.test)
 }
+
+jmh {
+  jmhVersion.set(libs.versions.jmh.get())
+}
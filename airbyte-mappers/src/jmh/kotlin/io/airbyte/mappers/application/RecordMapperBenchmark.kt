@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.mappers.application
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import io.airbyte.config.AirbyteSecret
+import io.airbyte.config.MapperConfig
+import io.airbyte.config.mapper.configs.AesEncryptionConfig
+import io.airbyte.config.mapper.configs.AesMode
+import io.airbyte.config.mapper.configs.AesPadding
+import io.airbyte.config.mapper.configs.EncryptionMapperConfig
+import io.airbyte.config.mapper.configs.HashingConfig
+import io.airbyte.config.mapper.configs.HashingMapperConfig
+import io.airbyte.config.mapper.configs.HashingMethods
+import io.airbyte.config.mapper.configs.RsaEncryptionConfig
+import io.airbyte.mappers.adapters.AirbyteRecord
+import io.airbyte.mappers.adapters.Value
+import io.airbyte.mappers.transformations.EncryptionMapper
+import io.airbyte.mappers.transformations.HashingMapper
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import org.openjdk.jmh.infra.Blackhole
+import java.security.KeyPairGenerator
+import java.util.HexFormat
+import java.util.concurrent.TimeUnit
+
+/**
+ * Compares applying mappers from their configuration for every record with applying the mappers compiled once per
+ * stream.
+ *
+ * Run with `./gradlew :oss:airbyte-mappers:jmh`.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+open class RecordMapperBenchmark {
+  @Param("hashing", "aes", "rsa")
+  lateinit var mapper: String
+
+  private val recordMapper = RecordMapper(listOf(HashingMapper(ObjectMapper()), EncryptionMapper(ObjectMapper())))
+  private lateinit var configuredMappers: List<MapperConfig>
+  private lateinit var compiledMappers: RecordMapper.CompiledMappers
+
+  @Setup
+  fun setup() {
+    val config =
+      when (mapper) {
+        "hashing" -> HashingMapperConfig(config = HashingConfig(TARGET_FIELD, HashingMethods.SHA256, "_hashed"))
+        "aes" ->
+          EncryptionMapperConfig(
+            config =
+              AesEncryptionConfig(
+                algorithm = "AES",
+                targetField = TARGET_FIELD,
+                fieldNameSuffix = "_encrypted",
+                mode = AesMode.CBC,
+                padding = AesPadding.PKCS5Padding,
+                key = AirbyteSecret.Hydrated(HexFormat.of().formatHex(ByteArray(32) { it.toByte() })),
+              ),
+          )
+        "rsa" -> {
+          val keyGenerator = KeyPairGenerator.getInstance("RSA").apply { initialize(2048) }
+          EncryptionMapperConfig(
+            config =
+              RsaEncryptionConfig(
+                algorithm = "RSA",
+                targetField = TARGET_FIELD,
+                fieldNameSuffix = "_encrypted",
+                publicKey = HexFormat.of().formatHex(keyGenerator.generateKeyPair().public.encoded),
+              ),
+          )
+        }
+        else -> throw IllegalArgumentException("Unknown mapper $mapper")
+      }
+    configuredMappers = listOf(config)
+    compiledMappers = recordMapper.compile(configuredMappers)
+
+    val record = BenchmarkRecord()
+    recordMapper.applyMappers(record, compiledMappers)
+    check(record.errors == 0 && !record.has(TARGET_FIELD)) { "The $mapper mapper doesn't map the benchmark record" }
+  }
+
+  @Benchmark
+  fun interpreted(blackhole: Blackhole) {
+    val record = BenchmarkRecord()
+    recordMapper.applyMappers(record, configuredMappers)
+    blackhole.consume(record.data)
+  }
+
+  @Benchmark
+  fun compiled(blackhole: Blackhole) {
+    val record = BenchmarkRecord()
+    recordMapper.applyMappers(record, compiledMappers)
+    blackhole.consume(record.data)
+  }
+
+  private class BenchmarkRecord : AirbyteRecord {
+    val data: MutableMap<String, Any> = hashMapOf(TARGET_FIELD to "alice@example.com", "id" to 42)
+    var errors = 0
+    private var include = true
+
+    override fun has(fieldName: String): Boolean = fieldName in data
+
+    override fun get(fieldName: String): Value = BenchmarkValue(data.getValue(fieldName))
+
+    override fun remove(fieldName: String) {
+      data.remove(fieldName)
+    }
+
+    override fun rename(
+      oldFieldName: String,
+      newFieldName: String,
+    ) {
+      data.remove(oldFieldName)?.let { data[newFieldName] = it }
+    }
+
+    override fun <T : Any> set(
+      fieldName: String,
+      value: T,
+    ) {
+      data[fieldName] = value
+    }
+
+    override fun trackFieldError(
+      fieldName: String,
+      change: AirbyteRecord.Change,
+      reason: AirbyteRecord.Reason,
+    ) {
+      errors++
+    }
+
+    override fun setInclude(value: Boolean) {
+      include = value
+    }
+
+    override fun shouldInclude(): Boolean = include
+  }
+
+  private class BenchmarkValue(
+    private val value: Any,
+  ) : Value {
+    override fun asBoolean(): Boolean = value as Boolean
+
+    override fun asNumber(): Number = value as Number
+
+    override fun asString(): String = value.toString()
+  }
+
+  companion object {
+    private const val TARGET_FIELD = "email"
+  }
+}
@@ -39,6 +39,30 @@ interface AirbyteRecord {
   fun setInclude(value: Boolean)
 
   fun shouldInclude(): Boolean
+
+  /**
+   * Returns whether the field is set to [value], compared as strings. Implementations can override this to compare the
+   * field in its own representation instead of converting it to a string.
+   */
+  fun fieldEquals(
+    fieldName: String,
+    value: ComparisonValue,
+  ): Boolean = has(fieldName) && get(fieldName).asString() == value.text
+}
+
+/**
+ * A constant that fields are compared to, parsed once so that fields don't need to be converted to strings to be
+ * compared to it.
+ */
+class ComparisonValue(
+  val text: String,
+) {
+  /**
+   * The value as a long, if [text] is the canonical representation of one.
+   */
+  val long: Long? = text.toLongOrNull()?.takeIf { it.toString() == text }
+
+  val boolean: Boolean? = text.toBooleanStrictOrNull()
 }
 
 interface Value {
@@ -6,11 +6,13 @@ package io.airbyte.mappers.application
 
 import io.airbyte.config.MapperConfig
 import io.airbyte.mappers.adapters.AirbyteRecord
+import io.airbyte.mappers.transformations.CompiledMapper
 import io.airbyte.mappers.transformations.Mapper
 import io.github.oshai.kotlinlogging.KotlinLogging
 import jakarta.inject.Singleton
-import kotlin.time.DurationUnit
-import kotlin.time.measureTime
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
 
 private val log = KotlinLogging.logger {}
 
@@ -18,10 +20,27 @@ private val log = KotlinLogging.logger {}
 class RecordMapper(
   mappers: List<Mapper<out MapperConfig>>,
 ) {
-  private data class MapperStopwatch(
+  // Mappers can be applied from several threads at once, see the orchestrator's mapper parallelism.
+  internal class MapperStopwatch(
     val mapper: Mapper<out MapperConfig>,
-    var executionCount: Int = 0,
-    var totalTimeMs: Long = 0L,
+  ) {
+    val executionCount = AtomicInteger()
+    val totalTimeNanos = AtomicLong()
+
+    inline fun <R> measure(block: () -> R): R {
+      executionCount.incrementAndGet()
+      val start = System.nanoTime()
+      val result = block()
+      totalTimeNanos.addAndGet(System.nanoTime() - start)
+      return result
+    }
+  }
+
+  /**
+   * The mappers of a stream, compiled once with [compile] and then applied to each record with [applyMappers].
+   */
+  class CompiledMappers internal constructor(
+    internal val steps: List<Pair<MapperStopwatch, CompiledMapper>>,
   )
 
   private val mappersByName: Map<String, MapperStopwatch> = mappers.map { MapperStopwatch(mapper = it) }.associateBy { it.mapper.name }
@@ -34,11 +53,7 @@ class RecordMapper(
     try {
       configuredMappers.fold(record) { acc, mapperConfig ->
         mappersByName[mapperConfig.name()]?.let { stopwatch ->
-          stopwatch.executionCount++
-          stopwatch.totalTimeMs +=
-            measureTime {
-              (stopwatch.mapper as Mapper<T>).map(mapperConfig, acc)
-            }.toLong(DurationUnit.MILLISECONDS)
+          stopwatch.measure { (stopwatch.mapper as Mapper<T>).map(mapperConfig, acc) }
         }
         acc
       }
@@ -47,9 +62,44 @@ class RecordMapper(
     }
   }
 
+  /**
+   * Resolves the mappers of [configuredMappers] and compiles them, so that applying them to a record only does the
+   * transformations themselves. A mapper that fails to compile fails on every record, like it would have when applied
+   * with its configuration.
+   */
+  @Suppress("UNCHECKED_CAST")
+  fun <T : MapperConfig> compile(configuredMappers: List<T>): CompiledMappers =
+    CompiledMappers(
+      configuredMappers.mapNotNull { mapperConfig ->
+        mappersByName[mapperConfig.name()]?.let { stopwatch ->
+          val compiledMapper =
+            try {
+              (stopwatch.mapper as Mapper<T>).compile(mapperConfig)
+            } catch (e: Exception) {
+              log.warn { "Error compiling mapper ${mapperConfig.name()}: ${e.message}" }
+              CompiledMapper { throw e }
+            }
+          stopwatch to compiledMapper
+        }
+      },
+    )
+
+  fun applyMappers(
+    record: AirbyteRecord,
+    compiledMappers: CompiledMappers,
+  ) {
+    try {
+      for ((stopwatch, compiledMapper) in compiledMappers.steps) {
+        stopwatch.measure { compiledMapper.map(record) }
+      }
+    } catch (e: Exception) {
+      log.debug { "Error applying mappers: ${e.message}" }
+    }
+  }
+
   fun collectStopwatches(): Map<String, Long> =
     mappersByName
-      .filterValues { it.executionCount > 0 }
-      .map { Pair(it.key, it.value.totalTimeMs) }
+      .filterValues { it.executionCount.get() > 0 }
+      .map { Pair(it.key, TimeUnit.NANOSECONDS.toMillis(it.value.totalTimeNanos.get())) }
       .toMap()
 }
@@ -0,0 +1,14 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.mappers.transformations
+
+import io.airbyte.mappers.adapters.AirbyteRecord
+
+/**
+ * A [Mapper] bound to a configuration, see [Mapper.compile].
+ */
+fun interface CompiledMapper {
+  fun map(record: AirbyteRecord)
+}
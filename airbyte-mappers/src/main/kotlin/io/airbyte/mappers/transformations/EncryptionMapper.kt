@@ -75,20 +75,29 @@ class EncryptionMapper(
     config: EncryptionMapperConfig,
     record: AirbyteRecord,
   ) {
-    if (record.has(config.config.targetField)) {
-      val outputFieldName = getOutputFieldName(config)
-      var failed = false
-      try {
-        val data = record.get(config.config.targetField).asString()
-        val encryptedData = encrypt(data.toByteArray(Charsets.UTF_8), config.config)
-        record.set(outputFieldName, encryptedData)
-      } catch (_: Exception) {
-        // TODO We should use a more precise Reason once available in the protocol
-        record.trackFieldError(outputFieldName, AirbyteRecord.Change.NULLED, AirbyteRecord.Reason.PLATFORM_SERIALIZATION_ERROR)
-        failed = true
-      } finally {
-        if (failed || outputFieldName != config.config.targetField) {
-          record.remove(config.config.targetField)
+    getCompiledForNonDiscardedRecords(config).map(record)
+  }
+
+  override fun compileForNonDiscardedRecords(config: EncryptionMapperConfig): CompiledMapper {
+    val targetField = config.config.targetField
+    val outputFieldName = getOutputFieldName(config)
+    val encrypt = compileEncryption(config.config)
+
+    return CompiledMapper { record ->
+      if (record.has(targetField)) {
+        var failed = false
+        try {
+          val data = record.get(targetField).asString()
+          val encryptedData = encrypt(data.toByteArray(Charsets.UTF_8))
+          record.set(outputFieldName, encryptedData)
+        } catch (_: Exception) {
+          // TODO We should use a more precise Reason once available in the protocol
+          record.trackFieldError(outputFieldName, AirbyteRecord.Change.NULLED, AirbyteRecord.Reason.PLATFORM_SERIALIZATION_ERROR)
+          failed = true
+        } finally {
+          if (failed || outputFieldName != targetField) {
+            record.remove(targetField)
+          }
         }
       }
     }
@@ -99,10 +108,20 @@ class EncryptionMapper(
   private fun encrypt(
     data: ByteArray,
     config: EncryptionConfig,
-  ): String =
-    when (config) {
-      is AesEncryptionConfig -> encryptAES(data, config)
-      is RsaEncryptionConfig -> encryptRSA(data, config)
+  ): String = compileEncryption(config)(data)
+
+  /**
+   * Resolves the cipher and key once. A config that can't be resolved fails the encryption of every value, so that the
+   * fields are nulled out rather than failing the sync.
+   */
+  private fun compileEncryption(config: EncryptionConfig): (ByteArray) -> String =
+    try {
+      when (config) {
+        is AesEncryptionConfig -> compileAES(config)
+        is RsaEncryptionConfig -> compileRSA(config)
+      }
+    } catch (e: Exception) {
+      { throw e }
     }
 
   private fun encryptSample(config: EncryptionConfig) {
@@ -128,28 +147,34 @@ class EncryptionMapper(
     }
 
   @OptIn(ExperimentalStdlibApi::class)
-  private fun encryptAES(
-    data: ByteArray,
-    config: AesEncryptionConfig,
-  ): String {
+  private fun compileAES(config: AesEncryptionConfig): (ByteArray) -> String {
     val key = config.key as? AirbyteSecret.Hydrated ?: throw MissingSecretValueException("key hasn't been hydrated")
-    val cipher = getCipher(config)
-    val iv = ByteArray(16)
-    SecureRandom().nextBytes(iv)
-    cipher.init(Cipher.ENCRYPT_MODE, SecretKeySpec(key.value.hexToByteArray(), config.algorithm), IvParameterSpec(iv))
-    val encryptedData = cipher.doFinal(data)
-    return (iv + encryptedData).toHexString()
+    val keySpec = SecretKeySpec(key.value.hexToByteArray(), config.algorithm)
+    // Ciphers aren't thread safe, but can be reused once initialized with a new IV.
+    val ciphers = ThreadLocal.withInitial { getCipher(config) }
+    val random = SecureRandom()
+    return { data ->
+      val cipher = ciphers.get()
+      val iv = ByteArray(16)
+      random.nextBytes(iv)
+      cipher.init(Cipher.ENCRYPT_MODE, keySpec, IvParameterSpec(iv))
+      val encryptedData = cipher.doFinal(data)
+      (iv + encryptedData).toHexString()
+    }
   }
 
   @OptIn(ExperimentalStdlibApi::class)
-  private fun encryptRSA(
-    data: ByteArray,
-    config: RsaEncryptionConfig,
-  ): String {
-    val cipher = getCipher(config)
-    val keyFactory = KeyFactory.getInstance(config.algorithm)
-    val keySpec = X509EncodedKeySpec(config.publicKey.hexToByteArray())
-    cipher.init(Cipher.ENCRYPT_MODE, keyFactory.generatePublic(keySpec))
-    return cipher.doFinal(data).toHexString()
+  private fun compileRSA(config: RsaEncryptionConfig): (ByteArray) -> String {
+    val publicKey = KeyFactory.getInstance(config.algorithm).generatePublic(X509EncodedKeySpec(config.publicKey.hexToByteArray()))
+    // Ciphers aren't thread safe, and go back to their initialized state after each encryption.
+    val ciphers = ThreadLocal.withInitial { getCipher(config).apply { init(Cipher.ENCRYPT_MODE, publicKey) } }
+    return { data ->
+      try {
+        ciphers.get().doFinal(data).toHexString()
+      } catch (e: Exception) {
+        ciphers.remove()
+        throw e
+      }
+    }
   }
 }
@@ -4,10 +4,15 @@
 
 package io.airbyte.mappers.transformations
 
+import com.google.common.cache.Cache
+import com.google.common.cache.CacheBuilder
 import io.airbyte.config.MapperConfig
 import io.airbyte.mappers.adapters.AirbyteRecord
 
 abstract class FilteredRecordsMapper<T : MapperConfig> : Mapper<T> {
+  // Weak keys are compared by identity, so a config is only compiled once for as long as its caller holds on to it.
+  private val compiledMappers: Cache<T, CompiledMapper> = CacheBuilder.newBuilder().weakKeys().build()
+
   final override fun map(
     config: T,
     record: AirbyteRecord,
@@ -18,6 +23,27 @@ abstract class FilteredRecordsMapper<T : MapperConfig> : Mapper<T> {
     mapForNonDiscardedRecords(config, record)
   }
 
+  final override fun compile(config: T): CompiledMapper {
+    val compiledMapper = compileForNonDiscardedRecords(config)
+    return CompiledMapper { record ->
+      if (record.shouldInclude()) {
+        compiledMapper.map(record)
+      }
+    }
+  }
+
+  /**
+   * Compiles the mapping of the records that haven't been filtered out, see [compile].
+   */
+  open fun compileForNonDiscardedRecords(config: T): CompiledMapper = CompiledMapper { record -> mapForNonDiscardedRecords(config, record) }
+
+  /**
+   * Returns [compileForNonDiscardedRecords] for the config, compiling it on first use. This lets mappers that only have a
+   * compiled implementation map records one at a time without compiling the config for every record.
+   */
+  protected fun getCompiledForNonDiscardedRecords(config: T): CompiledMapper =
+    compiledMappers.getIfPresent(config) ?: compileForNonDiscardedRecords(config).also { compiledMappers.put(config, it) }
+
   abstract fun mapForNonDiscardedRecords(
     config: T,
     record: AirbyteRecord,
@@ -59,33 +59,36 @@ class HashingMapper(
     config: HashingMapperConfig,
     record: AirbyteRecord,
   ) {
-    val outputFieldName = "${config.config.targetField}${config.config.fieldNameSuffix}"
-
-    if (record.has(config.config.targetField)) {
-      try {
-        val data = record.get(config.config.targetField).asString().toByteArray()
-
-        val hashedAndEncodeValue: String = hashAndEncodeData(config.config.method.value, data)
-        record.set(outputFieldName, hashedAndEncodeValue)
-      } catch (_: Exception) {
-        // TODO We should use a more precise Reason once available in the protocol
-        record.trackFieldError(outputFieldName, AirbyteRecord.Change.NULLED, AirbyteRecord.Reason.PLATFORM_SERIALIZATION_ERROR)
-      } finally {
-        record.remove(config.config.targetField)
-      }
-    }
+    getCompiledForNonDiscardedRecords(config).map(record)
   }
 
-  private fun hashAndEncodeData(
-    method: String,
-    data: ByteArray,
-  ): String {
-    if (supportedMethods.contains(method).not()) {
-      throw MapperException(type = DestinationCatalogGenerator.MapperErrorType.INVALID_MAPPER_CONFIG, message = "Unsupported hashing method: $method")
+  override fun compileForNonDiscardedRecords(config: HashingMapperConfig): CompiledMapper {
+    val targetField = config.config.targetField
+    val outputFieldName = "${targetField}${config.config.fieldNameSuffix}"
+    val method = config.config.method.value
+    // Digests aren't thread safe, and looking them up is more expensive than hashing a field.
+    val digests = if (supportedMethods.contains(method)) ThreadLocal.withInitial { MessageDigest.getInstance(method) } else null
+    val hexFormat = HexFormat.of()
+
+    return CompiledMapper { record ->
+      if (record.has(targetField)) {
+        try {
+          val data = record.get(targetField).asString().toByteArray()
+
+          val digest =
+            digests?.get()
+              ?: throw MapperException(
+                type = DestinationCatalogGenerator.MapperErrorType.INVALID_MAPPER_CONFIG,
+                message = "Unsupported hashing method: $method",
+              )
+          record.set(outputFieldName, hexFormat.formatHex(digest.digest(data)))
+        } catch (_: Exception) {
+          // TODO We should use a more precise Reason once available in the protocol
+          record.trackFieldError(outputFieldName, AirbyteRecord.Change.NULLED, AirbyteRecord.Reason.PLATFORM_SERIALIZATION_ERROR)
+        } finally {
+          record.remove(targetField)
+        }
+      }
     }
-
-    val hashedValue = MessageDigest.getInstance(method).digest(data)
-
-    return HexFormat.of().formatHex(hashedValue)
   }
 }
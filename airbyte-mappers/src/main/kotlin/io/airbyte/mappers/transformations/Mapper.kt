@@ -21,4 +21,10 @@ interface Mapper<T : MapperConfig> {
     config: T,
     record: AirbyteRecord,
   )
+
+  /**
+   * Prepares the mapping of records with [config], so that whatever doesn't depend on the record is resolved once
+   * instead of for every record. The returned mapper may be called from several threads at once.
+   */
+  fun compile(config: T): CompiledMapper = CompiledMapper { record -> map(config, record) }
 }
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.mappers.transformations
+
+import io.airbyte.config.mapper.configs.AndOperation
+import io.airbyte.config.mapper.configs.EqualOperation
+import io.airbyte.config.mapper.configs.NotOperation
+import io.airbyte.config.mapper.configs.Operation
+import io.airbyte.config.mapper.configs.OrOperation
+import io.airbyte.mappers.adapters.AirbyteRecord
+import io.airbyte.mappers.adapters.ComparisonValue
+
+/**
+ * A row filter condition compiled by [RowFilterCompiler].
+ */
+sealed class RowFilter {
+  /**
+   * Number of comparisons needed to evaluate the condition in the worst case.
+   */
+  abstract val cost: Int
+
+  abstract fun test(record: AirbyteRecord): Boolean
+
+  internal class Constant(
+    val value: Boolean,
+  ) : RowFilter() {
+    override val cost = 0
+
+    override fun test(record: AirbyteRecord): Boolean = value
+  }
+
+  internal class FieldEquals(
+    private val fieldName: String,
+    private val value: ComparisonValue,
+  ) : RowFilter() {
+    override val cost = 1
+
+    override fun test(record: AirbyteRecord): Boolean = record.fieldEquals(fieldName, value)
+  }
+
+  internal class Not(
+    val condition: RowFilter,
+  ) : RowFilter() {
+    override val cost = condition.cost
+
+    override fun test(record: AirbyteRecord): Boolean = !condition.test(record)
+  }
+
+  internal class All(
+    val conditions: Array<RowFilter>,
+  ) : RowFilter() {
+    override val cost = conditions.sumOf { it.cost }
+
+    override fun test(record: AirbyteRecord): Boolean {
+      for (condition in conditions) {
+        if (!condition.test(record)) {
+          return false
+        }
+      }
+      return true
+    }
+  }
+
+  internal class AnyOf(
+    val conditions: Array<RowFilter>,
+  ) : RowFilter() {
+    override val cost = conditions.sumOf { it.cost }
+
+    override fun test(record: AirbyteRecord): Boolean {
+      for (condition in conditions) {
+        if (condition.test(record)) {
+          return true
+        }
+      }
+      return false
+    }
+  }
+}
+
+/**
+ * Compiles the [Operation] tree of a row filtering mapper into a [RowFilter].
+ *
+ * Nested conjunctions and disjunctions are flattened, double negations and constant branches are removed, and the
+ * operands of each conjunction and disjunction are ordered from the cheapest to the most expensive, so that evaluation
+ * short-circuits as early as possible. The comparison values are parsed once.
+ */
+object RowFilterCompiler {
+  fun compile(operation: Operation): RowFilter =
+    when (operation) {
+      is EqualOperation -> RowFilter.FieldEquals(operation.fieldName, ComparisonValue(operation.comparisonValue))
+      is AndOperation -> all(operation.conditions.map { compile(it) })
+      is OrOperation -> anyOf(operation.conditions.map { compile(it) })
+      is NotOperation -> not(anyOf(operation.conditions.map { compile(it) }))
+    }
+
+  private fun all(conditions: List<RowFilter>): RowFilter {
+    val operands = mutableListOf<RowFilter>()
+    for (condition in conditions) {
+      when {
+        condition is RowFilter.All -> operands.addAll(condition.conditions)
+        condition is RowFilter.Constant && condition.value -> continue
+        condition is RowFilter.Constant -> return condition
+        else -> operands.add(condition)
+      }
+    }
+    return when (operands.size) {
+      0 -> RowFilter.Constant(true)
+      1 -> operands.single()
+      else -> RowFilter.All(operands.sortedBy { it.cost }.toTypedArray())
+    }
+  }
+
+  private fun anyOf(conditions: List<RowFilter>): RowFilter {
+    val operands = mutableListOf<RowFilter>()
+    for (condition in conditions) {
+      when {
+        condition is RowFilter.AnyOf -> operands.addAll(condition.conditions)
+        condition is RowFilter.Constant && !condition.value -> continue
+        condition is RowFilter.Constant -> return condition
+        else -> operands.add(condition)
+      }
+    }
+    return when (operands.size) {
+      0 -> RowFilter.Constant(false)
+      1 -> operands.single()
+      else -> RowFilter.AnyOf(operands.sortedBy { it.cost }.toTypedArray())
+    }
+  }
+
+  private fun not(condition: RowFilter): RowFilter =
+    when (condition) {
+      is RowFilter.Not -> condition.condition
+      is RowFilter.Constant -> RowFilter.Constant(!condition.value)
+      else -> RowFilter.Not(condition)
+    }
+}
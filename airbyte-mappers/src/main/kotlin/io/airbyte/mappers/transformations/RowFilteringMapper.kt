@@ -6,11 +6,6 @@ package io.airbyte.mappers.transformations
 
 import com.fasterxml.jackson.databind.ObjectMapper
 import io.airbyte.config.MapperOperationName.ROW_FILTERING
-import io.airbyte.config.mapper.configs.AndOperation
-import io.airbyte.config.mapper.configs.EqualOperation
-import io.airbyte.config.mapper.configs.NotOperation
-import io.airbyte.config.mapper.configs.Operation
-import io.airbyte.config.mapper.configs.OrOperation
 import io.airbyte.config.mapper.configs.RowFilteringMapperConfig
 import io.airbyte.mappers.adapters.AirbyteRecord
 import jakarta.inject.Named
@@ -36,24 +31,11 @@ class RowFilteringMapper(
     config: RowFilteringMapperConfig,
     record: AirbyteRecord,
   ) {
-    val conditionEvalResult = eval(operation = config.config.conditions, record = record)
-    record.setInclude(conditionEvalResult)
+    getCompiledForNonDiscardedRecords(config).map(record)
   }
 
-  private fun eval(
-    operation: Operation,
-    record: AirbyteRecord,
-  ): Boolean =
-    when (operation) {
-      is AndOperation -> operation.conditions.all { eval(it, record) }
-      is EqualOperation -> {
-        if (record.has(operation.fieldName)) {
-          record.get(operation.fieldName).asString() == operation.comparisonValue
-        } else {
-          false
-        }
-      }
-      is NotOperation -> operation.conditions.none { eval(operation = it, record = record) }
-      is OrOperation -> operation.conditions.any { eval(it, record) }
-    }
+  override fun compileForNonDiscardedRecords(config: RowFilteringMapperConfig): CompiledMapper {
+    val condition = RowFilterCompiler.compile(config.config.conditions)
+    return CompiledMapper { record -> record.setInclude(condition.test(record)) }
+  }
 }
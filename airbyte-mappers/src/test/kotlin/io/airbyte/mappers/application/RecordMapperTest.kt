@@ -46,6 +46,35 @@ class RecordMapperTest {
     assertEquals(expectedRecord.data, testRecord.data)
   }
 
+  @Test
+  fun testCompiledMappers() {
+    val compiledMappers =
+      recordMapper.compile(
+        listOf(
+          TestMapperConfig(TEST_MAPPER_NAME, null, null, TestConfig("field1", TestEnums.ONE, "field2")),
+          TestMapperConfig(TEST_MAPPER_NAME, null, null, TestConfig("field1_test", TestEnums.ONE, "field2")),
+        ),
+      )
+
+    val expectedRecord = createRecord(mutableMapOf("field1_test_test" to "value1"))
+    repeat(3) {
+      val testRecord = createRecord(mutableMapOf("field1" to "value1"))
+      recordMapper.applyMappers(testRecord, compiledMappers)
+      assertEquals(expectedRecord.data, testRecord.data)
+    }
+    assertEquals(setOf(TEST_MAPPER_NAME), recordMapper.collectStopwatches().keys)
+  }
+
+  @Test
+  fun testCompiledMappersSkipFilteredOutRecords() {
+    val compiledMappers = recordMapper.compile(listOf(TestMapperConfig(TEST_MAPPER_NAME, null, null, TestConfig("field1", TestEnums.ONE, "field2"))))
+
+    val testRecord = createRecord(mutableMapOf("field1" to "value1")).apply { setInclude(false) }
+    recordMapper.applyMappers(testRecord, compiledMappers)
+
+    assertEquals(sampleRecord.data, testRecord.data)
+  }
+
   fun TestRecordAdapter.deepCopy() = TestRecordAdapter(streamDescriptor = this.streamDescriptor, data = this.data)
 
   fun createRecord(data: MutableMap<String, Any>) =
@@ -22,6 +22,8 @@ import io.airbyte.config.mapper.configs.RsaEncryptionConfig
 import io.airbyte.mappers.adapters.AirbyteRecord
 import io.airbyte.protocol.models.v0.AirbyteRecordMessageMetaChange
 import io.github.oshai.kotlinlogging.KotlinLogging
+import io.mockk.spyk
+import io.mockk.verify
 import org.junit.jupiter.api.Assertions.assertEquals
 import org.junit.jupiter.api.Assertions.assertFalse
 import org.junit.jupiter.api.Assertions.assertTrue
@@ -297,6 +299,31 @@ class EncryptionMapperTest {
     }
   }
 
+  @Test
+  fun `aes encryption is set up once per config`() {
+    val keyFactory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256")
+    val key = keyFactory.generateSecret(PBEKeySpec("my secret".toCharArray(), "salt".toByteArray(), 65536, 256))
+    val aesConfig =
+      AesEncryptionConfig(
+        algorithm = "AES",
+        targetField = "testField",
+        fieldNameSuffix = "_encrypted",
+        mode = AesMode.CBC,
+        padding = AesPadding.PKCS5Padding,
+        key = AirbyteSecret.Hydrated(key.encoded.toHexString()),
+      )
+    val config = EncryptionMapperConfig(config = aesConfig)
+    val mapper = spyk(EncryptionMapper(TEST_OBJECT_MAPPER))
+
+    repeat(3) { index ->
+      val testRecord = createRecord("testField", "something $index")
+      mapper.map(config, testRecord)
+
+      assertEquals("something $index", decryptAES(testRecord.get("testField_encrypted").asString(), aesConfig, key))
+    }
+    verify(exactly = 1) { mapper.compileForNonDiscardedRecords(config) }
+  }
+
   @Test
   fun `test in-place encryption`() {
     val keyFactory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256")
@@ -355,6 +382,81 @@ class EncryptionMapperTest {
     }
   }
 
+  @Test
+  fun `compiled aes encryption can be reused across records and threads`() {
+    val keyFactory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256")
+    val key = keyFactory.generateSecret(PBEKeySpec("my secret".toCharArray(), "salt".toByteArray(), 65536, 256))
+    val aesConfig =
+      AesEncryptionConfig(
+        algorithm = "AES",
+        targetField = "testField",
+        fieldNameSuffix = "_encrypted",
+        mode = AesMode.CBC,
+        padding = AesPadding.PKCS5Padding,
+        key = AirbyteSecret.Hydrated(key.encoded.toHexString()),
+      )
+    val compiledMapper = encryptionMapper.compile(EncryptionMapperConfig(config = aesConfig))
+
+    val records = (0 until 100).map { createRecord("testField", "value $it") }
+    records.parallelStream().forEach { compiledMapper.map(it) }
+
+    records.forEachIndexed { index, record ->
+      verifyRecordInvariant(record).also {
+        assertFalse(it.has("testField"))
+        assertEquals("value $index", decryptAES(it.get("testField_encrypted").asString(), aesConfig, key))
+      }
+    }
+  }
+
+  @Test
+  fun `compiled rsa encryption can be reused across records and threads`() {
+    val keyGenerator = KeyPairGenerator.getInstance("RSA")
+    keyGenerator.initialize(2048)
+    val keyPair = keyGenerator.generateKeyPair()
+    val rsaConfig =
+      RsaEncryptionConfig(
+        algorithm = "RSA",
+        targetField = "testRsa",
+        fieldNameSuffix = "_encrypted",
+        publicKey = keyPair.public.encoded.toHexString(),
+      )
+    val compiledMapper = encryptionMapper.compile(EncryptionMapperConfig(config = rsaConfig))
+
+    val records = (0 until 20).map { createRecord("testRsa", "value $it") }
+    records.parallelStream().forEach { compiledMapper.map(it) }
+
+    records.forEachIndexed { index, record ->
+      verifyRecordInvariant(record).also {
+        assertFalse(it.has("testRsa"))
+        assertEquals("value $index", decryptRSA(it.get("testRsa_encrypted").asString(), rsaConfig, keyPair.private))
+      }
+    }
+  }
+
+  @Test
+  fun `compiled encryption with an invalid config nulls out the fields`() {
+    val config =
+      EncryptionMapperConfig(
+        config =
+          AesEncryptionConfig(
+            algorithm = "AES",
+            targetField = "testField",
+            fieldNameSuffix = "_encrypted",
+            mode = AesMode.CBC,
+            padding = AesPadding.PKCS5Padding,
+            key = AirbyteSecret.Reference("not hydrated"),
+          ),
+      )
+    val compiledMapper = encryptionMapper.compile(config)
+
+    val testRecord = createRecord("testField", "something") as TestRecordAdapter
+    compiledMapper.map(testRecord)
+
+    assertFalse(testRecord.has("testField"))
+    assertFalse(testRecord.has("testField_encrypted"))
+    assertEquals("testField_encrypted", testRecord.changes.single().fieldName)
+  }
+
   @Test
   fun `testing rsa encryption schema rejects config with invalid key`() {
     val rsaConfig =
@@ -17,6 +17,7 @@ import io.airbyte.config.mapper.configs.HashingMapperConfig
 import io.airbyte.config.mapper.configs.HashingMethods
 import io.airbyte.mappers.transformations.HashingMapper.Companion.supportedMethods
 import io.mockk.spyk
+import io.mockk.verify
 import org.junit.jupiter.api.Assertions.assertEquals
 import org.junit.jupiter.api.Assertions.assertFalse
 import org.junit.jupiter.api.Assertions.assertThrows
@@ -102,6 +103,19 @@ class HashingMapperTest {
     assertEquals("value2", record.get("field2").asString())
   }
 
+  @Test
+  fun mapCompilesTheConfigOnce() {
+    val config = HashingMapperConfig(MAPPER_NAME, null, HashingConfig("field1", HashingMethods.fromValue("SHA-256")!!, "_hashed"))
+
+    repeat(3) {
+      val record = TestRecordAdapter(StreamDescriptor().withName("stream"), mutableMapOf("field1" to "value$it"))
+      hashingMapper.map(config, record)
+      assertTrue(record.has("field1_hashed"))
+    }
+
+    verify(exactly = 1) { hashingMapper.compileForNonDiscardedRecords(config) }
+  }
+
   @Test
   fun testAllMethodAreSupported() {
     val messageDigestAlgorithms = Security.getAlgorithms("MessageDigest")
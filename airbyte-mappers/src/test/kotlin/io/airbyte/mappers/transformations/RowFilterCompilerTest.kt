@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.mappers.transformations
+
+import io.airbyte.config.StreamDescriptor
+import io.airbyte.config.adapters.TestRecordAdapter
+import io.airbyte.config.mapper.configs.AndOperation
+import io.airbyte.config.mapper.configs.EqualOperation
+import io.airbyte.config.mapper.configs.NotOperation
+import io.airbyte.config.mapper.configs.Operation
+import io.airbyte.config.mapper.configs.OrOperation
+import io.airbyte.mappers.adapters.AirbyteRecord
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import kotlin.random.Random
+
+class RowFilterCompilerTest {
+  @Test
+  fun `nested conjunctions are flattened and ordered by cost`() {
+    val filter =
+      RowFilterCompiler.compile(
+        AndOperation(
+          conditions =
+            listOf(
+              OrOperation(conditions = listOf(equal("a", "1"), equal("b", "2"))),
+              AndOperation(conditions = listOf(equal("c", "3"), equal("d", "4"))),
+            ),
+        ),
+      )
+
+    assertTrue(filter is RowFilter.All)
+    val conditions = (filter as RowFilter.All).conditions
+    assertEquals(listOf(1, 1, 2), conditions.map { it.cost })
+    assertTrue(conditions.last() is RowFilter.AnyOf)
+  }
+
+  @Test
+  fun `double negations and constant branches are removed`() {
+    val notNot = RowFilterCompiler.compile(NotOperation(conditions = listOf(NotOperation(conditions = listOf(equal("a", "1"))))))
+    assertTrue(notNot is RowFilter.FieldEquals)
+
+    val emptyAnd = RowFilterCompiler.compile(AndOperation(conditions = listOf()))
+    assertTrue(emptyAnd.test(record()))
+
+    val orWithEmptyAnd = RowFilterCompiler.compile(OrOperation(conditions = listOf(equal("a", "1"), AndOperation(conditions = listOf()))))
+    assertTrue(orWithEmptyAnd is RowFilter.Constant)
+    assertTrue(orWithEmptyAnd.test(record()))
+
+    val emptyNot = RowFilterCompiler.compile(NotOperation(conditions = listOf()))
+    assertTrue(emptyNot.test(record()))
+  }
+
+  @Test
+  fun `compiled filters evaluate like the operation tree`() {
+    val random = Random(42)
+    repeat(500) {
+      val operation = randomOperation(random, depth = 3)
+      val filter = RowFilterCompiler.compile(operation)
+      repeat(10) {
+        val record = record(FIELDS.associateWith { VALUES[random.nextInt(VALUES.size)] })
+        assertEquals(eval(operation, record), filter.test(record), "$operation on $record")
+      }
+    }
+  }
+
+  @Test
+  fun `missing fields are not equal to anything`() {
+    val filter = RowFilterCompiler.compile(equal("a", "1"))
+
+    assertFalse(filter.test(record()))
+    assertTrue(filter.test(record(mapOf("a" to 1))))
+  }
+
+  private fun equal(
+    fieldName: String,
+    comparisonValue: String,
+  ) = EqualOperation(fieldName = fieldName, comparisonValue = comparisonValue)
+
+  private fun record(data: Map<String, Any> = mapOf()): AirbyteRecord = TestRecordAdapter(StreamDescriptor(), data.toMutableMap())
+
+  private fun randomOperation(
+    random: Random,
+    depth: Int,
+  ): Operation {
+    if (depth == 0 || random.nextInt(3) == 0) {
+      return equal(FIELDS[random.nextInt(FIELDS.size)], VALUES[random.nextInt(VALUES.size)].toString())
+    }
+    val conditions = List(random.nextInt(4)) { randomOperation(random, depth - 1) }
+    return when (random.nextInt(3)) {
+      0 -> AndOperation(conditions = conditions)
+      1 -> OrOperation(conditions = conditions)
+      else -> NotOperation(conditions = conditions)
+    }
+  }
+
+  // The evaluation of the operation tree before it was compiled.
+  private fun eval(
+    operation: Operation,
+    record: AirbyteRecord,
+  ): Boolean =
+    when (operation) {
+      is AndOperation -> operation.conditions.all { eval(it, record) }
+      is EqualOperation -> record.has(operation.fieldName) && record.get(operation.fieldName).asString() == operation.comparisonValue
+      is NotOperation -> operation.conditions.none { eval(it, record) }
+      is OrOperation -> operation.conditions.any { eval(it, record) }
+    }
+
+  companion object {
+    private val FIELDS = listOf("a", "b", "c")
+    private val VALUES = listOf<Any>("x", "y", 1, true)
+  }
+}
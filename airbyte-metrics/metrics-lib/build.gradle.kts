@@ -1,6 +1,7 @@
 plugins {
   id("io.airbyte.gradle.jvm.lib")
   id("io.airbyte.gradle.publish")
+  alias(libs.plugins.me.champeau.jmh)
 }
 
 dependencies {
@@ -44,6 +45,10 @@ dependencies {
   testImplementation(libs.junit.pioneer)
 }
 
+jmh {
+  jmhVersion.set(libs.versions.jmh.get())
+}
+
 tasks.named<Test>("test") {
   environment(
     mapOf(
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.metrics
+
+import io.airbyte.metrics.lib.MetricTags
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Threads
+import org.openjdk.jmh.annotations.Warmup
+import java.util.UUID
+import java.util.concurrent.TimeUnit
+
+/**
+ * Compares recording metrics through [MetricClient.count]/[MetricClient.distribution], which convert the attributes and look
+ * up the meter on every call, with recording them through the handles of [MetricClient.boundCounter]/
+ * [MetricClient.boundDistribution], with the connection attributes that the replication attaches to its metrics.
+ *
+ * Run with `./gradlew :oss:airbyte-metrics:metrics-lib:jmh`.  Adding the `gc` profiler to the `jmh` block of the build
+ * shows the allocations per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+open class MetricClientBenchmark {
+  private val metricClient = MetricClient(SimpleMeterRegistry())
+  private lateinit var attributes: Array<MetricAttribute>
+  private lateinit var counter: BoundCounter
+  private lateinit var distribution: BoundDistribution
+
+  @Setup
+  fun setup() {
+    attributes =
+      arrayOf(
+        MetricAttribute(MetricTags.CONNECTION_ID, UUID.randomUUID().toString()),
+        MetricAttribute(MetricTags.JOB_ID, "12345"),
+        MetricAttribute(MetricTags.ATTEMPT_NUMBER, "0"),
+        MetricAttribute(MetricTags.IS_RESET, "false"),
+      )
+    counter = metricClient.boundCounter(OssMetricsRegistry.STATE_PROCESSED_FROM_SOURCE, *attributes)
+    distribution = metricClient.boundDistribution(OssMetricsRegistry.NUM_ACTIVE_CONN_PER_WORKSPACE, *attributes)
+  }
+
+  @Benchmark
+  fun count() {
+    metricClient.count(OssMetricsRegistry.STATE_PROCESSED_FROM_SOURCE, 1L, *attributes)
+  }
+
+  @Benchmark
+  fun boundCount() {
+    counter.increment()
+  }
+
+  @Benchmark
+  fun distribution() {
+    metricClient.distribution(OssMetricsRegistry.NUM_ACTIVE_CONN_PER_WORKSPACE, 1.0, *attributes)
+  }
+
+  @Benchmark
+  fun boundDistribution() {
+    distribution.record(1.0)
+  }
+}
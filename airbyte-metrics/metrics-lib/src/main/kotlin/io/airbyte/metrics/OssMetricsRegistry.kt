@@ -177,6 +177,18 @@ enum class OssMetricsRegistry(
     metricName = "connector_registry_definition_processed",
     metricDescription = "increments when a connector registry definition is processed by the ApplyDefinitionsHelper",
   ),
+  CLOUD_STORAGE_APPENDER_DROPPED_EVENTS(
+    metricName = "cloud_storage_appender_dropped_events",
+    metricDescription = "the number of events dropped by the cloud storage appenders because their buffers were full",
+  ),
+  CLOUD_STORAGE_APPENDER_QUEUED_BYTES(
+    metricName = "cloud_storage_appender_queued_bytes",
+    metricDescription = "the estimated memory used by the events waiting to be uploaded by the cloud storage appenders",
+  ),
+  CLOUD_STORAGE_APPENDER_QUEUED_EVENTS(
+    metricName = "cloud_storage_appender_queued_events",
+    metricDescription = "the number of events waiting to be uploaded by the cloud storage appenders",
+  ),
   ERROR_REPORTING_EVENT_COUNT(
     metricName = "error_reporting_event_count",
     metricDescription = "whenever when we report an error event",
@@ -273,6 +285,18 @@ enum class OssMetricsRegistry(
     metricName = "schemas_unexpected_fields",
     metricDescription = "number of unexpected (top level) fields for a given stream",
   ),
+  NUM_SCHEMA_VALIDATION_RECORDS_VALIDATED(
+    metricName = "record_schema_validation_validated",
+    metricDescription = "number of records of a given stream that were fully validated against the stream schema",
+  ),
+  NUM_SCHEMA_VALIDATION_RECORDS_SAMPLED_OUT(
+    metricName = "record_schema_validation_sampled_out",
+    metricDescription = "number of records of a given stream that were only type checked against the stream schema",
+  ),
+  NUM_SCHEMA_VALIDATION_RECORDS_DROPPED(
+    metricName = "record_schema_validation_dropped",
+    metricDescription = "number of records of a given stream that were not validated because the validation queue was full",
+  ),
   NUM_TOTAL_SCHEDULED_SYNCS_IN_LAST_DAY(
     metricName = "num_total_scheduled_syncs_last_day",
     metricDescription = "number of total syncs runs in last day.",
@@ -331,6 +355,14 @@ enum class OssMetricsRegistry(
     metricName = "replication_made_progress",
     metricDescription = "Count of replication runs that made progress. To be faceted by attributes.",
   ),
+  REPLICATION_IN_FLIGHT_BYTES(
+    metricName = "replication_in_flight_bytes",
+    metricDescription = "estimated size of the messages buffered between the replication tasks",
+  ),
+  REPLICATION_STAGE_BLOCKED_TIME_MS(
+    metricName = "replication_stage_blocked_time_ms",
+    metricDescription = "milliseconds a replication task spent waiting for its input or for room for its output",
+  ),
   RESET_REQUEST(
     metricName = "reset_request",
     metricDescription = "number of requested resets",
@@ -783,6 +815,14 @@ enum class OssMetricsRegistry(
     metricName = "workload_stage_duration",
     metricDescription = "a distribution of the duration of a workload stage",
   ),
+  WORKLOAD_STAGE_QUEUE_DEPTH(
+    metricName = "workload_stage_queue_depth",
+    metricDescription = "gauge of the number of workloads waiting to run a workload stage",
+  ),
+  WORKLOAD_STAGE_QUEUE_LATENCY(
+    metricName = "workload_stage_queue_latency",
+    metricDescription = "a distribution of the time workloads waited to run a workload stage",
+  ),
   WORKLOAD_TIME_TO_TRANSITION_FROM_CREATE(
     metricName = "workload_time_to_transition_from_create",
     metricDescription = "time for a workload to transition to a given state",
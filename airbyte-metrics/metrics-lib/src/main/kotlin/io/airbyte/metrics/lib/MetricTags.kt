@@ -19,6 +19,7 @@ object MetricTags {
   const val AUTHENTICATION_RESPONSE: String = "authentication_response"
   const val AUTHENTICATION_RESPONSE_FAILURE_REASON: String = "authentication_response_failure_reason"
   const val AUTHENTICATION_REQUEST_URI_ATTRIBUTE_KEY: String = "request_uri"
+  const val BLOCKED_ON: String = "blocked_on" // input|output
   const val CANCELLATION_SOURCE: String = "cancellation_source"
   const val COMMAND: String = "command"
   const val COMMAND_STEP: String = "command_step"
@@ -63,6 +64,7 @@ object MetricTags {
   const val NOTIFICATION_CLIENT: String = "notification_client"
   const val ORGANIZATION_ID: String = "organization_id"
   const val RELEASE_STAGE: String = "release_stage"
+  const val REPLICATION_STAGE: String = "replication_stage"
   const val SECRET_COORDINATES_UPDATED: String = "secret_coordinates_updated"
   const val SOURCE_ID: String = "source_id"
   const val SOURCE_DEFINITION_ID: String = "source_definition_id"
@@ -81,6 +83,7 @@ object MetricTags {
   const val USER_TYPE: String = "user_type" // real user, service account, data plane user, etc
   const val CLIENT_ID: String = "client_id"
   const val LOG_CLIENT_TYPE: String = "log_client_type"
+  const val LOG_DROP_REASON: String = "log_drop_reason"
   const val MALFORMED_LOG_LINE_LENGTH: String = "malformed_log_line_length"
   const val PROMPT_LENGTH: String = "prompt_length"
 
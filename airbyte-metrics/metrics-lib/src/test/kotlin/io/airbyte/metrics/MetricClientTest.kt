@@ -103,6 +103,38 @@ internal class MetricClientTest {
     }
   }
 
+  @Test
+  fun testBoundCounter() {
+    val attributes = arrayOf(MetricAttribute("key", "value"), MetricAttribute("key2", "value2"))
+    val expectedTags = attributes.map { a -> Tag.of(a.key, a.value) }.toMutableList()
+    val metric = TestMetricsRegistry.TEST_INTERNAL_METRIC
+    val meterRegistry: MeterRegistry = SimpleMeterRegistry()
+    val client = MetricClient(meterRegistry)
+    val counter = client.boundCounter(metric = metric, attributes = attributes)
+
+    counter.increment()
+    counter.increment(10L)
+    client.count(metric = metric, value = 100L, attributes = attributes)
+
+    assertEquals(metric.getMetricName(), counter.counter?.id?.name)
+    assertEquals(expectedTags, counter.counter?.id?.tags)
+    assertEquals(111.0, counter.counter?.count())
+  }
+
+  @Test
+  fun testBoundCounterWithoutMeterRegistry() {
+    val attributes = arrayOf(MetricAttribute("key", "value"), MetricAttribute("key2", "value2"))
+    val metric = TestMetricsRegistry.TEST_INTERNAL_METRIC
+
+    val client = MetricClient(null)
+
+    assertDoesNotThrow {
+      val counter = client.boundCounter(metric = metric, attributes = attributes)
+      counter.increment()
+      assertNull(counter.counter)
+    }
+  }
+
   @Test
   fun testGaugeWithStateObject() {
     val attributes = arrayOf(MetricAttribute("key", "value"), MetricAttribute("key2", "value2"))
@@ -246,6 +278,37 @@ internal class MetricClientTest {
     }
   }
 
+  @Test
+  fun testBoundDistribution() {
+    val attributes = arrayOf(MetricAttribute("key", "value"), MetricAttribute("key2", "value2"))
+    val expectedTags = attributes.map { a -> Tag.of(a.key, a.value) }.toMutableList()
+    val metric = TestMetricsRegistry.TEST_INTERNAL_METRIC
+    val meterRegistry: MeterRegistry = SimpleMeterRegistry()
+    val client = MetricClient(meterRegistry)
+    val distribution = client.boundDistribution(metric = metric, attributes = attributes)
+
+    distribution.record(10.0)
+    distribution.record(20.0)
+
+    assertEquals(metric.getMetricName(), distribution.summary?.id?.name)
+    assertEquals(expectedTags, distribution.summary?.id?.tags)
+    assertEquals(2L, distribution.summary?.count())
+    assertEquals(15.0, distribution.summary?.mean())
+  }
+
+  @Test
+  fun testBoundDistributionWithoutMeterRegistry() {
+    val metric = TestMetricsRegistry.TEST_INTERNAL_METRIC
+
+    val client = MetricClient(null)
+
+    assertDoesNotThrow {
+      val distribution = client.boundDistribution(metric = metric)
+      distribution.record(10.0)
+      assertNull(distribution.summary)
+    }
+  }
+
   @Test
   fun testTimer() {
     val attributes = arrayOf(MetricAttribute("key", "value"), MetricAttribute("key2", "value2"))
@@ -7,6 +7,7 @@ package io.airbyte.server.apis.controllers
 import io.airbyte.api.generated.StreamStatusesApi
 import io.airbyte.api.model.generated.ConnectionIdRequestBody
 import io.airbyte.api.model.generated.Pagination
+import io.airbyte.api.model.generated.StreamStatusBatchRequestBody
 import io.airbyte.api.model.generated.StreamStatusCreateRequestBody
 import io.airbyte.api.model.generated.StreamStatusIncompleteRunCause
 import io.airbyte.api.model.generated.StreamStatusListRequestBody
@@ -54,6 +55,18 @@ class StreamStatusesApiController(
     return handler.updateStreamStatus(req)
   }
 
+  @Secured(AuthRoleConstants.ADMIN, AuthRoleConstants.DATAPLANE)
+  @ExecuteOn(AirbyteTaskExecutors.IO)
+  @Post(uri = "/batch")
+  override fun createOrUpdateStreamStatuses(
+    @Body req: StreamStatusBatchRequestBody,
+  ): StreamStatusReadList {
+    req.streamStatusesToCreate?.forEach { Validations.validate(it.runState, it.incompleteRunCause) }
+    req.streamStatusesToUpdate?.forEach { Validations.validate(it.runState, it.incompleteRunCause) }
+
+    return handler.createOrUpdateStreamStatuses(req)
+  }
+
   @Secured(AuthRoleConstants.WORKSPACE_READER, AuthRoleConstants.ORGANIZATION_READER)
   @ExecuteOn(AirbyteTaskExecutors.IO)
   @Post(uri = "/list")
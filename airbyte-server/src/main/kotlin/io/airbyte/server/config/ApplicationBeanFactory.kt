@@ -37,11 +37,16 @@ import io.airbyte.featureflag.FeatureFlagClient
 import io.airbyte.featureflag.Flag
 import io.airbyte.featureflag.LogConnectorMessages
 import io.airbyte.featureflag.LogStateMsgs
+import io.airbyte.featureflag.MapperParallelism
 import io.airbyte.featureflag.PrintLongRecordPks
+import io.airbyte.featureflag.RecordPassthrough
 import io.airbyte.featureflag.RemoveValidationLimit
 import io.airbyte.featureflag.ReplicationBufferOverride
+import io.airbyte.featureflag.ReplicationChunkSizeOverride
+import io.airbyte.featureflag.ReplicationMemoryBudgetHeapPercent
 import io.airbyte.featureflag.ShouldFailSyncIfHeartbeatFailure
 import io.airbyte.featureflag.ShouldFailSyncOnDestinationTimeout
+import io.airbyte.featureflag.StreamingMessageDeserializer
 import io.airbyte.featureflag.WorkloadHeartbeatRate
 import io.airbyte.featureflag.WorkloadHeartbeatTimeout
 import io.airbyte.metrics.MetricClient
@@ -253,11 +258,16 @@ class ApplicationBeanFactory {
         FailSyncOnInvalidChecksum,
         LogConnectorMessages,
         LogStateMsgs,
+        MapperParallelism,
         PrintLongRecordPks,
+        RecordPassthrough,
         RemoveValidationLimit,
         ReplicationBufferOverride,
+        ReplicationChunkSizeOverride,
+        ReplicationMemoryBudgetHeapPercent,
         ShouldFailSyncIfHeartbeatFailure,
         ShouldFailSyncOnDestinationTimeout,
+        StreamingMessageDeserializer,
         WorkloadHeartbeatRate,
         WorkloadHeartbeatTimeout,
       )
@@ -9,6 +9,7 @@ import io.airbyte.api.model.generated.ConnectionSyncResultRead
 import io.airbyte.api.model.generated.ConnectionUptimeHistoryRequestBody
 import io.airbyte.api.model.generated.JobStatus
 import io.airbyte.api.model.generated.JobSyncResultRead
+import io.airbyte.api.model.generated.StreamStatusBatchRequestBody
 import io.airbyte.api.model.generated.StreamStatusCreateRequestBody
 import io.airbyte.api.model.generated.StreamStatusIncompleteRunCause
 import io.airbyte.api.model.generated.StreamStatusListRequestBody
@@ -22,6 +23,7 @@ import io.airbyte.config.Job
 import io.airbyte.persistence.job.JobPersistence
 import io.airbyte.server.handlers.apidomainmapping.StreamStatusesMapper
 import io.airbyte.server.repositories.StreamStatusesRepository
+import io.micronaut.transaction.annotation.Transactional
 import jakarta.inject.Singleton
 import java.io.IOException
 
@@ -51,6 +53,18 @@ open class StreamStatusesHandler(
     return mapper.map(saved)
   }
 
+  /**
+   * Creates and updates the stream statuses of the batch in a single transaction, the creations first. The returned
+   * stream statuses are in the order of the request.
+   */
+  @Transactional("config")
+  open fun createOrUpdateStreamStatuses(req: StreamStatusBatchRequestBody): StreamStatusReadList {
+    val created = repo.saveAll(req.streamStatusesToCreate.orEmpty().map { mapper.map(it) })
+    val updated = repo.updateAll(req.streamStatusesToUpdate.orEmpty().map { mapper.map(it) })
+
+    return StreamStatusReadList().streamStatuses((created + updated).map { mapper.map(it) })
+  }
+
   fun listStreamStatus(req: StreamStatusListRequestBody): StreamStatusReadList {
     val filters = mapper.map(req)
 
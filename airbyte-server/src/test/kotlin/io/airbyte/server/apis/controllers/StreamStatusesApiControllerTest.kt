@@ -6,6 +6,7 @@ package io.airbyte.server.apis.controllers
 
 import io.airbyte.api.model.generated.ConnectionIdRequestBody
 import io.airbyte.api.model.generated.Pagination
+import io.airbyte.api.model.generated.StreamStatusBatchRequestBody
 import io.airbyte.api.model.generated.StreamStatusCreateRequestBody
 import io.airbyte.api.model.generated.StreamStatusIncompleteRunCause
 import io.airbyte.api.model.generated.StreamStatusJobType
@@ -41,6 +42,7 @@ import kotlin.random.Random
 private const val PATH_BASE = "/api/v1/stream_statuses"
 private const val PATH_CREATE = "$PATH_BASE/create"
 private const val PATH_UPDATE = "$PATH_BASE/update"
+private const val PATH_BATCH = "$PATH_BASE/batch"
 private const val PATH_LIST = "$PATH_BASE/list"
 private const val PATH_LATEST_PER_RUN_STATE = "$PATH_BASE/latest_per_run_state"
 
@@ -106,6 +108,34 @@ internal class StreamStatusesApiControllerTest {
     assertStatus(HttpStatus.BAD_REQUEST, client.statusException(HttpRequest.POST(PATH_UPDATE, invalid)))
   }
 
+  @Test
+  fun testBatchSuccessful() {
+    every { handler.createOrUpdateStreamStatuses(any()) } returns StreamStatusReadList()
+
+    val valid =
+      StreamStatusBatchRequestBody()
+        .streamStatusesToCreate(listOf(validCreate()))
+        .streamStatusesToUpdate(listOf(validUpdate()))
+
+    assertStatus(HttpStatus.OK, client.status(HttpRequest.POST(PATH_BATCH, valid)))
+  }
+
+  @ParameterizedTest
+  @MethodSource("invalidRunStateCauseMatrix")
+  fun testBatchIncompleteRunCauseRunStateInvariant(
+    state: StreamStatusRunState?,
+    incompleteCause: StreamStatusIncompleteRunCause?,
+  ) {
+    every { handler.createOrUpdateStreamStatuses(any()) } returns StreamStatusReadList()
+
+    val invalid =
+      StreamStatusBatchRequestBody()
+        .streamStatusesToCreate(listOf(validCreate()))
+        .streamStatusesToUpdate(listOf(validUpdate().runState(state).incompleteRunCause(incompleteCause)))
+
+    assertStatus(HttpStatus.BAD_REQUEST, client.statusException(HttpRequest.POST(PATH_BATCH, invalid)))
+  }
+
   @ParameterizedTest
   @MethodSource("validPaginationMatrix")
   fun testListSuccessful(pagination: Pagination?) {
@@ -9,6 +9,7 @@ import io.airbyte.api.model.generated.ConnectionSyncResultRead
 import io.airbyte.api.model.generated.ConnectionUptimeHistoryRequestBody
 import io.airbyte.api.model.generated.JobConfigType
 import io.airbyte.api.model.generated.JobSyncResultRead
+import io.airbyte.api.model.generated.StreamStatusBatchRequestBody
 import io.airbyte.api.model.generated.StreamStatusCreateRequestBody
 import io.airbyte.api.model.generated.StreamStatusListRequestBody
 import io.airbyte.api.model.generated.StreamStatusRead
@@ -102,6 +103,41 @@ internal class StreamStatusesHandlerTest {
     Assertions.assertSame(apiResp, handler!!.updateStreamStatus(apiReq))
   }
 
+  @Test
+  fun testCreateOrUpdateBatch() {
+    val createReq = StreamStatusCreateRequestBody()
+    val updateReq = StreamStatusUpdateRequestBody()
+    val createdDomain = StreamStatusBuilder().streamName("created").build()
+    val updatedDomain = StreamStatusBuilder().streamName("updated").build()
+    val createdResp = StreamStatusRead().streamName("created")
+    val updatedResp = StreamStatusRead().streamName("updated")
+
+    Mockito
+      .`when`(mapper!!.map(createReq))
+      .thenReturn(createdDomain)
+    Mockito
+      .`when`(mapper!!.map(updateReq))
+      .thenReturn(updatedDomain)
+    Mockito
+      .`when`(repo!!.saveAll(listOf(createdDomain)))
+      .thenReturn(listOf(createdDomain))
+    Mockito
+      .`when`(repo!!.updateAll(listOf(updatedDomain)))
+      .thenReturn(listOf(updatedDomain))
+    Mockito
+      .`when`(mapper!!.map(createdDomain))
+      .thenReturn(createdResp)
+    Mockito
+      .`when`(mapper!!.map(updatedDomain))
+      .thenReturn(updatedResp)
+
+    val req = StreamStatusBatchRequestBody().streamStatusesToCreate(listOf(createReq)).streamStatusesToUpdate(listOf(updateReq))
+    Assertions.assertEquals(
+      StreamStatusReadList().streamStatuses(listOf<@Valid StreamStatusRead?>(createdResp, updatedResp)),
+      handler!!.createOrUpdateStreamStatuses(req),
+    )
+  }
+
   @Test
   fun testList() {
     val apiReq = StreamStatusListRequestBody()
@@ -9,11 +9,16 @@ import io.airbyte.featureflag.DestinationTimeoutSeconds
 import io.airbyte.featureflag.FailSyncOnInvalidChecksum
 import io.airbyte.featureflag.LogConnectorMessages
 import io.airbyte.featureflag.LogStateMsgs
+import io.airbyte.featureflag.MapperParallelism
 import io.airbyte.featureflag.PrintLongRecordPks
+import io.airbyte.featureflag.RecordPassthrough
 import io.airbyte.featureflag.RemoveValidationLimit
 import io.airbyte.featureflag.ReplicationBufferOverride
+import io.airbyte.featureflag.ReplicationChunkSizeOverride
+import io.airbyte.featureflag.ReplicationMemoryBudgetHeapPercent
 import io.airbyte.featureflag.ShouldFailSyncIfHeartbeatFailure
 import io.airbyte.featureflag.ShouldFailSyncOnDestinationTimeout
+import io.airbyte.featureflag.StreamingMessageDeserializer
 import io.airbyte.featureflag.WorkloadHeartbeatRate
 import io.airbyte.featureflag.WorkloadHeartbeatTimeout
 import io.airbyte.workers.models.ReplicationFeatureFlags
@@ -50,11 +55,16 @@ class ApplicationBeanFactory {
         FailSyncOnInvalidChecksum,
         LogConnectorMessages,
         LogStateMsgs,
+        MapperParallelism,
         PrintLongRecordPks,
+        RecordPassthrough,
         RemoveValidationLimit,
         ReplicationBufferOverride,
+        ReplicationChunkSizeOverride,
+        ReplicationMemoryBudgetHeapPercent,
         ShouldFailSyncIfHeartbeatFailure,
         ShouldFailSyncOnDestinationTimeout,
+        StreamingMessageDeserializer,
         WorkloadHeartbeatRate,
         WorkloadHeartbeatTimeout,
       )
@@ -12,6 +12,7 @@ import io.airbyte.workers.workload.WorkloadConstants.WORKLOAD_CANCELLED_BY_USER_
 import io.airbyte.workers.workload.WorkloadOutputWriter
 import io.airbyte.workload.api.client.WorkloadApiClient
 import io.airbyte.workload.api.domain.Workload
+import io.airbyte.workload.api.domain.WorkloadAwaitRequest
 import io.airbyte.workload.api.domain.WorkloadCancelRequest
 import io.airbyte.workload.api.domain.WorkloadCreateRequest
 import io.airbyte.workload.api.domain.WorkloadStatus
@@ -37,6 +38,9 @@ class WorkloadClient(
   companion object {
     const val CANCELLATION_SOURCE_STR = "Cancellation callback."
     val TERMINAL_STATUSES = setOf(WorkloadStatus.SUCCESS, WorkloadStatus.FAILURE, WorkloadStatus.CANCELLED)
+
+    // Maximum time the workload API holds a long poll, it is capped on the server side.
+    const val AWAIT_TIMEOUT_SECONDS = 30L
   }
 
   fun createWorkload(workloadCreateRequest: WorkloadCreateRequest) {
@@ -60,13 +64,27 @@ class WorkloadClient(
 
   fun isTerminal(workloadId: String) = isWorkloadTerminal(workloadApiClient.workloadGet(workloadId))
 
+  /**
+   * Waits for the workload to be terminal. The workload API is long polled so that we return as soon as the workload is
+   * terminal, and we fall back on polling every [pollingFrequencyInSeconds] if the long poll fails.
+   */
   fun waitForWorkload(
     workloadId: String,
     pollingFrequencyInSeconds: Int,
   ) {
     try {
       var workload = workloadApiClient.workloadGet(workloadId)
+      var longPoll = true
       while (!isWorkloadTerminal(workload)) {
+        if (longPoll) {
+          try {
+            workload = workloadApiClient.workloadAwait(WorkloadAwaitRequest(workloadId, AWAIT_TIMEOUT_SECONDS))
+            continue
+          } catch (e: ApiException) {
+            logger.warn(e) { "Failed to wait for workload $workloadId, falling back to polling." }
+            longPoll = false
+          }
+        }
         Thread.sleep(pollingFrequencyInSeconds.seconds.inWholeMilliseconds)
         workload = workloadApiClient.workloadGet(workloadId)
       }
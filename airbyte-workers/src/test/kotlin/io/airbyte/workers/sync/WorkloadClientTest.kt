@@ -4,6 +4,7 @@
 
 package io.airbyte.workers.sync
 
+import io.airbyte.api.client.ApiException
 import io.airbyte.commons.temporal.HeartbeatUtils
 import io.airbyte.config.WorkloadPriority
 import io.airbyte.config.WorkloadType
@@ -11,8 +12,11 @@ import io.airbyte.workers.sync.WorkloadClient.Companion.CANCELLATION_SOURCE_STR
 import io.airbyte.workers.workload.WorkloadConstants.WORKLOAD_CANCELLED_BY_USER_REASON
 import io.airbyte.workers.workload.WorkloadOutputWriter
 import io.airbyte.workload.api.client.WorkloadApiClient
+import io.airbyte.workload.api.domain.Workload
+import io.airbyte.workload.api.domain.WorkloadAwaitRequest
 import io.airbyte.workload.api.domain.WorkloadCancelRequest
 import io.airbyte.workload.api.domain.WorkloadCreateRequest
+import io.airbyte.workload.api.domain.WorkloadStatus
 import io.mockk.every
 import io.mockk.mockk
 import io.mockk.mockkStatic
@@ -103,4 +107,28 @@ class WorkloadClientTest {
     verify { client.createWorkload(createReq) }
     verify { client.waitForWorkload(createReq.workloadId, checkFreqSecs) }
   }
+
+  @Test
+  fun `waitForWorkload long polls the workload until it is terminal`() {
+    every { workloadApiClient.workloadGet("workloadId") } returns workload(WorkloadStatus.RUNNING)
+    every { workloadApiClient.workloadAwait(any()) } returnsMany listOf(workload(WorkloadStatus.RUNNING), workload(WorkloadStatus.SUCCESS))
+
+    client.waitForWorkload("workloadId", 1000)
+
+    verify(exactly = 1) { workloadApiClient.workloadGet("workloadId") }
+    verify(exactly = 2) { workloadApiClient.workloadAwait(WorkloadAwaitRequest("workloadId", WorkloadClient.AWAIT_TIMEOUT_SECONDS)) }
+  }
+
+  @Test
+  fun `waitForWorkload falls back to polling if the long poll fails`() {
+    every { workloadApiClient.workloadGet("workloadId") } returnsMany listOf(workload(WorkloadStatus.RUNNING), workload(WorkloadStatus.FAILURE))
+    every { workloadApiClient.workloadAwait(any()) } throws ApiException(404, "http://localhost/await", "Not Found")
+
+    client.waitForWorkload("workloadId", 0)
+
+    verify(exactly = 2) { workloadApiClient.workloadGet("workloadId") }
+    verify(exactly = 1) { workloadApiClient.workloadAwait(any()) }
+  }
+
+  private fun workload(status: WorkloadStatus): Workload = mockk { every { this@mockk.status } returns status }
 }
@@ -16,6 +16,7 @@ import io.airbyte.workload.api.domain.ExpiredDeadlineWorkloadListRequest
 import io.airbyte.workload.api.domain.KnownExceptionInfo
 import io.airbyte.workload.api.domain.LongRunningWorkloadRequest
 import io.airbyte.workload.api.domain.Workload
+import io.airbyte.workload.api.domain.WorkloadAwaitRequest
 import io.airbyte.workload.api.domain.WorkloadCancelRequest
 import io.airbyte.workload.api.domain.WorkloadClaimRequest
 import io.airbyte.workload.api.domain.WorkloadCreateRequest
@@ -28,6 +29,7 @@ import io.airbyte.workload.api.domain.WorkloadListActiveResponse
 import io.airbyte.workload.api.domain.WorkloadListRequest
 import io.airbyte.workload.api.domain.WorkloadListResponse
 import io.airbyte.workload.api.domain.WorkloadQueueCleanLimit
+import io.airbyte.workload.api.domain.WorkloadQueueLongPollRequest
 import io.airbyte.workload.api.domain.WorkloadQueuePollRequest
 import io.airbyte.workload.api.domain.WorkloadQueueQueryRequest
 import io.airbyte.workload.api.domain.WorkloadQueueStatsResponse
@@ -59,7 +61,9 @@ import jakarta.ws.rs.PUT
 import jakarta.ws.rs.Path
 import jakarta.ws.rs.PathParam
 import jakarta.ws.rs.Produces
+import java.time.Duration
 import java.util.UUID
+import java.util.concurrent.CompletableFuture
 
 @Controller("/api/v1/workload")
 @Secured(SecurityRule.IS_AUTHENTICATED)
@@ -135,6 +139,7 @@ open class WorkloadApi(
       workloadCreateRequest.priority,
       workloadCreateRequest.dataplaneGroup,
     )
+    workloadCreateRequest.dataplaneGroup?.let { workloadHandler.notifyWorkloadEnqueued(it) }
     return HttpResponse.status(HttpStatus.NO_CONTENT)
   }
 
@@ -393,6 +398,38 @@ open class WorkloadApi(
     return workloadHandler.getWorkload(workloadId)
   }
 
+  @POST
+  @Path("/await")
+  @Consumes("application/json")
+  @Produces("application/json")
+  @Operation(summary = "Wait for a workload to reach a terminal status", tags = ["workload"])
+  @ApiResponses(
+    value = [
+      ApiResponse(
+        responseCode = "200",
+        description = "The workload, once terminal or as it is when the wait timed out.",
+        content = [Content(schema = Schema(implementation = Workload::class))],
+      ),
+      ApiResponse(
+        responseCode = "404",
+        description = "Workload with given id was not found.",
+        content = [Content(schema = Schema(implementation = KnownExceptionInfo::class))],
+      ),
+    ],
+  )
+  fun workloadAwait(
+    @RequestBody(
+      content = [Content(schema = Schema(implementation = WorkloadAwaitRequest::class))],
+    ) @Body workloadAwaitRequest: WorkloadAwaitRequest,
+  ): CompletableFuture<Workload> {
+    ApmTraceUtils.addTagsToTrace(mutableMapOf(MetricTags.WORKLOAD_ID_TAG to workloadAwaitRequest.workloadId))
+    authorize(workloadId = workloadAwaitRequest.workloadId)
+    return workloadHandler.awaitWorkloadTerminal(
+      workloadAwaitRequest.workloadId,
+      Duration.ofSeconds(workloadAwaitRequest.timeoutSeconds.coerceIn(0, MAX_AWAIT_TIMEOUT_SECONDS)),
+    )
+  }
+
   @PUT
   @Path("/heartbeat")
   @Status(HttpStatus.NO_CONTENT)
@@ -601,6 +638,40 @@ open class WorkloadApi(
     return WorkloadListResponse(workloads)
   }
 
+  @POST
+  @Path("/queue/long_poll")
+  @Consumes("application/json")
+  @Produces("application/json")
+  @Operation(summary = "Poll for workloads to process, waiting for a workload to be enqueued if there is none", tags = ["workload"])
+  @ApiResponses(
+    value = [
+      ApiResponse(
+        responseCode = "200",
+        description = "The workloads polled, possibly none if the wait timed out.",
+        content = [Content(schema = Schema(implementation = WorkloadListResponse::class))],
+      ),
+    ],
+  )
+  fun longPollWorkloadQueue(
+    @RequestBody(
+      content = [Content(schema = Schema(implementation = WorkloadQueueLongPollRequest::class))],
+    ) @Body req: WorkloadQueueLongPollRequest,
+  ): CompletableFuture<WorkloadListResponse> {
+    ApmTraceUtils.addTagsToTrace(
+      mutableMapOf(
+        MetricTags.DATA_PLANE_GROUP_TAG to req.dataplaneGroup,
+      ),
+    )
+    authorize(dataplaneGroup = req.dataplaneGroup)
+    return workloadHandler
+      .longPollWorkloadQueue(
+        req.dataplaneGroup,
+        req.priority,
+        req.quantity,
+        Duration.ofSeconds(req.timeoutSeconds.coerceIn(0, MAX_AWAIT_TIMEOUT_SECONDS)),
+      ).thenApply { WorkloadListResponse(it) }
+  }
+
   @POST
   @Path("/queue/depth")
   @Consumes("application/json")
@@ -626,7 +697,7 @@ open class WorkloadApi(
       ),
     )
     authorize(dataplaneGroup = req.dataplaneGroup)
-    val count = workloadHandler.countWorkloadQueueDepth(req.dataplaneGroup, req.priority)
+    val count = workloadHandler.countWorkloadQueueDepth(req.dataplaneGroup, req.priority, req.workloadType)
     return WorkloadDepthResponse(count)
   }
 
@@ -704,4 +775,9 @@ open class WorkloadApi(
 
     req.requireRole(AuthRoleConstants.DATAPLANE)
   }
+
+  companion object {
+    // Long polls are bounded so that they stay well below the read timeout of the clients.
+    private const val MAX_AWAIT_TIMEOUT_SECONDS = 60L
+  }
 }
@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workload.config
+
+import io.micronaut.context.annotation.ConfigurationProperties
+
+/**
+ * Micronaut configured properties of the workload queue polling.
+ *
+ * The weights set the share of each workload type (lane) in a poll when several lanes have workloads enqueued, e.g. with
+ * a sync weight of 4 and a check weight of 1, a poll returns up to 4 syncs for 1 check. The partitions split the queue so
+ * that concurrent polls mostly touch disjoint rows, 1 disables the partitioning.
+ */
+@ConfigurationProperties("airbyte.workload-api.queue")
+class WorkloadQueueConfig {
+  var partitions: Int = 1
+  var syncWeight: Int = 4
+  var checkWeight: Int = 1
+  var discoverWeight: Int = 1
+  var specWeight: Int = 1
+}
@@ -10,8 +10,10 @@ import io.airbyte.workload.api.domain.Workload
 import io.airbyte.workload.api.domain.WorkloadLabel
 import io.airbyte.workload.api.domain.WorkloadQueueStats
 import jakarta.transaction.Transactional
+import java.time.Duration
 import java.time.OffsetDateTime
 import java.util.UUID
+import java.util.concurrent.CompletableFuture
 
 /**
  * In order to mock a class it needs to be open. We have added this interface to avoid making [WorkloadHandler] an open class.
@@ -91,6 +93,14 @@ interface WorkloadHandler {
     deadline: OffsetDateTime,
   )
 
+  /**
+   * Returns the workload once it reached a terminal status, or as it is after the timeout.
+   */
+  fun awaitWorkloadTerminal(
+    workloadId: String,
+    timeout: Duration,
+  ): CompletableFuture<Workload>
+
   fun getWorkloadsRunningCreatedBefore(
     dataplaneId: List<String>?,
     workloadType: List<ApiWorkloadType>?,
@@ -103,9 +113,29 @@ interface WorkloadHandler {
     quantity: Int,
   ): List<Workload>
 
+  /**
+   * Polls the queue, and if it is empty, waits for a workload to be enqueued in the dataplane group or for the timeout
+   * before polling again. The result may be empty, e.g. if the workload enqueued was of another priority.
+   */
+  fun longPollWorkloadQueue(
+    dataplaneGroup: String?,
+    priority: WorkloadPriority?,
+    quantity: Int,
+    timeout: Duration,
+  ): CompletableFuture<List<Workload>>
+
+  /**
+   * Wakes up the long polls of the dataplane group.
+   */
+  fun notifyWorkloadEnqueued(dataplaneGroup: String)
+
+  /**
+   * Counts the workloads waiting to be polled, optionally restricted to the lane of a workload type.
+   */
   fun countWorkloadQueueDepth(
     dataplaneGroup: String?,
     priority: WorkloadPriority?,
+    workloadType: WorkloadType? = null,
   ): Long
 
   fun getWorkloadQueueStats(): List<WorkloadQueueStats>
@@ -11,6 +11,7 @@ import io.airbyte.metrics.MetricClient
 import io.airbyte.workload.api.domain.Workload
 import io.airbyte.workload.api.domain.WorkloadLabel
 import io.airbyte.workload.api.domain.WorkloadQueueStats
+import io.airbyte.workload.config.WorkloadQueueConfig
 import io.airbyte.workload.errors.ConflictException
 import io.airbyte.workload.errors.InvalidStatusTransitionException
 import io.airbyte.workload.errors.NotFoundException
@@ -24,6 +25,8 @@ import jakarta.inject.Singleton
 import java.time.Duration
 import java.time.OffsetDateTime
 import java.util.UUID
+import java.util.concurrent.CompletableFuture
+import kotlin.random.Random
 import io.airbyte.workload.repository.domain.Workload as DomainWorkload
 
 private val logger = KotlinLogging.logger {}
@@ -39,6 +42,9 @@ class WorkloadHandlerImpl(
   private val metricClient: MetricClient,
   private val featureFlagClient: FeatureFlagClient,
   @Property(name = "airbyte.workload-api.workload-redelivery-window") private val workloadRedeliveryWindow: Duration,
+  private val heartbeatAggregator: WorkloadHeartbeatAggregator,
+  private val workloadNotifier: WorkloadNotifier,
+  private val workloadQueueConfig: WorkloadQueueConfig,
 ) : WorkloadHandler {
   override fun getWorkload(workloadId: String): ApiWorkload = getDomainWorkload(workloadId).toApi()
 
@@ -112,6 +118,8 @@ class WorkloadHandlerImpl(
     withWorkloadServiceExceptionConverter {
       workloadService.cancelWorkload(workloadId, source, reason)
     }
+    heartbeatAggregator.evict(workloadId)
+    workloadNotifier.publish(WorkloadNotifier.STATUS_CHANNEL, workloadId)
   }
 
   override fun failWorkload(
@@ -122,12 +130,16 @@ class WorkloadHandlerImpl(
     withWorkloadServiceExceptionConverter {
       workloadService.failWorkload(workloadId, source, reason)
     }
+    heartbeatAggregator.evict(workloadId)
+    workloadNotifier.publish(WorkloadNotifier.STATUS_CHANNEL, workloadId)
   }
 
   override fun succeedWorkload(workloadId: String) {
     withWorkloadServiceExceptionConverter {
       workloadService.succeedWorkload(workloadId)
     }
+    heartbeatAggregator.evict(workloadId)
+    workloadNotifier.publish(WorkloadNotifier.STATUS_CHANNEL, workloadId)
   }
 
   override fun setWorkloadStatusToRunning(
@@ -153,10 +165,23 @@ class WorkloadHandlerImpl(
     deadline: OffsetDateTime,
   ) {
     withWorkloadServiceExceptionConverter {
-      workloadService.heartbeatWorkload(workloadId, deadline)
+      heartbeatAggregator.heartbeat(workloadId, deadline)
     }
   }
 
+  override fun awaitWorkloadTerminal(
+    workloadId: String,
+    timeout: Duration,
+  ): CompletableFuture<ApiWorkload> {
+    // Wait for the notification before reading the workload to not miss a transition in between.
+    val notification = workloadNotifier.awaitNotification(WorkloadNotifier.STATUS_CHANNEL, workloadId, timeout)
+    val workload = getDomainWorkload(workloadId)
+    if (workload.status !in WorkloadService.ACTIVE_STATUSES) {
+      return CompletableFuture.completedFuture(workload.toApi())
+    }
+    return notification.thenApply { getWorkload(workloadId) }
+  }
+
   fun offsetDateTime(): OffsetDateTime = OffsetDateTime.now()
 
   override fun getWorkloadsRunningCreatedBefore(
@@ -179,6 +204,34 @@ class WorkloadHandlerImpl(
     dataplaneGroup: String?,
     priority: WorkloadPriority?,
     quantity: Int,
+  ): List<Workload> {
+    val partitions = workloadQueueConfig.partitions.coerceIn(1, WorkloadQueueRepository.PARTITION_BUCKETS)
+    if (partitions == 1) {
+      return pollWorkloadQueuePartition(dataplaneGroup, priority, quantity, 0 until WorkloadQueueRepository.PARTITION_BUCKETS)
+    }
+
+    // Start with a random partition so that concurrent polls mostly touch disjoint rows, then top up from the whole queue.
+    val bucketsPerPartition = WorkloadQueueRepository.PARTITION_BUCKETS / partitions
+    val partition = Random.nextInt(partitions)
+    val buckets =
+      if (partition == partitions - 1) {
+        partition * bucketsPerPartition until WorkloadQueueRepository.PARTITION_BUCKETS
+      } else {
+        partition * bucketsPerPartition until (partition + 1) * bucketsPerPartition
+      }
+    val workloads = pollWorkloadQueuePartition(dataplaneGroup, priority, quantity, buckets)
+    if (workloads.size >= quantity) {
+      return workloads
+    }
+    return workloads +
+      pollWorkloadQueuePartition(dataplaneGroup, priority, quantity - workloads.size, 0 until WorkloadQueueRepository.PARTITION_BUCKETS)
+  }
+
+  private fun pollWorkloadQueuePartition(
+    dataplaneGroup: String?,
+    priority: WorkloadPriority?,
+    quantity: Int,
+    buckets: IntRange,
   ): List<Workload> {
     val domainWorkloads =
       workloadQueueRepository.pollWorkloadQueue(
@@ -186,15 +239,41 @@ class WorkloadHandlerImpl(
         priority?.toInt(),
         quantity,
         redeliveryWindowSecs = workloadRedeliveryWindow.seconds.toInt(),
+        syncWeight = workloadQueueConfig.syncWeight.coerceAtLeast(1),
+        checkWeight = workloadQueueConfig.checkWeight.coerceAtLeast(1),
+        discoverWeight = workloadQueueConfig.discoverWeight.coerceAtLeast(1),
+        specWeight = workloadQueueConfig.specWeight.coerceAtLeast(1),
+        partitionStart = buckets.first,
+        partitionEnd = buckets.last,
       )
 
     return domainWorkloads.map { it.toApi() }
   }
 
+  override fun longPollWorkloadQueue(
+    dataplaneGroup: String?,
+    priority: WorkloadPriority?,
+    quantity: Int,
+    timeout: Duration,
+  ): CompletableFuture<List<Workload>> {
+    // Wait for the notification before polling to not miss a workload enqueued in between.
+    val notification = workloadNotifier.awaitNotification(WorkloadNotifier.QUEUE_CHANNEL, dataplaneGroup, timeout)
+    val workloads = pollWorkloadQueue(dataplaneGroup, priority, quantity)
+    if (workloads.isNotEmpty()) {
+      return CompletableFuture.completedFuture(workloads)
+    }
+    return notification.thenApply { pollWorkloadQueue(dataplaneGroup, priority, quantity) }
+  }
+
+  override fun notifyWorkloadEnqueued(dataplaneGroup: String) {
+    workloadNotifier.publish(WorkloadNotifier.QUEUE_CHANNEL, dataplaneGroup)
+  }
+
   override fun countWorkloadQueueDepth(
     dataplaneGroup: String?,
     priority: WorkloadPriority?,
-  ): Long = workloadQueueRepository.countEnqueuedWorkloads(dataplaneGroup, priority?.toInt())
+    workloadType: WorkloadType?,
+  ): Long = workloadQueueRepository.countEnqueuedWorkloads(dataplaneGroup, priority?.toInt(), workloadType?.toString())
 
   override fun getWorkloadQueueStats(): List<WorkloadQueueStats> {
     val domainStats =
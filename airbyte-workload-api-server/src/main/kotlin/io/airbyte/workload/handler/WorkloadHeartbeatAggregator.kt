@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workload.handler
+
+import io.airbyte.workload.repository.WorkloadRepository
+import io.airbyte.workload.services.WorkloadService
+import io.github.oshai.kotlinlogging.KotlinLogging
+import io.micronaut.scheduling.annotation.Scheduled
+import jakarta.annotation.PreDestroy
+import jakarta.inject.Singleton
+import java.time.Duration
+import java.time.OffsetDateTime
+import java.util.concurrent.ConcurrentHashMap
+
+private val logger = KotlinLogging.logger {}
+
+/**
+ * Coalesces the heartbeats of the workloads and writes them in bulk.
+ *
+ * The first heartbeat of a workload is written right away through the [WorkloadService], so that the workload is
+ * transitioned to running and that a workload which should stop learns about it. Once a workload has successfully
+ * heartbeated, its following heartbeats are kept in memory, only the latest deadline of each workload, and written
+ * with a single update by [flush]. A workload that the bulk update didn't heartbeat is no longer expected to be running,
+ * its next heartbeat goes through the [WorkloadService] again to be rejected.
+ *
+ * The deadlines are delayed by at most the flush interval, which is much shorter than the heartbeat deadline.
+ */
+@Singleton
+class WorkloadHeartbeatAggregator(
+  private val workloadService: WorkloadService,
+  private val workloadRepository: WorkloadRepository,
+) {
+  private val pendingDeadlines = ConcurrentHashMap<String, OffsetDateTime>()
+
+  // Last time each workload that successfully heartbeated was seen.
+  private val heartbeatingWorkloads = ConcurrentHashMap<String, OffsetDateTime>()
+
+  fun heartbeat(
+    workloadId: String,
+    deadline: OffsetDateTime,
+  ) {
+    if (heartbeatingWorkloads.computeIfPresent(workloadId) { _, _ -> offsetDateTime() } != null) {
+      pendingDeadlines.merge(workloadId, deadline) { previous, next -> maxOf(previous, next) }
+      return
+    }
+
+    workloadService.heartbeatWorkload(workloadId, deadline)
+    heartbeatingWorkloads[workloadId] = offsetDateTime()
+  }
+
+  /**
+   * Forgets a workload that reached a terminal state, its next heartbeat is rejected right away.
+   */
+  fun evict(workloadId: String) {
+    heartbeatingWorkloads.remove(workloadId)
+    pendingDeadlines.remove(workloadId)
+  }
+
+  @Scheduled(fixedDelay = "\${airbyte.workload-api.heartbeat.flush-interval}")
+  @PreDestroy
+  @Synchronized
+  fun flush() {
+    val idleBefore = offsetDateTime().minus(MAX_IDLE_INTERVAL)
+    heartbeatingWorkloads.entries.removeIf { it.value.isBefore(idleBefore) }
+
+    val heartbeats = pendingDeadlines.keys.mapNotNull { workloadId -> pendingDeadlines.remove(workloadId)?.let { workloadId to it } }
+    heartbeats.chunked(MAX_BATCH_SIZE).forEach { batch ->
+      try {
+        val heartbeated = workloadRepository.heartbeats(batch.map { it.first }, batch.map { it.second }).mapTo(HashSet()) { it.id }
+        batch.filter { it.first !in heartbeated }.forEach { heartbeatingWorkloads.remove(it.first) }
+      } catch (e: Exception) {
+        logger.warn(e) { "Failed to write the heartbeats of ${batch.size} workloads, they will be retried on the next flush." }
+        batch.forEach { (workloadId, deadline) -> pendingDeadlines.merge(workloadId, deadline) { previous, next -> maxOf(previous, next) } }
+      }
+    }
+  }
+
+  fun offsetDateTime(): OffsetDateTime = OffsetDateTime.now()
+
+  companion object {
+    // Two parameters per workload, well under the limit of parameters of a Postgres statement.
+    private const val MAX_BATCH_SIZE = 1000
+
+    // A workload that stops heartbeating is past its heartbeat deadline by then.
+    private val MAX_IDLE_INTERVAL = Duration.ofMinutes(15)
+  }
+}
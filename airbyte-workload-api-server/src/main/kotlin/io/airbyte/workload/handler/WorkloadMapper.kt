@@ -106,4 +106,5 @@ fun DomainWorkloadQueueStats.toApi(): ApiWorkloadQueueStats =
     dataplaneGroup = dataplaneGroup,
     priority = priority?.let { WorkloadPriority.fromInt(it) },
     enqueuedCount = enqueuedCount,
+    workloadType = workloadType?.let { ApiWorkloadType.fromValue(it) },
   )
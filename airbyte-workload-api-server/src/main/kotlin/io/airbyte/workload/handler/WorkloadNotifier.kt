@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workload.handler
+
+import io.github.oshai.kotlinlogging.KotlinLogging
+import io.micronaut.context.annotation.Property
+import io.micronaut.scheduling.TaskExecutors
+import jakarta.annotation.PostConstruct
+import jakarta.annotation.PreDestroy
+import jakarta.inject.Named
+import jakarta.inject.Singleton
+import org.postgresql.PGConnection
+import java.sql.DriverManager
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.TimeUnit
+import javax.sql.DataSource
+import kotlin.concurrent.thread
+
+private val logger = KotlinLogging.logger {}
+
+/**
+ * Wakes up the callers waiting for a workload event: a workload reaching a terminal status on [STATUS_CHANNEL], keyed
+ * by workload id, or a workload being enqueued on [QUEUE_CHANNEL], keyed by dataplane group.
+ *
+ * Events are published with a Postgres NOTIFY, and every instance of the workload API listens to the channels on a
+ * dedicated connection, so that a caller is woken up whichever instance handled the event. A notification that is
+ * missed, e.g. while the listening connection is re-established, only delays the caller until its wait times out.
+ *
+ * The listening connection is opened outside of the connection pool, since it is held for as long as the server runs.
+ */
+@Singleton
+class WorkloadNotifier(
+  @Named("config") private val dataSource: DataSource,
+  @Named(TaskExecutors.IO) private val executor: ExecutorService,
+  @Property(name = "datasources.config.url") private val databaseUrl: String,
+  @Property(name = "datasources.config.username") private val databaseUser: String,
+  @Property(name = "datasources.config.password", defaultValue = "") private val databasePassword: String,
+) {
+  private val waiters = ConcurrentHashMap<Pair<String, String?>, MutableSet<CompletableFuture<Unit>>>()
+
+  @Volatile
+  private var running = false
+  private var listener: Thread? = null
+
+  @PostConstruct
+  fun start() {
+    running = true
+    listener = thread(name = "workload-notification-listener", isDaemon = true) { listen() }
+  }
+
+  @PreDestroy
+  fun stop() {
+    running = false
+    listener?.interrupt()
+  }
+
+  /**
+   * Returns a future that completes, on the IO executor, when the key is notified on the channel or after the timeout.
+   * A null key is woken up by any notification of the channel.
+   */
+  fun awaitNotification(
+    channel: String,
+    key: String?,
+    timeout: Duration,
+  ): CompletableFuture<Unit> {
+    val waiter = CompletableFuture<Unit>()
+    val waiterKey = channel to key
+    waiters.computeIfAbsent(waiterKey) { ConcurrentHashMap.newKeySet() }.add(waiter)
+    return waiter
+      .completeOnTimeout(Unit, timeout.toMillis(), TimeUnit.MILLISECONDS)
+      .whenComplete { _, _ -> removeWaiter(waiterKey, waiter) }
+      .thenApplyAsync({ }, executor)
+  }
+
+  /**
+   * Publishes the key on the channel. Failures are only logged, the waiters fall back on their timeout.
+   *
+   * Within a transaction, the notification is issued on the connection of the transaction, so Postgres only delivers it
+   * once the transaction commits, and drops it if the transaction rolls back. Waiters are never woken up before the
+   * change they wait for is visible.
+   */
+  fun publish(
+    channel: String,
+    key: String,
+  ) {
+    try {
+      dataSource.connection.use { connection ->
+        connection.prepareStatement("SELECT pg_notify(?, ?)").use { statement ->
+          statement.setString(1, channel)
+          statement.setString(2, key)
+          statement.execute()
+        }
+      }
+    } catch (e: Exception) {
+      logger.warn(e) { "Failed to publish $key on $channel." }
+    }
+  }
+
+  internal fun wake(
+    channel: String,
+    key: String,
+  ) {
+    waiters.remove(channel to key)?.forEach { it.complete(Unit) }
+    waiters.remove(channel to null)?.forEach { it.complete(Unit) }
+  }
+
+  private fun removeWaiter(
+    waiterKey: Pair<String, String?>,
+    waiter: CompletableFuture<Unit>,
+  ) {
+    waiters.computeIfPresent(waiterKey) { _, keyWaiters ->
+      keyWaiters.remove(waiter)
+      if (keyWaiters.isEmpty()) null else keyWaiters
+    }
+  }
+
+  private fun listen() {
+    while (running) {
+      try {
+        DriverManager.getConnection(databaseUrl, databaseUser, databasePassword).use { connection ->
+          connection.createStatement().use { statement -> CHANNELS.forEach { statement.execute("LISTEN $it") } }
+          val pgConnection = connection.unwrap(PGConnection::class.java)
+          logger.info { "Listening to workload notifications." }
+          while (running) {
+            pgConnection.getNotifications(LISTEN_TIMEOUT_MILLIS)?.forEach { wake(it.name, it.parameter) }
+          }
+        }
+      } catch (e: Exception) {
+        if (running) {
+          logger.warn(e) { "Lost the connection listening to workload notifications, reconnecting." }
+          try {
+            Thread.sleep(RECONNECT_DELAY_MILLIS)
+          } catch (ie: InterruptedException) {
+            Thread.currentThread().interrupt()
+          }
+        }
+      }
+    }
+  }
+
+  companion object {
+    const val STATUS_CHANNEL = "workload_status_updates"
+    const val QUEUE_CHANNEL = "workload_queue_updates"
+    private val CHANNELS = listOf(STATUS_CHANNEL, QUEUE_CHANNEL)
+    private const val LISTEN_TIMEOUT_MILLIS = 1000
+    private const val RECONNECT_DELAY_MILLIS = 5000L
+  }
+}
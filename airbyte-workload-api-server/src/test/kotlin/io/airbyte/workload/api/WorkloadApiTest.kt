@@ -10,12 +10,14 @@ import io.airbyte.commons.server.authorization.RoleResolver
 import io.airbyte.config.WorkloadPriority
 import io.airbyte.data.services.DataplaneGroupService
 import io.airbyte.workload.api.domain.KnownExceptionInfo
+import io.airbyte.workload.api.domain.WorkloadAwaitRequest
 import io.airbyte.workload.api.domain.WorkloadCancelRequest
 import io.airbyte.workload.api.domain.WorkloadClaimRequest
 import io.airbyte.workload.api.domain.WorkloadCreateRequest
 import io.airbyte.workload.api.domain.WorkloadFailureRequest
 import io.airbyte.workload.api.domain.WorkloadHeartbeatRequest
 import io.airbyte.workload.api.domain.WorkloadListRequest
+import io.airbyte.workload.api.domain.WorkloadQueueLongPollRequest
 import io.airbyte.workload.api.domain.WorkloadQueuePollRequest
 import io.airbyte.workload.api.domain.WorkloadQueueQueryRequest
 import io.airbyte.workload.api.domain.WorkloadRunningRequest
@@ -47,7 +49,9 @@ import jakarta.inject.Singleton
 import org.junit.jupiter.api.Assertions.assertEquals
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.assertThrows
+import java.time.Duration
 import java.util.UUID
+import java.util.concurrent.CompletableFuture
 
 @Property(name = "airbyte.workload-api.workload-redelivery-window", value = "PT30M")
 @MicronautTest(environments = [Environment.TEST])
@@ -97,6 +101,21 @@ class WorkloadApiTest(
     verify(exactly = 1) { workloadQueueService.create(any(), any(), any(), any(), any(), any(), any(), any(), any()) }
   }
 
+  @Test
+  fun `test create wakes up the long polls of the dataplane group`() {
+    val dataplaneGroup = UUID.randomUUID().toString()
+    every { workloadHandler.workloadAlreadyExists(any()) } returns false
+    every { workloadHandler.createWorkload(any(), any(), any(), any(), any(), any(), any(), any(), any(), any(), any(), any(), any()) } just Runs
+    every { workloadQueueService.create(any(), any(), any(), any(), any(), any(), any(), any(), any()) } just Runs
+    every { workloadHandler.notifyWorkloadEnqueued(dataplaneGroup) } just Runs
+    every { dataplaneGroupService.getOrganizationIdFromDataplaneGroup(any()) } returns UUID.randomUUID()
+    testEndpointStatus(
+      HttpRequest.POST("/api/v1/workload/create", Jsons.serialize(WorkloadCreateRequest(dataplaneGroup = dataplaneGroup))),
+      HttpStatus.NO_CONTENT,
+    )
+    verify(exactly = 1) { workloadHandler.notifyWorkloadEnqueued(dataplaneGroup) }
+  }
+
   @Test
   fun `test create conflict`() {
     every { workloadHandler.workloadAlreadyExists(any()) } returns true
@@ -154,6 +173,16 @@ class WorkloadApiTest(
     )
   }
 
+  @Test
+  fun `test await success`() {
+    every { workloadHandler.getWorkload(any()) } returns ApiWorkload()
+    every { workloadHandler.awaitWorkloadTerminal("1", Duration.ofSeconds(60)) } returns CompletableFuture.completedFuture(ApiWorkload())
+    testEndpointStatus(
+      HttpRequest.POST("/api/v1/workload/await", Jsons.serialize(WorkloadAwaitRequest(workloadId = "1", timeoutSeconds = 600))),
+      HttpStatus.OK,
+    )
+  }
+
   @Test
   fun `test heartbeat success`() {
     every { workloadHandler.heartbeat(any(), any()) }.returns(Unit)
@@ -329,6 +358,22 @@ class WorkloadApiTest(
     testEndpointStatus(HttpRequest.POST("/api/v1/workload/queue/poll", req), HttpStatus.OK)
   }
 
+  @Test
+  fun `long poll workloads happy path`() {
+    val req =
+      WorkloadQueueLongPollRequest(
+        dataplaneGroup = UUID.randomUUID().toString(),
+        priority = WorkloadPriority.DEFAULT,
+        quantity = 10,
+        timeoutSeconds = 600,
+      )
+
+    every { dataplaneGroupService.getOrganizationIdFromDataplaneGroup(any()) } returns UUID.randomUUID()
+    every { workloadHandler.longPollWorkloadQueue(req.dataplaneGroup, req.priority, 10, Duration.ofSeconds(60)) } returns
+      CompletableFuture.completedFuture(emptyList())
+    testEndpointStatus(HttpRequest.POST("/api/v1/workload/queue/long_poll", req), HttpStatus.OK)
+  }
+
   @Test
   fun `count queue depth happy path`() {
     val req =
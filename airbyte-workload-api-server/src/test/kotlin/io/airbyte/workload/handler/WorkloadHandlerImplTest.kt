@@ -10,9 +10,11 @@ import io.airbyte.featureflag.FeatureFlagClient
 import io.airbyte.metrics.MetricClient
 import io.airbyte.workload.api.domain.WorkloadLabel
 import io.airbyte.workload.common.DefaultDeadlineValues
+import io.airbyte.workload.config.WorkloadQueueConfig
 import io.airbyte.workload.errors.ConflictException
 import io.airbyte.workload.errors.InvalidStatusTransitionException
 import io.airbyte.workload.errors.NotFoundException
+import io.airbyte.workload.handler.WorkloadHandlerImplTest.Fixtures.DATAPLANE_GROUP
 import io.airbyte.workload.handler.WorkloadHandlerImplTest.Fixtures.DATAPLANE_ID
 import io.airbyte.workload.handler.WorkloadHandlerImplTest.Fixtures.WORKLOAD_ID
 import io.airbyte.workload.handler.WorkloadHandlerImplTest.Fixtures.workloadHandler
@@ -47,9 +49,12 @@ import org.junit.jupiter.params.provider.MethodSource
 import java.time.OffsetDateTime
 import java.util.Optional
 import java.util.UUID
+import java.util.concurrent.CompletableFuture
 import kotlin.time.Duration
 import kotlin.time.Duration.Companion.minutes
+import kotlin.time.Duration.Companion.seconds
 import kotlin.time.toJavaDuration
+import io.airbyte.workload.api.domain.WorkloadStatus as ApiWorkloadStatus
 
 class WorkloadHandlerImplTest {
   private val now: OffsetDateTime = OffsetDateTime.now()
@@ -58,6 +63,7 @@ class WorkloadHandlerImplTest {
   fun reset() {
     clearAllMocks()
     every { workloadHandler.offsetDateTime() }.returns(now)
+    Fixtures.heartbeatAggregator.evict(WORKLOAD_ID)
   }
 
   @Test
@@ -314,6 +320,81 @@ class WorkloadHandlerImplTest {
     verify(exactly = 0) { workloadQueueRepository.ackWorkloadQueueItem(WORKLOAD_ID) }
   }
 
+  @Test
+  fun `awaiting a terminal workload returns it right away`() {
+    every { Fixtures.workloadNotifier.awaitNotification(WorkloadNotifier.STATUS_CHANNEL, WORKLOAD_ID, any()) } returns CompletableFuture()
+    every { workloadRepository.findById(WORKLOAD_ID) } returns Optional.of(Fixtures.workload(status = WorkloadStatus.SUCCESS))
+
+    val result = workloadHandler.awaitWorkloadTerminal(WORKLOAD_ID, 30.seconds.toJavaDuration())
+
+    assertTrue(result.isDone)
+    assertEquals(ApiWorkloadStatus.SUCCESS, result.get().status)
+  }
+
+  @Test
+  fun `awaiting a running workload returns it once notified`() {
+    val notification = CompletableFuture<Unit>()
+    every {
+      Fixtures.workloadNotifier.awaitNotification(WorkloadNotifier.STATUS_CHANNEL, WORKLOAD_ID, 30.seconds.toJavaDuration())
+    } returns notification
+    every { workloadRepository.findById(WORKLOAD_ID) } returnsMany
+      listOf(Optional.of(Fixtures.workload(status = WorkloadStatus.RUNNING)), Optional.of(Fixtures.workload(status = WorkloadStatus.FAILURE)))
+
+    val result = workloadHandler.awaitWorkloadTerminal(WORKLOAD_ID, 30.seconds.toJavaDuration())
+    assertFalse(result.isDone)
+    notification.complete(Unit)
+
+    assertEquals(ApiWorkloadStatus.FAILURE, result.get().status)
+  }
+
+  @Test
+  fun `succeeding a workload notifies the callers waiting for it`() {
+    every { workloadService.succeedWorkload(WORKLOAD_ID) } just Runs
+
+    workloadHandler.succeedWorkload(WORKLOAD_ID)
+
+    verify(exactly = 1) { Fixtures.workloadNotifier.publish(WorkloadNotifier.STATUS_CHANNEL, WORKLOAD_ID) }
+  }
+
+  @Test
+  fun `long polling a non empty queue returns the workloads right away`() {
+    every { Fixtures.workloadNotifier.awaitNotification(WorkloadNotifier.QUEUE_CHANNEL, DATAPLANE_GROUP, any()) } returns CompletableFuture()
+    val workload = Fixtures.workload(dataplaneGroup = DATAPLANE_GROUP)
+    every {
+      workloadQueueRepository.pollWorkloadQueue(DATAPLANE_GROUP, 0, 10, any(), any(), any(), any(), any(), any(), any())
+    } returns listOf(workload)
+
+    val result = workloadHandler.longPollWorkloadQueue(DATAPLANE_GROUP, WorkloadPriority.DEFAULT, 10, 30.seconds.toJavaDuration())
+
+    assertTrue(result.isDone)
+    assertEquals(listOf(workload.toApi()), result.get())
+  }
+
+  @Test
+  fun `long polling an empty queue polls again once notified`() {
+    val notification = CompletableFuture<Unit>()
+    every { Fixtures.workloadNotifier.awaitNotification(WorkloadNotifier.QUEUE_CHANNEL, DATAPLANE_GROUP, 30.seconds.toJavaDuration()) } returns
+      notification
+    val workload = Fixtures.workload(dataplaneGroup = DATAPLANE_GROUP)
+    every {
+      workloadQueueRepository.pollWorkloadQueue(DATAPLANE_GROUP, 0, 10, any(), any(), any(), any(), any(), any(), any())
+    } returnsMany listOf(listOf(), listOf(workload))
+
+    val result = workloadHandler.longPollWorkloadQueue(DATAPLANE_GROUP, WorkloadPriority.DEFAULT, 10, 30.seconds.toJavaDuration())
+    assertFalse(result.isDone)
+    notification.complete(Unit)
+
+    assertEquals(listOf(workload.toApi()), result.get())
+    verify(exactly = 2) { workloadQueueRepository.pollWorkloadQueue(DATAPLANE_GROUP, 0, 10, any(), any(), any(), any(), any(), any(), any()) }
+  }
+
+  @Test
+  fun `notifying an enqueued workload wakes up the long polls of its dataplane group`() {
+    workloadHandler.notifyWorkloadEnqueued(DATAPLANE_GROUP)
+
+    verify(exactly = 1) { Fixtures.workloadNotifier.publish(WorkloadNotifier.QUEUE_CHANNEL, DATAPLANE_GROUP) }
+  }
+
   @Test
   fun `cancelling workload errors are converted`() {
     every { workloadService.cancelWorkload(WORKLOAD_ID, any(), any()) } throws
@@ -384,6 +465,9 @@ class WorkloadHandlerImplTest {
         mockk<MetricClient>(),
         mockk<FeatureFlagClient>(),
         Fixtures.redeliveryWindow.toJavaDuration(),
+        mockk<WorkloadHeartbeatAggregator>(),
+        mockk<WorkloadNotifier>(),
+        WorkloadQueueConfig(),
       )
     val offsetDateTime = workloadHandlerImpl.offsetDateTime()
     Thread.sleep(10)
@@ -398,13 +482,80 @@ class WorkloadHandlerImplTest {
     priority: Int,
     domainWorkloads: List<Workload>,
   ) {
-    every { workloadQueueRepository.pollWorkloadQueue(group, priority, 10, any()) }.returns(domainWorkloads)
+    every { workloadQueueRepository.pollWorkloadQueue(group, priority, 10, any(), any(), any(), any(), any(), any(), any()) }.returns(domainWorkloads)
     val result = workloadHandler.pollWorkloadQueue(group, WorkloadPriority.fromInt(priority), 10)
     val expected = domainWorkloads.map { it.toApi() }
 
     assertEquals(expected, result)
   }
 
+  @Test
+  fun `poll workloads polls the queue by lane weight`() {
+    every { workloadQueueRepository.pollWorkloadQueue(any(), any(), any(), any(), any(), any(), any(), any(), any(), any()) } returns listOf()
+
+    workloadHandler.pollWorkloadQueue(DATAPLANE_GROUP, WorkloadPriority.DEFAULT, 10)
+
+    verify {
+      workloadQueueRepository.pollWorkloadQueue(
+        DATAPLANE_GROUP,
+        0,
+        10,
+        redeliveryWindow.inWholeSeconds.toInt(),
+        syncWeight = 4,
+        checkWeight = 1,
+        discoverWeight = 1,
+        specWeight = 1,
+        partitionStart = 0,
+        partitionEnd = WorkloadQueueRepository.PARTITION_BUCKETS - 1,
+      )
+    }
+  }
+
+  @Test
+  fun `poll workloads starts with a partition and tops up from the whole queue`() {
+    Fixtures.workloadQueueConfig.partitions = 4
+    try {
+      val partitionWorkloads = (1..3).map { Fixtures.workload(id = "partition-$it", dataplaneGroup = DATAPLANE_GROUP) }
+      val queueWorkloads = (1..7).map { Fixtures.workload(id = "queue-$it", dataplaneGroup = DATAPLANE_GROUP) }
+      every { workloadQueueRepository.pollWorkloadQueue(DATAPLANE_GROUP, 0, 10, any(), any(), any(), any(), any(), any(), any()) } returns
+        partitionWorkloads
+      every {
+        workloadQueueRepository.pollWorkloadQueue(
+          DATAPLANE_GROUP,
+          0,
+          7,
+          any(),
+          any(),
+          any(),
+          any(),
+          any(),
+          0,
+          WorkloadQueueRepository.PARTITION_BUCKETS - 1,
+        )
+      } returns queueWorkloads
+
+      val result = workloadHandler.pollWorkloadQueue(DATAPLANE_GROUP, WorkloadPriority.DEFAULT, 10)
+
+      assertEquals((partitionWorkloads + queueWorkloads).map { it.toApi() }, result)
+      verify {
+        workloadQueueRepository.pollWorkloadQueue(
+          DATAPLANE_GROUP,
+          0,
+          10,
+          any(),
+          any(),
+          any(),
+          any(),
+          any(),
+          match { it % (WorkloadQueueRepository.PARTITION_BUCKETS / 4) == 0 },
+          match { (it + 1) % (WorkloadQueueRepository.PARTITION_BUCKETS / 4) == 0 },
+        )
+      }
+    } finally {
+      Fixtures.workloadQueueConfig.partitions = 1
+    }
+  }
+
   @ParameterizedTest
   @MethodSource("countPendingWorkloadMatrix")
   fun `count workload queue depth returns count of enqueued workloads (separate table enabled)`(
@@ -450,7 +601,11 @@ class WorkloadHandlerImplTest {
       )
     const val WORKLOAD_ID = "test"
     const val DATAPLANE_ID = "dataplaneId"
+    const val DATAPLANE_GROUP = "dataplaneGroup"
     val redeliveryWindow: Duration = 30.minutes
+    val heartbeatAggregator = WorkloadHeartbeatAggregator(workloadService, workloadRepository)
+    val workloadNotifier: WorkloadNotifier = mockk(relaxed = true)
+    val workloadQueueConfig = WorkloadQueueConfig()
     val workloadHandler =
       spyk(
         WorkloadHandlerImpl(
@@ -460,6 +615,9 @@ class WorkloadHandlerImplTest {
           metricClient,
           featureFlagClient,
           redeliveryWindow.toJavaDuration(),
+          heartbeatAggregator,
+          workloadNotifier,
+          workloadQueueConfig,
         ),
       )
 
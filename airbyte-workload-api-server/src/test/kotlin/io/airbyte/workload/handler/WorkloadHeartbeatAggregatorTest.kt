@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workload.handler
+
+import io.airbyte.workload.repository.WorkloadRepository
+import io.airbyte.workload.repository.domain.WorkloadStatus
+import io.airbyte.workload.repository.domain.WorkloadSummaryDTO
+import io.airbyte.workload.services.InvalidStatusTransitionException
+import io.airbyte.workload.services.WorkloadService
+import io.mockk.Runs
+import io.mockk.every
+import io.mockk.just
+import io.mockk.mockk
+import io.mockk.spyk
+import io.mockk.verify
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.ValueSource
+import java.time.OffsetDateTime
+
+class WorkloadHeartbeatAggregatorTest {
+  private val now: OffsetDateTime = OffsetDateTime.now()
+  private lateinit var workloadService: WorkloadService
+  private lateinit var workloadRepository: WorkloadRepository
+  private lateinit var aggregator: WorkloadHeartbeatAggregator
+
+  @BeforeEach
+  fun setup() {
+    workloadService = mockk()
+    every { workloadService.heartbeatWorkload(any(), any()) } just Runs
+    workloadRepository = mockk()
+    every { workloadRepository.heartbeats(any(), any()) } answers { firstArg<List<String>>().map { summary(it) } }
+    aggregator = spyk(WorkloadHeartbeatAggregator(workloadService, workloadRepository))
+    every { aggregator.offsetDateTime() } returns now
+  }
+
+  @Test
+  fun `the first heartbeat of a workload is written right away`() {
+    aggregator.heartbeat(WORKLOAD_ID, now.plusMinutes(10))
+
+    verify(exactly = 1) { workloadService.heartbeatWorkload(WORKLOAD_ID, now.plusMinutes(10)) }
+    aggregator.flush()
+    verify(exactly = 0) { workloadRepository.heartbeats(any(), any()) }
+  }
+
+  @Test
+  fun `the following heartbeats are coalesced and written on flush with the latest deadline`() {
+    aggregator.heartbeat(WORKLOAD_ID, now.plusMinutes(10))
+    aggregator.heartbeat(WORKLOAD_ID, now.plusMinutes(12))
+    aggregator.heartbeat(WORKLOAD_ID, now.plusMinutes(11))
+    aggregator.flush()
+
+    verify(exactly = 1) { workloadService.heartbeatWorkload(any(), any()) }
+    verify(exactly = 1) { workloadRepository.heartbeats(listOf(WORKLOAD_ID), listOf(now.plusMinutes(12))) }
+  }
+
+  @Test
+  fun `a rejected first heartbeat is rethrown and not buffered`() {
+    every { workloadService.heartbeatWorkload(WORKLOAD_ID, any()) } throws InvalidStatusTransitionException("oops")
+
+    assertThrows<InvalidStatusTransitionException> { aggregator.heartbeat(WORKLOAD_ID, now) }
+    assertThrows<InvalidStatusTransitionException> { aggregator.heartbeat(WORKLOAD_ID, now) }
+    aggregator.flush()
+
+    verify(exactly = 0) { workloadRepository.heartbeats(any(), any()) }
+  }
+
+  @Test
+  fun `a workload that wasn't heartbeated by the flush is checked again on its next heartbeat`() {
+    aggregator.heartbeat(WORKLOAD_ID, now)
+    aggregator.heartbeat(WORKLOAD_ID, now)
+    every { workloadRepository.heartbeats(any(), any()) } returns listOf()
+    aggregator.flush()
+    every { workloadService.heartbeatWorkload(WORKLOAD_ID, any()) } throws InvalidStatusTransitionException("oops")
+
+    assertThrows<InvalidStatusTransitionException> { aggregator.heartbeat(WORKLOAD_ID, now) }
+  }
+
+  @Test
+  fun `an evicted workload is checked again on its next heartbeat`() {
+    aggregator.heartbeat(WORKLOAD_ID, now)
+    aggregator.heartbeat(WORKLOAD_ID, now)
+    aggregator.evict(WORKLOAD_ID)
+    aggregator.flush()
+    aggregator.heartbeat(WORKLOAD_ID, now)
+
+    verify(exactly = 0) { workloadRepository.heartbeats(any(), any()) }
+    verify(exactly = 2) { workloadService.heartbeatWorkload(WORKLOAD_ID, any()) }
+  }
+
+  @Test
+  fun `heartbeats are retried on the next flush if the write fails`() {
+    aggregator.heartbeat(WORKLOAD_ID, now)
+    aggregator.heartbeat(WORKLOAD_ID, now.plusMinutes(10))
+    every { workloadRepository.heartbeats(any(), any()) } throws RuntimeException("db down") andThenAnswer { listOf(summary(WORKLOAD_ID)) }
+
+    aggregator.flush()
+    aggregator.flush()
+
+    verify(exactly = 2) { workloadRepository.heartbeats(listOf(WORKLOAD_ID), listOf(now.plusMinutes(10))) }
+  }
+
+  @Test
+  fun `idle workloads are forgotten`() {
+    aggregator.heartbeat(WORKLOAD_ID, now)
+    every { aggregator.offsetDateTime() } returns now.plusHours(1)
+    aggregator.flush()
+    aggregator.heartbeat(WORKLOAD_ID, now)
+
+    verify(exactly = 2) { workloadService.heartbeatWorkload(WORKLOAD_ID, any()) }
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = [10, 1000, 5000])
+  fun `writes scale with the number of flushes rather than the number of heartbeats`(workloadCount: Int) {
+    val workloadIds = (0 until workloadCount).map { "workload-$it" }
+
+    repeat(HEARTBEATS_PER_WORKLOAD) { heartbeat ->
+      workloadIds.forEach { aggregator.heartbeat(it, now.plusMinutes(heartbeat.toLong())) }
+      aggregator.flush()
+    }
+
+    // One single row write for the first heartbeat of each workload, then one bulk write per flush and batch.
+    val batchesPerFlush = (workloadCount + 999) / 1000
+    verify(exactly = workloadCount) { workloadService.heartbeatWorkload(any(), any()) }
+    verify(exactly = (HEARTBEATS_PER_WORKLOAD - 1) * batchesPerFlush) { workloadRepository.heartbeats(any(), any()) }
+  }
+
+  private fun summary(workloadId: String) = WorkloadSummaryDTO(id = workloadId, status = WorkloadStatus.RUNNING)
+
+  companion object {
+    private const val WORKLOAD_ID = "workload-id"
+    private const val HEARTBEATS_PER_WORKLOAD = 10
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workload.handler
+
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.verify
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import java.sql.Connection
+import java.sql.PreparedStatement
+import java.time.Duration
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import javax.sql.DataSource
+
+class WorkloadNotifierTest {
+  private val executor = Executors.newSingleThreadExecutor()
+  private val statement: PreparedStatement = mockk(relaxed = true)
+  private val connection: Connection =
+    mockk(relaxed = true) {
+      every { prepareStatement(any()) } returns statement
+    }
+  private val dataSource: DataSource = mockk { every { connection } returns this@WorkloadNotifierTest.connection }
+  private val notifier = WorkloadNotifier(dataSource, executor, "jdbc:postgresql://localhost/db", "user", "password")
+
+  @AfterEach
+  fun tearDown() {
+    executor.shutdownNow()
+  }
+
+  @Test
+  fun `waiters are woken up when their key is notified on their channel`() {
+    val waiter = notifier.awaitNotification(WorkloadNotifier.STATUS_CHANNEL, WORKLOAD_ID, Duration.ofMinutes(1))
+    val otherWaiter = notifier.awaitNotification(WorkloadNotifier.STATUS_CHANNEL, "other", Duration.ofMinutes(1))
+    val otherChannelWaiter = notifier.awaitNotification(WorkloadNotifier.QUEUE_CHANNEL, WORKLOAD_ID, Duration.ofMinutes(1))
+
+    notifier.wake(WorkloadNotifier.STATUS_CHANNEL, WORKLOAD_ID)
+
+    waiter.get(5, TimeUnit.SECONDS)
+    assertFalse(otherWaiter.isDone)
+    assertFalse(otherChannelWaiter.isDone)
+  }
+
+  @Test
+  fun `waiters without a key are woken up by any notification on their channel`() {
+    val waiter = notifier.awaitNotification(WorkloadNotifier.QUEUE_CHANNEL, null, Duration.ofMinutes(1))
+
+    notifier.wake(WorkloadNotifier.QUEUE_CHANNEL, DATAPLANE_GROUP)
+
+    waiter.get(5, TimeUnit.SECONDS)
+  }
+
+  @Test
+  fun `waiters are released after the timeout`() {
+    val waiter = notifier.awaitNotification(WorkloadNotifier.STATUS_CHANNEL, WORKLOAD_ID, Duration.ofMillis(10))
+
+    waiter.get(5, TimeUnit.SECONDS)
+    assertTrue(waiter.isDone)
+  }
+
+  @Test
+  fun `publish notifies the key on the channel`() {
+    notifier.publish(WorkloadNotifier.QUEUE_CHANNEL, DATAPLANE_GROUP)
+
+    verify { connection.prepareStatement("SELECT pg_notify(?, ?)") }
+    verify { statement.setString(1, WorkloadNotifier.QUEUE_CHANNEL) }
+    verify { statement.setString(2, DATAPLANE_GROUP) }
+    verify { statement.execute() }
+  }
+
+  @Test
+  fun `publish failures are swallowed`() {
+    every { statement.execute() } throws RuntimeException("db down")
+
+    notifier.publish(WorkloadNotifier.STATUS_CHANNEL, WORKLOAD_ID)
+  }
+
+  companion object {
+    private const val WORKLOAD_ID = "workload-id"
+    private const val DATAPLANE_GROUP = "dataplane-group"
+  }
+}
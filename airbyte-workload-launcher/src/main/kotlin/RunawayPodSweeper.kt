@@ -134,7 +134,7 @@ open class RunawayPodSweeper(
     val currentEpochSeconds = clock.instant().epochSecond
 
     k8sWrapper
-      .listJobPods(namespace) { it.withLabel(DELETE_BY) }
+      .listJobPods(namespace)
       .items
       .forEach { pod ->
         val deleteBy = pod.metadata.labels[DELETE_BY]?.toLongOrNull()
@@ -7,10 +7,12 @@ package io.airbyte.workload.launcher.client
 import dev.failsafe.Failsafe
 import dev.failsafe.RetryPolicy
 import dev.failsafe.function.CheckedSupplier
+import io.airbyte.workload.launcher.pods.KubePodCache
 import io.airbyte.workload.launcher.pods.PodLabeler.LabelKeys.SWEEPER_LABEL_KEY
 import io.airbyte.workload.launcher.pods.PodLabeler.LabelKeys.SWEEPER_LABEL_VALUE
 import io.fabric8.kubernetes.api.model.Pod
 import io.fabric8.kubernetes.api.model.PodList
+import io.fabric8.kubernetes.api.model.PodListBuilder
 import io.fabric8.kubernetes.client.KubernetesClient
 import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable
 import io.fabric8.kubernetes.client.dsl.PodResource
@@ -29,14 +31,19 @@ typealias PodFluentFilter = FilterWatchListDeletable<Pod, PodList, PodResource>
 class KubernetesClientWrapper(
   val kubernetesClient: KubernetesClient,
   @Named("kubernetesClientRetryPolicy") private val kubernetesClientRetryPolicy: RetryPolicy<Any>,
+  private val podCache: KubePodCache,
 ) {
   /**
-   * List pods labeled 'airbyte=job-pod'
+   * List pods labeled 'airbyte=job-pod'. Served from the [KubePodCache] when there are no extra filters.
    */
   fun listJobPods(
     namespace: String,
     extraFilters: ((PodFluentFilter) -> PodFluentFilter)? = null,
   ): PodList {
+    if (extraFilters == null && namespace == podCache.namespace) {
+      podCache.listJobPods()?.let { return PodListBuilder().withItems(it).build() }
+    }
+
     val filterable =
       kubernetesClient
         .pods()
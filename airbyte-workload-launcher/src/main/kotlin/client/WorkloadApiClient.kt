@@ -12,6 +12,7 @@ import io.airbyte.workload.api.domain.Workload
 import io.airbyte.workload.api.domain.WorkloadClaimRequest
 import io.airbyte.workload.api.domain.WorkloadFailureRequest
 import io.airbyte.workload.api.domain.WorkloadLaunchedRequest
+import io.airbyte.workload.api.domain.WorkloadQueueLongPollRequest
 import io.airbyte.workload.api.domain.WorkloadQueuePollRequest
 import io.airbyte.workload.launcher.authn.DataplaneIdentityService
 import io.github.oshai.kotlinlogging.KotlinLogging
@@ -102,4 +103,18 @@ class WorkloadApiClient(
 
     return resp.workloads
   }
+
+  fun longPollQueue(
+    groupId: String?,
+    priority: WorkloadPriority?,
+    pollSizeItems: Int,
+    timeoutSeconds: Long,
+  ): List<Workload> {
+    val req =
+      WorkloadQueueLongPollRequest(quantity = pollSizeItems, dataplaneGroup = groupId, priority = priority, timeoutSeconds = timeoutSeconds)
+
+    val resp = workloadApiClient.longPollWorkloadQueue(req)
+
+    return resp.workloads
+  }
 }
@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workload.launcher.metrics
+
+import io.airbyte.config.WorkloadType
+import io.airbyte.metrics.BoundCounter
+import io.airbyte.metrics.MetricAttribute
+import io.airbyte.metrics.MetricClient
+import io.airbyte.metrics.MetricsRegistry
+import io.airbyte.metrics.lib.MetricTags
+
+/**
+ * Counters of a metric tagged with the workload type, resolved once for every workload type so that counting a workload
+ * doesn't resolve its counter again.
+ */
+class WorkloadTypeCounters(
+  metricClient: MetricClient,
+  metric: MetricsRegistry,
+) {
+  private val counters: Map<WorkloadType, BoundCounter> =
+    WorkloadType.entries.associateWith { metricClient.boundCounter(metric, MetricAttribute(MetricTags.WORKLOAD_TYPE_TAG, it.toString())) }
+
+  fun increment(workloadType: WorkloadType) {
+    counters.getValue(workloadType).increment()
+  }
+}
@@ -11,12 +11,14 @@ import io.airbyte.workload.launcher.pipeline.handlers.FailureHandler
 import io.airbyte.workload.launcher.pipeline.handlers.SuccessHandler
 import io.airbyte.workload.launcher.pipeline.stages.model.LaunchStage
 import io.airbyte.workload.launcher.pipeline.stages.model.LaunchStageIO
+import io.airbyte.workload.launcher.pipeline.stages.model.StageFunction
 import jakarta.inject.Named
 import jakarta.inject.Singleton
 import reactor.core.publisher.Flux
 import reactor.core.publisher.Mono
 import reactor.core.scheduler.Schedulers
 import reactor.kotlin.core.publisher.toMono
+import java.util.function.Function
 
 @Singleton
 class LaunchPipeline(
@@ -44,18 +46,26 @@ class LaunchPipeline(
   /*
    * Builds an executable pipeline instance from a single input.
    */
-  fun buildPipeline(input: LauncherInput): Mono<LaunchStageIO> {
+  fun buildPipeline(input: LauncherInput): Mono<LaunchStageIO> = buildPipeline(input, null)
+
+  /*
+   * Builds an executable pipeline instance from a single input, running each stage with the executor if any.
+   */
+  fun buildPipeline(
+    input: LauncherInput,
+    executor: StageExecutor?,
+  ): Mono<LaunchStageIO> {
     val io = ingressAdapter.apply(input)
 
     return io
       .toMono()
-      .flatMap(build)
-      .flatMap(claim)
-      .flatMap(loadShed)
-      .flatMap(check)
-      .flatMap(mutex)
-      .flatMap(architecture)
-      .flatMap(launch)
+      .flatMap(build.on(executor))
+      .flatMap(claim.on(executor))
+      .flatMap(loadShed.on(executor))
+      .flatMap(check.on(executor))
+      .flatMap(mutex.on(executor))
+      .flatMap(architecture.on(executor))
+      .flatMap(launch.on(executor))
       .onErrorResume { e -> failureHandler.accept(e, io) }
       .doOnNext(successHandler::accept)
   }
@@ -75,4 +85,7 @@ class LaunchPipeline(
       .flatMap(launch)
       .onErrorContinue(failureHandler::accept)
       .doOnNext(successHandler::accept)
+
+  private fun LaunchStage.on(executor: StageExecutor?): StageFunction<LaunchStageIO> =
+    executor?.let { Function<LaunchStageIO, Mono<LaunchStageIO>> { io -> it.run(this, io) } } ?: this
 }
@@ -4,13 +4,13 @@
 
 package io.airbyte.workload.launcher.pipeline
 
-import io.airbyte.metrics.MetricAttribute
 import io.airbyte.metrics.MetricClient
 import io.airbyte.metrics.OssMetricsRegistry
 import io.airbyte.metrics.lib.ApmTraceUtils
 import io.airbyte.metrics.lib.MetricTags
 import io.airbyte.workload.launcher.authn.DataplaneIdentityService
 import io.airbyte.workload.launcher.client.LogContextFactory
+import io.airbyte.workload.launcher.metrics.WorkloadTypeCounters
 import io.airbyte.workload.launcher.pipeline.consumer.LauncherInput
 import io.airbyte.workload.launcher.pipeline.stages.model.LaunchStageIO
 import jakarta.inject.Singleton
@@ -22,9 +22,11 @@ import kotlin.time.TimeSource
 @Singleton
 class PipelineIngressAdapter(
   private val identityService: DataplaneIdentityService,
-  private val metricClient: MetricClient,
+  metricClient: MetricClient,
   private val ctxFactory: LogContextFactory,
 ) {
+  private val receivedCounters = WorkloadTypeCounters(metricClient, OssMetricsRegistry.WORKLOAD_RECEIVED)
+
   fun apply(input: LauncherInput): LaunchStageIO {
     ingestMetrics(input)
     return inputToStageIO(input)
@@ -36,13 +38,7 @@ class PipelineIngressAdapter(
   }
 
   private fun ingestMetrics(input: LauncherInput): LauncherInput {
-    metricClient.count(
-      metric = OssMetricsRegistry.WORKLOAD_RECEIVED,
-      attributes =
-        arrayOf(
-          MetricAttribute(MetricTags.WORKLOAD_TYPE_TAG, input.workloadType.toString()),
-        ),
-    )
+    receivedCounters.increment(input.workloadType)
 
     val commonTags = hashMapOf<String, Any>()
     commonTags[MetricTags.DATA_PLANE_ID_TAG] = identityService.getDataplaneId()
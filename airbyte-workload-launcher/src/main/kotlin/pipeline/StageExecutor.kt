@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workload.launcher.pipeline
+
+import io.airbyte.metrics.MetricAttribute
+import io.airbyte.metrics.MetricClient
+import io.airbyte.metrics.OssMetricsRegistry
+import io.airbyte.metrics.lib.MetricTags
+import io.airbyte.workload.launcher.metrics.ReactorMetricsWrapper
+import io.airbyte.workload.launcher.pipeline.consumer.WorkloadApiQueueConsumer.Companion.QUEUE_CONSUMER_METRIC_PREFIX
+import io.airbyte.workload.launcher.pipeline.stages.StageName
+import io.airbyte.workload.launcher.pipeline.stages.model.Stage
+import io.airbyte.workload.launcher.pipeline.stages.model.StageIO
+import reactor.core.publisher.Mono
+import reactor.core.scheduler.Scheduler
+import reactor.core.scheduler.Schedulers
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.time.TimeSource
+import kotlin.time.toJavaDuration
+
+/**
+ * Runs each stage of the launch pipeline of a queue on its own bounded pool of threads.
+ *
+ * A workload blocked in a slow stage, e.g. waiting for its pods to start in the launch stage, only holds a thread of that stage,
+ * the other workloads of the queue keep on being claimed, checked and launched. The workloads waiting for a thread of a stage are
+ * reported as the queue depth of the stage, and the time they waited as its queue latency.
+ *
+ * @param queueTaskCap number of workloads that can be claimed on top of the parallelism of the largest stage, see [capacity].
+ */
+class StageExecutor(
+  private val queueName: String,
+  parallelism: Map<StageName, Int>,
+  queueTaskCap: Int,
+  metricClient: MetricClient,
+  reactorMetricsWrapper: ReactorMetricsWrapper,
+  vararg attributes: MetricAttribute,
+) {
+  private val lanes =
+    StageName.entries.associateWith { stageName ->
+      Lane(stageName, parallelism.getValue(stageName), metricClient, reactorMetricsWrapper, attributes)
+    }
+
+  /**
+   * The maximum number of workloads running or waiting in the stages, past which the queue should not be consumed further.
+   *
+   * The stages are pipelined, so the workloads pile up in the slow stage, typically the launch stage that waits for the pods
+   * to start and is given the most threads. The largest stage bounds how many workloads make progress at once. Claiming more
+   * than that, plus [queueTaskCap] waiting ones, would leave claimed workloads waiting in the lanes while their claims expire.
+   */
+  val capacity: Int = parallelism.values.max() + queueTaskCap
+
+  fun <T : StageIO> run(
+    stage: Stage<T>,
+    input: T,
+  ): Mono<T> = lanes.getValue(stage.getStageName()).run { stage.apply(input) }
+
+  fun dispose() {
+    lanes.values.forEach { it.scheduler.dispose() }
+  }
+
+  private inner class Lane(
+    stageName: StageName,
+    parallelism: Int,
+    metricClient: MetricClient,
+    reactorMetricsWrapper: ReactorMetricsWrapper,
+    attributes: Array<out MetricAttribute>,
+  ) {
+    private val stageAttributes = arrayOf(*attributes, MetricAttribute(MetricTags.STAGE_NAME_TAG, stageName.toString()))
+
+    val scheduler: Scheduler =
+      reactorMetricsWrapper.asTimedScheduler(
+        Schedulers.newBoundedElastic(
+          parallelism,
+          Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE,
+          "$queueName-${stageName.name.lowercase()}",
+        ),
+        QUEUE_CONSUMER_METRIC_PREFIX,
+        *stageAttributes,
+      )
+    private val depth = metricClient.gauge(OssMetricsRegistry.WORKLOAD_STAGE_QUEUE_DEPTH, AtomicInteger(), { it.toDouble() }, *stageAttributes)
+    private val latency = metricClient.timer(OssMetricsRegistry.WORKLOAD_STAGE_QUEUE_LATENCY, *stageAttributes)
+
+    fun <T> run(stage: () -> Mono<T>): Mono<T> =
+      Mono.defer {
+        val queuedAt = TimeSource.Monotonic.markNow()
+        val dequeued = AtomicBoolean(false)
+        depth.incrementAndGet()
+
+        Mono
+          .defer {
+            if (dequeued.compareAndSet(false, true)) {
+              depth.decrementAndGet()
+            }
+            latency?.record(queuedAt.elapsedNow().toJavaDuration())
+            stage()
+          }.subscribeOn(scheduler)
+          .doOnCancel {
+            if (dequeued.compareAndSet(false, true)) {
+              depth.decrementAndGet()
+            }
+          }
+      }
+  }
+
+  companion object {
+    /**
+     * Parses stage parallelism overrides formatted as `stage=parallelism` pairs separated by commas, e.g. `launch=40,mutex=20`.
+     * The stages without an override run with the default parallelism. Malformed overrides and unknown stages are rejected
+     * with an [IllegalArgumentException].
+     */
+    fun parseParallelism(
+      overrides: String?,
+      defaultParallelism: Int,
+    ): Map<StageName, Int> {
+      val parsed =
+        overrides
+          .orEmpty()
+          .split(",")
+          .map { it.trim() }
+          .filter { it.isNotEmpty() }
+          .associate { override ->
+            val parts = override.split("=").map { it.trim() }
+            require(parts.size == 2) { "Invalid stage parallelism override '$override', expected stage=parallelism." }
+            val (stage, parallelism) = parts
+            StageName.valueOf(stage.uppercase().replace('-', '_')) to parallelism.toInt()
+          }
+
+      return StageName.entries.associateWith { parsed[it] ?: defaultParallelism }
+    }
+  }
+}
@@ -5,28 +5,37 @@
 package io.airbyte.workload.launcher.pipeline.consumer
 
 import io.airbyte.metrics.MetricAttribute
+import io.airbyte.metrics.MetricClient
 import io.airbyte.metrics.lib.MetricTags
 import io.airbyte.workload.launcher.metrics.ReactorMetricsWrapper
 import io.airbyte.workload.launcher.pipeline.LaunchPipeline
+import io.airbyte.workload.launcher.pipeline.StageExecutor
 import io.github.oshai.kotlinlogging.KotlinLogging
 import io.micronaut.context.annotation.Value
+import jakarta.annotation.PreDestroy
 import jakarta.inject.Named
 import jakarta.inject.Singleton
-import reactor.core.scheduler.Schedulers
 
 private val logger = KotlinLogging.logger { }
 
 /**
  * Controls the initialization of pollers and pipelines for both high and default priority workloads.
+ *
+ * The stages of the pipeline of each queue run on their own threads, see [StageExecutor]. The parallelism of a stage defaults to
+ * the parallelism of the queue and can be overridden per stage, e.g. `launch=40,mutex=20`. Each queue claims at most
+ * [queueTaskCap] workloads more than the parallelism of its largest stage.
  */
 @Singleton
 class WorkloadApiQueueConsumer(
   private val reactorMetricsWrapper: ReactorMetricsWrapper,
+  private val metricClient: MetricClient,
   private val pipeline: LaunchPipeline,
   @Named("highPriorityQueuePoller") private val highPriorityQueuePoller: WorkloadApiQueuePoller,
   @Named("defaultPriorityQueuePoller") private val defaultPriorityQueuePoller: WorkloadApiQueuePoller,
   @Value("\${airbyte.workload-launcher.parallelism.default-queue}") private val defaultPriorityParallelism: Int,
   @Value("\${airbyte.workload-launcher.parallelism.high-priority-queue}") private val highPriorityParallelism: Int,
+  @Value("\${airbyte.workload-launcher.parallelism.stages.default-queue:}") private val defaultPriorityStageParallelism: String?,
+  @Value("\${airbyte.workload-launcher.parallelism.stages.high-priority-queue:}") private val highPriorityStageParallelism: String?,
   @Value("\${airbyte.workload-launcher.consumer.queue-task-cap}") private val queueTaskCap: Int,
 ) {
   companion object {
@@ -35,49 +44,56 @@ class WorkloadApiQueueConsumer(
     const val HIGH_PRIORITY_NAME = "high"
   }
 
+  private val stageExecutors = mutableListOf<StageExecutor>()
+
   fun initialize(dataplaneGroupId: String) {
     logger.info { "Initializing ApiQueueConsumer for $dataplaneGroupId" }
 
-    val defaultPriorityThreadPool =
-      reactorMetricsWrapper.asTimedScheduler(
-        scheduler = Schedulers.newBoundedElastic(defaultPriorityParallelism, queueTaskCap, DEFAULT_PRIORITY_NAME),
-        metricPrefix = QUEUE_CONSUMER_METRIC_PREFIX,
-        MetricAttribute(MetricTags.QUEUE_NAME_TAG, "$dataplaneGroupId-$DEFAULT_PRIORITY_NAME"),
-        MetricAttribute(MetricTags.DATA_PLANE_GROUP_TAG, dataplaneGroupId),
-        MetricAttribute(MetricTags.PRIORITY_TAG, DEFAULT_PRIORITY_NAME),
-      )
-    val highPriorityThreadPool =
-      reactorMetricsWrapper.asTimedScheduler(
-        scheduler = Schedulers.newBoundedElastic(highPriorityParallelism, queueTaskCap, HIGH_PRIORITY_NAME),
-        metricPrefix = QUEUE_CONSUMER_METRIC_PREFIX,
-        MetricAttribute(MetricTags.QUEUE_NAME_TAG, "$dataplaneGroupId-$HIGH_PRIORITY_NAME"),
-        MetricAttribute(MetricTags.DATA_PLANE_GROUP_TAG, dataplaneGroupId),
-        MetricAttribute(MetricTags.PRIORITY_TAG, HIGH_PRIORITY_NAME),
-      )
-
-    val defaultPriorityQueuePollerFlux =
-      defaultPriorityQueuePoller
-        .initialize(dataplaneGroupId)
-        .flux
-        .parallel(defaultPriorityParallelism)
-        .runOn(defaultPriorityThreadPool)
+    val defaultPriorityStageExecutor =
+      stageExecutor(dataplaneGroupId, DEFAULT_PRIORITY_NAME, defaultPriorityStageParallelism, defaultPriorityParallelism)
+    val highPriorityStageExecutor =
+      stageExecutor(dataplaneGroupId, HIGH_PRIORITY_NAME, highPriorityStageParallelism, highPriorityParallelism)
 
-    val highPriorityQueuePollerFlux =
-      highPriorityQueuePoller
-        .initialize(dataplaneGroupId)
-        .flux
-        .parallel(highPriorityParallelism)
-        .runOn(highPriorityThreadPool)
-
-    highPriorityQueuePollerFlux
-      .flatMap(pipeline::buildPipeline)
+    highPriorityQueuePoller
+      .initialize(dataplaneGroupId)
+      .flux
+      .flatMap({ pipeline.buildPipeline(it, highPriorityStageExecutor) }, highPriorityStageExecutor.capacity)
       .subscribe()
 
-    defaultPriorityQueuePollerFlux
-      .flatMap(pipeline::buildPipeline)
+    defaultPriorityQueuePoller
+      .initialize(dataplaneGroupId)
+      .flux
+      .flatMap({ pipeline.buildPipeline(it, defaultPriorityStageExecutor) }, defaultPriorityStageExecutor.capacity)
       .subscribe()
   }
 
+  private fun stageExecutor(
+    dataplaneGroupId: String,
+    priorityName: String,
+    stageParallelism: String?,
+    parallelism: Int,
+  ): StageExecutor {
+    val queueName = "$dataplaneGroupId-$priorityName"
+    val parallelismByStage = StageExecutor.parseParallelism(stageParallelism, parallelism)
+    logger.info { "Stage parallelism of $queueName: $parallelismByStage" }
+
+    return StageExecutor(
+      queueName,
+      parallelismByStage,
+      queueTaskCap,
+      metricClient,
+      reactorMetricsWrapper,
+      MetricAttribute(MetricTags.QUEUE_NAME_TAG, queueName),
+      MetricAttribute(MetricTags.DATA_PLANE_GROUP_TAG, dataplaneGroupId),
+      MetricAttribute(MetricTags.PRIORITY_TAG, priorityName),
+    ).also { stageExecutors.add(it) }
+  }
+
+  @PreDestroy
+  fun stop() {
+    stageExecutors.forEach { it.dispose() }
+  }
+
   fun suspendPolling() {
     highPriorityQueuePoller.suspendPolling()
     defaultPriorityQueuePoller.suspendPolling()
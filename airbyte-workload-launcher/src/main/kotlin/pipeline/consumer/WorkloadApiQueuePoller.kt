@@ -8,6 +8,8 @@ import io.airbyte.config.WorkloadPriority
 import io.airbyte.featureflag.DataplaneGroup
 import io.airbyte.featureflag.FeatureFlagClient
 import io.airbyte.featureflag.WorkloadPollerUsesJitter
+import io.airbyte.featureflag.WorkloadPollerUsesLongPoll
+import io.airbyte.metrics.BoundCounter
 import io.airbyte.metrics.MetricAttribute
 import io.airbyte.metrics.MetricClient
 import io.airbyte.metrics.OssMetricsRegistry
@@ -18,6 +20,7 @@ import io.airbyte.workload.launcher.model.toLauncherInput
 import io.github.oshai.kotlinlogging.KotlinLogging
 import reactor.core.publisher.Flux
 import reactor.core.publisher.Mono
+import reactor.core.scheduler.Schedulers
 import java.time.Duration
 import kotlin.concurrent.Volatile
 import kotlin.random.Random
@@ -31,6 +34,9 @@ private val logger = KotlinLogging.logger {}
  * Emits a Flux<LauncherInput> for consumption by the pipeline.
  *
  * Starts in a suspended state until #resumePolling is called.
+ *
+ * When long polling is enabled, the queue is also long polled in a loop so that workloads are picked up as soon as
+ * they are enqueued. The interval polling is skipped while the long poll works and takes over when it fails.
  */
 class WorkloadApiQueuePoller(
   private val workloadApiClient: WorkloadApiClient,
@@ -42,8 +48,12 @@ class WorkloadApiQueuePoller(
 ) {
   @Volatile
   private var suspended = true
+
+  @Volatile
+  private var longPolling = false
   private var initialized = false
   private lateinit var groupId: String
+  private lateinit var polledCounter: BoundCounter
   lateinit var flux: Flux<LauncherInput>
     private set
 
@@ -53,6 +63,12 @@ class WorkloadApiQueuePoller(
     logger.info { "Initalizing ApiQueuePoller with $groupId and $priority" }
 
     this.groupId = groupId
+    this.polledCounter =
+      metricClient.boundCounter(
+        OssMetricsRegistry.WORKLOAD_QUEUE_MESSAGES_POLLED,
+        MetricAttribute(MetricTags.DATA_PLANE_GROUP_TAG, groupId),
+        MetricAttribute(MetricTags.PRIORITY_TAG, priority.toString()),
+      )
     this.flux = buildInputFlux()
     initialized = true
 
@@ -85,25 +101,57 @@ class WorkloadApiQueuePoller(
     val pollFlux: Flux<Workload> =
       Flux.create { sink ->
         val results = workloadApiClient.pollQueue(groupId, priority, pollSizeItems)
-        metricClient.count(
-          OssMetricsRegistry.WORKLOAD_QUEUE_MESSAGES_POLLED,
-          results.size.toLong(),
-          MetricAttribute(MetricTags.DATA_PLANE_GROUP_TAG, groupId),
-          MetricAttribute(MetricTags.PRIORITY_TAG, priority.toString()),
-        )
+        countPolled(results)
         results.forEach(sink::next)
         sink.complete()
       }
 
-    return interval
-      .filter { !isSuspended() }
-      .flatMap { pollFlux }
+    val intervalFlux =
+      interval
+        .filter { !isSuspended() && !longPolling }
+        .flatMap { pollFlux }
+
+    val workloadFlux = if (useLongPoll()) Flux.merge(intervalFlux, buildLongPollFlux()) else intervalFlux
+
+    return workloadFlux
       .map(Workload::toLauncherInput)
       .onErrorContinue(this::handlePollError)
   }
 
+  private fun buildLongPollFlux(): Flux<Workload> =
+    Mono
+      .defer {
+        if (isSuspended()) {
+          Mono.delay(Duration.ofSeconds(pollIntervalSeconds)).thenReturn(emptyList<Workload>())
+        } else {
+          Mono
+            .fromCallable { longPoll() }
+            .subscribeOn(Schedulers.boundedElastic())
+            .onErrorResume { e ->
+              // Fall back on the interval polling and retry long polling after an interval.
+              longPolling = false
+              handlePollError(e, null)
+              Mono.delay(Duration.ofSeconds(pollIntervalSeconds)).thenReturn(emptyList<Workload>())
+            }
+        }
+      }.repeat()
+      .flatMapIterable { it }
+
+  private fun longPoll(): List<Workload> {
+    val results = workloadApiClient.longPollQueue(groupId, priority, pollSizeItems, LONG_POLL_TIMEOUT_SECONDS)
+    longPolling = true
+    countPolled(results)
+    return results
+  }
+
+  private fun countPolled(results: List<Workload>) {
+    polledCounter.increment(results.size.toLong())
+  }
+
   private fun useJitter(): Boolean = featureFlagClient.boolVariation(WorkloadPollerUsesJitter, DataplaneGroup(groupId))
 
+  private fun useLongPoll(): Boolean = featureFlagClient.boolVariation(WorkloadPollerUsesLongPoll, DataplaneGroup(groupId))
+
   private fun handlePollError(
     e: Throwable,
     _input: Any?,
@@ -112,4 +160,9 @@ class WorkloadApiQueuePoller(
     logger.warn { "Error encountered in poller: $e\n Ignoring..." }
     return Mono.empty()
   }
+
+  companion object {
+    // Well under the read timeout of the workload api client.
+    private const val LONG_POLL_TIMEOUT_SECONDS = 30L
+  }
 }
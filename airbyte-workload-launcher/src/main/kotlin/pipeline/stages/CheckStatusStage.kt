@@ -5,13 +5,13 @@
 package io.airbyte.workload.launcher.pipeline.stages
 
 import datadog.trace.api.Trace
-import io.airbyte.metrics.MetricAttribute
 import io.airbyte.metrics.MetricClient
 import io.airbyte.metrics.OssMetricsRegistry
 import io.airbyte.metrics.annotations.Instrument
 import io.airbyte.metrics.annotations.Tag
 import io.airbyte.metrics.lib.MetricTags
 import io.airbyte.workload.launcher.metrics.MeterFilterFactory
+import io.airbyte.workload.launcher.metrics.WorkloadTypeCounters
 import io.airbyte.workload.launcher.pipeline.stages.model.LaunchStage
 import io.airbyte.workload.launcher.pipeline.stages.model.LaunchStageIO
 import io.airbyte.workload.launcher.pods.KubePodClient
@@ -32,6 +32,8 @@ open class CheckStatusStage(
   private val podClient: KubePodClient,
   metricClient: MetricClient,
 ) : LaunchStage(metricClient) {
+  private val alreadyRunningCounters = WorkloadTypeCounters(metricClient, OssMetricsRegistry.WORKLOAD_ALREADY_RUNNING)
+
   @Trace(operationName = MeterFilterFactory.LAUNCH_PIPELINE_STAGE_OPERATION_NAME, resourceName = "CheckStatusStage")
   @Instrument(
     start = "WORKLOAD_STAGE_START",
@@ -47,13 +49,7 @@ open class CheckStatusStage(
       logger.info {
         "Found pods running for workload ${input.msg.workloadId}. Setting status to RUNNING and SKIP flag to true."
       }
-      metricClient.count(
-        metric = OssMetricsRegistry.WORKLOAD_ALREADY_RUNNING,
-        attributes =
-          arrayOf(
-            MetricAttribute(MetricTags.WORKLOAD_TYPE_TAG, input.msg.workloadType.toString()),
-          ),
-      )
+      alreadyRunningCounters.increment(input.msg.workloadType)
 
       return input.apply {
         skip = true
@@ -5,7 +5,6 @@
 package io.airbyte.workload.launcher.pipeline.stages
 
 import datadog.trace.api.Trace
-import io.airbyte.metrics.MetricAttribute
 import io.airbyte.metrics.MetricClient
 import io.airbyte.metrics.OssMetricsRegistry
 import io.airbyte.metrics.annotations.Instrument
@@ -13,6 +12,7 @@ import io.airbyte.metrics.annotations.Tag
 import io.airbyte.metrics.lib.MetricTags
 import io.airbyte.workload.launcher.client.WorkloadApiClient
 import io.airbyte.workload.launcher.metrics.MeterFilterFactory
+import io.airbyte.workload.launcher.metrics.WorkloadTypeCounters
 import io.airbyte.workload.launcher.pipeline.stages.model.LaunchStage
 import io.airbyte.workload.launcher.pipeline.stages.model.LaunchStageIO
 import io.github.oshai.kotlinlogging.KotlinLogging
@@ -33,6 +33,9 @@ open class ClaimStage(
   private val apiClient: WorkloadApiClient,
   metricClient: MetricClient,
 ) : LaunchStage(metricClient) {
+  private val claimedCounters = WorkloadTypeCounters(metricClient, OssMetricsRegistry.WORKLOAD_CLAIMED)
+  private val notClaimedCounters = WorkloadTypeCounters(metricClient, OssMetricsRegistry.WORKLOAD_NOT_CLAIMED)
+
   @Trace(operationName = MeterFilterFactory.LAUNCH_PIPELINE_STAGE_OPERATION_NAME, resourceName = "ClaimStage")
   @Instrument(
     start = "WORKLOAD_STAGE_START",
@@ -45,26 +48,14 @@ open class ClaimStage(
     val claimed = apiClient.claim(input.msg.workloadId)
 
     if (!claimed) {
-      metricClient.count(
-        metric = OssMetricsRegistry.WORKLOAD_NOT_CLAIMED,
-        attributes =
-          arrayOf(
-            MetricAttribute(MetricTags.WORKLOAD_TYPE_TAG, input.msg.workloadType.toString()),
-          ),
-      )
+      notClaimedCounters.increment(input.msg.workloadType)
       logger.info { "Workload not claimed. Setting SKIP flag to true." }
       return input.apply {
         skip = true
       }
     }
 
-    metricClient.count(
-      metric = OssMetricsRegistry.WORKLOAD_CLAIMED,
-      attributes =
-        arrayOf(
-          MetricAttribute(MetricTags.WORKLOAD_TYPE_TAG, input.msg.workloadType.toString()),
-        ),
-    )
+    claimedCounters.increment(input.msg.workloadType)
     return input
   }
 
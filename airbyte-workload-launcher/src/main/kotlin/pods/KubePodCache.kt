@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workload.launcher.pods
+
+import io.airbyte.workload.launcher.pods.PodLabeler.LabelKeys.SWEEPER_LABEL_KEY
+import io.airbyte.workload.launcher.pods.PodLabeler.LabelKeys.SWEEPER_LABEL_VALUE
+import io.fabric8.kubernetes.api.model.Pod
+import io.fabric8.kubernetes.client.KubernetesClient
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer
+import io.github.oshai.kotlinlogging.KotlinLogging
+import io.micronaut.context.annotation.Value
+import jakarta.annotation.PostConstruct
+import jakarta.annotation.PreDestroy
+import jakarta.inject.Singleton
+import java.util.function.Function
+
+private val logger = KotlinLogging.logger {}
+
+/**
+ * In memory view of the job pods (labeled airbyte=job-pod) of the namespace, kept up to date by a shared informer.
+ *
+ * The pods are indexed by auto id, workload id and mutex key, so that looking them up costs no call to the Kube api. The
+ * cache is only served once the informer has synced and while it is watching, callers fall back on the Kube api otherwise.
+ */
+@Singleton
+class KubePodCache(
+  kubernetesClient: KubernetesClient,
+  @Value("\${airbyte.worker.job.kube.namespace}") val namespace: String?,
+  @Value("\${airbyte.workload-launcher.pod-cache.enabled:true}") private val enabled: Boolean,
+) {
+  private val informer: SharedIndexInformer<Pod> =
+    kubernetesClient
+      .pods()
+      .inNamespace(namespace)
+      .withLabel(SWEEPER_LABEL_KEY, SWEEPER_LABEL_VALUE)
+      .runnableInformer(0)
+
+  init {
+    informer.addIndexers(
+      INDEXED_LABELS.associateWith { label -> Function<Pod, List<String>> { pod -> listOfNotNull(pod.metadata?.labels?.get(label)) } },
+    )
+  }
+
+  @PostConstruct
+  fun start() {
+    if (!enabled) {
+      return
+    }
+
+    informer.start().whenComplete { _, e ->
+      if (e != null) {
+        logger.warn(e) { "Failed to start the pod cache for namespace $namespace, pods will be listed from the Kube api." }
+      } else {
+        logger.info { "Pod cache for namespace $namespace synced with ${informer.store.list().size} job pods." }
+      }
+    }
+  }
+
+  @PreDestroy
+  fun stop() {
+    informer.stop()
+  }
+
+  fun isReady(): Boolean = enabled && informer.hasSynced() && informer.isWatching
+
+  /**
+   * Returns the job pods matching all the labels, or null if they can't be served from the cache because it isn't ready or
+   * none of the labels is indexed.
+   */
+  fun list(labels: Map<String, String>): List<Pod>? {
+    val indexedLabel = labels.entries.firstOrNull { it.key in INDEXED_LABELS } ?: return null
+    if (!isReady()) {
+      return null
+    }
+
+    return informer.indexer
+      .byIndex(indexedLabel.key, indexedLabel.value)
+      .filter { pod -> labels.all { (key, value) -> pod.metadata?.labels?.get(key) == value } }
+  }
+
+  /**
+   * Returns all the job pods, or null if the cache isn't ready.
+   */
+  fun listJobPods(): List<Pod>? = if (isReady()) informer.store.list() else null
+
+  companion object {
+    private val INDEXED_LABELS = setOf(AUTO_ID, WORKLOAD_ID, MUTEX_KEY)
+  }
+}
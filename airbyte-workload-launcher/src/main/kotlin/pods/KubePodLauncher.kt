@@ -47,6 +47,7 @@ class KubePodLauncher(
   private val metricClient: MetricClient,
   @Value("\${airbyte.worker.job.kube.namespace}") private val namespace: String?,
   @Named("kubernetesClientRetryPolicy") private val kubernetesClientRetryPolicy: RetryPolicy<Any>,
+  private val podCache: KubePodCache,
 ) {
   fun create(pod: Pod): Pod =
     runKubeCommand(
@@ -206,21 +207,19 @@ class KubePodLauncher(
 
   fun podsRunning(labels: Map<String, String>): Boolean {
     try {
-      return runKubeCommand(
-        {
-          kubernetesClient
-            .pods()
-            .inNamespace(namespace)
-            .withLabels(labels)
-            .list()
-            .items
-            .stream()
-            .filter { kubePod: Pod -> !isTerminal(kubePod) && !PodStatusUtil.isInitializing(kubePod) }
-            .findAny()
-            .isPresent
-        },
-        "list",
-      )
+      val pods =
+        podCache.list(labels) ?: runKubeCommand(
+          {
+            kubernetesClient
+              .pods()
+              .inNamespace(namespace)
+              .withLabels(labels)
+              .list()
+              .items
+          },
+          "list",
+        )
+      return pods.any { kubePod: Pod -> !isTerminal(kubePod) && !PodStatusUtil.isInitializing(kubePod) }
     } catch (e: Exception) {
       logger.warn(e) { "Could not find pods running for $labels, presuming no pods are running" }
       return false
@@ -230,10 +229,11 @@ class KubePodLauncher(
   fun deleteActivePods(labels: Map<String, String>): List<StatusDetails> {
     return runKubeCommand(
       {
+        val activePods =
+          podCache.list(labels)?.filter { it.status?.phase != KUBECTL_COMPLETED_VALUE }
+            ?: listActivePods(labels).list().items
         val statuses =
-          listActivePods(labels)
-            .list()
-            .items
+          activePods
             .flatMap { p ->
               kubernetesClient
                 .pods()
@@ -6,6 +6,7 @@ import dev.failsafe.RetryPolicy
 import io.airbyte.metrics.MetricClient
 import io.airbyte.workload.launcher.PodSweeper
 import io.airbyte.workload.launcher.client.KubernetesClientWrapper
+import io.airbyte.workload.launcher.pods.KubePodCache
 import io.fabric8.kubernetes.api.model.Pod
 import io.fabric8.kubernetes.api.model.PodBuilder
 import io.fabric8.kubernetes.client.KubernetesClient
@@ -310,7 +311,7 @@ class PodSweeperTest {
     unSucceededTtl: Long?,
   ): PodSweeper =
     PodSweeper(
-      KubernetesClientWrapper(client, mockRetryPolicy),
+      KubernetesClientWrapper(client, mockRetryPolicy, KubePodCache(client, "default", false)),
       mockMetricClient,
       Clock.systemUTC(),
       "default",
@@ -117,7 +117,7 @@ class RunawayPodSweeperTest {
     val podToDelete = mockPod(autoId = UUID.randomUUID().toString(), deletedBy = now.minus(1.seconds.toJavaDuration()).epochSecond.toString())
     val survivorPod = mockPod(autoId = UUID.randomUUID().toString(), deletedBy = now.plus(1.seconds.toJavaDuration()).epochSecond.toString())
     val podWithBadDeleteBy = mockPod(autoId = UUID.randomUUID().toString(), deletedBy = "not a number")
-    every { k8sWrapper.listJobPods(any(), any()) } returns mockk { every { items } returns listOf(podWithBadDeleteBy, podToDelete, survivorPod) }
+    every { k8sWrapper.listJobPods(any()) } returns mockk { every { items } returns listOf(podWithBadDeleteBy, podToDelete, survivorPod) }
     every { k8sWrapper.deletePod(podToDelete, any(), any()) } returns true
 
     runawayPodSweeper.sweep(UUID.randomUUID())
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package pipeline
+
+import fixtures.RecordFixtures.launcherInput
+import io.airbyte.metrics.MetricAttribute
+import io.airbyte.metrics.MetricClient
+import io.airbyte.metrics.OssMetricsRegistry
+import io.airbyte.workload.launcher.metrics.ReactorMetricsWrapper
+import io.airbyte.workload.launcher.pipeline.LaunchPipeline
+import io.airbyte.workload.launcher.pipeline.StageExecutor
+import io.airbyte.workload.launcher.pipeline.stages.StageName
+import io.airbyte.workload.launcher.pipeline.stages.model.LaunchStageIO
+import io.mockk.every
+import io.mockk.mockk
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import pipeline.LaunchPipelineTest.MockStage
+import reactor.core.publisher.Flux
+import reactor.test.StepVerifier
+import java.time.Duration
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class StageExecutorTest {
+  private val depths = mutableMapOf<String, AtomicInteger>()
+  private val metricClient: MetricClient =
+    mockk(relaxed = true) {
+      every { gauge(OssMetricsRegistry.WORKLOAD_STAGE_QUEUE_DEPTH, any<AtomicInteger>(), any(), *anyVararg()) } answers {
+        secondArg<AtomicInteger>().also { depths[arg<Array<MetricAttribute>>(3).last().value] = it }
+      }
+    }
+  private val executors = mutableListOf<StageExecutor>()
+
+  @AfterEach
+  fun tearDown() {
+    executors.forEach { it.dispose() }
+  }
+
+  @Test
+  fun `stage parallelism defaults to the queue parallelism`() {
+    assertEquals(StageName.entries.associateWith { 10 }, StageExecutor.parseParallelism(null, 10))
+    assertEquals(StageName.entries.associateWith { 10 }, StageExecutor.parseParallelism("", 10))
+  }
+
+  @Test
+  fun `stage parallelism can be overridden per stage`() {
+    val parallelism = StageExecutor.parseParallelism(" launch=40, check_status = 5,load-shed=2", 10)
+
+    assertEquals(40, parallelism[StageName.LAUNCH])
+    assertEquals(5, parallelism[StageName.CHECK_STATUS])
+    assertEquals(2, parallelism[StageName.LOAD_SHED])
+    assertEquals(10, parallelism[StageName.CLAIM])
+  }
+
+  @Test
+  fun `unknown stages are rejected`() {
+    assertThrows<IllegalArgumentException> { StageExecutor.parseParallelism("unknown=4", 10) }
+  }
+
+  @Test
+  fun `malformed overrides are rejected`() {
+    assertThrows<IllegalArgumentException> { StageExecutor.parseParallelism("launch", 10) }
+    assertThrows<IllegalArgumentException> { StageExecutor.parseParallelism("launch=4=2", 10) }
+    assertThrows<IllegalArgumentException> { StageExecutor.parseParallelism("launch=many", 10) }
+  }
+
+  @Test
+  fun `in flight workloads are bounded by the largest stage and the queue task cap`() {
+    assertEquals(43, stageExecutor(StageExecutor.parseParallelism("launch=40,mutex=2", 10), queueTaskCap = 3).capacity)
+    assertEquals(13, stageExecutor(StageExecutor.parseParallelism("launch=1", 10), queueTaskCap = 3).capacity)
+  }
+
+  @Test
+  fun `workloads waiting on a slow launch don't hold the other stages`() {
+    val releaseLaunches = CountDownLatch(1)
+    val checked = AtomicInteger()
+    val pipeline =
+      pipeline(
+        check = MockStage(StageName.CHECK_STATUS) { it.also { checked.incrementAndGet() } },
+        launch =
+          MockStage(StageName.LAUNCH) {
+            releaseLaunches.await(10, TimeUnit.SECONDS)
+            it
+          },
+      )
+    val executor = stageExecutor(StageExecutor.parseParallelism("launch=1", 2))
+    val workloads = (1..5).map { launcherInput("workload-$it") }
+
+    val processed =
+      Flux
+        .fromIterable(workloads)
+        .flatMap({ pipeline.buildPipeline(it, executor) }, executor.capacity)
+        .collectList()
+        .toFuture()
+
+    // Every workload is checked while the first one is stuck in the launch stage and the others wait for its single thread.
+    waitFor { checked.get() == workloads.size }
+    waitFor { depths.getValue(StageName.LAUNCH.toString()).get() == workloads.size - 1 }
+
+    releaseLaunches.countDown()
+
+    assertEquals(workloads.map { LaunchStageIO(msg = it) }.toSet(), processed.get(10, TimeUnit.SECONDS).toSet())
+    depths.values.forEach { assertEquals(0, it.get()) }
+  }
+
+  @Test
+  fun `the pipeline runs the same with or without an executor`() {
+    val pipeline = pipeline()
+    val executor = stageExecutor(StageExecutor.parseParallelism(null, 2))
+    val workload = launcherInput("workload-1")
+
+    StepVerifier
+      .create(pipeline.buildPipeline(workload, executor))
+      .expectNext(LaunchStageIO(msg = workload))
+      .expectComplete()
+      .verify(Duration.ofSeconds(10))
+  }
+
+  private fun pipeline(
+    check: MockStage = MockStage(StageName.CHECK_STATUS),
+    launch: MockStage = MockStage(StageName.LAUNCH),
+  ): LaunchPipeline =
+    LaunchPipeline(
+      build = MockStage(StageName.BUILD),
+      claim = MockStage(StageName.CLAIM),
+      loadShed = MockStage(StageName.LOAD_SHED),
+      check = check,
+      mutex = MockStage(StageName.MUTEX),
+      architecture = MockStage(StageName.ARCHITECTURE),
+      launch = launch,
+      successHandler = mockk(relaxed = true),
+      failureHandler = mockk(relaxed = true),
+      ingressAdapter = mockk { every { apply(any()) } answers { LaunchStageIO(msg = firstArg()) } },
+    )
+
+  private fun stageExecutor(
+    parallelism: Map<StageName, Int>,
+    queueTaskCap: Int = 5,
+  ): StageExecutor = StageExecutor("test-queue", parallelism, queueTaskCap, metricClient, ReactorMetricsWrapper(null)).also { executors.add(it) }
+
+  private fun waitFor(condition: () -> Boolean) {
+    val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10)
+    while (!condition()) {
+      assertTrue(System.nanoTime() < deadline, "Timed out waiting for the condition.")
+      Thread.sleep(10)
+    }
+  }
+}
@@ -7,6 +7,7 @@ package io.airbyte.workload.launcher.pipeline.consumer
 import io.airbyte.config.WorkloadPriority
 import io.airbyte.config.WorkloadType
 import io.airbyte.featureflag.FeatureFlagClient
+import io.airbyte.featureflag.WorkloadPollerUsesLongPoll
 import io.airbyte.metrics.MetricClient
 import io.airbyte.workload.api.domain.Workload
 import io.airbyte.workload.api.domain.WorkloadLabel
@@ -156,6 +157,43 @@ class WorkloadApiQueuePollerTest {
     verify(exactly = 3) { workloadApiClient.pollQueue(groupId, priority, pollSizeItems) }
   }
 
+  @Test
+  fun `long polling picks up workloads without waiting for the interval`() {
+    every { featureFlagClient.boolVariation(WorkloadPollerUsesLongPoll, any()) } returns true
+    every { workloadApiClient.longPollQueue(groupId, priority, pollSizeItems, any()) } returns listOf(workload1, workload2)
+
+    poller.initialize(groupId)
+    poller.resumePolling()
+
+    StepVerifier
+      .create(poller.flux.take(2))
+      .expectNext(workload1.toLauncherInput())
+      .expectNext(workload2.toLauncherInput())
+      .expectComplete()
+      .verify(Duration.ofSeconds(pollIntervalSeconds - 1))
+
+    verify(exactly = 0) { workloadApiClient.pollQueue(any(), any(), any()) }
+  }
+
+  @Test
+  fun `falls back on interval polling when long polling fails`() {
+    every { featureFlagClient.boolVariation(WorkloadPollerUsesLongPoll, any()) } returns true
+    every { workloadApiClient.longPollQueue(groupId, priority, pollSizeItems, any()) } throws RuntimeException("not found")
+    every { workloadApiClient.pollQueue(groupId, priority, pollSizeItems) } returns listOf(workload1)
+    val poller = WorkloadApiQueuePoller(workloadApiClient, metricClient, featureFlagClient, pollSizeItems, 1, priority)
+
+    poller.initialize(groupId)
+    poller.resumePolling()
+
+    StepVerifier
+      .create(poller.flux.take(1))
+      .expectNext(workload1.toLauncherInput())
+      .expectComplete()
+      .verify(Duration.ofSeconds(5))
+
+    verify(atLeast = 1) { workloadApiClient.longPollQueue(groupId, priority, pollSizeItems, any()) }
+  }
+
   object Fixtures {
     val groupId = "dataplane-group-1"
 
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2020-2025 Airbyte, Inc., all rights reserved.
+ */
+
+package io.airbyte.workload.launcher.pods
+
+import dev.failsafe.RetryPolicy
+import io.airbyte.workload.launcher.client.KubernetesClientWrapper
+import io.fabric8.kubernetes.api.model.Pod
+import io.fabric8.kubernetes.api.model.PodBuilder
+import io.fabric8.kubernetes.client.KubernetesClient
+import io.fabric8.kubernetes.client.server.mock.EnableKubernetesMockClient
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.ValueSource
+import java.util.UUID
+
+@EnableKubernetesMockClient(crud = true)
+class KubePodCacheTest {
+  private lateinit var server: KubernetesMockServer
+  private lateinit var client: KubernetesClient
+  private lateinit var podCache: KubePodCache
+
+  @BeforeEach
+  fun setup() {
+    podCache = KubePodCache(client, NAMESPACE, true)
+  }
+
+  @AfterEach
+  fun tearDown() {
+    podCache.stop()
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = [10, 100, 1000])
+  fun `looking up pods doesn't call the kube api whatever the number of workloads`(workloadCount: Int) {
+    val autoIds = (0 until workloadCount).map { UUID.randomUUID() }
+    autoIds.forEachIndexed { i, autoId -> createPod(jobPod("pod-$i", autoId, "mutex-${i % MUTEX_KEYS}")) }
+    startAndAwaitReady()
+    val k8sWrapper = KubernetesClientWrapper(client, RetryPolicy.ofDefaults(), podCache)
+    val requestCount = server.requestCount
+
+    autoIds.forEach { assertEquals(1, podCache.list(mapOf(AUTO_ID to it.toString()))?.size) }
+    (0 until MUTEX_KEYS).forEach { assertEquals(workloadCount / MUTEX_KEYS, podCache.list(mapOf(MUTEX_KEY to "mutex-$it"))?.size) }
+    assertEquals(workloadCount, k8sWrapper.listJobPods(NAMESPACE).items.size)
+
+    assertEquals(requestCount, server.requestCount)
+  }
+
+  @Test
+  fun `pods created after the sync are picked up`() {
+    startAndAwaitReady()
+    val autoId = UUID.randomUUID()
+
+    createPod(jobPod("late-pod", autoId, "mutex"))
+
+    awaitUntil { podCache.list(mapOf(AUTO_ID to autoId.toString()))?.size == 1 }
+  }
+
+  @Test
+  fun `lookups filter on all the labels`() {
+    val autoId = UUID.randomUUID()
+    createPod(jobPod("pod", autoId, "mutex"))
+    startAndAwaitReady()
+
+    assertEquals(1, podCache.list(mapOf(AUTO_ID to autoId.toString(), MUTEX_KEY to "mutex"))?.size)
+    assertEquals(0, podCache.list(mapOf(AUTO_ID to autoId.toString(), MUTEX_KEY to "other"))?.size)
+  }
+
+  @Test
+  fun `only job pods are cached`() {
+    createPod(PodBuilder().withNewMetadata().withName("not-a-job-pod").addToLabels(MUTEX_KEY, "mutex").endMetadata().build())
+    startAndAwaitReady()
+
+    assertEquals(0, podCache.list(mapOf(MUTEX_KEY to "mutex"))?.size)
+    assertEquals(0, podCache.listJobPods()?.size)
+  }
+
+  @Test
+  fun `the cache is not served before it is ready or without an indexed label`() {
+    assertNull(podCache.list(mapOf(MUTEX_KEY to "mutex")))
+    assertNull(podCache.listJobPods())
+
+    startAndAwaitReady()
+
+    assertNull(podCache.list(mapOf("unindexed" to "value")))
+  }
+
+  @Test
+  fun `a disabled cache is never served`() {
+    val disabledCache = KubePodCache(client, NAMESPACE, false)
+    disabledCache.start()
+
+    assertNull(disabledCache.listJobPods())
+  }
+
+  private fun createPod(pod: Pod) {
+    client
+      .pods()
+      .inNamespace(NAMESPACE)
+      .resource(pod)
+      .create()
+  }
+
+  private fun startAndAwaitReady() {
+    podCache.start()
+    awaitUntil { podCache.isReady() }
+  }
+
+  private fun awaitUntil(condition: () -> Boolean) {
+    val deadline = System.currentTimeMillis() + TIMEOUT_MILLIS
+    while (!condition()) {
+      assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for the pod cache")
+      Thread.sleep(10)
+    }
+  }
+
+  private fun jobPod(
+    name: String,
+    autoId: UUID,
+    mutexKey: String,
+  ): Pod =
+    PodBuilder()
+      .withNewMetadata()
+      .withName(name)
+      .addToLabels(PodLabeler.LabelKeys.SWEEPER_LABEL_KEY, PodLabeler.LabelKeys.SWEEPER_LABEL_VALUE)
+      .addToLabels(AUTO_ID, autoId.toString())
+      .addToLabels(MUTEX_KEY, mutexKey)
+      .endMetadata()
+      .build()
+
+  companion object {
+    private const val NAMESPACE = "default"
+    private const val MUTEX_KEYS = 10
+    private const val TIMEOUT_MILLIS = 10_000L
+  }
+}
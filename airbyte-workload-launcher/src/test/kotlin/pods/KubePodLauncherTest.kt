@@ -49,6 +49,9 @@ class KubePodLauncherTest {
   @MockK
   private lateinit var metricClient: MetricClient
 
+  @MockK
+  private lateinit var podCache: KubePodCache
+
   private lateinit var kubePodLauncher: KubePodLauncher
 
   private lateinit var kubernetesClientRetryPolicy: RetryPolicy<Any>
@@ -62,11 +65,13 @@ class KubePodLauncherTest {
         metricClient,
         "namespace",
         kubernetesClientRetryPolicy,
+        podCache,
       )
 
     every { kubernetesClient.pods() } throws IllegalStateException()
     every { kubernetesClient.resource(any<Pod>()) } throws IllegalStateException()
     every { metricClient.count(metric = any(), value = any(), attributes = anyVararg()) } returns mockk<Counter>()
+    every { podCache.list(any()) } returns null
   }
 
   @Test
@@ -153,6 +158,7 @@ class KubePodLauncherTest {
         metricClient,
         "namespace",
         kubernetesClientRetryPolicy,
+        podCache,
       )
 
     assertThrows<KubernetesClientException> {
@@ -191,6 +197,7 @@ class KubePodLauncherTest {
         metricClient,
         "namespace",
         kubernetesClientRetryPolicy,
+        podCache,
       )
 
     assertThrows<KubernetesClientException> {
@@ -232,6 +239,7 @@ class KubePodLauncherTest {
         metricClient,
         "namespace",
         kubernetesClientRetryPolicy,
+        podCache,
       )
 
     assertThrows<KubernetesClientException> {
@@ -271,6 +279,7 @@ class KubePodLauncherTest {
         metricClient,
         "namespace",
         kubernetesClientRetryPolicy,
+        podCache,
       )
 
     assertThrows<KubernetesClientException> {
@@ -312,6 +321,7 @@ class KubePodLauncherTest {
         metricClient,
         "namespace",
         kubernetesClientRetryPolicy,
+        podCache,
       )
 
     assertThrows<RuntimeException> {